@@ -0,0 +1,38 @@
+const BASE32 = '0123456789bcdefghjkmnpqrstuvwxyz';
+
+// Same encoding as the server's Geohash utility; driver broadcast topics are named by cell
+export function encodeGeohash(latitude: number, longitude: number, precision: number): string {
+  let minLat = -90, maxLat = 90, minLon = -180, maxLon = 180;
+  let hash = '';
+  let lonBit = true;
+  let bits = 0;
+  let ch = 0;
+  while (hash.length < precision) {
+    if (lonBit) {
+      const mid = (minLon + maxLon) / 2;
+      if (longitude >= mid) {
+        ch = (ch << 1) | 1;
+        minLon = mid;
+      } else {
+        ch = ch << 1;
+        maxLon = mid;
+      }
+    } else {
+      const mid = (minLat + maxLat) / 2;
+      if (latitude >= mid) {
+        ch = (ch << 1) | 1;
+        minLat = mid;
+      } else {
+        ch = ch << 1;
+        maxLat = mid;
+      }
+    }
+    lonBit = !lonBit;
+    if (++bits === 5) {
+      hash += BASE32[ch];
+      bits = 0;
+      ch = 0;
+    }
+  }
+  return hash;
+}
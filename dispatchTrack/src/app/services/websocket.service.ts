@@ -1,5 +1,6 @@
 import { Injectable } from '@angular/core';
-import { BehaviorSubject, Observable } from 'rxjs';
+import { BehaviorSubject, Observable, Subject } from 'rxjs';
+import { encodeGeohash } from './geohash';
 
 export interface NotificationMessage {
   id: string;
@@ -10,6 +11,15 @@ export interface NotificationMessage {
   read: boolean;
 }
 
+// Live position of a request; sent at most once per second per request on /user/queue/tracking
+export interface TrackingUpdate {
+  requestId: string;
+  status?: string;
+  latitude?: number;
+  longitude?: number;
+  at: number;
+}
+
 @Injectable({
   providedIn: 'root'
 })
@@ -20,10 +30,21 @@ export class WebSocketService {
   private maxReconnectAttempts = 5;
   private reconnectInterval = 3000; // 3 seconds
 
+  // New requests are broadcast to the geohash cells around the pickup; we listen on the cell we're in
+  private static readonly DRIVER_CELL_PRECISION = 5;
+  private positionCell: string | null = null;
+  private driverCell: string | null = null;
+  private driverCellSubscription: any = null;
+  private positionWatchId: number | null = null;
+
   // Notification subjects
   private notificationsSubject = new BehaviorSubject<NotificationMessage[]>([]);
   public notifications$ = this.notificationsSubject.asObservable();
 
+  // Tracking updates are a stream of positions, not notifications, so they stay out of the list
+  private trackingSubject = new Subject<TrackingUpdate>();
+  public tracking$ = this.trackingSubject.asObservable();
+
   // Connection status
   private connectionStatusSubject = new BehaviorSubject<'connected' | 'disconnected' | 'connecting'>('disconnected');
   public connectionStatus$ = this.connectionStatusSubject.asObservable();
@@ -89,8 +110,10 @@ export class WebSocketService {
     // Disable STOMP debug logging
     this.stompClient.debug = null;
 
-    // Connect to STOMP broker
-    this.stompClient.connect({}, 
+    // Connect to STOMP broker; the token makes this session the user's, so user queues and presence work
+    const token = localStorage.getItem('authToken');
+    const connectHeaders = token ? { Authorization: `Bearer ${token}` } : {};
+    this.stompClient.connect(connectHeaders, 
       (frame: any) => {
         console.log('STOMP connected successfully:', frame);
         this.connectionStatusSubject.next('connected');
@@ -120,17 +143,18 @@ export class WebSocketService {
     console.log('Subscribing to notifications for user:', userId);
     
     // Subscribe to user-specific queues
+    // User queues resolve against the session's authenticated user
     const subscriptions = [
-      `/user/${userId}/queue/notifications`,
-      `/user/${userId}/queue/driver`,
-      `/user/${userId}/queue/updates`,
-      `/user/${userId}/queue/tracking`,
-      `/user/${userId}/queue/payments`
+      '/user/queue/notifications',
+      '/user/queue/driver',
+      '/user/queue/updates',
+      '/user/queue/payments'
     ];
 
     subscriptions.forEach(destination => {
       this.stompClient.subscribe(destination, (message: any) => {
         console.log('Received message from', destination, ':', message.body);
+        this.acknowledge(message);
         try {
           const data = JSON.parse(message.body);
           this.handleIncomingMessage(data);
@@ -142,20 +166,75 @@ export class WebSocketService {
       });
     });
 
-    // Subscribe to general driver notifications
-    this.stompClient.subscribe('/topic/driver-notifications', (message: any) => {
-      console.log('Received driver notification:', message.body);
+    this.stompClient.subscribe('/user/queue/tracking', (message: any) => {
       try {
-        const data = JSON.parse(message.body);
-        this.handleIncomingMessage(data);
+        this.trackingSubject.next(JSON.parse(message.body));
       } catch (error) {
-        this.handleIncomingMessage({ message: message.body });
+        console.error('Error parsing tracking update:', error);
       }
     });
 
+    // Subscribe to general driver notifications (requests whose pickup isn't located yet, admin broadcasts)
+    this.stompClient.subscribe('/topic/driver-notifications', (message: any) => this.handleDriverBroadcast(message));
+    this.watchDriverCell();
+
     console.log('All subscriptions created successfully');
   }
 
+  private handleDriverBroadcast(message: any): void {
+    console.log('Received driver notification:', message.body);
+    try {
+      const data = JSON.parse(message.body);
+      this.handleIncomingMessage(data);
+    } catch (error) {
+      this.handleIncomingMessage({ message: message.body });
+    }
+  }
+
+  // Follows our position and moves the area subscription when we cross into another cell
+  private watchDriverCell(): void {
+    // A new connection starts without the old subscription
+    this.driverCell = null;
+    this.driverCellSubscription = null;
+    if (this.positionWatchId !== null) {
+      this.subscribeToDriverCell();
+      return;
+    }
+    if (!('geolocation' in navigator)) {
+      return;
+    }
+    this.positionWatchId = navigator.geolocation.watchPosition(
+      (position) => {
+        this.positionCell = encodeGeohash(position.coords.latitude, position.coords.longitude,
+          WebSocketService.DRIVER_CELL_PRECISION);
+        this.subscribeToDriverCell();
+      },
+      (error) => console.warn('Location unavailable, nearby request broadcasts disabled:', error.message),
+      { enableHighAccuracy: false, maximumAge: 60000 }
+    );
+  }
+
+  private subscribeToDriverCell(): void {
+    const cell = this.positionCell;
+    if (!cell || cell === this.driverCell || !this.stompClient || !this.stompClient.connected) {
+      return;
+    }
+    if (this.driverCellSubscription) {
+      this.driverCellSubscription.unsubscribe();
+    }
+    this.driverCell = cell;
+    this.driverCellSubscription = this.stompClient.subscribe(`/topic/drivers/${cell}`,
+      (message: any) => this.handleDriverBroadcast(message));
+  }
+
+  // Tells the server the message was shown, so it doesn't also send it by email
+  private acknowledge(message: any): void {
+    const notificationId = message.headers && message.headers['notification-id'];
+    if (notificationId && this.stompClient && this.stompClient.connected) {
+      this.stompClient.send('/app/notifications/ack', {}, notificationId);
+    }
+  }
+
   private handleIncomingMessage(data: any): void {
     console.log('Processing WebSocket message:', data);
     
@@ -235,6 +314,13 @@ export class WebSocketService {
   }
 
   disconnect(): void {
+    if (this.positionWatchId !== null) {
+      navigator.geolocation.clearWatch(this.positionWatchId);
+      this.positionWatchId = null;
+    }
+    this.driverCellSubscription = null;
+    this.driverCell = null;
+    this.positionCell = null;
     if (this.stompClient) {
       this.stompClient.disconnect();
       this.stompClient = null;
@@ -0,0 +1,99 @@
+package com.gdc.notification_service.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Render time and allocation for the driver request email (about 10 KB of HTML). Run with
+ * {@code gradle jmh -Pinclude=EmailTemplateBenchmark}; the gc profiler's
+ * {@code gc.alloc.rate.norm} is bytes allocated per email.
+ * <p>
+ * {@code inlineBuilder} is what the service did before templates: append the same text
+ * pieces and unescaped values to a fresh {@link StringBuilder} on every send, after which
+ * JavaMail encodes the String to UTF-8 for the wire.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private static final String SUPPORT_EMAIL = "support@goodstransportsystem.com";
+    private static final String SUPPORT_PHONE = "+1-800-TRANSPORT";
+
+    private EmailTemplateEngine engine;
+    private String[] pieces;
+    private String[] pieceValues;
+
+    private final String name = "Ravi";
+    private final String requestId = "6f1c2a9e-3b7d-4e52-9a10-8c4d2f7e1b33";
+    private final String from = "Gachibowli, Hyderabad, Telangana";
+    private final String to = "Whitefield, Bengaluru, Karnataka";
+    private final String goods = "Furniture & appliances <fragile>";
+    private final String fare = "4250.00";
+    private final String acceptUrl = "https://api.goodstransportsystem.com/requests/accept?token=abc123&driver=42";
+    private final String rejectUrl = "https://api.goodstransportsystem.com/requests/reject?token=abc123&driver=42";
+
+    @Setup
+    public void setUp() throws IOException {
+        engine = new EmailTemplateEngine(SUPPORT_EMAIL, SUPPORT_PHONE, "classpath*:templates/email/*.html", 1000, 600);
+        String source;
+        try (InputStream in = getClass().getResourceAsStream("/templates/email/driver-request.html")) {
+            source = StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+        }
+        Map<String, String> values = Map.of("name", name, "requestId", requestId, "from", from, "to", to,
+                "goods", goods, "fare", fare, "acceptUrl", acceptUrl, "rejectUrl", rejectUrl,
+                "supportEmail", SUPPORT_EMAIL, "supportPhone", SUPPORT_PHONE);
+        List<String> text = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        int pos = source.indexOf('\n') + 1;
+        int open;
+        while ((open = source.indexOf("{{", pos)) >= 0) {
+            int close = source.indexOf("}}", open);
+            text.add(source.substring(pos, open));
+            slots.add(values.get(source.substring(open + 2, close)));
+            pos = close + 2;
+        }
+        text.add(source.substring(pos));
+        pieces = text.toArray(String[]::new);
+        pieceValues = slots.toArray(String[]::new);
+    }
+
+    @Benchmark
+    public byte[] precompiled() {
+        return engine.render("driver-request", name, requestId, from, to, goods, fare, acceptUrl, rejectUrl);
+    }
+
+    @Benchmark
+    public byte[] cached() {
+        return engine.renderCached("driver-request", name, requestId, from, to, goods, fare, acceptUrl, rejectUrl);
+    }
+
+    @Benchmark
+    public byte[] inlineBuilder() {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < pieceValues.length; i++) {
+            body.append(pieces[i]).append(pieceValues[i]);
+        }
+        return body.append(pieces[pieceValues.length]).toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,19 @@
+package com.gdc.notification_service.client;
+
+import com.gdc.notification_service.dto.response.StandardResponse;
+import com.gdc.notification_service.feign.dto.UserResponseDTO;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.util.UUID;
+
+@FeignClient(
+        name = "user-service",
+        configuration = com.gdc.notification_service.config.InternalFeignConfig.class
+)
+public interface UserServiceClient {
+
+    @GetMapping("/api/users/{userId}")
+    StandardResponse<UserResponseDTO> getUserDetails(@PathVariable("userId") UUID userId);
+}
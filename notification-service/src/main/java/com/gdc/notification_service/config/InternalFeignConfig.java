@@ -0,0 +1,22 @@
+package com.gdc.notification_service.config;
+
+import feign.RequestInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Calls from here are made off Kafka consumer threads with no user request to
+ * forward, so only the internal key is sent.
+ */
+@Configuration
+public class InternalFeignConfig {
+
+    @Value("${internal.api.key}")
+    private String internalApiKey;
+
+    @Bean
+    public RequestInterceptor internalFeignInterceptor() {
+        return requestTemplate -> requestTemplate.header("X-Internal-Key", internalApiKey);
+    }
+}
@@ -0,0 +1,112 @@
+package com.gdc.notification_service.config;
+
+import com.gdc.notification_service.kafka.NotificationEvent;
+import com.gdc.notification_service.kafka.NotificationEventSerde;
+import com.gdc.notification_service.service.EventDeduplicator;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.util.backoff.ExponentialBackOff;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Consumers for {@link NotificationEvent#TOPIC}. Every instance joins the same group,
+ * and each runs {@code concurrency} consumer threads, so partitions are spread over all
+ * threads of all instances and handled in parallel, each in order. Records are keyed by
+ * user, so one user's notifications are always handled by a single thread.
+ * <p>
+ * The listener acknowledges each record once its email is done, from whichever thread
+ * finished it, so acks arrive out of order; with async acks the container commits each
+ * partition up to the first record still outstanding.
+ */
+@Configuration
+@Slf4j
+public class KafkaConsumerConfig {
+
+    private static final Logger deadLetters = LoggerFactory.getLogger("notification.dead-letter");
+
+    @Value("${kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    @Value("${notification.consumer.group-id:notification-service}")
+    private String groupId;
+
+    @Value("${notification.consumer.concurrency:6}")
+    private int concurrency;
+
+    @Value("${notification.consumer.max-poll-records:200}")
+    private int maxPollRecords;
+
+    @Value("${notification.consumer.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${notification.dedup.pending-ttl-ms:300000}")
+    private long pendingTtlMs;
+
+    @Value("${notification.consumer.in-flight-retry-ms:10000}")
+    private long inFlightRetryMs;
+
+    @Bean
+    public ConsumerFactory<String, NotificationEvent> notificationConsumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(consumerProps(bootstrapServers, groupId, maxPollRecords),
+                new StringDeserializer(), new ErrorHandlingDeserializer<>(new NotificationEventSerde()));
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> notificationListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(notificationConsumerFactory());
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+
+        // Retry in place with backoff (keeps the partition in order), then log the record and move on;
+        // records that don't deserialize are never retried
+        ExponentialBackOff backOff = new ExponentialBackOff(1000, 2.0);
+        backOff.setMaxAttempts(maxAttempts - 1);
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler((record, e) ->
+                deadLetters.error("topic={} partition={} offset={} key={} reason={}", record.topic(), record.partition(),
+                        record.offset(), record.key(), e.getMessage()), backOff);
+        // A copy another consumer is still emailing waits until that claim is done or has expired
+        FixedBackOff inFlightBackOff = new FixedBackOff(inFlightRetryMs, pendingTtlMs / inFlightRetryMs + 1);
+        errorHandler.setBackOffFunction((record, e) -> isInFlight(e) ? inFlightBackOff : null);
+        factory.setCommonErrorHandler(errorHandler);
+        return factory;
+    }
+
+    private static boolean isInFlight(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof EventDeduplicator.InFlightException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static Map<String, Object> consumerProps(String bootstrapServers, String groupId, int maxPollRecords) {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        // Spread partitions evenly and move only the ones that must move when instances come and go
+        configProps.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG,
+                "org.apache.kafka.clients.consumer.CooperativeStickyAssignor");
+        return configProps;
+    }
+}
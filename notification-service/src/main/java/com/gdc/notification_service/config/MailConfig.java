@@ -0,0 +1,46 @@
+package com.gdc.notification_service.config;
+
+import com.gdc.notification_service.utils.PooledJavaMailSender;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.Properties;
+
+/**
+ * Replaces Boot's per-send {@link JavaMailSenderImpl} with a pooled one; connection
+ * settings still come from {@code spring.mail.*}.
+ */
+@Configuration
+@EnableConfigurationProperties(MailProperties.class)
+public class MailConfig {
+
+    @Bean
+    public JavaMailSenderImpl javaMailSender(MailProperties properties,
+                                             @Value("${mail.pool.size:4}") int poolSize,
+                                             @Value("${mail.pool.min-idle:1}") int minIdle,
+                                             @Value("${mail.pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+                                             @Value("${mail.pool.max-messages-per-second:5}") double maxMessagesPerSecond,
+                                             @Value("${mail.pool.max-idle-ms:240000}") long maxIdleMs,
+                                             @Value("${mail.pool.health-check-interval-ms:30000}") long healthCheckIntervalMs) {
+        PooledJavaMailSender sender = new PooledJavaMailSender(poolSize, minIdle, maxMessagesPerConnection,
+                maxMessagesPerSecond, maxIdleMs, healthCheckIntervalMs);
+        sender.setHost(properties.getHost());
+        if (properties.getPort() != null) {
+            sender.setPort(properties.getPort());
+        }
+        sender.setUsername(properties.getUsername());
+        sender.setPassword(properties.getPassword());
+        sender.setProtocol(properties.getProtocol());
+        if (properties.getDefaultEncoding() != null) {
+            sender.setDefaultEncoding(properties.getDefaultEncoding().name());
+        }
+        Properties javaMailProperties = new Properties();
+        javaMailProperties.putAll(properties.getProperties());
+        sender.setJavaMailProperties(javaMailProperties);
+        return sender;
+    }
+}
@@ -0,0 +1,49 @@
+package com.gdc.notification_service.config;
+
+import com.gdc.notification_service.service.UserProfileCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+@Configuration
+@Slf4j
+public class RedisConfig {
+
+    @Bean
+    public LettuceConnectionFactory redisConnectionFactory() {
+        return new LettuceConnectionFactory();
+    }
+
+    @Bean
+    public RedisTemplate<String, String> redisStringTemplate(LettuceConnectionFactory connectionFactory) {
+        RedisTemplate<String, String> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(new StringRedisSerializer());
+        return template;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(LettuceConnectionFactory connectionFactory,
+                                                                       UserProfileCache userProfileCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            String userId = new String(message.getBody(), StandardCharsets.UTF_8);
+            try {
+                userProfileCache.evictLocal(UUID.fromString(userId));
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring malformed profile invalidation: {}", userId);
+            }
+        }, new ChannelTopic(UserProfileCache.INVALIDATION_CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,35 @@
+package com.gdc.notification_service.controller;
+
+import com.gdc.notification_service.service.NotificationDispatcher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/notifications")
+@RequiredArgsConstructor
+public class NotificationController {
+
+    private final NotificationDispatcher notificationDispatcher;
+
+    // Direct email for services without Kafka (request-service's NotificationServiceClient); queued, not sent inline
+    @PostMapping("/send")
+    public ResponseEntity<Void> send(@RequestBody Map<String, Object> payload) {
+        Object userId = payload.get("userId");
+        Object subject = payload.get("subject");
+        Object message = payload.get("message");
+        if (userId == null || message == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            notificationDispatcher.email(UUID.fromString(userId.toString()),
+                    subject != null ? subject.toString() : "Notification", message.toString());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.accepted().build();
+    }
+}
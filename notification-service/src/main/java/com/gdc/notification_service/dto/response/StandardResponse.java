@@ -0,0 +1,20 @@
+package com.gdc.notification_service.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** The envelope user-service wraps its responses in; only the fields read here. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StandardResponse<T> {
+
+    private int status;
+
+    private String message;
+
+    private T data;
+}
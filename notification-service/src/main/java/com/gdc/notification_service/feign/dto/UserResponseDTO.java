@@ -0,0 +1,13 @@
+package com.gdc.notification_service.feign.dto;
+
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+public class UserResponseDTO {
+    private UUID id;
+    private String displayName;
+    private String email;
+    private String phoneNumber;
+}
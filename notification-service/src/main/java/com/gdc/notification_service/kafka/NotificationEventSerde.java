@@ -0,0 +1,9 @@
+package com.gdc.notification_service.kafka;
+
+/** {@link SmileSerde} for {@link NotificationEvent}. */
+public class NotificationEventSerde extends SmileSerde<NotificationEvent> {
+
+    public NotificationEventSerde() {
+        super(NotificationEvent.class);
+    }
+}
@@ -0,0 +1,84 @@
+package com.gdc.notification_service.listener;
+
+import com.gdc.notification_service.kafka.NotificationEvent;
+import com.gdc.notification_service.service.EmailService;
+import com.gdc.notification_service.service.EventDeduplicator;
+import com.gdc.notification_service.service.NotificationDispatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Hands each notification event to the {@link NotificationDispatcher}, once. A failure
+ * releases the event's claim and rethrows, so the container's retry gets another go.
+ * <p>
+ * Offsets are acknowledged manually, and only once the dispatcher reports the email
+ * sent, suppressed, skipped or dead-lettered; the event's dedup claim is marked done at
+ * the same point. Until then the claim is pending, so an event whose email was still
+ * queued, buffered or waiting on a retry when its node died is redelivered and handled
+ * again rather than lost.
+ */
+@Component
+@Slf4j
+public class NotificationEventListener {
+
+    private final EventDeduplicator deduplicator;
+    private final NotificationDispatcher notificationDispatcher;
+    private final EmailService emailService;
+    private final Timer lag;
+
+    public NotificationEventListener(EventDeduplicator deduplicator,
+                                     NotificationDispatcher notificationDispatcher,
+                                     EmailService emailService,
+                                     MeterRegistry meterRegistry) {
+        this.deduplicator = deduplicator;
+        this.notificationDispatcher = notificationDispatcher;
+        this.emailService = emailService;
+        this.lag = Timer.builder("notification.events.lag")
+                .description("Time from a notification being recorded to it being consumed")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(topics = NotificationEvent.TOPIC, containerFactory = "notificationListenerContainerFactory")
+    public void onEvent(NotificationEvent event, Acknowledgment acknowledgment) {
+        if (!deduplicator.claim(event.eventId())) {
+            log.debug("Skipping duplicate notification event {}", event.eventId());
+            acknowledgment.acknowledge();
+            return;
+        }
+        try {
+            handle(event, () -> {
+                deduplicator.complete(event.eventId());
+                acknowledgment.acknowledge();
+            });
+            lag.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - event.occurredAt())));
+        } catch (RuntimeException e) {
+            deduplicator.release(event.eventId());
+            throw e;
+        }
+    }
+
+    private void handle(NotificationEvent event, Runnable onDone) {
+        if (event instanceof NotificationEvent.UserNotification n) {
+            notificationDispatcher.emailUnlessSeen(n.userId(), n.eventId(), n.subject(), n.message(), onDone);
+        } else if (event instanceof NotificationEvent.Email e) {
+            notificationDispatcher.email(e.userId(), e.subject(), address ->
+                    emailService.sendEmail(address, e.subject(), e.body()), onDone);
+        } else if (event instanceof NotificationEvent.DriverRequestEmail e) {
+            notificationDispatcher.email(e.userId(), "Driver request notification", address ->
+                    emailService.sendDriverRequestNotification(address, e.requestId(), e.from(), e.to(),
+                            e.goodsDescription(), e.fare(), e.acceptUrl(), e.rejectUrl()), onDone);
+        } else if (event instanceof NotificationEvent.UserConfirmationEmail e) {
+            notificationDispatcher.email(e.userId(), "User confirmation", address ->
+                    emailService.sendUserConfirmation(address, e.requestId(), e.from(), e.to(), e.goodsDescription()),
+                    onDone);
+        } else {
+            onDone.run();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.gdc.notification_service.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Per-recipient buffer for low-priority emails. The first message for a user
+ * opens a window; whatever else arrives for that user before it closes (or
+ * until {@code maxMessages} pile up) is handed to {@code flush} as one batch.
+ * <p>
+ * Open windows live only in memory. Each entry carries the callback that
+ * acknowledges its Kafka record once the digest it went into has been sent, so
+ * a crash loses nothing, but it holds those offsets back for up to one window.
+ */
+class EmailDigestBuffer {
+
+    record Entry(String subject, String body, long queuedAtNanos, Runnable onDone) {
+    }
+
+    private static final class Pending {
+        private final List<Entry> entries = new ArrayList<>();
+        private ScheduledFuture<?> timer;
+    }
+
+    private final Map<UUID, Pending> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final long windowMs;
+    private final int maxMessages;
+    private final BiConsumer<UUID, List<Entry>> flush;
+
+    EmailDigestBuffer(ScheduledExecutorService scheduler, long windowMs, int maxMessages,
+                      BiConsumer<UUID, List<Entry>> flush) {
+        this.scheduler = scheduler;
+        this.windowMs = windowMs;
+        this.maxMessages = maxMessages;
+        this.flush = flush;
+    }
+
+    void add(UUID userId, String subject, String body, Runnable onDone) {
+        Entry entry = new Entry(subject, body, System.nanoTime(), onDone);
+        List<List<Entry>> full = new ArrayList<>(1);
+
+        // compute() serialises adds per user, so a window never loses a message to a concurrent flush
+        pending.compute(userId, (id, open) -> {
+            if (open == null) {
+                open = new Pending();
+                open.timer = scheduler.schedule(() -> flush(id), windowMs, TimeUnit.MILLISECONDS);
+            }
+            open.entries.add(entry);
+            if (open.entries.size() >= maxMessages) {
+                open.timer.cancel(false);
+                full.add(open.entries);
+                return null;
+            }
+            return open;
+        });
+
+        if (!full.isEmpty()) {
+            flush.accept(userId, full.get(0));
+        }
+    }
+
+    /** Number of users with an open window. */
+    int size() {
+        return pending.size();
+    }
+
+    /** Sends everything still buffered, e.g. on shutdown. */
+    void flushAll() {
+        pending.keySet().forEach(this::flush);
+    }
+
+    private void flush(UUID userId) {
+        Pending open = pending.remove(userId);
+        if (open != null) {
+            open.timer.cancel(false);
+            flush.accept(userId, open.entries);
+        }
+    }
+}
@@ -1,4 +1,4 @@
-package com.gdc.requests_management.service;
+package com.gdc.notification_service.service;
 
 public interface EmailService {
 
@@ -0,0 +1,119 @@
+package com.gdc.notification_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Makes consumption idempotent by event id. Kafka redelivers after a rebalance or a
+ * crash before the offset commit, and the outbox relay can publish a batch twice; the
+ * first consumer to claim an id in Redis handles it and every later copy is dropped.
+ * <p>
+ * A claim is pending while its email is in flight and only marked done once the email
+ * has been sent, skipped or dead-lettered. A copy that finds a pending claim is neither
+ * handled nor dropped: {@link #claim} throws {@link InFlightException} so the container
+ * retries it later. By then the claim is either done, and the copy is dropped, or has
+ * expired after {@code pending-ttl-ms} because its owner died, and the copy is handled.
+ * {@code pending-ttl-ms} must therefore outlast the slowest email (acknowledgement wait,
+ * digest window and retries). Done claims live for {@code ttl-ms}, which only needs to
+ * outlast redelivery.
+ * <p>
+ * Done ids are also remembered locally, so repeats within one node skip Redis, and if
+ * Redis is down events are handled rather than lost (at the risk of a duplicate email).
+ */
+@Component
+@Slf4j
+public class EventDeduplicator {
+
+    /** Thrown for an event whose email another consumer is still sending. */
+    public static class InFlightException extends RuntimeException {
+        public InFlightException(UUID eventId) {
+            super("Notification event " + eventId + " is still being handled elsewhere");
+        }
+    }
+
+    private static final String CLAIM_PREFIX = "notification:event:";
+    private static final String PENDING = "pending";
+    private static final String DONE = "done";
+
+    private final RedisTemplate<String, String> redisStringTemplate;
+    private final Duration ttl;
+    private final Duration pendingTtl;
+    private final Cache<UUID, Boolean> recent;
+    private final Counter duplicates;
+
+    public EventDeduplicator(RedisTemplate<String, String> redisStringTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${notification.dedup.ttl-ms:86400000}") long ttlMs,
+                             @Value("${notification.dedup.pending-ttl-ms:300000}") long pendingTtlMs,
+                             @Value("${notification.dedup.local-max-size:100000}") long localMaxSize) {
+        this.redisStringTemplate = redisStringTemplate;
+        this.ttl = Duration.ofMillis(ttlMs);
+        this.pendingTtl = Duration.ofMillis(pendingTtlMs);
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.duplicates = Counter.builder("notification.events.duplicates")
+                .description("Redelivered events dropped because they were already handled")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Claims {@code eventId} as pending; {@code false} if it was already handled and should
+     * be skipped.
+     *
+     * @throws InFlightException if another consumer holds a pending claim on it
+     */
+    public boolean claim(UUID eventId) {
+        if (recent.getIfPresent(eventId) != null) {
+            duplicates.increment();
+            return false;
+        }
+        String existing;
+        try {
+            String key = CLAIM_PREFIX + eventId;
+            if (!Boolean.FALSE.equals(redisStringTemplate.opsForValue().setIfAbsent(key, PENDING, pendingTtl))) {
+                return true;
+            }
+            existing = redisStringTemplate.opsForValue().get(key);
+        } catch (Exception e) {
+            log.warn("Dedup claim for event {} failed, handling it anyway: {}", eventId, e.getMessage());
+            return true;
+        }
+        // Gone again by now (expired or released) also counts as in flight: the retry claims it afresh
+        if (existing == null || PENDING.equals(existing)) {
+            throw new InFlightException(eventId);
+        }
+        duplicates.increment();
+        return false;
+    }
+
+    /** Marks a claim done once the event's email has reached its final outcome. */
+    public void complete(UUID eventId) {
+        recent.put(eventId, Boolean.TRUE);
+        try {
+            redisStringTemplate.opsForValue().set(CLAIM_PREFIX + eventId, DONE, ttl);
+        } catch (Exception e) {
+            log.warn("Failed to mark event {} handled; another node may email it again: {}", eventId, e.getMessage());
+        }
+    }
+
+    /** Gives up a claim after handling failed, so the redelivery isn't mistaken for a duplicate. */
+    public void release(UUID eventId) {
+        recent.invalidate(eventId);
+        try {
+            redisStringTemplate.delete(CLAIM_PREFIX + eventId);
+        } catch (Exception e) {
+            log.warn("Failed to release dedup claim for event {}: {}", eventId, e.getMessage());
+        }
+    }
+}
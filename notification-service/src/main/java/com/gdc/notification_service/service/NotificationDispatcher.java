@@ -0,0 +1,329 @@
+package com.gdc.notification_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Turns consumed notifications into emails. The user lookup plus SMTP runs on a
+ * bounded pool, so a slow mail server doesn't stall the Kafka consumers.
+ * <p>
+ * When the queue is full the consumer thread waits up to {@code enqueue-timeout-ms}
+ * for room before the email is dead-lettered; waiting throttles consumption, so
+ * the default is generous. Failed sends are retried with exponential backoff;
+ * emails that run out of attempts are written to the {@code notification.dead-letter} log.
+ * <p>
+ * The queue, pending retries, open digests and acknowledgement waits live only
+ * in memory, so every email carries an {@code onDone} callback, run once it
+ * reaches its final outcome: sent, skipped for lack of an address, suppressed
+ * because the user saw it, or dead-lettered. The listener acknowledges the Kafka
+ * record there, so whatever a crash leaves pending is redelivered rather than
+ * lost. Emails abandoned at shutdown are left unacknowledged for the same reason.
+ * <p>
+ * Notification emails are coalesced per recipient: everything a user is sent
+ * within {@code notification.digest.window-ms} goes out as a single digest.
+ * Direct emails, and subjects listed in {@code notification.digest.immediate-subjects},
+ * skip the buffer. A digested message is only acknowledged once its digest is
+ * sent, so the window (10 s by default) also holds back offset commits; don't
+ * stretch it to minutes.
+ * <p>
+ * request-service has already pushed user notifications over WebSocket. Users
+ * with a live session get no email at all once their client acknowledges the
+ * message (request-service records acknowledgements in Redis); unacknowledged
+ * messages fall back to email after {@code notification.presence.ack-timeout-ms}.
+ */
+@Service
+@Slf4j
+public class NotificationDispatcher {
+
+    private static final Logger deadLetters = LoggerFactory.getLogger("notification.dead-letter");
+    private static final Runnable NOTHING = () -> {
+    };
+
+    private final EmailService emailService;
+    private final UserDriverService userDriverService;
+    private final PresenceLookup presenceLookup;
+
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService retryScheduler;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final long enqueueTimeoutMs;
+    private final EmailDigestBuffer digests;
+    private final Set<String> immediateSubjects;
+    private final long ackTimeoutMs;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter retried;
+    private final Counter skipped;
+    private final Counter coalesced;
+    private final Counter suppressed;
+
+    public NotificationDispatcher(EmailService emailService,
+                                  UserDriverService userDriverService,
+                                  PresenceLookup presenceLookup,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${notification.email.threads:4}") int threads,
+                                  @Value("${notification.email.queue-capacity:1000}") int queueCapacity,
+                                  @Value("${notification.email.max-attempts:4}") int maxAttempts,
+                                  @Value("${notification.email.initial-backoff-ms:2000}") long initialBackoffMs,
+                                  @Value("${notification.email.max-backoff-ms:60000}") long maxBackoffMs,
+                                  @Value("${notification.email.enqueue-timeout-ms:30000}") long enqueueTimeoutMs,
+                                  @Value("${notification.digest.window-ms:10000}") long digestWindowMs,
+                                  @Value("${notification.digest.max-messages:20}") int digestMaxMessages,
+                                  @Value("${notification.digest.immediate-subjects:}") Set<String> immediateSubjects,
+                                  @Value("${notification.presence.ack-timeout-ms:30000}") long ackTimeoutMs) {
+        this.emailService = emailService;
+        this.userDriverService = userDriverService;
+        this.presenceLookup = presenceLookup;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.enqueueTimeoutMs = enqueueTimeoutMs;
+        this.immediateSubjects = immediateSubjects;
+        this.ackTimeoutMs = ackTimeoutMs;
+
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), namedThreads("notification-email-"), this::waitForRoom);
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(namedThreads("notification-retry-"));
+        this.digests = digestWindowMs > 0
+                ? new EmailDigestBuffer(retryScheduler, digestWindowMs, digestMaxMessages, this::sendDigest)
+                : null;
+
+        this.meterRegistry = meterRegistry;
+        this.retried = Counter.builder("notification.email.retries").register(meterRegistry);
+        this.skipped = Counter.builder("notification.email.skipped")
+                .description("Emails dropped because the user has no address on file")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("notification.email.coalesced")
+                .description("Notification emails folded into a digest instead of sent on their own")
+                .register(meterRegistry);
+        this.suppressed = Counter.builder("notification.email.suppressed")
+                .description("Notification emails skipped because the user saw the message over WebSocket")
+                .register(meterRegistry);
+        meterRegistry.gauge("notification.email.queue.size", workers, pool -> pool.getQueue().size());
+        meterRegistry.gauge("notification.email.active", workers, ThreadPoolExecutor::getActiveCount);
+        if (digests != null) {
+            meterRegistry.gauge("notification.digest.open", digests, EmailDigestBuffer::size);
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Emails a notification that was pushed over WebSocket as {@code notificationId}
+     * (via the user's next digest), unless the user is online and acknowledges it.
+     * {@code onDone} runs once the email is sent, suppressed or given up on.
+     */
+    public void emailUnlessSeen(UUID userId, UUID notificationId, String subject, String message, Runnable onDone) {
+        if (userId == null) {
+            onDone.run();
+            return;
+        }
+        if (!presenceLookup.isOnline(userId)) {
+            fallBackToEmail(userId, subject, message, onDone);
+            return;
+        }
+        if (ackTimeoutMs <= 0) {
+            suppressed.increment();
+            onDone.run();
+            return;
+        }
+        try {
+            retryScheduler.schedule(() -> {
+                if (presenceLookup.isAcknowledged(userId, notificationId)) {
+                    suppressed.increment();
+                    onDone.run();
+                } else {
+                    fallBackToEmail(userId, subject, message, onDone);
+                }
+            }, ackTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException shuttingDown) {
+            fallBackToEmail(userId, subject, message, onDone);
+        }
+    }
+
+    private void fallBackToEmail(UUID userId, String subject, String message, Runnable onDone) {
+        if (digests == null || immediateSubjects.contains(subject)) {
+            email(userId, subject, address -> emailService.sendEmail(address, subject, message), onDone);
+        } else {
+            digests.add(userId, subject, message, onDone);
+        }
+    }
+
+    /** Queues a plain email to the user, bypassing the digest, for callers with nothing to acknowledge. */
+    public void email(UUID userId, String subject, String body) {
+        email(userId, subject, address -> emailService.sendEmail(address, subject, body), NOTHING);
+    }
+
+    /**
+     * Queues an email built by {@code send} once the user's address is known;
+     * {@code description} only identifies the email in logs and dead letters.
+     * {@code onDone} runs once the email is sent, skipped or dead-lettered.
+     */
+    public void email(UUID userId, String description, Consumer<String> send, Runnable onDone) {
+        if (userId == null) {
+            onDone.run();
+            return;
+        }
+        submit(new EmailJob(userId, description, send, System.nanoTime(), onDone), 1);
+    }
+
+    private void sendDigest(UUID userId, List<EmailDigestBuffer.Entry> entries) {
+        EmailDigestBuffer.Entry first = entries.get(0);
+        if (entries.size() == 1) {
+            submit(new EmailJob(userId, first.subject(),
+                    address -> emailService.sendEmail(address, first.subject(), first.body()), first.queuedAtNanos(),
+                    first.onDone()), 1);
+            return;
+        }
+
+        coalesced.increment(entries.size() - 1);
+        StringBuilder body = new StringBuilder("<p>Here is what happened with your requests:</p><ul>");
+        for (EmailDigestBuffer.Entry entry : entries) {
+            body.append("<li><strong>").append(HtmlUtils.htmlEscape(entry.subject())).append("</strong><br>")
+                    .append(HtmlUtils.htmlEscape(entry.body())).append("</li>");
+        }
+        body.append("</ul>");
+        String subject = "You have " + entries.size() + " new notifications";
+        String html = body.toString();
+        submit(new EmailJob(userId, subject, address -> emailService.sendEmail(address, subject, html),
+                first.queuedAtNanos(), () -> entries.forEach(entry -> entry.onDone().run())), 1);
+    }
+
+    private void submit(EmailJob job, int attempt) {
+        try {
+            workers.execute(() -> deliver(job, attempt));
+        } catch (RejectedExecutionException e) {
+            if (workers.isShutdown()) {
+                abandon(job);
+            } else {
+                deadLetter(job, attempt - 1, "queue full");
+            }
+        }
+    }
+
+    // Backpressure: hold the caller briefly rather than failing the moment a burst fills the queue
+    private void waitForRoom(Runnable task, ThreadPoolExecutor pool) {
+        try {
+            if (!pool.isShutdown() && pool.getQueue().offer(task, enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new RejectedExecutionException("Notification email queue is full");
+    }
+
+    // A failed address lookup is retried like a failed send; only a missing address is skipped
+    private void deliver(EmailJob job, int attempt) {
+        try {
+            String address = userDriverService.getEmailByUserId(job.userId());
+            if (address == null) {
+                skipped.increment();
+            } else {
+                job.send().accept(address);
+                record(job, "sent");
+            }
+        } catch (Exception e) {
+            if (attempt >= maxAttempts) {
+                deadLetter(job, attempt, e.getMessage());
+                return;
+            }
+            retried.increment();
+            long delay = backoff(attempt);
+            log.warn("Email '{}' to user {} failed (attempt {}), retrying in {} ms: {}",
+                    job.description(), job.userId(), attempt, delay, e.getMessage());
+            try {
+                retryScheduler.schedule(() -> submit(job, attempt + 1), delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException shuttingDown) {
+                abandon(job);
+            }
+            return;
+        }
+        done(job);
+    }
+
+    private void deadLetter(EmailJob job, int attempts, String reason) {
+        record(job, "dead_lettered");
+        deadLetters.error("userId={} email='{}' attempts={} reason={}", job.userId(), job.description(), attempts, reason);
+        done(job);
+    }
+
+    // Outside deliver's try, so a failed acknowledgement is never mistaken for a failed send and retried
+    private void done(EmailJob job) {
+        try {
+            job.onDone().run();
+        } catch (RuntimeException e) {
+            log.warn("Failed to acknowledge email '{}' to user {}: {}", job.description(), job.userId(), e.getMessage());
+        }
+    }
+
+    // Not acknowledged, so Kafka redelivers it once the consumer restarts
+    private void abandon(EmailJob job) {
+        log.warn("Email '{}' to user {} abandoned at shutdown, left for redelivery", job.description(), job.userId());
+    }
+
+    /** Time from the intent being accepted to its final outcome, retries included. */
+    private void record(EmailJob job, String result) {
+        Timer.builder("notification.email.delivery")
+                .tag("result", result)
+                .register(meterRegistry)
+                .record(System.nanoTime() - job.enqueuedAt(), TimeUnit.NANOSECONDS);
+    }
+
+    /** Exponential backoff with +/-20% jitter, so retries of a burst don't land together. */
+    private long backoff(int attempt) {
+        long base = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        return (long) (base * ThreadLocalRandom.current().nextDouble(0.8, 1.2));
+    }
+
+    /**
+     * Sends open digests and lets queued emails go out on shutdown; pending retries are
+     * abandoned unacknowledged, so they are redelivered.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (digests != null) {
+            digests.flushAll();
+        }
+        retryScheduler.shutdownNow();
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("{} notification emails still queued at shutdown", workers.getQueue().size());
+            workers.shutdownNow();
+        }
+    }
+
+    private record EmailJob(UUID userId, String description, Consumer<String> send, long enqueuedAt, Runnable onDone) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.gdc.notification_service.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Read side of request-service's {@code PresenceRegistry}: whether a user has a live
+ * STOMP session on any request-service node, and whether a pushed notification has
+ * been acknowledged. The key layout must match the one written there.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PresenceLookup {
+
+    private static final String PRESENCE_PREFIX = "presence:user:";
+    private static final String ACK_PREFIX = "notification:ack:";
+
+    private final RedisTemplate<String, String> redisStringTemplate;
+
+    /** Whether the user has an unexpired session; {@code false} if Redis can't tell. */
+    public boolean isOnline(UUID userId) {
+        try {
+            Long live = redisStringTemplate.opsForZSet()
+                    .count(PRESENCE_PREFIX + userId, System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+            return live != null && live > 0;
+        } catch (Exception e) {
+            log.warn("Presence lookup failed for user {}, assuming offline: {}", userId, e.getMessage());
+            return false;
+        }
+    }
+
+    /** Whether {@code userId} acknowledged the notification; only the recipient's own ack counts. */
+    public boolean isAcknowledged(UUID userId, UUID notificationId) {
+        try {
+            return Boolean.TRUE.equals(redisStringTemplate.hasKey(ACK_PREFIX + userId + ":" + notificationId));
+        } catch (Exception e) {
+            log.warn("Acknowledgement lookup failed for {}: {}", notificationId, e.getMessage());
+            return false;
+        }
+    }
+}
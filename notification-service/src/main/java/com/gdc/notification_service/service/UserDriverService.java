@@ -0,0 +1,40 @@
+package com.gdc.notification_service.service;
+
+import com.gdc.notification_service.feign.dto.UserResponseDTO;
+import feign.FeignException;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class UserDriverService {
+
+    private final UserProfileCache userProfileCache;
+    private final Logger logger = LoggerFactory.getLogger(UserDriverService.class);
+
+    /**
+     * The user's email address, or {@code null} if user-service has no such user or no
+     * address on file. Lookup failures (user-service or Redis down) are thrown, so the
+     * caller can retry rather than mistake an outage for a missing address.
+     */
+    public String getEmailByUserId(UUID userId) {
+        UserResponseDTO user;
+        try {
+            user = userProfileCache.get(userId);
+        } catch (FeignException.NotFound e) {
+            user = null;
+        }
+
+        if (user == null || user.getEmail() == null || user.getEmail().isBlank()) {
+            logger.warn("⚠️ Invalid user or missing email for user ID: {}", userId);
+            return null;
+        }
+
+        logger.info("✅ Fetched email {} for user ID {}", user.getEmail(), userId);
+        return user.getEmail();
+    }
+}
@@ -0,0 +1,123 @@
+package com.gdc.notification_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gdc.notification_service.client.UserServiceClient;
+import com.gdc.notification_service.dto.response.StandardResponse;
+import com.gdc.notification_service.feign.dto.UserResponseDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two-tier cache for user profiles, shared with request-service: a bounded
+ * in-process near-cache, then the Redis entry ({@code user:details:{id}}), then
+ * user-service. Local copies are dropped on {@link #INVALIDATION_CHANNEL}.
+ */
+@Service
+@Slf4j
+public class UserProfileCache {
+
+    public static final String INVALIDATION_CHANNEL = "user:profile:invalidate";
+    private static final String USER_CACHE_PREFIX = "user:details:";
+    private static final long USER_CACHE_TTL_MINUTES = 60;
+
+    private final UserServiceClient userServiceClient;
+    private final RedisTemplate<String, String> redisStringTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<UUID, UserResponseDTO> localCache;
+
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter redisHits;
+    private final Counter redisMisses;
+
+    public UserProfileCache(UserServiceClient userServiceClient,
+                            RedisTemplate<String, String> redisStringTemplate,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${user-cache.local.max-size:10000}") long maxSize,
+                            @Value("${user-cache.local.ttl-seconds:120}") long ttlSeconds) {
+        this.userServiceClient = userServiceClient;
+        this.redisStringTemplate = redisStringTemplate;
+        this.objectMapper = objectMapper;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+
+        this.localHits = counter(meterRegistry, "local", "hit");
+        this.localMisses = counter(meterRegistry, "local", "miss");
+        this.redisHits = counter(meterRegistry, "redis", "hit");
+        this.redisMisses = counter(meterRegistry, "redis", "miss");
+        meterRegistry.gauge("user.profile.cache.size", localCache, Cache::estimatedSize);
+    }
+
+    private static Counter counter(MeterRegistry registry, String tier, String result) {
+        return Counter.builder("user.profile.cache.requests")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Returns the profile for the given user, or {@code null} if user-service
+     * doesn't know it. Errors from user-service are propagated to the caller.
+     */
+    public UserResponseDTO get(UUID userId) {
+        UserResponseDTO local = localCache.getIfPresent(userId);
+        if (local != null) {
+            localHits.increment();
+            return local;
+        }
+        localMisses.increment();
+
+        UserResponseDTO cached = readRedis(userId);
+        if (cached != null) {
+            redisHits.increment();
+            localCache.put(userId, cached);
+            return cached;
+        }
+        redisMisses.increment();
+
+        StandardResponse<UserResponseDTO> response = userServiceClient.getUserDetails(userId);
+        UserResponseDTO user = response != null ? response.getData() : null;
+        if (user != null) {
+            store(userId, user);
+        }
+        return user;
+    }
+
+    public void evictLocal(UUID userId) {
+        localCache.invalidate(userId);
+        log.debug("Evicted cached profile for user {}", userId);
+    }
+
+    private void store(UUID userId, UserResponseDTO user) {
+        localCache.put(userId, user);
+        try {
+            redisStringTemplate.opsForValue().set(USER_CACHE_PREFIX + userId,
+                    objectMapper.writeValueAsString(user), USER_CACHE_TTL_MINUTES, TimeUnit.MINUTES);
+        } catch (Exception e) {
+            log.warn("Failed to cache profile for user {} in Redis: {}", userId, e.getMessage());
+        }
+    }
+
+    private UserResponseDTO readRedis(UUID userId) {
+        try {
+            String json = redisStringTemplate.opsForValue().get(USER_CACHE_PREFIX + userId);
+            return json != null ? objectMapper.readValue(json, UserResponseDTO.class) : null;
+        } catch (Exception e) {
+            log.warn("Failed to read cached profile for user {} from Redis: {}", userId, e.getMessage());
+            return null;
+        }
+    }
+}
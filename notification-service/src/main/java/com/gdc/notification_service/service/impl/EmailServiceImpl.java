@@ -0,0 +1,99 @@
+package com.gdc.notification_service.service.impl;
+
+import com.gdc.notification_service.service.EmailService;
+import com.gdc.notification_service.utils.EmailTemplateEngine;
+import jakarta.activation.DataHandler;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.util.ByteArrayDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailServiceImpl implements EmailService {
+
+    private static final String HTML_CONTENT_TYPE = "text/html; charset=UTF-8";
+    private static final DateTimeFormatter CREATED_AT = DateTimeFormatter.ofPattern("MMM dd, yyyy hh:mm a");
+
+    private final JavaMailSender javaMailSender;
+    private final EmailTemplateEngine emailTemplates;
+
+    @Value("${spring.mail.username:noreply@goodstransportsystem.com}")
+    private String fromEmail;
+
+    @Override
+    public void sendEmail(String to, String subject, String body) {
+        sendHtml(to, subject, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void sendHtml(String to, String subject, byte[] html) {
+        try {
+            MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "UTF-8");
+            helper.setTo(to);
+            helper.setFrom(fromEmail, "Goods Transport System");
+            helper.setSubject(subject);
+            // Already UTF-8, so hand the bytes to the message as they are
+            mimeMessage.setDataHandler(new DataHandler(new ByteArrayDataSource(html, HTML_CONTENT_TYPE)));
+            javaMailSender.send(mimeMessage);
+            log.info("Email sent successfully to: {}", to);
+        } catch (MessagingException | UnsupportedEncodingException e) {
+            log.error("Failed to send email to: {}", to, e);
+        }
+    }
+
+    @Override
+    public void sendDriverRequestNotification(String to, String requestId, String from, String toLocation, String goodsDescription, String fare, String acceptUrl, String rejectUrl) {
+        String safeTo = to != null ? to : "";
+        String safeRequestId = requestId != null ? requestId : "N/A";
+        String safeFrom = from != null ? from : "Unknown";
+        String safeToLocation = toLocation != null ? toLocation : "Unknown";
+        String safeGoodsDescription = goodsDescription != null ? goodsDescription : "N/A";
+        String safeFare = fare != null ? fare : "0.00";
+        String safeAcceptUrl = acceptUrl != null ? acceptUrl : "";
+        String safeRejectUrl = rejectUrl != null ? rejectUrl : "";
+
+        log.info("Sending driver notification with: to={}, requestId={}, from={}, toLocation={}, goodsDescription={}, fare={}, acceptUrl={}, rejectUrl={}",
+                safeTo, safeRequestId, safeFrom, safeToLocation, safeGoodsDescription, safeFare, safeAcceptUrl, safeRejectUrl);
+
+        byte[] body = emailTemplates.render("driver-request", extractUsername(safeTo), safeRequestId, safeFrom,
+                safeToLocation, safeGoodsDescription, safeFare, safeAcceptUrl, safeRejectUrl);
+        sendHtml(safeTo, "🚚 New Ride Assigned: Action Required", body);
+    }
+
+    @Override
+    public void sendUserConfirmation(String to, String requestId, String from, String toLocation, String goodsDescription) {
+        String safeTo = to != null ? to : "";
+        String safeRequestId = requestId != null ? requestId : "N/A";
+        String safeFrom = from != null ? from : "Unknown";
+        String safeToLocation = toLocation != null ? toLocation : "Unknown";
+        String safeGoodsDescription = goodsDescription != null ? goodsDescription : "N/A";
+        String time = LocalDateTime.now().format(CREATED_AT);
+
+        log.info("sendUserConfirmation args: to={}, requestId={}, from={}, toLocation={}, goodsDescription={}",
+                safeTo, safeRequestId, safeFrom, safeToLocation, safeGoodsDescription);
+
+        byte[] body = emailTemplates.render("user-confirmation", extractUsername(safeTo), time, safeRequestId,
+                safeFrom, safeToLocation, safeGoodsDescription);
+        sendHtml(safeTo, "🚚 Your Transport Request Confirmation", body);
+    }
+
+    private String extractUsername(String email) {
+        if (email == null || !email.contains("@")) {
+            return "Valued Customer";
+        }
+        String username = email.substring(0, email.indexOf('@'));
+        return username.substring(0, 1).toUpperCase() + username.substring(1);
+    }
+}
\ No newline at end of file
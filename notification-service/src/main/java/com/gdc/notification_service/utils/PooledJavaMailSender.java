@@ -0,0 +1,280 @@
+package com.gdc.notification_service.utils;
+
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link JavaMailSenderImpl} that keeps connected, authenticated SMTP transports in a
+ * pool instead of opening a connection (TCP, STARTTLS and AUTH round trips) for every
+ * send. {@code send(MimeMessage...)} pushes the whole batch through one connection.
+ * <p>
+ * Each connection is retired after {@code maxMessagesPerConnection} messages, which
+ * providers such as Gmail cap per session, and sends no faster than
+ * {@code maxMessagesPerSecond}. A background health check NOOPs idle connections,
+ * closes ones idle for longer than {@code maxIdleMs} and tops the pool up to
+ * {@code minIdle} so the first send after a quiet period doesn't pay for the handshake.
+ * A message that fails on a reused connection is retried once on a fresh one, since
+ * the server may have dropped the connection while it sat in the pool.
+ * <p>
+ * The health check starts in {@link #afterPropertiesSet()}, once host, credentials
+ * and JavaMail properties are set, so it never pre-connects with default settings.
+ */
+@Slf4j
+public class PooledJavaMailSender extends JavaMailSenderImpl implements InitializingBean, DisposableBean {
+
+    private final int poolSize;
+    private final int minIdle;
+    private final int maxMessagesPerConnection;
+    private final long minIntervalNanos;
+    private final long maxIdleNanos;
+    private final long healthCheckIntervalMs;
+
+    private final Semaphore connections;
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final ScheduledExecutorService healthChecker;
+    private final AtomicLong opened = new AtomicLong();
+
+    public PooledJavaMailSender(int poolSize, int minIdle, int maxMessagesPerConnection,
+                                double maxMessagesPerSecond, long maxIdleMs, long healthCheckIntervalMs) {
+        this.poolSize = poolSize;
+        this.minIdle = Math.min(minIdle, poolSize);
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.minIntervalNanos = maxMessagesPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / maxMessagesPerSecond) : 0;
+        this.maxIdleNanos = TimeUnit.MILLISECONDS.toNanos(maxIdleMs);
+        this.healthCheckIntervalMs = healthCheckIntervalMs;
+        this.connections = new Semaphore(poolSize, true);
+
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "smtp-pool-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Starts the health check; the settings it connects with are all in place by now. */
+    @Override
+    public void afterPropertiesSet() {
+        if (healthCheckIntervalMs > 0) {
+            healthChecker.scheduleWithFixedDelay(this::healthCheck, 0, healthCheckIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** SMTP connections opened so far, including replacements for retired ones. */
+    public long getConnectionsOpened() {
+        return opened.get();
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        try {
+            connections.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while waiting for an SMTP connection", e);
+        }
+
+        PooledTransport connection = null;
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                MimeMessage message = mimeMessages[i];
+                Object original = originalMessages != null ? originalMessages[i] : message;
+                Address[] recipients;
+                try {
+                    recipients = prepare(message);
+                } catch (MessagingException e) {
+                    failedMessages.put(original, e);
+                    continue;
+                }
+
+                for (int attempt = 0; ; attempt++) {
+                    if (connection == null) {
+                        connection = borrow();
+                    }
+                    boolean reused = connection.sent > 0 || connection.lastUsed != 0;
+                    try {
+                        connection.throttle(minIntervalNanos);
+                        connection.transport.sendMessage(message, recipients);
+                        if (++connection.sent >= maxMessagesPerConnection) {
+                            close(connection);
+                            connection = null;
+                        }
+                    } catch (SendFailedException e) {
+                        if (connection.transport.isConnected()) {
+                            // Rejected recipients or content; the connection itself is fine
+                            failedMessages.put(original, e);
+                            break;
+                        }
+                        // A connection the server closed also surfaces as a send failure ([EOF])
+                        close(connection);
+                        connection = null;
+                        if (reused && attempt == 0) {
+                            log.debug("Pooled SMTP connection was closed, retrying on a new one: {}", e.getMessage());
+                            continue;
+                        }
+                        failedMessages.put(original, e);
+                    } catch (MessagingException | IllegalStateException e) {
+                        close(connection);
+                        connection = null;
+                        if (reused && attempt == 0) {
+                            log.debug("Pooled SMTP connection failed, retrying on a new one: {}", e.getMessage());
+                            continue;
+                        }
+                        failedMessages.put(original, e);
+                    }
+                    break;
+                }
+            }
+        } finally {
+            if (connection != null) {
+                release(connection);
+            }
+            connections.release();
+        }
+
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    private static Address[] prepare(MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        String messageId = message.getMessageID();
+        message.saveChanges();
+        if (messageId != null) {
+            // saveChanges() generates a new Message-ID; keep the caller's
+            message.setHeader("Message-ID", messageId);
+        }
+        Address[] addresses = message.getAllRecipients();
+        return addresses != null ? addresses : new Address[0];
+    }
+
+    private PooledTransport borrow() {
+        PooledTransport connection;
+        while ((connection = idle.pollFirst()) != null) {
+            if (System.nanoTime() - connection.lastUsed < maxIdleNanos) {
+                return connection;
+            }
+            close(connection);
+        }
+        return open();
+    }
+
+    private void release(PooledTransport connection) {
+        connection.lastUsed = System.nanoTime();
+        // Most recently used first, so surplus connections drift to the tail and idle out
+        if (idle.size() < poolSize) {
+            idle.offerFirst(connection);
+        } else {
+            close(connection);
+        }
+    }
+
+    private PooledTransport open() {
+        try {
+            Transport transport = connectTransport();
+            opened.incrementAndGet();
+            return new PooledTransport(transport);
+        } catch (AuthenticationFailedException e) {
+            throw new MailAuthenticationException(e);
+        } catch (MessagingException e) {
+            throw new MailSendException("Mail server connection failed", e);
+        }
+    }
+
+    /**
+     * Drops idle connections the server has closed or that have idled past the limit,
+     * then pre-connects up to {@code minIdle}. Runs on the health check schedule.
+     */
+    void healthCheck() {
+        List<PooledTransport> checked = new ArrayList<>();
+        PooledTransport connection;
+        while ((connection = idle.pollLast()) != null) {
+            // isConnected() sends a NOOP on SMTP transports
+            if (System.nanoTime() - connection.lastUsed < maxIdleNanos && connection.transport.isConnected()) {
+                checked.add(connection);
+            } else {
+                close(connection);
+            }
+        }
+        checked.forEach(idle::offerLast);
+
+        while (idle.size() < minIdle && connections.tryAcquire()) {
+            try {
+                PooledTransport warm = open();
+                warm.lastUsed = System.nanoTime();
+                idle.offerLast(warm);
+            } catch (MailException e) {
+                log.warn("Could not pre-connect to the mail server: {}", e.getMessage());
+                break;
+            } finally {
+                connections.release();
+            }
+        }
+    }
+
+    private void close(PooledTransport connection) {
+        try {
+            connection.transport.close();
+        } catch (Exception e) {
+            log.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        healthChecker.shutdownNow();
+        PooledTransport connection;
+        while ((connection = idle.pollFirst()) != null) {
+            close(connection);
+        }
+    }
+
+    private static final class PooledTransport {
+        private final Transport transport;
+        private int sent;
+        private long lastUsed;
+        private long nextSendAt;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        private void throttle(long minIntervalNanos) {
+            if (minIntervalNanos <= 0) {
+                return;
+            }
+            long wait;
+            while ((wait = nextSendAt - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            nextSendAt = Math.max(nextSendAt, System.nanoTime()) + minIntervalNanos;
+        }
+    }
+}
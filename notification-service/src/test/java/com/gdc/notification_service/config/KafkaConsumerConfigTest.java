@@ -0,0 +1,148 @@
+package com.gdc.notification_service.config;
+
+import com.gdc.notification_service.kafka.NotificationEvent;
+import com.gdc.notification_service.kafka.NotificationEventSerde;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the notification consumer setup against an embedded broker, to check that
+ * acknowledgements from other threads and out of order only commit up to the first
+ * record still outstanding.
+ */
+class KafkaConsumerConfigTest {
+
+    private static final TopicPartition PARTITION = new TopicPartition(NotificationEvent.TOPIC, 0);
+
+    private static EmbeddedKafkaKraftBroker broker;
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, 1, NotificationEvent.TOPIC);
+        broker.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    @Test
+    void recordStillBeingEmailed_ShouldHoldBackTheCommitAndBeRedelivered() throws Exception {
+        String groupId = "notification-service-" + UUID.randomUUID();
+        List<UUID> eventIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        publish(eventIds);
+        ExecutorService workers = Executors.newFixedThreadPool(2);
+
+        // First consumer: the last two emails finish, the first is still in flight when it dies
+        BlockingQueue<UUID> firstRun = consume(groupId, eventIds.size(), (event, acknowledgment) -> {
+            if (!event.eventId().equals(eventIds.get(0))) {
+                workers.execute(acknowledgment::acknowledge);
+            }
+        });
+        assertEquals(eventIds, List.copyOf(firstRun));
+        assertNull(committed(groupId), "committed past a record that was never acknowledged");
+
+        // Its replacement gets all three again and finishes them, in reverse
+        BlockingQueue<Acknowledgment> pending = new LinkedBlockingQueue<>();
+        BlockingQueue<UUID> secondRun = consume(groupId, eventIds.size(), (event, acknowledgment) -> {
+            pending.add(acknowledgment);
+            if (pending.size() == eventIds.size()) {
+                List<Acknowledgment> acknowledgments = List.copyOf(pending);
+                workers.execute(() -> {
+                    for (int i = acknowledgments.size() - 1; i >= 0; i--) {
+                        acknowledgments.get(i).acknowledge();
+                    }
+                });
+            }
+        });
+        assertEquals(eventIds, List.copyOf(secondRun));
+        assertEquals(3, committed(groupId));
+        workers.shutdown();
+    }
+
+    /**
+     * Runs a container until {@code expected} records have arrived and their acknowledgements
+     * have had time to be committed, then stops it like a crash would (no further acks).
+     */
+    private BlockingQueue<UUID> consume(String groupId, int expected,
+                                        BiConsumer<NotificationEvent, Acknowledgment> listener) throws Exception {
+        KafkaConsumerConfig config = new KafkaConsumerConfig();
+        ReflectionTestUtils.setField(config, "bootstrapServers", broker.getBrokersAsString());
+        ReflectionTestUtils.setField(config, "groupId", groupId);
+        ReflectionTestUtils.setField(config, "concurrency", 1);
+        ReflectionTestUtils.setField(config, "maxPollRecords", 200);
+        ReflectionTestUtils.setField(config, "maxAttempts", 3);
+        ReflectionTestUtils.setField(config, "pendingTtlMs", 1000L);
+        ReflectionTestUtils.setField(config, "inFlightRetryMs", 100L);
+
+        BlockingQueue<UUID> received = new LinkedBlockingQueue<>();
+        ConcurrentMessageListenerContainer<String, NotificationEvent> container =
+                config.notificationListenerContainerFactory().createContainer(NotificationEvent.TOPIC);
+        container.getContainerProperties().setMessageListener(
+                (AcknowledgingMessageListener<String, NotificationEvent>) (record, acknowledgment) -> {
+                    received.add(record.value().eventId());
+                    listener.accept(record.value(), acknowledgment);
+                });
+        container.start();
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (received.size() < expected) {
+            assertTrue(System.currentTimeMillis() < deadline, "only received " + received);
+            Thread.sleep(50);
+        }
+        // Acks are committed by the consumer thread on its next poll
+        Thread.sleep(2000);
+        container.stop();
+        return received;
+    }
+
+    private void publish(List<UUID> eventIds) throws Exception {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        DefaultKafkaProducerFactory<String, NotificationEvent> producerFactory =
+                new DefaultKafkaProducerFactory<>(props, new StringSerializer(), new NotificationEventSerde());
+        KafkaTemplate<String, NotificationEvent> template = new KafkaTemplate<>(producerFactory);
+        UUID userId = UUID.randomUUID();
+        for (UUID eventId : eventIds) {
+            template.send(NotificationEvent.TOPIC, userId.toString(), new NotificationEvent.Email(eventId, userId,
+                    System.currentTimeMillis(), "Subject", "Body")).get(10, TimeUnit.SECONDS);
+        }
+        producerFactory.destroy();
+    }
+
+    private Long committed(String groupId) throws Exception {
+        try (AdminClient admin = AdminClient.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG,
+                broker.getBrokersAsString()))) {
+            OffsetAndMetadata offset = admin.listConsumerGroupOffsets(groupId)
+                    .partitionsToOffsetAndMetadata().get(10, TimeUnit.SECONDS).get(PARTITION);
+            return offset != null ? offset.offset() : null;
+        }
+    }
+}
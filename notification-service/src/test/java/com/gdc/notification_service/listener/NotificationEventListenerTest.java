@@ -0,0 +1,145 @@
+package com.gdc.notification_service.listener;
+
+import com.gdc.notification_service.kafka.NotificationEvent;
+import com.gdc.notification_service.service.EmailService;
+import com.gdc.notification_service.service.EventDeduplicator;
+import com.gdc.notification_service.service.NotificationDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings("unchecked")
+class NotificationEventListenerTest {
+
+    private final Map<String, String> redisValues = new ConcurrentHashMap<>();
+    private NotificationDispatcher dispatcher;
+    private NotificationEventListener listener;
+
+    @BeforeEach
+    void setUp() {
+        RedisTemplate<String, String> redis = mock(RedisTemplate.class);
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(values);
+        when(values.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenAnswer(call -> redisValues.putIfAbsent(call.getArgument(0), call.getArgument(1)) == null);
+        when(values.get(anyString())).thenAnswer(call -> redisValues.get(call.<String>getArgument(0)));
+        doAnswer(call -> redisValues.put(call.getArgument(0), call.getArgument(1)))
+                .when(values).set(anyString(), anyString(), any(Duration.class));
+        when(redis.delete(anyString())).thenAnswer(call -> redisValues.remove(call.<String>getArgument(0)) != null);
+
+        dispatcher = mock(NotificationDispatcher.class);
+        listener = listener(new EventDeduplicator(redis, new SimpleMeterRegistry(), 60_000, 10_000, 1000));
+    }
+
+    private NotificationEventListener listener(EventDeduplicator deduplicator) {
+        return new NotificationEventListener(deduplicator, dispatcher, mock(EmailService.class), new SimpleMeterRegistry());
+    }
+
+    private static NotificationEvent.Email email(UUID eventId) {
+        return new NotificationEvent.Email(eventId, UUID.randomUUID(), System.currentTimeMillis(), "Subject", "Body");
+    }
+
+    /** The callback the listener handed the dispatcher for {@code event}'s email. */
+    private Runnable onDone(NotificationEvent.Email event) {
+        ArgumentCaptor<Runnable> onDone = ArgumentCaptor.forClass(Runnable.class);
+        verify(dispatcher).email(eq(event.userId()), eq("Subject"), any(Consumer.class), onDone.capture());
+        return onDone.getValue();
+    }
+
+    @Test
+    void offset_ShouldOnlyBeAcknowledgedOnceTheEmailIsDone() {
+        NotificationEvent.Email event = email(UUID.randomUUID());
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+
+        listener.onEvent(event, acknowledgment);
+
+        verifyNoInteractions(acknowledgment);
+        assertEquals("pending", redisValues.get("notification:event:" + event.eventId()));
+
+        onDone(event).run();
+
+        verify(acknowledgment).acknowledge();
+        assertEquals("done", redisValues.get("notification:event:" + event.eventId()));
+    }
+
+    @Test
+    void redeliveredEvent_ShouldBeHandledOnce() {
+        NotificationEvent.Email event = email(UUID.randomUUID());
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+
+        listener.onEvent(event, acknowledgment);
+        onDone(event).run();
+        listener.onEvent(event, acknowledgment);
+
+        verify(dispatcher, times(1)).email(eq(event.userId()), eq("Subject"), any(Consumer.class), any(Runnable.class));
+        verify(acknowledgment, times(2)).acknowledge();
+    }
+
+    @Test
+    void eventHandledByAnotherInstance_ShouldBeSkipped() {
+        NotificationEvent.Email event = email(UUID.randomUUID());
+        redisValues.put("notification:event:" + event.eventId(), "done");
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+
+        listener.onEvent(event, acknowledgment);
+
+        verifyNoInteractions(dispatcher);
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void eventStillInFlightElsewhere_ShouldBeRetriedNotSkipped() {
+        NotificationEvent.Email event = email(UUID.randomUUID());
+        redisValues.put("notification:event:" + event.eventId(), "pending");
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+
+        assertThrows(EventDeduplicator.InFlightException.class, () -> listener.onEvent(event, acknowledgment));
+        verifyNoInteractions(dispatcher, acknowledgment);
+        assertEquals("pending", redisValues.get("notification:event:" + event.eventId()));
+
+        // The owner died and its pending claim expired: the redelivery is handled
+        redisValues.remove("notification:event:" + event.eventId());
+        listener.onEvent(event, acknowledgment);
+
+        onDone(event).run();
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void failedEvent_ShouldBeHandledAgainOnRetry() {
+        NotificationEvent.Email event = email(UUID.randomUUID());
+        doThrow(new IllegalStateException("boom")).doNothing()
+                .when(dispatcher).email(any(UUID.class), anyString(), any(Consumer.class), any(Runnable.class));
+
+        assertThrows(IllegalStateException.class, () -> listener.onEvent(event, mock(Acknowledgment.class)));
+        listener.onEvent(event, mock(Acknowledgment.class));
+
+        verify(dispatcher, times(2)).email(eq(event.userId()), eq("Subject"), any(Consumer.class), any(Runnable.class));
+        assertTrue(redisValues.containsKey("notification:event:" + event.eventId()));
+    }
+
+    @Test
+    void userNotification_ShouldUseEventIdAsNotificationId() {
+        UUID userId = UUID.randomUUID();
+        UUID eventId = UUID.randomUUID();
+
+        listener.onEvent(new NotificationEvent.UserNotification(eventId, userId, System.currentTimeMillis(),
+                "User Notification", "hello"), mock(Acknowledgment.class));
+
+        verify(dispatcher).emailUnlessSeen(eq(userId), eq(eventId), eq("User Notification"), eq("hello"), any(Runnable.class));
+    }
+}
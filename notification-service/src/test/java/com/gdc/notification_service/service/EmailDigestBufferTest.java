@@ -0,0 +1,164 @@
+package com.gdc.notification_service.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailDigestBufferTest {
+
+    private static final Runnable NO_OP = () -> {
+    };
+
+    private ScheduledThreadPoolExecutor scheduler;
+    private Map<UUID, List<List<EmailDigestBuffer.Entry>>> flushed;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new ScheduledThreadPoolExecutor(1);
+        scheduler.setRemoveOnCancelPolicy(true);
+        flushed = new ConcurrentHashMap<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    private EmailDigestBuffer buffer(long windowMs, int maxMessages) {
+        return new EmailDigestBuffer(scheduler, windowMs, maxMessages,
+                (userId, entries) -> flushed.computeIfAbsent(userId, id -> new CopyOnWriteArrayList<>()).add(entries));
+    }
+
+    @Test
+    void messagesWithinTheWindow_ShouldGoOutAsOneBatch() throws Exception {
+        EmailDigestBuffer buffer = buffer(50, 20);
+        UUID userId = UUID.randomUUID();
+
+        buffer.add(userId, "Request accepted", "Driver assigned", NO_OP);
+        buffer.add(userId, "Ride started", "On the way", NO_OP);
+        assertTrue(flushed.isEmpty());
+        assertEquals(1, buffer.size());
+
+        awaitUntil(() -> flushed.containsKey(userId));
+        List<List<EmailDigestBuffer.Entry>> batches = flushed.get(userId);
+        assertEquals(1, batches.size());
+        assertEquals(List.of("Request accepted", "Ride started"),
+                batches.get(0).stream().map(EmailDigestBuffer.Entry::subject).toList());
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void maxMessages_ShouldFlushEarlyAndCancelTheWindow() {
+        EmailDigestBuffer buffer = buffer(60_000, 3);
+        UUID userId = UUID.randomUUID();
+        UUID otherUser = UUID.randomUUID();
+
+        buffer.add(userId, "1", "one", NO_OP);
+        buffer.add(otherUser, "other", "other", NO_OP);
+        buffer.add(userId, "2", "two", NO_OP);
+        assertFalse(flushed.containsKey(userId));
+        buffer.add(userId, "3", "three", NO_OP);
+
+        // Flushed on the caller's thread, without waiting for the window
+        assertEquals(1, flushed.get(userId).size());
+        assertEquals(3, flushed.get(userId).get(0).size());
+        assertFalse(flushed.containsKey(otherUser));
+        assertEquals(1, buffer.size());
+        assertEquals(1, scheduler.getQueue().size(), "only the other user's window should still be scheduled");
+
+        buffer.add(userId, "4", "four", NO_OP);
+        assertEquals(1, flushed.get(userId).size());
+        assertEquals(2, buffer.size());
+    }
+
+    @Test
+    void flushAll_ShouldSendEveryOpenWindowAtOnce() {
+        EmailDigestBuffer buffer = buffer(60_000, 20);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        buffer.add(first, "a", "a", NO_OP);
+        buffer.add(first, "b", "b", NO_OP);
+        buffer.add(second, "c", "c", NO_OP);
+
+        buffer.flushAll();
+
+        assertEquals(2, flushed.get(first).get(0).size());
+        assertEquals(1, flushed.get(second).get(0).size());
+        assertEquals(0, buffer.size());
+        assertTrue(scheduler.getQueue().isEmpty());
+
+        buffer.flushAll();
+        assertEquals(1, flushed.get(first).size());
+    }
+
+    @Test
+    void concurrentAddsRacingTheTimer_ShouldFlushEveryMessageExactlyOnce() throws Exception {
+        int threads = 8;
+        int perThread = 2_000;
+        // 1 ms windows keep the timer flushing while adds are still arriving
+        EmailDigestBuffer buffer = buffer(1, 50);
+        UUID userId = UUID.randomUUID();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> adds = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String thread = "t" + t;
+                adds.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        buffer.add(userId, thread + "-" + i, "body", NO_OP);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> add : adds) {
+                add.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        buffer.flushAll();
+
+        List<List<EmailDigestBuffer.Entry>> batches = flushed.get(userId);
+        Set<String> subjects = new HashSet<>();
+        int total = 0;
+        for (List<EmailDigestBuffer.Entry> batch : batches) {
+            assertTrue(batch.size() <= 50);
+            for (EmailDigestBuffer.Entry entry : batch) {
+                assertTrue(subjects.add(entry.subject()), "flushed twice: " + entry.subject());
+                total++;
+            }
+        }
+        assertEquals(threads * perThread, total);
+        assertTrue(batches.size() > 1);
+        assertEquals(0, buffer.size());
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.gdc.notification_service.service;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationDispatcherTest {
+
+    private EmailService emailService;
+    private UserDriverService userDriverService;
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        emailService = mock(EmailService.class);
+        userDriverService = mock(UserDriverService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        // 3 attempts, 10 ms backoff, no digests
+        dispatcher = new NotificationDispatcher(emailService, userDriverService, mock(PresenceLookup.class), meterRegistry,
+                1, 10, 3, 10, 10, 1000, 0, 20, Set.of(), 0);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void failedAddressLookup_ShouldBeRetriedNotSkipped() throws Exception {
+        UUID userId = UUID.randomUUID();
+        when(userDriverService.getEmailByUserId(userId))
+                .thenThrow(new RedisConnectionFailureException("Redis down"))
+                .thenReturn("user@example.com");
+
+        dispatcher.email(userId, "Subject", "Body");
+
+        awaitUntil(() -> outcomes("sent") == 1);
+        verify(emailService).sendEmail("user@example.com", "Subject", "Body");
+        assertEquals(0, meterRegistry.get("notification.email.skipped").counter().count());
+        assertEquals(1, meterRegistry.get("notification.email.retries").counter().count());
+    }
+
+    @Test
+    void lookupThatKeepsFailing_ShouldBeDeadLettered() throws Exception {
+        UUID userId = UUID.randomUUID();
+        when(userDriverService.getEmailByUserId(userId)).thenThrow(new IllegalStateException("user-service down"));
+
+        dispatcher.email(userId, "Subject", "Body");
+
+        awaitUntil(() -> outcomes("dead_lettered") == 1);
+        verify(userDriverService, times(3)).getEmailByUserId(userId);
+        verifyNoInteractions(emailService);
+        assertEquals(0, meterRegistry.get("notification.email.skipped").counter().count());
+    }
+
+    @Test
+    void missingAddress_ShouldBeSkipped() throws Exception {
+        UUID userId = UUID.randomUUID();
+        when(userDriverService.getEmailByUserId(userId)).thenReturn(null);
+
+        dispatcher.email(userId, "Subject", "Body");
+
+        awaitUntil(() -> meterRegistry.get("notification.email.skipped").counter().count() == 1);
+        verify(userDriverService, times(1)).getEmailByUserId(userId);
+        verify(emailService, never()).sendEmail(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void onDone_ShouldRunOnceEachEmailIsSentSkippedOrDeadLettered() throws Exception {
+        UUID sent = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        UUID failing = UUID.randomUUID();
+        when(userDriverService.getEmailByUserId(sent))
+                .thenThrow(new RedisConnectionFailureException("Redis down"))
+                .thenReturn("user@example.com");
+        when(userDriverService.getEmailByUserId(missing)).thenReturn(null);
+        when(userDriverService.getEmailByUserId(failing)).thenThrow(new IllegalStateException("user-service down"));
+        Map<UUID, Integer> done = new ConcurrentHashMap<>();
+
+        for (UUID userId : List.of(sent, missing, failing)) {
+            dispatcher.email(userId, "Subject", address -> emailService.sendEmail(address, "Subject", "Body"),
+                    () -> done.merge(userId, 1, Integer::sum));
+        }
+
+        awaitUntil(() -> done.size() == 3);
+        assertEquals(Map.of(sent, 1, missing, 1, failing, 1), done);
+        verify(emailService).sendEmail("user@example.com", "Subject", "Body");
+        assertEquals(1, outcomes("dead_lettered"));
+    }
+
+    @Test
+    void digestedNotifications_ShouldOnlyBeDoneOnceTheDigestIsSent() throws Exception {
+        dispatcher.shutdown();
+        dispatcher = new NotificationDispatcher(emailService, userDriverService, mock(PresenceLookup.class), meterRegistry,
+                1, 10, 3, 10, 10, 1000, 500, 20, Set.of(), 0);
+        UUID userId = UUID.randomUUID();
+        when(userDriverService.getEmailByUserId(userId)).thenReturn("user@example.com");
+        AtomicInteger done = new AtomicInteger();
+
+        dispatcher.emailUnlessSeen(userId, UUID.randomUUID(), "Request accepted", "Driver assigned", done::incrementAndGet);
+        dispatcher.emailUnlessSeen(userId, UUID.randomUUID(), "Ride started", "On the way", done::incrementAndGet);
+        assertEquals(0, done.get());
+
+        awaitUntil(() -> done.get() == 2);
+        verify(emailService).sendEmail(eq("user@example.com"), eq("You have 2 new notifications"), anyString());
+    }
+
+    private long outcomes(String result) {
+        Timer timer = meterRegistry.find("notification.email.delivery").tag("result", result).timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            Thread.sleep(10);
+        }
+    }
+}
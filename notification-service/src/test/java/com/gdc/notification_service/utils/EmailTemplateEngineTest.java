@@ -0,0 +1,77 @@
+package com.gdc.notification_service.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailTemplateEngineTest {
+
+    private EmailTemplateEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new EmailTemplateEngine("help@example.com", "+91 40 1234 5678",
+                "classpath*:templates/email/*.html", 100, 600);
+    }
+
+    private String render(String template, String... values) {
+        return new String(engine.render(template, values), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void render_ShouldFillSlotsAndBindSupportDetails() {
+        String html = render("driver-request", "Ravi", "REQ-1", "Hyderabad", "Bengaluru",
+                "Furniture", "4250.00", "https://x/accept", "https://x/reject");
+
+        assertTrue(html.startsWith("<!DOCTYPE html>"));
+        assertTrue(html.contains("Hello Ravi!"));
+        assertTrue(html.contains("<div class=\"detail-value\">₹4250.00</div>"));
+        assertTrue(html.contains("<a href=\"https://x/accept\" class=\"btn btn-accept\">"));
+        assertTrue(html.contains("<a href=\"mailto:help@example.com\">help@example.com</a>"));
+        assertFalse(html.contains("{{"));
+    }
+
+    @Test
+    void render_ShouldEscapeValues() {
+        String html = render("user-confirmation", "<b>Ravi</b>", "now", "REQ-1",
+                "Tom & Jerry's \"place\"", "Pune 🚚", null);
+
+        assertTrue(html.contains("Dear &lt;b&gt;Ravi&lt;/b&gt;,"));
+        assertTrue(html.contains("Tom &amp; Jerry&#39;s &quot;place&quot;"));
+        assertTrue(html.contains("Pune 🚚"));
+    }
+
+    @Test
+    void render_ShouldRejectWrongNumberOfValues() {
+        assertThrows(IllegalArgumentException.class, () -> engine.render("user-confirmation", "Ravi"));
+        assertThrows(IllegalArgumentException.class, () -> engine.render("no-such-template"));
+        assertEquals(List.of("name", "time", "requestId", "from", "to", "goods"), engine.parameters("user-confirmation"));
+    }
+
+    @Test
+    void renderCached_ShouldReturnSameBodyForSameValues() {
+        byte[] first = engine.renderCached("user-confirmation", "Ravi", "now", "REQ-1", "a", "b", "c");
+        byte[] second = engine.renderCached("user-confirmation", "Ravi", "now", "REQ-1", "a", "b", "c");
+        byte[] other = engine.renderCached("user-confirmation", "Ravi", "now", "REQ-2", "a", "b", "c");
+
+        assertSame(first, second);
+        assertFalse(Arrays.equals(first, other));
+    }
+
+    @Test
+    void compile_ShouldFailOnUndeclaredOrUnusedSlots() {
+        Map<String, String> constants = Map.of("supportEmail", "help@example.com");
+
+        assertThrows(IllegalStateException.class,
+                () -> EmailTemplateEngine.compile("t", "{{params name}}\nHi {{nmae}}", constants));
+        assertThrows(IllegalStateException.class,
+                () -> EmailTemplateEngine.compile("t", "{{params name otp}}\nHi {{name}}", constants));
+        assertDoesNotThrow(() -> EmailTemplateEngine.compile("t", "{{params name}}\nHi {{name}}, {{supportEmail}}", constants));
+    }
+}
@@ -0,0 +1,224 @@
+package com.gdc.notification_service.utils;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PooledJavaMailSenderTest {
+
+    private FakeSmtpServer server;
+    private PooledJavaMailSender sender;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new FakeSmtpServer(0);
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        if (sender != null) {
+            sender.destroy();
+        }
+        server.close();
+    }
+
+    private PooledJavaMailSender pooled(int poolSize, int maxPerConnection, double maxPerSecond) {
+        PooledJavaMailSender pooled = new PooledJavaMailSender(poolSize, 0, maxPerConnection, maxPerSecond, 60_000, 0);
+        configure(pooled, server);
+        return pooled;
+    }
+
+    private static void configure(JavaMailSenderImpl mailSender, FakeSmtpServer server) {
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(server.port());
+    }
+
+    private static MimeMessage message(JavaMailSenderImpl mailSender, int i) {
+        try {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            helper.setFrom("noreply@goodstransportsystem.com");
+            helper.setTo("user" + i + "@example.com");
+            helper.setSubject("Notification " + i);
+            helper.setText("<p>Request " + i + " updated</p>", true);
+            return message;
+        } catch (MessagingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void send_ShouldReuseOneConnectionForSequentialSends() {
+        sender = pooled(4, 100, 0);
+
+        for (int i = 0; i < 30; i++) {
+            sender.send(message(sender, i));
+        }
+
+        assertEquals(30, server.messages());
+        assertEquals(1, server.connections());
+    }
+
+    @Test
+    void send_ShouldPushBatchThroughOneConnection() {
+        sender = pooled(4, 100, 0);
+
+        MimeMessage[] batch = new MimeMessage[20];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = message(sender, i);
+        }
+        sender.send(batch);
+
+        assertEquals(20, server.messages());
+        assertEquals(1, server.connections());
+    }
+
+    @Test
+    void send_ShouldRetireConnectionAfterMessageLimit() {
+        sender = pooled(1, 10, 0);
+
+        for (int i = 0; i < 25; i++) {
+            sender.send(message(sender, i));
+        }
+
+        assertEquals(25, server.messages());
+        assertEquals(3, server.connections());
+    }
+
+    @Test
+    void send_ShouldReconnectWhenServerDroppedPooledConnection() throws IOException {
+        sender = pooled(1, 100, 0);
+        sender.send(message(sender, 1));
+
+        server.dropConnections();
+        sender.send(message(sender, 2));
+
+        assertEquals(2, server.messages());
+        assertEquals(2, server.connections());
+    }
+
+    @Test
+    void healthCheck_ShouldDiscardDeadConnectionsAndPreConnect() throws IOException {
+        sender = new PooledJavaMailSender(2, 1, 100, 0, 60_000, 0);
+        configure(sender, server);
+
+        sender.healthCheck();
+        assertEquals(1, server.connections());
+
+        server.dropConnections();
+        sender.healthCheck();
+        assertEquals(2, server.connections());
+
+        sender.send(message(sender, 1));
+        assertEquals(1, server.messages());
+        assertEquals(2, server.connections());
+    }
+
+    @Test
+    void healthCheck_ShouldNotStartBeforePropertiesAreSet() throws Exception {
+        sender = new PooledJavaMailSender(2, 1, 100, 0, 60_000, 10);
+        Thread.sleep(100);
+        assertEquals(0, sender.getConnectionsOpened());
+
+        configure(sender, server);
+        sender.afterPropertiesSet();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (server.connections() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, server.connections());
+    }
+
+    @Test
+    void send_ShouldLimitThroughputPerConnection() {
+        sender = pooled(1, 100, 50);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 11; i++) {
+            sender.send(message(sender, i));
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // 11 sends at 50/s need at least 10 intervals of 20 ms
+        assertTrue(elapsedMs >= 190, "elapsed " + elapsedMs + " ms");
+    }
+
+    @Test
+    void send_ShouldNotExceedPoolSizeUnderConcurrency() throws Exception {
+        sender = pooled(3, 1000, 0);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> sends = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                int n = i;
+                sends.add(callers.submit(() -> sender.send(message(sender, n))));
+            }
+            for (Future<?> send : sends) {
+                send.get();
+            }
+        } finally {
+            callers.shutdown();
+        }
+
+        assertEquals(200, server.messages());
+        assertTrue(server.connections() <= 3, "opened " + server.connections() + " connections");
+    }
+
+    /**
+     * Messages per second through a plain {@link JavaMailSenderImpl} (a connection per
+     * send) and through the pool, against a server that takes 30 ms to greet, roughly
+     * a STARTTLS plus AUTH exchange to a nearby provider.
+     * Run with {@code BENCHMARK=true gradle test --tests '*PooledJavaMailSenderTest'}.
+     */
+    @Test
+    @EnabledIfEnvironmentVariable(named = "BENCHMARK", matches = "true")
+    void benchmark_PlainVersusPooled() throws Exception {
+        server.close();
+        server = new FakeSmtpServer(30);
+        int messages = 400;
+        int threads = 4;
+
+        JavaMailSenderImpl plain = new JavaMailSenderImpl();
+        configure(plain, server);
+        double plainRate = throughput(plain, messages, threads);
+
+        sender = pooled(threads, 100, 0);
+        double pooledRate = throughput(sender, messages, threads);
+
+        System.out.printf("SMTP with %d callers: plain %.0f msg/s, pooled %.0f msg/s (%d connections)%n",
+                threads, plainRate, pooledRate, sender.getConnectionsOpened());
+        assertTrue(pooledRate > plainRate);
+    }
+
+    private static double throughput(JavaMailSenderImpl mailSender, int messages, int threads) throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> sends = new ArrayList<>();
+            for (int i = 0; i < messages; i++) {
+                int n = i;
+                sends.add(callers.submit(() -> mailSender.send(message(mailSender, n))));
+            }
+            for (Future<?> send : sends) {
+                send.get();
+            }
+            return messages / ((System.nanoTime() - start) / 1e9);
+        } finally {
+            callers.shutdown();
+        }
+    }
+}
@@ -7,6 +7,8 @@ import com.gdc.requests_management.feign.dto.UserResponseDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @FeignClient(
@@ -21,6 +23,9 @@ public interface UserServiceClient {
     @GetMapping("/api/users/{userId}")
     StandardResponse<UserResponseDTO> getUserDetails(@PathVariable("userId") UUID userId);
 
+    @PostMapping("/api/users/batch")
+    StandardResponse<List<UserResponseDTO>> getUsersByIds(@RequestBody Set<UUID> userIds);
+
     @PutMapping("/users/{userId}/ban")
     void banUser(@PathVariable("userId") UUID userId, @RequestParam("reason") String reason);
 }
\ No newline at end of file
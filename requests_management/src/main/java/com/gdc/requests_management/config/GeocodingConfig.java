@@ -0,0 +1,29 @@
+package com.gdc.requests_management.config;
+
+import com.gdc.requests_management.utils.GazetteerIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Geocoding provider selection. With {@code geocoding.provider=gazetteer} places are
+ * resolved from a local index first and Nominatim is only asked about misses;
+ * the default ({@code nominatim}) keeps every lookup online.
+ */
+@Configuration
+@Slf4j
+public class GeocodingConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "geocoding.provider", havingValue = "gazetteer")
+    public GazetteerIndex gazetteerIndex(@Value("${geocoding.gazetteer.index-path}") String indexPath) throws IOException {
+        GazetteerIndex index = GazetteerIndex.open(Path.of(indexPath));
+        log.info("Loaded gazetteer index {} with {} places", indexPath, index.size());
+        return index;
+    }
+}
@@ -18,6 +18,8 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Configuration
@@ -81,6 +83,16 @@ public class InternalFeignConfig {
                 );
             }
 
+            @Override
+            public StandardResponse<List<UserResponseDTO>> getUsersByIds(Set<UUID> userIds) {
+                log.error("❌ Fallback: failed to fetch {} user details in batch: {}", userIds.size(), cause.getMessage());
+                return StandardResponse.<List<UserResponseDTO>>error(
+                        503,
+                        "User service is currently unavailable",
+                        "/api/users/batch"
+                );
+            }
+
             @Override
             public void banUser(UUID userId, String reason) {
                 log.warn("⚠️ Fallback: banUser failed for {}: {}", userId, cause.getMessage());
@@ -1,5 +1,9 @@
 package com.gdc.requests_management.config;
 
+import com.gdc.requests_management.kafka.NotificationEvent;
+import com.gdc.requests_management.kafka.NotificationEventSerde;
+import com.gdc.requests_management.kafka.RequestEvent;
+import com.gdc.requests_management.kafka.RequestEventSerde;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -16,20 +20,68 @@ public class KafkaProducerConfig {
     @Value("${kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
+    // Wait a little for a batch to fill; notifications tolerate 20 ms far better than the broker tolerates tiny requests
+    @Value("${kafka.producer.linger-ms:20}")
+    private int lingerMs;
+
+    @Value("${kafka.producer.batch-size:65536}")
+    private int batchSize;
+
+    @Value("${kafka.producer.compression-type:lz4}")
+    private String compressionType;
+
+    // Tracking updates are sent from request threads, which shouldn't hang for a minute when Kafka is down
+    @Value("${kafka.producer.max-block-ms:5000}")
+    private long maxBlockMs;
+
     @Bean
     public ProducerFactory<String, String> producerFactory() {
-        Map<String, Object> configProps = new HashMap<>();
-        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.ACKS_CONFIG, "all"); // Ensure reliable delivery
-        configProps.put(ProducerConfig.RETRIES_CONFIG, 3);   // Retry mechanism
-        configProps.put(ProducerConfig.LINGER_MS_CONFIG, 1); // Small delay to batch
-        return new DefaultKafkaProducerFactory<>(configProps);
+        return new DefaultKafkaProducerFactory<>(producerProps(bootstrapServers, lingerMs, batchSize, compressionType, maxBlockMs),
+                new StringSerializer(), new StringSerializer());
     }
 
     @Bean
     public KafkaTemplate<String, String> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
+
+    @Bean
+    public ProducerFactory<String, RequestEvent> requestEventProducerFactory() {
+        return new DefaultKafkaProducerFactory<>(producerProps(bootstrapServers, lingerMs, batchSize, compressionType, maxBlockMs),
+                new StringSerializer(), new RequestEventSerde());
+    }
+
+    @Bean
+    public KafkaTemplate<String, RequestEvent> requestEventKafkaTemplate() {
+        return new KafkaTemplate<>(requestEventProducerFactory());
+    }
+
+    @Bean
+    public ProducerFactory<String, NotificationEvent> notificationEventProducerFactory() {
+        return new DefaultKafkaProducerFactory<>(producerProps(bootstrapServers, lingerMs, batchSize, compressionType, maxBlockMs),
+                new StringSerializer(), new NotificationEventSerde());
+    }
+
+    @Bean
+    public KafkaTemplate<String, NotificationEvent> notificationEventKafkaTemplate() {
+        return new KafkaTemplate<>(notificationEventProducerFactory());
+    }
+
+    /**
+     * Shared producer settings. Idempotence keeps retries from duplicating or reordering
+     * records within a partition, which the per-request ordering of lifecycle events relies on.
+     */
+    public static Map<String, Object> producerProps(String bootstrapServers, int lingerMs, int batchSize,
+                                                    String compressionType, long maxBlockMs) {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all"); // Ensure reliable delivery
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.RETRIES_CONFIG, 3);   // Retry mechanism
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
+        return configProps;
+    }
 }
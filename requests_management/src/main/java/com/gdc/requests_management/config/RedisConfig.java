@@ -1,15 +1,23 @@
 package com.gdc.requests_management.config;
 
+import com.gdc.requests_management.service.UserProfileCache;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
 @Configuration
 @EnableCaching
+@Slf4j
 public class RedisConfig {
 
     @Bean
@@ -34,4 +42,20 @@ public class RedisConfig {
         template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
         return template;
     }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(LettuceConnectionFactory connectionFactory,
+                                                                       UserProfileCache userProfileCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            String userId = new String(message.getBody(), StandardCharsets.UTF_8);
+            try {
+                userProfileCache.evictLocal(UUID.fromString(userId));
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring malformed profile invalidation: {}", userId);
+            }
+        }, new ChannelTopic(UserProfileCache.INVALIDATION_CHANNEL));
+        return container;
+    }
 }
@@ -1,13 +1,29 @@
 package com.gdc.requests_management.config;
 
+import com.gdc.requests_management.websocket.RedisBrokerBridge;
+import com.gdc.requests_management.websocket.StompAuthChannelInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.*;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+    private final RedisBrokerBridge redisBrokerBridge;
+
+    // A session that can't take frames this fast is closed rather than left to pile up messages in memory
+    @Value("${websocket.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         // WebSocket endpoint for client connections (e.g., ws://localhost:8080/ws)
@@ -22,5 +38,19 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.enableSimpleBroker("/topic", "/queue"); // ✅ Broker for subscribing messages
         registry.setApplicationDestinationPrefixes("/app"); // ✅ Prefix for sending from client to server
         registry.setUserDestinationPrefix("/user"); // ✅ Enables /user/{username}/... for private messaging
+        // The simple broker only knows this node's sessions; the bridge fans server-side sends out to the other nodes
+        registry.configureBrokerChannel().interceptors(redisBrokerBridge);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Sets the session principal on CONNECT so user destinations and presence know who is connected
+        registration.interceptors(stompAuthChannelInterceptor);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit);
     }
 }
@@ -1,19 +1,26 @@
 package com.gdc.requests_management.controller;
 
+import com.gdc.requests_management.dto.request.LocationDTO;
+import com.gdc.requests_management.websocket.PresenceRegistry;
 import com.gdc.requests_management.websocket.WebSocketNotificationHandler;
 import com.gdc.requests_management.dto.request.PaymentNotificationRequest;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/notifications")
 @RequiredArgsConstructor
+@Slf4j
 public class NotificationController {
 
     private final WebSocketNotificationHandler notificationHandler;
+    private final PresenceRegistry presenceRegistry;
 
     // DTO for generic notification requests
     public static class NotificationRequest {
@@ -27,9 +34,23 @@ public class NotificationController {
     public static class TrackingNotificationRequest {
         public UUID senderUserId;
         public UUID rideUserId;
-        public String requestId;
+        public UUID requestId;
         public String status;
-        public String location;
+        public LocationDTO location;
+    }
+
+    // STOMP: the client acknowledges a notification it displayed, so its email fallback is skipped.
+    // Only the recipient can acknowledge, so anonymous sessions are ignored
+    @MessageMapping("/notifications/ack")
+    public void acknowledge(String notificationId, Principal principal) {
+        if (principal == null) {
+            return;
+        }
+        try {
+            presenceRegistry.acknowledge(UUID.fromString(principal.getName()), UUID.fromString(notificationId.trim()));
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring malformed acknowledgement {}", notificationId);
+        }
     }
 
     // Send a simple notification to a user (WebSocket + Email fallback)
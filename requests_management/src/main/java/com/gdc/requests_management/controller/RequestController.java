@@ -1,16 +1,19 @@
 package com.gdc.requests_management.controller;
 
-import com.gdc.requests_management.client.UserServiceClient;
 import com.gdc.requests_management.dto.request.*;
+import com.gdc.requests_management.dto.response.LocationBatchResponse;
+import com.gdc.requests_management.dto.response.NearbyDriversSummary;
 import com.gdc.requests_management.dto.response.RequestResponse;
 import com.gdc.requests_management.dto.response.RequestStatusResponse;
 import com.gdc.requests_management.dto.response.RequestSummaryResponse;
 import com.gdc.requests_management.dto.response.StandardResponse;
+import com.gdc.requests_management.dto.response.TrailResponse;
 import com.gdc.requests_management.dto.response.TransactionReport;
 import com.gdc.requests_management.feign.dto.UserResponseDTO;
 import com.gdc.requests_management.model.entity.Request;
 import com.gdc.requests_management.model.enums.RequestStatus;
 import com.gdc.requests_management.service.RequestService;
+import com.gdc.requests_management.service.UserProfileCache;
 import com.gdc.requests_management.utils.RequestMapper;
 import com.gdc.requests_management.websocket.WebSocketNotificationHandler;
 import io.swagger.v3.oas.annotations.Operation;
@@ -33,9 +36,15 @@ import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @CrossOrigin(origins = "http://localhost:4200")
 @Slf4j
@@ -52,7 +61,7 @@ public class RequestController {
     private WebSocketNotificationHandler webSocketNotificationHandler;
 
     @Autowired
-    private UserServiceClient userServiceClient;
+    private UserProfileCache userProfileCache;
 
     @Autowired
     private EmailTokenValidator emailTokenValidator;
@@ -178,7 +187,7 @@ public class RequestController {
             @RequestBody(required = false) RequestStatusFilterDTO statusFilter) {
         RequestStatus status = statusFilter != null ? statusFilter.getStatus() : null;
         Page<Request> requests = requestService.getRequestsByUser(UUID.fromString(userId), pageable, status);
-        Page<RequestResponse> response = requests.map(this::convertToResponseDTO);
+        Page<RequestResponse> response = toResponsePage(requests);
         return ResponseEntity.ok(StandardResponse.success(response, "User requests retrieved successfully"));
     }
 
@@ -220,9 +229,7 @@ public class RequestController {
             @RequestBody RideIdRequestDTO rideIdRequest,
             @AuthenticationPrincipal String userId) {
         List<Request> requests = requestService.getRequestsForRide(rideIdRequest.getRideId());
-        List<RequestResponse> response = requests.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        List<RequestResponse> response = toResponseList(requests);
         return ResponseEntity.ok(StandardResponse.success(response, "Requests for ride retrieved successfully"));
     }
 
@@ -246,7 +253,7 @@ public class RequestController {
             @RequestBody(required = false) RequestStatusFilterDTO statusFilter) {
         RequestStatus status = statusFilter != null ? statusFilter.getStatus() : null;
         Page<Request> requests = requestService.getRequestsByRideUser(UUID.fromString(userId), pageable, status);
-        Page<RequestResponse> response = requests.map(this::convertToResponseDTO);
+        Page<RequestResponse> response = toResponsePage(requests);
         return ResponseEntity.ok(StandardResponse.success(response, "Assigned requests retrieved successfully"));
     }
 
@@ -267,9 +274,7 @@ public class RequestController {
     public ResponseEntity<StandardResponse<List<RequestResponse>>> getActiveRequestsForDriver(
             @AuthenticationPrincipal String userId) {
         List<Request> requests = requestService.getActiveRequestsForRideUser(UUID.fromString(userId));
-        List<RequestResponse> response = requests.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        List<RequestResponse> response = toResponseList(requests);
         return ResponseEntity.ok(StandardResponse.success(response, "Active requests retrieved successfully"));
     }
 
@@ -444,7 +449,7 @@ public class RequestController {
         String fromDate = dateRange != null ? dateRange.getFromDate() : null;
         String toDate = dateRange != null ? dateRange.getToDate() : null;
         Page<Request> requests = requestService.getRequestHistory(UUID.fromString(userId), pageable, fromDate, toDate);
-        Page<RequestResponse> response = requests.map(this::convertToResponseDTO);
+        Page<RequestResponse> response = toResponsePage(requests);
         return ResponseEntity.ok(StandardResponse.success(response, "Request history retrieved successfully"));
     }
 
@@ -470,7 +475,7 @@ public class RequestController {
             @RequestBody DriverHistoryRequestDTO request) {
         Page<Request> requests = requestService.getRideUserRequestHistory(
                 UUID.fromString(userId), pageable, request.getFromDate(), request.getToDate(), request.getStatus());
-        Page<RequestResponse> response = requests.map(this::convertToResponseDTO);
+        Page<RequestResponse> response = toResponsePage(requests);
         return ResponseEntity.ok(StandardResponse.success(response, "Driver request history retrieved successfully"));
     }
 
@@ -516,7 +521,7 @@ public class RequestController {
             @AuthenticationPrincipal String userId,
             Pageable pageable) {
         Page<Request> requests = requestService.getCompletedRequestsHistory(UUID.fromString(userId), pageable);
-        Page<RequestResponse> response = requests.map(this::convertToResponseDTO);
+        Page<RequestResponse> response = toResponsePage(requests);
         return ResponseEntity.ok(StandardResponse.success(response, "Completed requests history retrieved successfully"));
     }
 
@@ -542,7 +547,7 @@ public class RequestController {
             @AuthenticationPrincipal String userId) {
         log.info("Received search request: {}", filterDTO);
         Page<Request> requests = requestService.searchRequests(filterDTO, pageable, UUID.fromString(userId));
-        Page<RequestResponse> response = requests.map(this::convertToResponseDTO);
+        Page<RequestResponse> response = toResponsePage(requests);
         return ResponseEntity.ok(StandardResponse.success(response, "Requests retrieved successfully"));
     }
 
@@ -568,9 +573,7 @@ public class RequestController {
         List<Request> requests = requestService.getRequestsByLocation(
                 locationSearch.getFrom(), locationSearch.getTo(),
                 locationSearch.getRadius(), UUID.fromString(userId));
-        List<RequestResponse> response = requests.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        List<RequestResponse> response = toResponseList(requests);
         return ResponseEntity.ok(StandardResponse.success(response, "Location-based requests retrieved successfully"));
     }
 
@@ -593,7 +596,7 @@ public class RequestController {
             @RequestBody(required = false) RequestStatusFilterDTO statusFilter) {
         RequestStatus status = statusFilter != null ? statusFilter.getStatus() : null;
         Page<Request> requests = requestService.getAllRequests(pageable, status);
-        Page<RequestResponse> response = requests.map(this::convertToResponseDTO);
+        Page<RequestResponse> response = toResponsePage(requests);
         return ResponseEntity.ok(StandardResponse.success(response, "All requests retrieved successfully"));
     }
 
@@ -614,9 +617,7 @@ public class RequestController {
     public ResponseEntity<StandardResponse<List<RequestResponse>>> getRequestsByUserAdmin(
             @RequestBody UserIdRequestDTO userIdRequest) {
         List<Request> requests = requestService.getRequestsByUserAdmin(userIdRequest.getUserId());
-        List<RequestResponse> response = requests.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        List<RequestResponse> response = toResponseList(requests);
         return ResponseEntity.ok(StandardResponse.success(response, "User requests retrieved successfully"));
     }
 
@@ -643,6 +644,33 @@ public class RequestController {
         return ResponseEntity.ok(StandardResponse.success(null, "Location updated successfully"));
     }
 
+    @Operation(
+            summary = "Upload a batch of location fixes",
+            description = "Lets a driver app buffer GPS fixes and upload them together, optionally tagged with the " +
+                    "active requests they were taken for. Fixes with out-of-range coordinates are skipped; a fix " +
+                    "without coordinates fails the whole batch.",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Fixes ingested successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized batch, a fix without coordinates, or a request that isn't active",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "401", description = "Unauthorized: Invalid or missing JWT",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Not the assigned driver or user banned",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "404", description = "Request not found",
+                    content = @Content(mediaType = "application/json"))
+    })
+    @PostMapping("/driver/location/batch")
+    public ResponseEntity<StandardResponse<LocationBatchResponse>> ingestLocationBatch(
+            @AuthenticationPrincipal String userId,
+            @Valid @RequestBody LocationBatchDTO batch) {
+        LocationBatchResponse result = requestService.ingestLocationBatch(UUID.fromString(userId), batch);
+        return ResponseEntity.ok(StandardResponse.success(result, "Location fixes ingested successfully"));
+    }
+
     @Operation(
             summary = "Update request tracking",
             description = "Allows a driver to update tracking information for a request.",
@@ -692,6 +720,59 @@ public class RequestController {
         return ResponseEntity.ok(StandardResponse.success(tracking, "Tracking retrieved successfully"));
     }
 
+    @Operation(
+            summary = "Get request trail",
+            description = "Retrieves the route travelled for a request, oldest first, optionally limited to a time range " +
+                    "(epoch millis) and simplified to within toleranceMeters of the recorded path.",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Trail retrieved successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized: Invalid or missing JWT",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Access denied or user banned",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "404", description = "Request not found",
+                    content = @Content(mediaType = "application/json"))
+    })
+    @GetMapping("/{requestId}/trail")
+    public ResponseEntity<StandardResponse<TrailResponse>> getRequestTrail(
+            @PathVariable UUID requestId,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(defaultValue = "0") double toleranceMeters,
+            @AuthenticationPrincipal String userId) {
+        TrailResponse trail = requestService.getRequestTrail(requestId, UUID.fromString(userId), from, to, toleranceMeters);
+        return ResponseEntity.ok(StandardResponse.success(trail, "Trail retrieved successfully"));
+    }
+
+    @Operation(
+            summary = "Find nearby drivers",
+            description = "Counts drivers that reported a position recently within radiusKm of a point, with the " +
+                    "nearest one's distance rounded up to a whole kilometre. Driver ids and positions are not exposed.",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Nearby drivers retrieved successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandardResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid coordinates",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "401", description = "Unauthorized: Invalid or missing JWT",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "403", description = "Forbidden: User banned",
+                    content = @Content(mediaType = "application/json"))
+    })
+    @GetMapping("/drivers/nearby")
+    public ResponseEntity<StandardResponse<NearbyDriversSummary>> findDriversNear(
+            @RequestParam double latitude,
+            @RequestParam double longitude,
+            @RequestParam(defaultValue = "5") double radiusKm,
+            @AuthenticationPrincipal String userId) {
+        NearbyDriversSummary drivers = requestService.findDriversNear(latitude, longitude, radiusKm, UUID.fromString(userId));
+        return ResponseEntity.ok(StandardResponse.success(drivers, "Nearby drivers retrieved successfully"));
+    }
+
     @Operation(
             summary = "Ban a user (Admin)",
             description = "Initiates a user ban.",
@@ -747,32 +828,59 @@ public class RequestController {
     }
 
     private RequestResponse convertToResponseDTO(Request request) {
+        return convertToResponseDTO(request, fetchUsers(List.of(request)));
+    }
+
+    private Page<RequestResponse> toResponsePage(Page<Request> requests) {
+        Map<UUID, UserResponseDTO> users = fetchUsers(requests.getContent());
+        return requests.map(request -> convertToResponseDTO(request, users));
+    }
+
+    private List<RequestResponse> toResponseList(List<Request> requests) {
+        Map<UUID, UserResponseDTO> users = fetchUsers(requests);
+        return requests.stream()
+                .map(request -> convertToResponseDTO(request, users))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Resolves every distinct sender and driver of the given rows through the
+     * profile cache, which falls back to a single batch call to user-service
+     * instead of two calls per row.
+     */
+    private Map<UUID, UserResponseDTO> fetchUsers(Collection<Request> requests) {
+        Set<UUID> userIds = requests.stream()
+                .flatMap(request -> Stream.of(request.getSenderUserId(), request.getRideUserId()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+
+        try {
+            return userProfileCache.getAll(userIds);
+        } catch (Exception e) {
+            log.warn("Failed to fetch user details for {} users: {}", userIds.size(), e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private RequestResponse convertToResponseDTO(Request request, Map<UUID, UserResponseDTO> users) {
         RequestResponse dto = RequestMapper.toDto(request);
 
-        // 🔁 Sender Info
         if (request.getSenderUserId() != null) {
-            try {
-                UserResponseDTO user = userServiceClient.getUserDetails(request.getSenderUserId()).getData();
-                dto.setSenderName(user.getDisplayName());
-            } catch (Exception e) {
-                dto.setSenderName("Unknown");
-            }
+            UserResponseDTO user = users.get(request.getSenderUserId());
+            dto.setSenderName(user != null ? user.getDisplayName() : "Unknown");
         }
 
-// 🔁 Driver Info
         if (request.getRideUserId() != null) {
-            try {
-                UserResponseDTO driver = userServiceClient.getUserDetails(request.getRideUserId()).getData();
-                dto.setDriverName(driver.getDisplayName());
-                dto.setDriverPhoneNumber(driver.getPhoneNumber());
-            } catch (Exception e) {
-                dto.setDriverName("Unknown");
-                dto.setDriverPhoneNumber("N/A");
-            }
+            UserResponseDTO driver = users.get(request.getRideUserId());
+            dto.setDriverName(driver != null ? driver.getDisplayName() : "Unknown");
+            dto.setDriverPhoneNumber(driver != null ? driver.getPhoneNumber() : "N/A");
         }
 
-
         return dto;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,15 @@
+package com.gdc.requests_management.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class LocationBatchDTO {
+    @NotEmpty(message = "At least one fix is required")
+    @Size(max = 1000, message = "At most 1000 fixes per batch")
+    private List<@Valid LocationFixDTO> fixes;
+}
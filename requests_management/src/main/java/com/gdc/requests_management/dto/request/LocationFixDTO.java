@@ -0,0 +1,26 @@
+package com.gdc.requests_management.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+public class LocationFixDTO {
+    // The active request the fix was taken for; null when the driver is only reporting position
+    private UUID requestId;
+    // Boxed so a fix without coordinates is rejected instead of read as (0, 0)
+    @NotNull(message = "Latitude is required")
+    private Double latitude;
+    @NotNull(message = "Longitude is required")
+    private Double longitude;
+    private String timestamp; // ISO 8601 format
+
+    public LocationDTO toLocation() {
+        LocationDTO location = new LocationDTO();
+        location.setLatitude(latitude);
+        location.setLongitude(longitude);
+        location.setTimestamp(timestamp);
+        return location;
+    }
+}
@@ -0,0 +1,13 @@
+package com.gdc.requests_management.dto.response;
+
+import lombok.*;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LocationBatchResponse {
+    private int accepted;
+    // Fixes dropped for missing or out-of-range coordinates
+    private int skipped;
+}
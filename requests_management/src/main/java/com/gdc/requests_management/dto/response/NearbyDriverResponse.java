@@ -0,0 +1,16 @@
+package com.gdc.requests_management.dto.response;
+
+import lombok.*;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class NearbyDriverResponse {
+    private UUID driverId;
+    private double distanceKm;
+    private double latitude;
+    private double longitude;
+}
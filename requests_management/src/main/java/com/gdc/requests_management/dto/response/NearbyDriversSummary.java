@@ -0,0 +1,15 @@
+package com.gdc.requests_management.dto.response;
+
+import lombok.*;
+
+/** What a customer may see about drivers near a point: how many, and roughly how close. No ids or positions. */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class NearbyDriversSummary {
+    // Capped at the service's maximum
+    private int driversCount;
+    // Rounded up to a whole kilometre; null when no driver is in range
+    private Double nearestDistanceKm;
+}
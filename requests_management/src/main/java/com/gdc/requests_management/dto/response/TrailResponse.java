@@ -0,0 +1,26 @@
+package com.gdc.requests_management.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TrailResponse {
+    private UUID requestId;
+    // Samples in the requested range before downsampling
+    private int totalSamples;
+    private List<TrailPoint> points;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class TrailPoint {
+        private double latitude;
+        private double longitude;
+        private long timestamp; // epoch millis
+    }
+}
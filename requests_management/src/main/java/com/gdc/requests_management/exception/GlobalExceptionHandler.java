@@ -3,12 +3,25 @@ package com.gdc.requests_management.exception;
 import com.gdc.requests_management.dto.response.StandardResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.util.List;
+
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    // Otherwise the catch-all below turns invalid request bodies into 500s
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<StandardResponse<Object>> handleValidation(MethodArgumentNotValidException ex, HttpServletRequest req) {
+        List<String> errors = ex.getBindingResult().getFieldErrors().stream()
+                .map(error -> error.getField() + ": " + error.getDefaultMessage())
+                .toList();
+        return ResponseEntity.badRequest().body(
+                StandardResponse.error(400, "Validation failed", errors, req.getRequestURI()));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<StandardResponse<Object>> handleException(Exception ex, HttpServletRequest req) {
         ex.printStackTrace();
@@ -0,0 +1,52 @@
+package com.gdc.requests_management.kafka;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+import java.util.UUID;
+
+/**
+ * Notifications for notification-service to deliver, published to {@link #TOPIC} keyed
+ * by recipient so one user's notifications stay in order and are digested by a single
+ * consumer. {@code eventId} is a random id stored with the outbox row, so a batch the
+ * relay publishes twice carries the same ids and the consumer drops the repeats, but
+ * nobody can work out the id of someone else's notification.
+ * <p>
+ * The WebSocket half of a {@link UserNotification} has already been pushed by
+ * request-service, tagged with {@code eventId} as its notification id; the event
+ * tells notification-service to email the text unless the user acknowledges it.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = NotificationEvent.UserNotification.class, name = "UserNotification"),
+        @JsonSubTypes.Type(value = NotificationEvent.Email.class, name = "Email"),
+        @JsonSubTypes.Type(value = NotificationEvent.DriverRequestEmail.class, name = "DriverRequestEmail"),
+        @JsonSubTypes.Type(value = NotificationEvent.UserConfirmationEmail.class, name = "UserConfirmationEmail")
+})
+public sealed interface NotificationEvent {
+
+    String TOPIC = "notifications";
+
+    UUID eventId();
+
+    UUID userId();
+
+    long occurredAt();
+
+    record UserNotification(UUID eventId, UUID userId, long occurredAt, String subject, String message)
+            implements NotificationEvent {
+    }
+
+    record Email(UUID eventId, UUID userId, long occurredAt, String subject, String body)
+            implements NotificationEvent {
+    }
+
+    record DriverRequestEmail(UUID eventId, UUID userId, long occurredAt, String requestId, String from, String to,
+                              String goodsDescription, String fare, String acceptUrl, String rejectUrl)
+            implements NotificationEvent {
+    }
+
+    record UserConfirmationEmail(UUID eventId, UUID userId, long occurredAt, String requestId, String from, String to,
+                                 String goodsDescription) implements NotificationEvent {
+    }
+}
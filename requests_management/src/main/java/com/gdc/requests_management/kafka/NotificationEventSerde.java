@@ -0,0 +1,9 @@
+package com.gdc.requests_management.kafka;
+
+/** {@link SmileSerde} for {@link NotificationEvent}. */
+public class NotificationEventSerde extends SmileSerde<NotificationEvent> {
+
+    public NotificationEventSerde() {
+        super(NotificationEvent.class);
+    }
+}
@@ -0,0 +1,62 @@
+package com.gdc.requests_management.kafka;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+import java.util.UUID;
+
+/**
+ * Lifecycle events published to {@link #TOPIC}, keyed by request id so every event for
+ * one request lands on the same partition in order. {@code eventId} is unique per event
+ * and lets consumers drop redeliveries; {@code occurredAt} is epoch millis.
+ * <p>
+ * On the wire these are Smile (binary JSON, see {@link RequestEventSerde}) with the
+ * record name as the {@code type} property.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = RequestEvent.RequestCreated.class, name = "RequestCreated"),
+        @JsonSubTypes.Type(value = RequestEvent.RequestAccepted.class, name = "RequestAccepted"),
+        @JsonSubTypes.Type(value = RequestEvent.PickedUp.class, name = "PickedUp"),
+        @JsonSubTypes.Type(value = RequestEvent.Delivered.class, name = "Delivered"),
+        @JsonSubTypes.Type(value = RequestEvent.Rejected.class, name = "Rejected"),
+        @JsonSubTypes.Type(value = RequestEvent.TrackingUpdated.class, name = "TrackingUpdated")
+})
+public sealed interface RequestEvent {
+
+    String TOPIC = "request-lifecycle";
+
+    UUID eventId();
+
+    UUID requestId();
+
+    long occurredAt();
+
+    UUID senderUserId();
+
+    UUID driverId();
+
+    record RequestCreated(UUID eventId, UUID requestId, long occurredAt, UUID senderUserId, UUID driverId,
+                          String from, String to, String fare) implements RequestEvent {
+    }
+
+    record RequestAccepted(UUID eventId, UUID requestId, long occurredAt, UUID senderUserId, UUID driverId)
+            implements RequestEvent {
+    }
+
+    record PickedUp(UUID eventId, UUID requestId, long occurredAt, UUID senderUserId, UUID driverId)
+            implements RequestEvent {
+    }
+
+    record Delivered(UUID eventId, UUID requestId, long occurredAt, UUID senderUserId, UUID driverId,
+                     String notes) implements RequestEvent {
+    }
+
+    record Rejected(UUID eventId, UUID requestId, long occurredAt, UUID senderUserId, UUID driverId,
+                    String reason) implements RequestEvent {
+    }
+
+    record TrackingUpdated(UUID eventId, UUID requestId, long occurredAt, UUID senderUserId, UUID driverId,
+                           String status, double latitude, double longitude) implements RequestEvent {
+    }
+}
@@ -0,0 +1,104 @@
+package com.gdc.requests_management.kafka;
+
+import com.gdc.requests_management.dto.request.LocationDTO;
+import com.gdc.requests_management.model.entity.Request;
+import com.gdc.requests_management.service.NotificationOutbox;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * Publishes {@link RequestEvent}s for request state transitions.
+ * <p>
+ * Transitions go through the outbox, so an event is published if and only if the
+ * transition commits. Tracking updates are frequent and superseded by the next one,
+ * so they skip the outbox and are sent straight to Kafka after commit; a lost one
+ * costs nothing but a stale position until the next.
+ */
+@Component
+@Slf4j
+public class RequestEventPublisher {
+
+    private final NotificationOutbox notificationOutbox;
+    private final KafkaTemplate<String, RequestEvent> requestEventKafkaTemplate;
+    private final Counter trackingFailed;
+
+    public RequestEventPublisher(NotificationOutbox notificationOutbox,
+                                 KafkaTemplate<String, RequestEvent> requestEventKafkaTemplate,
+                                 MeterRegistry meterRegistry) {
+        this.notificationOutbox = notificationOutbox;
+        this.requestEventKafkaTemplate = requestEventKafkaTemplate;
+        this.trackingFailed = Counter.builder("request.events.tracking.failed")
+                .description("Tracking updates Kafka did not accept")
+                .register(meterRegistry);
+    }
+
+    public void requestCreated(Request request) {
+        notificationOutbox.requestEvent(new RequestEvent.RequestCreated(UUID.randomUUID(), request.getId(),
+                System.currentTimeMillis(), request.getSenderUserId(), request.getRideUserId(),
+                request.getFrom(), request.getTo(), request.getFare() != null ? request.getFare().toPlainString() : null));
+    }
+
+    public void requestAccepted(Request request) {
+        notificationOutbox.requestEvent(new RequestEvent.RequestAccepted(UUID.randomUUID(), request.getId(),
+                System.currentTimeMillis(), request.getSenderUserId(), request.getRideUserId()));
+    }
+
+    public void pickedUp(Request request) {
+        notificationOutbox.requestEvent(new RequestEvent.PickedUp(UUID.randomUUID(), request.getId(),
+                System.currentTimeMillis(), request.getSenderUserId(), request.getRideUserId()));
+    }
+
+    public void delivered(Request request, String notes) {
+        notificationOutbox.requestEvent(new RequestEvent.Delivered(UUID.randomUUID(), request.getId(),
+                System.currentTimeMillis(), request.getSenderUserId(), request.getRideUserId(), notes));
+    }
+
+    /** {@code driverId} is passed in because rejecting clears the request's driver. */
+    public void rejected(Request request, UUID driverId, String reason) {
+        notificationOutbox.requestEvent(new RequestEvent.Rejected(UUID.randomUUID(), request.getId(),
+                System.currentTimeMillis(), request.getSenderUserId(), driverId, reason));
+    }
+
+    public void trackingUpdated(Request request, LocationDTO location) {
+        RequestEvent event = new RequestEvent.TrackingUpdated(UUID.randomUUID(), request.getId(),
+                System.currentTimeMillis(), request.getSenderUserId(), request.getRideUserId(),
+                request.getStatus().name(), location.getLatitude(), location.getLongitude());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(event);
+                }
+            });
+        } else {
+            send(event);
+        }
+    }
+
+    private void send(RequestEvent event) {
+        try {
+            requestEventKafkaTemplate.send(RequestEvent.TOPIC, event.requestId().toString(), event)
+                    .whenComplete((result, e) -> {
+                        if (e != null) {
+                            failed(event, e);
+                        }
+                    });
+        } catch (Exception e) {
+            // e.g. no metadata for the topic within max.block.ms
+            failed(event, e);
+        }
+    }
+
+    private void failed(RequestEvent event, Throwable e) {
+        trackingFailed.increment();
+        log.warn("Failed to publish tracking update for request {}: {}", event.requestId(), e.getMessage());
+    }
+}
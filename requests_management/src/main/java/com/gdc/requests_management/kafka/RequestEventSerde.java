@@ -0,0 +1,9 @@
+package com.gdc.requests_management.kafka;
+
+/** {@link SmileSerde} for {@link RequestEvent}. */
+public class RequestEventSerde extends SmileSerde<RequestEvent> {
+
+    public RequestEventSerde() {
+        super(RequestEvent.class);
+    }
+}
@@ -0,0 +1,64 @@
+package com.gdc.requests_management.kafka;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Kafka serializer and deserializer for Jackson-mapped types as Smile. Smile keeps the
+ * JSON data model, so fields can be added without breaking consumers, but replaces quotes
+ * and delimiters with length-prefixed tokens and writes UUIDs as 16 raw bytes.
+ * <p>
+ * Subclasses fix the type and supply the no-arg constructor Kafka's config needs.
+ */
+public abstract class SmileSerde<T> implements Serializer<T>, Deserializer<T> {
+
+    private static final ObjectMapper SMILE = new ObjectMapper(new SmileFactory())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final Class<T> type;
+
+    protected SmileSerde(Class<T> type) {
+        this.type = type;
+    }
+
+    @Override
+    public byte[] serialize(String topic, T value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return SMILE.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return SMILE.readValue(data, type);
+        } catch (IOException e) {
+            throw new SerializationException("Could not deserialize " + type.getSimpleName() + " from " + topic, e);
+        }
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        // nothing to configure
+    }
+
+    @Override
+    public void close() {
+        // stateless
+    }
+}
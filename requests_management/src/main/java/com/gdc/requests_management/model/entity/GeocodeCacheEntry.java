@@ -0,0 +1,38 @@
+package com.gdc.requests_management.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persistent tier of the geocoding cache. A row with {@code found = false}
+ * records that the geocoder had no result for the location, until {@code expiresAt}.
+ */
+@Entity
+@Table(name = "geocode_cache")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeocodeCacheEntry {
+
+    @Id
+    @Column(name = "location_key", nullable = false, length = 512)
+    private String locationKey;
+
+    @Column
+    private Double latitude;
+
+    @Column
+    private Double longitude;
+
+    @Column(nullable = false)
+    private boolean found;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column
+    private LocalDateTime expiresAt;
+}
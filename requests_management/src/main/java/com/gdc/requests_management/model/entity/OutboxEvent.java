@@ -0,0 +1,55 @@
+package com.gdc.requests_management.model.entity;
+
+import com.gdc.requests_management.model.enums.OutboxEventType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A notification written in the same transaction as the change it announces and
+ * delivered by the outbox relay once that transaction commits. Rows are deleted
+ * after delivery, so the table only holds undelivered events, plus parked ones
+ * that ran out of attempts (re-driven by clearing {@code parkedAt}).
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_next_attempt", columnList = "nextAttemptAt, id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private OutboxEventType type;
+
+    @Column
+    private UUID userId;
+
+    // JSON object shaped by the event type: string fields, or a RequestEvent for REQUEST_EVENT
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column
+    private LocalDateTime parkedAt;
+}
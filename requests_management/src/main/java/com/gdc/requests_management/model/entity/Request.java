@@ -1,5 +1,6 @@
 package com.gdc.requests_management.model.entity;
 
+import com.gdc.requests_management.model.enums.GeocodingStatus;
 import com.gdc.requests_management.model.enums.GoodsType;
 import com.gdc.requests_management.model.enums.RequestStatus;
 import com.gdc.requests_management.model.enums.RequiredSpaceType;
@@ -91,6 +92,10 @@ public class Request {
     @Column
     private Double toLongitude;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "geocoding_status")
+    private GeocodingStatus geocodingStatus;
+
     @Column(name = "rejection_reason")
     private String rejectionReason;
 }
@@ -0,0 +1,32 @@
+package com.gdc.requests_management.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The full breadcrumb trail of a delivered request, as one {@code TrailCodec} chunk.
+ * Trails of requests still in transit live in Redis.
+ */
+@Entity
+@Table(name = "request_trails")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequestTrail {
+
+    @Id
+    private UUID requestId;
+
+    @Column(nullable = false, columnDefinition = "bytea")
+    private byte[] samples;
+
+    @Column(nullable = false)
+    private int sampleCount;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
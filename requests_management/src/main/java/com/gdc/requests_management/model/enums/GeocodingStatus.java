@@ -0,0 +1,7 @@
+package com.gdc.requests_management.model.enums;
+
+public enum GeocodingStatus {
+    PENDING,
+    RESOLVED,
+    FAILED
+}
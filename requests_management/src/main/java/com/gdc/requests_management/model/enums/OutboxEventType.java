@@ -0,0 +1,10 @@
+package com.gdc.requests_management.model.enums;
+
+public enum OutboxEventType {
+    USER_NOTIFICATION,
+    DRIVER_BROADCAST,
+    EMAIL,
+    DRIVER_REQUEST_EMAIL,
+    USER_CONFIRMATION_EMAIL,
+    REQUEST_EVENT
+}
@@ -0,0 +1,23 @@
+package com.gdc.requests_management.repository;
+
+import com.gdc.requests_management.model.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // SKIP LOCKED lets relays on several nodes claim batches at once; the claiming transaction
+    // then leases the rows through next_attempt_at, so the locks only last until it commits
+    @Query(value = """
+            SELECT * FROM outbox_events
+            WHERE next_attempt_at <= :now AND parked_at IS NULL
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboxEvent> claimDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
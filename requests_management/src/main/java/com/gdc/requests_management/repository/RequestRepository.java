@@ -1,10 +1,15 @@
 package com.gdc.requests_management.repository;
 
 import com.gdc.requests_management.model.entity.Request;
+import com.gdc.requests_management.model.enums.GeocodingStatus;
 import com.gdc.requests_management.model.enums.RequestStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -40,4 +45,23 @@ public interface RequestRepository extends JpaRepository<Request, UUID> {
     Page<Request> findBySenderUserIdAndCreatedAtBetween(UUID senderUserId, LocalDateTime from, LocalDateTime to, Pageable pageable);
 
     Page<Request> findByRideUserIdAndStatusAndCreatedAtBetween(UUID rideUserId, RequestStatus status, LocalDateTime from, LocalDateTime to, Pageable pageable);
-}
\ No newline at end of file
+
+    List<Request> findTop100ByGeocodingStatusAndCreatedAtBeforeOrderByCreatedAtAsc(GeocodingStatus status, LocalDateTime time);
+
+    // Only applies if the addresses are still the ones that were geocoded
+    @Modifying
+    @Transactional
+    @Query("UPDATE Request r SET r.fromLatitude = :fromLat, r.fromLongitude = :fromLon, " +
+            "r.toLatitude = :toLat, r.toLongitude = :toLon, " +
+            "r.geocodingStatus = com.gdc.requests_management.model.enums.GeocodingStatus.RESOLVED, r.updatedAt = :now " +
+            "WHERE r.id = :id AND r.from = :from AND r.to = :to")
+    int applyCoordinates(@Param("id") UUID id, @Param("from") String from, @Param("to") String to,
+                         @Param("fromLat") double fromLat, @Param("fromLon") double fromLon,
+                         @Param("toLat") double toLat, @Param("toLon") double toLon,
+                         @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Request r SET r.geocodingStatus = :status WHERE r.id = :id")
+    int updateGeocodingStatus(@Param("id") UUID id, @Param("status") GeocodingStatus status);
+}
@@ -0,0 +1,9 @@
+package com.gdc.requests_management.repository;
+
+import com.gdc.requests_management.model.entity.RequestTrail;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface RequestTrailRepository extends JpaRepository<RequestTrail, UUID> {
+}
@@ -0,0 +1,38 @@
+package com.gdc.requests_management.scheduler;
+
+import com.gdc.requests_management.model.entity.Request;
+import com.gdc.requests_management.model.enums.GeocodingStatus;
+import com.gdc.requests_management.repository.RequestRepository;
+import com.gdc.requests_management.service.GeocodeEnrichmentService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "geocoding.enrichment.async", havingValue = "true")
+public class GeocodeEnrichmentScheduler {
+
+    private final RequestRepository requestRepository;
+    private final GeocodeEnrichmentService geocodeEnrichmentService;
+
+    /**
+     * Runs every minute to re-queue requests whose coordinates are still pending,
+     * e.g. after a restart or when the enrichment queue was full.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void resubmitPendingRequests() {
+        List<Request> pending = requestRepository.findTop100ByGeocodingStatusAndCreatedAtBeforeOrderByCreatedAtAsc(
+                GeocodingStatus.PENDING, LocalDateTime.now().minusMinutes(1));
+        if (!pending.isEmpty()) {
+            log.info("Re-queuing {} requests with pending coordinates", pending.size());
+        }
+        pending.forEach(geocodeEnrichmentService::resubmit);
+    }
+}
@@ -0,0 +1,237 @@
+package com.gdc.requests_management.service;
+
+import com.gdc.requests_management.dto.request.LocationDTO;
+import com.gdc.requests_management.model.entity.RequestTrail;
+import com.gdc.requests_management.repository.RequestTrailRepository;
+import com.gdc.requests_management.utils.Timestamps;
+import com.gdc.requests_management.utils.TrailCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Append-only breadcrumb trail per request.
+ * <p>
+ * Fixes are buffered per request on this node and written every {@code flush-interval-ms}
+ * (or once {@code max-buffered-samples} pile up) as one {@link TrailCodec} chunk appended
+ * to the Redis list {@code request:trail:{id}}; all requests' chunks go out in a single
+ * pipeline. Chunks are self-contained, so nodes append independently and a read merges
+ * them by time. When the request is delivered the whole trail is merged into one chunk
+ * in Postgres ({@link RequestTrail}) and the Redis list is dropped.
+ * <p>
+ * A node that dies loses at most one flush interval of fixes.
+ */
+@Component
+@Slf4j
+public class BreadcrumbStore {
+
+    private static final String KEY_PREFIX = "request:trail:";
+
+    private final RedisTemplate<String, String> redisStringTemplate;
+    private final RequestTrailRepository requestTrailRepository;
+    private final int maxBufferedSamples;
+    private final long ttlMs;
+
+    private final Map<UUID, List<TrailCodec.Sample>> buffers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    private final Counter appended;
+    private final Counter flushFailed;
+    private final DistributionSummary chunkBytes;
+
+    public BreadcrumbStore(RedisTemplate<String, String> redisStringTemplate,
+                           RequestTrailRepository requestTrailRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${tracking.trail.flush-interval-ms:5000}") long flushIntervalMs,
+                           @Value("${tracking.trail.max-buffered-samples:64}") int maxBufferedSamples,
+                           @Value("${tracking.trail.ttl-hours:48}") long ttlHours) {
+        this.redisStringTemplate = redisStringTemplate;
+        this.requestTrailRepository = requestTrailRepository;
+        this.maxBufferedSamples = maxBufferedSamples;
+        this.ttlMs = TimeUnit.HOURS.toMillis(ttlHours);
+
+        this.appended = Counter.builder("tracking.trail.samples").register(meterRegistry);
+        this.flushFailed = Counter.builder("tracking.trail.flush.failed")
+                .description("Trail chunks Redis did not accept; their samples are retried on the next flush")
+                .register(meterRegistry);
+        this.chunkBytes = DistributionSummary.builder("tracking.trail.chunk.bytes").baseUnit("bytes").register(meterRegistry);
+        meterRegistry.gauge("tracking.trail.buffered", buffers, Map::size);
+
+        AtomicInteger sequence = new AtomicInteger();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trail-flush-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void append(UUID requestId, LocationDTO location) {
+        append(requestId, List.of(location));
+    }
+
+    /** Appends fixes, timed by their own timestamp when it is usable and otherwise by when they arrived. */
+    public void append(UUID requestId, List<LocationDTO> locations) {
+        if (locations.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<TrailCodec.Sample> samples = locations.stream()
+                .map(location -> TrailCodec.Sample.of(location.getLatitude(), location.getLongitude(),
+                        Timestamps.parseEpochMillis(location.getTimestamp(), now)))
+                .toList();
+        // Copy on write, so a buffer handed out by read() or flush() never changes underneath them
+        List<TrailCodec.Sample> buffer = buffers.compute(requestId, (id, existing) -> {
+            List<TrailCodec.Sample> merged = existing != null ? new ArrayList<>(existing) : new ArrayList<>(samples.size());
+            merged.addAll(samples);
+            return merged;
+        });
+        appended.increment(samples.size());
+        if (buffer.size() >= maxBufferedSamples) {
+            try {
+                flusher.execute(this::flush);
+            } catch (RejectedExecutionException shuttingDown) {
+                // flushed by shutdown()
+            }
+        }
+    }
+
+    /** Writes every buffered trail to Redis in one pipeline. */
+    void flush() {
+        Map<UUID, List<TrailCodec.Sample>> drained = new LinkedHashMap<>();
+        for (UUID requestId : buffers.keySet()) {
+            List<TrailCodec.Sample> samples = buffers.remove(requestId);
+            if (samples != null && !samples.isEmpty()) {
+                drained.put(requestId, samples);
+            }
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+        try {
+            redisStringTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                drained.forEach((requestId, samples) -> {
+                    byte[] key = key(requestId);
+                    byte[] chunk = TrailCodec.encode(samples);
+                    chunkBytes.record(chunk.length);
+                    connection.listCommands().rPush(key, chunk);
+                    connection.keyCommands().pExpire(key, ttlMs);
+                });
+                return null;
+            });
+        } catch (Exception e) {
+            flushFailed.increment(drained.size());
+            log.warn("Failed to flush {} breadcrumb trails, keeping them for the next flush: {}", drained.size(), e.getMessage());
+            drained.forEach(this::requeue);
+        }
+    }
+
+    private void requeue(UUID requestId, List<TrailCodec.Sample> samples) {
+        buffers.compute(requestId, (id, newer) -> {
+            if (newer == null) {
+                return samples;
+            }
+            List<TrailCodec.Sample> merged = new ArrayList<>(samples);
+            merged.addAll(newer);
+            return merged;
+        });
+    }
+
+    /** The request's trail so far, oldest first: archived, in Redis, and still buffered on this node. */
+    public List<TrailCodec.Sample> read(UUID requestId) {
+        List<byte[]> chunks = new ArrayList<>();
+        requestTrailRepository.findById(requestId).ifPresent(trail -> chunks.add(trail.getSamples()));
+        List<byte[]> live = redisStringTemplate.execute(
+                (RedisCallback<List<byte[]>>) connection -> connection.listCommands().lRange(key(requestId), 0, -1));
+        if (live != null) {
+            chunks.addAll(live);
+        }
+        List<TrailCodec.Sample> buffered = buffers.get(requestId);
+        if (buffered != null) {
+            chunks.add(TrailCodec.encode(buffered));
+        }
+        return dedupe(TrailCodec.decodeAll(chunks));
+    }
+
+    /**
+     * Merges the trail into one chunk in Postgres, in the caller's transaction; the
+     * Redis list is dropped once that commits. Fixes another node flushes afterwards
+     * stay in Redis until the list expires and are still returned by {@link #read}.
+     */
+    public void archive(UUID requestId) {
+        List<TrailCodec.Sample> samples = read(requestId);
+        buffers.remove(requestId);
+        if (samples.isEmpty()) {
+            return;
+        }
+        requestTrailRepository.save(RequestTrail.builder()
+                .requestId(requestId)
+                .samples(TrailCodec.encode(samples))
+                .sampleCount(samples.size())
+                .archivedAt(LocalDateTime.now())
+                .build());
+
+        Runnable dropLive = () -> {
+            try {
+                redisStringTemplate.delete(KEY_PREFIX + requestId);
+            } catch (Exception e) {
+                log.warn("Failed to drop live trail of request {}; it expires on its own: {}", requestId, e.getMessage());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dropLive.run();
+                }
+            });
+        } else {
+            dropLive.run();
+        }
+    }
+
+    // The archived chunk and a not-yet-dropped Redis list can hold the same fixes
+    private static List<TrailCodec.Sample> dedupe(List<TrailCodec.Sample> sorted) {
+        List<TrailCodec.Sample> unique = new ArrayList<>(sorted.size());
+        TrailCodec.Sample previous = null;
+        for (TrailCodec.Sample sample : sorted) {
+            if (!sample.equals(previous)) {
+                unique.add(sample);
+            }
+            previous = sample;
+        }
+        return unique;
+    }
+
+    private static byte[] key(UUID requestId) {
+        return (KEY_PREFIX + requestId).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        flush();
+    }
+}
@@ -0,0 +1,232 @@
+package com.gdc.requests_management.service;
+
+import com.gdc.requests_management.dto.request.LocationDTO;
+import com.gdc.requests_management.dto.response.NearbyDriverResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.geo.GeoResults;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisGeoCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.domain.geo.GeoReference;
+import org.springframework.data.redis.domain.geo.GeoShape;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Geospatial index of live driver positions, for "which drivers are near this pickup".
+ * <p>
+ * Drivers are spread over {@code drivers.geo.shards} GEO sets by id, so no single
+ * key (or cluster slot) takes every position update; a query searches all shards in
+ * one pipeline and merges the nearest. GEO members can't expire on their own, so each
+ * shard has a companion sorted set of driver id scored by expiry time, bumped on every
+ * update. A periodic sweep drops drivers that stopped reporting, and queries skip any
+ * that lapsed since the last sweep.
+ */
+@Component
+@Slf4j
+public class DriverGeoIndex {
+
+    private static final String KEY_PREFIX = "drivers:geo:";
+    // Redis rejects latitudes outside the Web Mercator range
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    // Both keys of a shard share a hash tag, so the sweep script can touch them together on a cluster
+    private static final RedisScript<Long> EVICT_STALE = new DefaultRedisScript<>("""
+            local stale = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2])
+            if #stale > 0 then
+                redis.call('ZREM', KEYS[1], unpack(stale))
+                redis.call('ZREM', KEYS[2], unpack(stale))
+            end
+            return #stale
+            """, Long.class);
+
+    private final RedisTemplate<String, String> redisStringTemplate;
+    private final int shards;
+    private final long ttlMs;
+    private final int evictBatch;
+
+    private final Counter updates;
+    private final Counter invalid;
+    private final Counter evicted;
+    private final Timer queryTime;
+
+    public DriverGeoIndex(RedisTemplate<String, String> redisStringTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${drivers.geo.shards:16}") int shards,
+                          @Value("${drivers.geo.ttl-ms:120000}") long ttlMs,
+                          @Value("${drivers.geo.evict-batch:1000}") int evictBatch) {
+        this.redisStringTemplate = redisStringTemplate;
+        this.shards = shards;
+        this.ttlMs = ttlMs;
+        this.evictBatch = evictBatch;
+
+        this.updates = Counter.builder("drivers.geo.updates").register(meterRegistry);
+        this.invalid = Counter.builder("drivers.geo.invalid")
+                .description("Position updates skipped because the coordinates are out of range")
+                .register(meterRegistry);
+        this.evicted = Counter.builder("drivers.geo.evicted")
+                .description("Drivers dropped from the index after not reporting for drivers.geo.ttl-ms")
+                .register(meterRegistry);
+        this.queryTime = Timer.builder("drivers.geo.query").register(meterRegistry);
+    }
+
+    public void update(UUID driverId, LocationDTO location) {
+        updateAll(Map.of(driverId, location));
+    }
+
+    /** Writes a batch of positions in one pipeline. */
+    public void updateAll(Map<UUID, LocationDTO> locations) {
+        if (locations.isEmpty()) {
+            return;
+        }
+        redisStringTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            locations.forEach((driverId, location) -> write(connection, driverId, location));
+            return null;
+        });
+    }
+
+    /**
+     * Queues the index writes for one position on {@code connection}, so callers that
+     * already pipeline other commands for the update can send it in the same round trip.
+     */
+    public void write(RedisConnection connection, UUID driverId, LocationDTO location) {
+        if (!isValid(location.getLatitude(), location.getLongitude())) {
+            invalid.increment();
+            return;
+        }
+        int shard = shardOf(driverId);
+        byte[] member = bytes(driverId.toString());
+        connection.geoCommands().geoAdd(bytes(geoKey(shard)),
+                new Point(location.getLongitude(), location.getLatitude()), member);
+        connection.zSetCommands().zAdd(bytes(expiryKey(shard)), System.currentTimeMillis() + ttlMs, member);
+        updates.increment();
+    }
+
+    /** Drivers that reported within the TTL and are within {@code radiusKm}, nearest first. */
+    @SuppressWarnings("unchecked")
+    public List<NearbyDriverResponse> findDriversNear(double latitude, double longitude, double radiusKm, int limit) {
+        if (!isValid(latitude, longitude) || radiusKm <= 0 || limit <= 0) {
+            return List.of();
+        }
+        return queryTime.record(() -> {
+            GeoReference<byte[]> center = GeoReference.fromCoordinate(longitude, latitude);
+            GeoShape area = GeoShape.byRadius(new Distance(radiusKm, Metrics.KILOMETERS));
+            RedisGeoCommands.GeoSearchCommandArgs args = RedisGeoCommands.GeoSearchCommandArgs.newGeoSearchArgs()
+                    .includeDistance().includeCoordinates().sortAscending().limit(limit);
+
+            List<Object> perShard = redisStringTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (int shard = 0; shard < shards; shard++) {
+                    connection.geoCommands().geoSearch(bytes(geoKey(shard)), center, area, args);
+                }
+                return null;
+            });
+
+            List<Candidate> candidates = new ArrayList<>();
+            for (int shard = 0; shard < shards; shard++) {
+                GeoResults<RedisGeoCommands.GeoLocation<byte[]>> results =
+                        (GeoResults<RedisGeoCommands.GeoLocation<byte[]>>) perShard.get(shard);
+                if (results == null) {
+                    continue;
+                }
+                for (GeoResult<RedisGeoCommands.GeoLocation<byte[]>> result : results) {
+                    candidates.add(new Candidate(shard, result.getContent().getName(),
+                            result.getDistance().getValue(), result.getContent().getPoint()));
+                }
+            }
+            candidates.sort(Comparator.comparingDouble(Candidate::distanceKm));
+            return live(candidates, limit);
+        });
+    }
+
+    // Drops candidates whose expiry passed since the last sweep, checking only as many as needed
+    private List<NearbyDriverResponse> live(List<Candidate> candidates, int limit) {
+        List<NearbyDriverResponse> drivers = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (int from = 0; from < candidates.size() && drivers.size() < limit; from += limit) {
+            List<Candidate> batch = candidates.subList(from, Math.min(candidates.size(), from + limit));
+            List<Object> expiries = redisStringTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Candidate candidate : batch) {
+                    connection.zSetCommands().zScore(bytes(expiryKey(candidate.shard())), candidate.member());
+                }
+                return null;
+            });
+            for (int i = 0; i < batch.size() && drivers.size() < limit; i++) {
+                Double expiresAt = (Double) expiries.get(i);
+                if (expiresAt == null || expiresAt < now) {
+                    continue;
+                }
+                Candidate candidate = batch.get(i);
+                drivers.add(NearbyDriverResponse.builder()
+                        .driverId(UUID.fromString(new String(candidate.member(), StandardCharsets.UTF_8)))
+                        .distanceKm(candidate.distanceKm())
+                        .latitude(candidate.point().getY())
+                        .longitude(candidate.point().getX())
+                        .build());
+            }
+        }
+        return drivers;
+    }
+
+    /** Removes drivers that stopped reporting. Every node sweeps; the script makes that harmless. */
+    @Scheduled(fixedDelayString = "${drivers.geo.sweep-interval-ms:15000}")
+    public void evictStale() {
+        String cutoff = Long.toString(System.currentTimeMillis());
+        for (int shard = 0; shard < shards; shard++) {
+            try {
+                Long removed;
+                do {
+                    removed = redisStringTemplate.execute(EVICT_STALE, List.of(geoKey(shard), expiryKey(shard)),
+                            cutoff, Integer.toString(evictBatch));
+                    if (removed != null) {
+                        evicted.increment(removed);
+                    }
+                } while (removed != null && removed >= evictBatch);
+            } catch (Exception e) {
+                log.warn("Failed to evict stale drivers from shard {}: {}", shard, e.getMessage());
+            }
+        }
+    }
+
+    private int shardOf(UUID driverId) {
+        return Math.floorMod(driverId.hashCode(), shards);
+    }
+
+    private static String geoKey(int shard) {
+        return KEY_PREFIX + "{" + shard + "}";
+    }
+
+    private static String expiryKey(int shard) {
+        return KEY_PREFIX + "{" + shard + "}:expiry";
+    }
+
+    private static boolean isValid(double latitude, double longitude) {
+        // 0,0 is what a location with missing fields deserializes to, not a real position
+        return Math.abs(latitude) <= MAX_LATITUDE && Math.abs(longitude) <= 180
+                && !(latitude == 0 && longitude == 0);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record Candidate(int shard, byte[] member, double distanceKm, Point point) {
+    }
+}
@@ -0,0 +1,192 @@
+package com.gdc.requests_management.service;
+
+import com.gdc.requests_management.model.entity.Request;
+import com.gdc.requests_management.model.enums.GeocodingStatus;
+import com.gdc.requests_management.repository.RequestRepository;
+import com.gdc.requests_management.utils.OSMGeocodingService;
+import com.gdc.requests_management.websocket.WebSocketNotificationHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fills in request coordinates in the background, so request creation doesn't
+ * hold a transaction (and a pooled connection) open across geocoder calls.
+ * <p>
+ * Jobs run on a small bounded pool; failures are retried with exponential
+ * backoff and the request is marked {@link GeocodingStatus#FAILED} after the
+ * last attempt. Jobs rejected because the queue is full stay
+ * {@link GeocodingStatus#PENDING} and are picked up again by the sweeper.
+ */
+@Service
+@Slf4j
+public class GeocodeEnrichmentService {
+
+    private final RequestRepository requestRepository;
+    private final OSMGeocodingService geocodingService;
+    private final WebSocketNotificationHandler webSocketNotificationHandler;
+
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService retryScheduler;
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    private final Counter resolved;
+    private final Counter failed;
+    private final Counter retried;
+    private final Counter rejected;
+
+    public GeocodeEnrichmentService(RequestRepository requestRepository,
+                                    OSMGeocodingService geocodingService,
+                                    WebSocketNotificationHandler webSocketNotificationHandler,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${geocoding.enrichment.threads:2}") int threads,
+                                    @Value("${geocoding.enrichment.queue-capacity:500}") int queueCapacity,
+                                    @Value("${geocoding.enrichment.max-attempts:5}") int maxAttempts,
+                                    @Value("${geocoding.enrichment.initial-backoff-ms:1000}") long initialBackoffMs,
+                                    @Value("${geocoding.enrichment.max-backoff-ms:60000}") long maxBackoffMs) {
+        this.requestRepository = requestRepository;
+        this.geocodingService = geocodingService;
+        this.webSocketNotificationHandler = webSocketNotificationHandler;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), namedThreads("geocode-enrich-"));
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(namedThreads("geocode-retry-"));
+
+        this.resolved = counter(meterRegistry, "resolved");
+        this.failed = counter(meterRegistry, "failed");
+        this.retried = counter(meterRegistry, "retried");
+        this.rejected = counter(meterRegistry, "rejected");
+        meterRegistry.gauge("geocode.enrichment.queue.size", workers, pool -> pool.getQueue().size());
+        meterRegistry.gauge("geocode.enrichment.in.flight", inFlight, Set::size);
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("geocode.enrichment.jobs").tag("result", result).register(registry);
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Queues geocoding for a freshly saved request. Inside a transaction the job
+     * is only queued once it commits, so the worker never looks for a row that
+     * isn't visible yet (or was rolled back).
+     */
+    public void enqueueAfterCommit(Request request) {
+        Job job = new Job(request.getId(), request.getSenderUserId(), request.getFrom(), request.getTo());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(job);
+                }
+            });
+        } else {
+            enqueue(job);
+        }
+    }
+
+    /** Re-queues a request still pending after a restart or a full queue. */
+    public void resubmit(Request request) {
+        enqueue(new Job(request.getId(), request.getSenderUserId(), request.getFrom(), request.getTo()));
+    }
+
+    private void enqueue(Job job) {
+        if (!inFlight.add(job.requestId())) {
+            return;
+        }
+        submit(job, 1);
+    }
+
+    private void submit(Job job, int attempt) {
+        try {
+            workers.execute(() -> run(job, attempt));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            inFlight.remove(job.requestId());
+            log.warn("Geocoding queue full, request {} left pending for the sweeper", job.requestId());
+        }
+    }
+
+    private void run(Job job, int attempt) {
+        try {
+            double[] fromCoords = geocodingService.getCoordinatesFromLocation(job.from());
+            double[] toCoords = geocodingService.getCoordinatesFromLocation(job.to());
+
+            int updated = requestRepository.applyCoordinates(job.requestId(), job.from(), job.to(),
+                    fromCoords[0], fromCoords[1], toCoords[0], toCoords[1], LocalDateTime.now());
+            inFlight.remove(job.requestId());
+            if (updated == 0) {
+                log.info("Request {} changed or was removed while geocoding, result discarded", job.requestId());
+                return;
+            }
+            resolved.increment();
+        } catch (Exception e) {
+            if (attempt >= maxAttempts) {
+                failed.increment();
+                inFlight.remove(job.requestId());
+                requestRepository.updateGeocodingStatus(job.requestId(), GeocodingStatus.FAILED);
+                log.error("Giving up geocoding request {} after {} attempts: {}", job.requestId(), attempt, e.getMessage());
+                return;
+            }
+            retried.increment();
+            long delay = backoff(attempt);
+            log.warn("Geocoding request {} failed (attempt {}), retrying in {} ms: {}",
+                    job.requestId(), attempt, delay, e.getMessage());
+            retryScheduler.schedule(() -> submit(job, attempt + 1), delay, TimeUnit.MILLISECONDS);
+            return;
+        }
+
+        try {
+            webSocketNotificationHandler.pushUpdate(job.senderId(), job.requestId() + ":Request locations resolved");
+        } catch (Exception e) {
+            log.warn("Failed to push location update for request {}: {}", job.requestId(), e.getMessage());
+        }
+    }
+
+    /** Exponential backoff with +/-20% jitter, so retries of a burst don't land together. */
+    private long backoff(int attempt) {
+        long base = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        return (long) (base * ThreadLocalRandom.current().nextDouble(0.8, 1.2));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryScheduler.shutdownNow();
+        workers.shutdown();
+    }
+
+    private record Job(UUID requestId, UUID senderId, String from, String to) {
+    }
+}
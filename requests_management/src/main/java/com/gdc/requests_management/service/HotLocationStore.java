@@ -0,0 +1,482 @@
+package com.gdc.requests_management.service;
+
+import com.gdc.requests_management.dto.request.LocationDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Node-local copy of the latest driver positions and request tracking fixes, in front of
+ * the {@code driver:location:{id}} and {@code request:tracking:{id}} Redis keys.
+ * <p>
+ * Each id gets a slot in parallel primitive arrays, so a write is a handful of array
+ * stores and a read builds one {@link LocationDTO}; neither touches Redis or Jackson.
+ * Written slots are marked in a dirty bitmap and written back every
+ * {@code flush-interval-ms} in one pipeline, driver geo index included. The store loads
+ * what Redis already holds once the application is ready.
+ * <p>
+ * Another node may take a newer update for the same id, so a clean entry is served for
+ * {@code refresh-after-ms} and then re-read from Redis; a dirty entry is newer than Redis
+ * by definition. Once every slot is taken, updates go straight to Redis as before. A node
+ * that dies loses at most one flush interval of positions.
+ */
+@Component
+@Slf4j
+public class HotLocationStore {
+
+    public enum Kind {
+        DRIVER("driver:location:"),
+        REQUEST("request:tracking:");
+
+        private final String keyPrefix;
+
+        Kind(String keyPrefix) {
+            this.keyPrefix = keyPrefix;
+        }
+    }
+
+    private static final long REDIS_TTL_SECONDS = TimeUnit.HOURS.toSeconds(1);
+    private static final int WARM_UP_BATCH = 500;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final DriverGeoIndex driverGeoIndex;
+    private final long refreshAfterMs;
+    private final long idleEvictMs;
+    private final Map<Kind, Table> tables = new EnumMap<>(Kind.class);
+    private final ScheduledExecutorService flusher;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter overflowed;
+    private final Counter flushFailed;
+    private final Timer flushLag;
+
+    public HotLocationStore(RedisTemplate<String, Object> redisObjectTemplate,
+                            DriverGeoIndex driverGeoIndex,
+                            MeterRegistry meterRegistry,
+                            @Value("${tracking.hot-store.capacity:65536}") int capacity,
+                            @Value("${tracking.hot-store.flush-interval-ms:500}") long flushIntervalMs,
+                            @Value("${tracking.hot-store.refresh-after-ms:5000}") long refreshAfterMs,
+                            @Value("${tracking.hot-store.idle-evict-ms:3600000}") long idleEvictMs) {
+        this.redisTemplate = redisObjectTemplate;
+        this.driverGeoIndex = driverGeoIndex;
+        this.refreshAfterMs = refreshAfterMs;
+        this.idleEvictMs = idleEvictMs;
+
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        this.overflowed = Counter.builder("tracking.locations.overflowed")
+                .description("Updates written straight to Redis because every slot was taken")
+                .register(meterRegistry);
+        this.flushFailed = Counter.builder("tracking.locations.flush.failed")
+                .description("Entries Redis did not accept; they stay dirty for the next flush")
+                .register(meterRegistry);
+        this.flushLag = Timer.builder("tracking.locations.flush.lag")
+                .description("Age of the oldest write in each flush when Redis acknowledged it")
+                .register(meterRegistry);
+        for (Kind kind : Kind.values()) {
+            Table table = new Table(kind, capacity);
+            tables.put(kind, table);
+            Tags tags = Tags.of("kind", kind.name().toLowerCase());
+            meterRegistry.gauge("tracking.locations.dirty", tags, table, t -> t.dirtyCount.get());
+            meterRegistry.gauge("tracking.locations.entries", tags, table, t -> t.slots.size());
+        }
+
+        AtomicInteger sequence = new AtomicInteger();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "location-flush-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("tracking.locations.reads").tag("result", result).register(registry);
+    }
+
+    public void put(Kind kind, UUID id, LocationDTO location) {
+        if (tables.get(kind).write(id, location, System.currentTimeMillis())) {
+            return;
+        }
+        overflowed.increment();
+        byte[] key = rawKey(kind.keyPrefix + id);
+        byte[] value = rawValue(location);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.stringCommands().setEx(key, REDIS_TTL_SECONDS, value);
+            if (kind == Kind.DRIVER) {
+                driverGeoIndex.write(connection, id, location);
+            }
+            return null;
+        });
+    }
+
+    public LocationDTO get(Kind kind, UUID id) {
+        Table table = tables.get(kind);
+        long now = System.currentTimeMillis();
+        Table.Lookup cached = table.lookup(id, now - refreshAfterMs);
+        if (cached.current()) {
+            hits.increment();
+            return cached.location();
+        }
+        misses.increment();
+        LocationDTO stored = (LocationDTO) redisTemplate.opsForValue().get(kind.keyPrefix + id);
+        if (stored == null) {
+            // Flushed, then expired or deleted in Redis: what this node last saw is still the latest known
+            return cached.location();
+        }
+        table.load(id, stored, cached.stamp(), now);
+        return stored;
+    }
+
+    /** Writes every dirty entry to Redis in one pipeline, then drops entries idle for {@code idle-evict-ms}. */
+    void flush() {
+        List<Pending> pending = new ArrayList<>();
+        tables.values().forEach(table -> table.drain(pending));
+        if (!pending.isEmpty()) {
+            try {
+                redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    for (Pending entry : pending) {
+                        connection.stringCommands().setEx(rawKey(entry.kind().keyPrefix + entry.id()),
+                                REDIS_TTL_SECONDS, rawValue(entry.location()));
+                        if (entry.kind() == Kind.DRIVER) {
+                            driverGeoIndex.write(connection, entry.id(), entry.location());
+                        }
+                    }
+                    return null;
+                });
+                long oldest = pending.stream().mapToLong(Pending::dirtySince).min().getAsLong();
+                flushLag.record(System.currentTimeMillis() - oldest, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                flushFailed.increment(pending.size());
+                log.warn("Failed to flush {} locations, keeping them for the next flush: {}", pending.size(), e.getMessage());
+                pending.forEach(entry -> tables.get(entry.kind()).restore(entry));
+            }
+        }
+        // Only this thread evicts, so an entry drained above can't be evicted before it is restored
+        long idleBefore = System.currentTimeMillis() - idleEvictMs;
+        tables.values().forEach(table -> table.evictIdle(idleBefore));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        for (Table table : tables.values()) {
+            try {
+                int loaded = 0;
+                List<String> keys = new ArrayList<>(WARM_UP_BATCH);
+                ScanOptions options = ScanOptions.scanOptions().match(table.kind.keyPrefix + "*").count(WARM_UP_BATCH).build();
+                try (Cursor<String> cursor = redisTemplate.scan(options)) {
+                    while (cursor.hasNext()) {
+                        keys.add(cursor.next());
+                        if (keys.size() == WARM_UP_BATCH) {
+                            loaded += warmUp(table, keys);
+                            keys.clear();
+                        }
+                    }
+                }
+                loaded += warmUp(table, keys);
+                log.info("Loaded {} {} locations from Redis", loaded, table.kind.name().toLowerCase());
+            } catch (Exception e) {
+                log.warn("Failed to load {} locations from Redis; they are read through on demand: {}",
+                        table.kind.name().toLowerCase(), e.getMessage());
+            }
+        }
+    }
+
+    private int warmUp(Table table, List<String> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        List<Object> values = redisTemplate.opsForValue().multiGet(keys);
+        if (values == null) {
+            return 0;
+        }
+        int loaded = 0;
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < keys.size(); i++) {
+            if (!(values.get(i) instanceof LocationDTO location)) {
+                continue;
+            }
+            try {
+                UUID id = UUID.fromString(keys.get(i).substring(table.kind.keyPrefix.length()));
+                if (table.load(id, location, 0, now)) {
+                    loaded++;
+                }
+            } catch (IllegalArgumentException e) {
+                log.debug("Skipping location under unexpected key {}", keys.get(i));
+            }
+        }
+        return loaded;
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] rawKey(String key) {
+        return ((RedisSerializer<String>) redisTemplate.getKeySerializer()).serialize(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] rawValue(Object value) {
+        return ((RedisSerializer<Object>) redisTemplate.getValueSerializer()).serialize(value);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        flush();
+    }
+
+    private record Pending(Kind kind, int slot, UUID id, LocationDTO location, long dirtySince) {
+    }
+
+    /**
+     * Latest location per id for one key space. A slot's fields are guarded by its lock
+     * stripe; the id map, free list and dirty bitmap are safe on their own.
+     */
+    private static final class Table {
+
+        private static final int STRIPES = 64;
+
+        private record Lookup(LocationDTO location, boolean current, long stamp) {
+        }
+
+        private final Kind kind;
+        private final Map<UUID, Integer> slots = new ConcurrentHashMap<>();
+        private final UUID[] ids;
+        private final double[] latitudes;
+        private final double[] longitudes;
+        private final String[] timestamps;
+        // When this node last wrote or loaded the slot
+        private final long[] touchedAt;
+        // Local writes since the slot was allocated, so a load can tell it raced with one
+        private final long[] writes;
+        private final long[] dirtySince;
+        private final AtomicLongArray dirty;
+        private final AtomicInteger dirtyCount = new AtomicInteger();
+        private final Object[] locks = new Object[STRIPES];
+        private final Deque<Integer> free = new ArrayDeque<>();
+        private int next;
+
+        Table(Kind kind, int capacity) {
+            this.kind = kind;
+            this.ids = new UUID[capacity];
+            this.latitudes = new double[capacity];
+            this.longitudes = new double[capacity];
+            this.timestamps = new String[capacity];
+            this.touchedAt = new long[capacity];
+            this.writes = new long[capacity];
+            this.dirtySince = new long[capacity];
+            this.dirty = new AtomicLongArray((capacity + 63) >>> 6);
+            for (int i = 0; i < STRIPES; i++) {
+                locks[i] = new Object();
+            }
+        }
+
+        /** Stores a local update and marks it dirty; false when the table is full. */
+        boolean write(UUID id, LocationDTO location, long now) {
+            while (true) {
+                Integer slot = slotFor(id);
+                if (slot == null) {
+                    return false;
+                }
+                synchronized (lock(slot)) {
+                    if (id.equals(ids[slot])) {
+                        set(slot, location, now);
+                        writes[slot]++;
+                        markDirty(slot, now);
+                        return true;
+                    }
+                }
+                // Evicted since we looked it up: drop the stale mapping, unless the slot has been
+                // handed back to this id meanwhile. Outside the stripe lock, see slotFor.
+                slots.computeIfPresent(id, (key, current) ->
+                        current.equals(slot) && !key.equals(ids[current]) ? null : current);
+            }
+        }
+
+        /**
+         * The cached location, and whether it can be served without asking Redis.
+         * {@code stamp} is handed back to {@link #load} so it can tell whether a local
+         * write landed while Redis was being read.
+         */
+        Lookup lookup(UUID id, long freshAfter) {
+            Integer slot = slots.get(id);
+            if (slot == null) {
+                return new Lookup(null, false, 0);
+            }
+            synchronized (lock(slot)) {
+                if (!id.equals(ids[slot])) {
+                    return new Lookup(null, false, 0);
+                }
+                boolean current = isDirty(slot) || touchedAt[slot] >= freshAfter;
+                return new Lookup(get(slot), current, writes[slot]);
+            }
+        }
+
+        /** Stores a value read from Redis unless a local write got there first. */
+        boolean load(UUID id, LocationDTO location, long stamp, long now) {
+            Integer slot = slotFor(id);
+            if (slot == null) {
+                return false;
+            }
+            synchronized (lock(slot)) {
+                if (!id.equals(ids[slot]) || writes[slot] != stamp || isDirty(slot)) {
+                    return false;
+                }
+                set(slot, location, now);
+                return true;
+            }
+        }
+
+        void drain(List<Pending> pending) {
+            for (int word = 0; word < dirty.length(); word++) {
+                long bits = dirty.getAndSet(word, 0);
+                if (bits == 0) {
+                    continue;
+                }
+                dirtyCount.addAndGet(-Long.bitCount(bits));
+                for (; bits != 0; bits &= bits - 1) {
+                    int slot = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    synchronized (lock(slot)) {
+                        if (ids[slot] != null) {
+                            pending.add(new Pending(kind, slot, ids[slot], get(slot), dirtySince[slot]));
+                        }
+                    }
+                }
+            }
+        }
+
+        void restore(Pending entry) {
+            synchronized (lock(entry.slot())) {
+                if (entry.id().equals(ids[entry.slot()])) {
+                    markDirty(entry.slot(), entry.dirtySince());
+                }
+            }
+        }
+
+        void evictIdle(long idleBefore) {
+            slots.forEach((id, slot) -> {
+                synchronized (lock(slot)) {
+                    if (!id.equals(ids[slot]) || isDirty(slot) || touchedAt[slot] >= idleBefore) {
+                        return;
+                    }
+                    ids[slot] = null;
+                    timestamps[slot] = null;
+                }
+                slots.remove(id, slot);
+                synchronized (free) {
+                    free.push(slot);
+                }
+            });
+        }
+
+        /**
+         * The slot holding {@code id}, allocating one if it has none; null when the table is
+         * full. The slot is claimed before it is published rather than inside
+         * {@code computeIfAbsent}: a stripe lock is never taken while the map holds a bin lock,
+         * nor the map entered while holding a stripe lock, so the two can't deadlock.
+         */
+        private Integer slotFor(UUID id) {
+            Integer slot = slots.get(id);
+            if (slot != null) {
+                return slot;
+            }
+            Integer allocated = allocate(id);
+            if (allocated == null) {
+                return null;
+            }
+            Integer existing = slots.putIfAbsent(id, allocated);
+            if (existing == null) {
+                return allocated;
+            }
+            // Another thread published a slot for this id first
+            release(allocated);
+            return existing;
+        }
+
+        private Integer allocate(UUID id) {
+            int slot;
+            synchronized (free) {
+                if (!free.isEmpty()) {
+                    slot = free.pop();
+                } else if (next < ids.length) {
+                    slot = next++;
+                } else {
+                    return null;
+                }
+            }
+            synchronized (lock(slot)) {
+                ids[slot] = id;
+                writes[slot] = 0;
+            }
+            return slot;
+        }
+
+        private void release(int slot) {
+            synchronized (lock(slot)) {
+                ids[slot] = null;
+                timestamps[slot] = null;
+            }
+            synchronized (free) {
+                free.push(slot);
+            }
+        }
+
+        private void set(int slot, LocationDTO location, long now) {
+            latitudes[slot] = location.getLatitude();
+            longitudes[slot] = location.getLongitude();
+            timestamps[slot] = location.getTimestamp();
+            touchedAt[slot] = now;
+        }
+
+        private LocationDTO get(int slot) {
+            LocationDTO location = new LocationDTO();
+            location.setLatitude(latitudes[slot]);
+            location.setLongitude(longitudes[slot]);
+            location.setTimestamp(timestamps[slot]);
+            return location;
+        }
+
+        private void markDirty(int slot, long since) {
+            long bit = 1L << slot;
+            long previous = dirty.getAndAccumulate(slot >>> 6, bit, (word, mask) -> word | mask);
+            if ((previous & bit) == 0) {
+                dirtySince[slot] = since;
+                dirtyCount.incrementAndGet();
+            }
+        }
+
+        private boolean isDirty(int slot) {
+            return (dirty.get(slot >>> 6) & (1L << slot)) != 0;
+        }
+
+        private Object lock(int slot) {
+            return locks[slot & (STRIPES - 1)];
+        }
+    }
+}
@@ -2,33 +2,48 @@ package com.gdc.requests_management.service;
 
 import com.gdc.requests_management.dto.request.LocationDTO;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 
 @Service
 public class LocationService {
 
     @Autowired
-    private RedisTemplate<String, Object> redisTemplate;
+    private HotLocationStore hotLocationStore;
 
+    @Autowired
+    private BreadcrumbStore breadcrumbStore;
+
+    /** Stores the position; it reaches Redis and the nearby-driver index with the next write-behind flush. */
     public void updateDriverLocation(UUID rideUserId, LocationDTO location) {
-        String key = "driver:location:" + rideUserId;
-        redisTemplate.opsForValue().set(key, location, 1, TimeUnit.HOURS);
+        hotLocationStore.put(HotLocationStore.Kind.DRIVER, rideUserId, location);
+    }
+
+    /**
+     * Applies a batch of fixes: the driver's latest position, and for each request its
+     * latest position plus every fix on its trail. {@code trackByRequest} lists are in
+     * time order.
+     */
+    public void updateBatch(UUID rideUserId, LocationDTO latest, Map<UUID, List<LocationDTO>> trackByRequest) {
+        hotLocationStore.put(HotLocationStore.Kind.DRIVER, rideUserId, latest);
+        trackByRequest.forEach((requestId, track) ->
+                hotLocationStore.put(HotLocationStore.Kind.REQUEST, requestId, track.get(track.size() - 1)));
+        trackByRequest.forEach(breadcrumbStore::append);
     }
 
     public LocationDTO getDriverLocation(UUID rideUserId) {
-        return (LocationDTO) redisTemplate.opsForValue().get("driver:location:" + rideUserId);
+        return hotLocationStore.get(HotLocationStore.Kind.DRIVER, rideUserId);
     }
 
     public void updateRequestTracking(UUID requestId, LocationDTO location) {
-        String key = "request:tracking:" + requestId;
-        redisTemplate.opsForValue().set(key, location, 1, TimeUnit.HOURS);
+        hotLocationStore.put(HotLocationStore.Kind.REQUEST, requestId, location);
+        breadcrumbStore.append(requestId, location);
     }
 
     public LocationDTO getRequestTracking(UUID requestId) {
-        return (LocationDTO) redisTemplate.opsForValue().get("request:tracking:" + requestId);
+        return hotLocationStore.get(HotLocationStore.Kind.REQUEST, requestId);
     }
-}
\ No newline at end of file
+}
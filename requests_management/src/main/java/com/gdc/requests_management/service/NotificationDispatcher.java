@@ -0,0 +1,60 @@
+package com.gdc.requests_management.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Pushes notifications to the WebSocket clients connected to this node. Emails are
+ * sent by notification-service, which consumes the same notifications from Kafka.
+ * <p>
+ * Each pushed message carries a {@value #NOTIFICATION_ID_HEADER} header. Clients
+ * acknowledge it by sending the id to {@code /app/notifications/ack}, and
+ * notification-service skips the email for acknowledged messages.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationDispatcher {
+
+    public static final String NOTIFICATION_ID_HEADER = "notification-id";
+    public static final String ALL_DRIVERS_TOPIC = "/topic/driver-notifications";
+    /** Followed by a geohash cell; drivers subscribe to the cell they are in. */
+    public static final String DRIVER_AREA_TOPIC_PREFIX = "/topic/drivers/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    /** Sends {@code message} to the user's WebSocket {@code path}, tagged with {@code notificationId}. */
+    public void push(UUID userId, String path, String message, UUID notificationId) {
+        if (userId == null) {
+            return;
+        }
+        try {
+            messagingTemplate.convertAndSendToUser(userId.toString(), path, message,
+                    Map.of(NOTIFICATION_ID_HEADER, notificationId.toString()));
+        } catch (Exception e) {
+            log.warn("Failed to push {} to user {}: {}", path, userId, e.getMessage());
+        }
+    }
+
+    /** Sends {@code message} to every subscriber of a broker destination. */
+    public void broadcast(String destination, String message) {
+        messagingTemplate.convertAndSend(destination, message);
+    }
+
+    /** Sends {@code message} to drivers in the given geohash cells, or to all drivers when there are none. */
+    public void broadcastToDrivers(Collection<String> cells, String message) {
+        if (cells.isEmpty()) {
+            broadcast(ALL_DRIVERS_TOPIC, message);
+            return;
+        }
+        for (String cell : cells) {
+            broadcast(DRIVER_AREA_TOPIC_PREFIX + cell, message);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.gdc.requests_management.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gdc.requests_management.kafka.RequestEvent;
+import com.gdc.requests_management.model.entity.OutboxEvent;
+import com.gdc.requests_management.model.entity.Request;
+import com.gdc.requests_management.model.enums.OutboxEventType;
+import com.gdc.requests_management.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Records notifications in the outbox table. Called inside a transaction, the row
+ * commits (or rolls back) together with the change being announced and nothing is
+ * sent until then; {@link OutboxRelay} does the actual delivery.
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final OutboxRelay outboxRelay;
+
+    /** WebSocket message on {@code path} plus an email with the same text. */
+    public void notifyUser(UUID userId, String path, String title, String message) {
+        if (userId == null) {
+            return;
+        }
+        record(OutboxEventType.USER_NOTIFICATION, userId, payload("path", path, "title", title, "message", message));
+    }
+
+    public void broadcastToDrivers(String message) {
+        record(OutboxEventType.DRIVER_BROADCAST, null, payload("message", message));
+    }
+
+    /** Broadcast to the drivers subscribed to any of the given geohash cells. */
+    public void broadcastToDrivers(String message, Collection<String> cells) {
+        record(OutboxEventType.DRIVER_BROADCAST, null, payload("message", message, "cells", String.join(",", cells)));
+    }
+
+    public void email(UUID userId, String subject, String body) {
+        record(OutboxEventType.EMAIL, userId, payload("subject", subject, "body", body));
+    }
+
+    public void driverRequestEmail(UUID driverId, Request request, String fare, String acceptUrl, String rejectUrl) {
+        record(OutboxEventType.DRIVER_REQUEST_EMAIL, driverId, payload(
+                "requestId", request.getId().toString(),
+                "from", request.getFrom(),
+                "to", request.getTo(),
+                "goodsDescription", request.getGoodsDescription(),
+                "fare", fare,
+                "acceptUrl", acceptUrl,
+                "rejectUrl", rejectUrl));
+    }
+
+    public void userConfirmationEmail(UUID userId, Request request) {
+        record(OutboxEventType.USER_CONFIRMATION_EMAIL, userId, payload(
+                "requestId", request.getId().toString(),
+                "from", request.getFrom(),
+                "to", request.getTo(),
+                "goodsDescription", request.getGoodsDescription()));
+    }
+
+    /** Lifecycle event for the {@link RequestEvent#TOPIC} topic; it has no local delivery. */
+    public void requestEvent(RequestEvent event) {
+        record(OutboxEventType.REQUEST_EVENT, event.senderUserId(), event);
+    }
+
+    private void record(OutboxEventType type, UUID userId, Object payload) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .type(type)
+                    .userId(userId)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .createdAt(now)
+                    .nextAttemptAt(now)
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + type + " outbox payload", e);
+        }
+
+        // Wake the relay instead of waiting for its next poll
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    outboxRelay.wakeUp();
+                }
+            });
+        } else {
+            outboxRelay.wakeUp();
+        }
+    }
+
+    private static Map<String, String> payload(String... keysAndValues) {
+        Map<String, String> payload = new LinkedHashMap<>();
+        // Random, so nobody can compute another user's notification id and acknowledge it
+        payload.put("eventId", UUID.randomUUID().toString());
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            payload.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return payload;
+    }
+}
@@ -0,0 +1,340 @@
+package com.gdc.requests_management.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gdc.requests_management.kafka.NotificationEvent;
+import com.gdc.requests_management.kafka.RequestEvent;
+import com.gdc.requests_management.model.entity.OutboxEvent;
+import com.gdc.requests_management.model.enums.OutboxEventType;
+import com.gdc.requests_management.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes outbox events to Kafka in batches, at least once. A batch is claimed
+ * in one short transaction that leases its rows for {@code claim-lease-ms} (by
+ * moving {@code next_attempt_at} past the lease), so other relays skip them
+ * without any row lock or connection held while Kafka is waited on. The events
+ * are then published outside any transaction, and a second short transaction
+ * settles them: those Kafka acknowledged are deleted, after being pushed to this
+ * node's WebSocket clients. The rest are rescheduled with backoff, and once they
+ * run out of attempts they are parked ({@code parked_at} set) rather than
+ * deleted, so no event is lost without a trace. A crash before settling leaves
+ * the lease to run out, and the batch is re-published.
+ * <p>
+ * Emails are not sent here: notification-service consumes the
+ * {@link NotificationEvent#TOPIC} topic and owns digests, presence checks and
+ * SMTP. It only commits an offset once that email has been sent, suppressed or
+ * dead-lettered, so the at-least-once guarantee carries through to the email.
+ * Kafka is required, and the relay refuses to start with {@code kafka-enabled} off.
+ * <p>
+ * The relay polls every {@code poll-interval-ms} and is woken as soon as a
+ * transaction that wrote events commits.
+ */
+@Service
+@Slf4j
+public class OutboxRelay {
+
+    private static final TypeReference<Map<String, String>> PAYLOAD_TYPE = new TypeReference<>() {
+    };
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final NotificationDispatcher notificationDispatcher;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaTemplate<String, RequestEvent> requestEventKafkaTemplate;
+    private final KafkaTemplate<String, NotificationEvent> notificationEventKafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final long kafkaTimeoutMs;
+    private final long claimLeaseMs;
+
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    private final Counter delivered;
+    private final Counter retried;
+    private final Counter parked;
+    private final Timer lag;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       NotificationDispatcher notificationDispatcher,
+                       KafkaTemplate<String, String> kafkaTemplate,
+                       KafkaTemplate<String, RequestEvent> requestEventKafkaTemplate,
+                       KafkaTemplate<String, NotificationEvent> notificationEventKafkaTemplate,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${outbox.relay.poll-interval-ms:1000}") long pollIntervalMs,
+                       @Value("${outbox.relay.max-attempts:8}") int maxAttempts,
+                       @Value("${outbox.relay.initial-backoff-ms:1000}") long initialBackoffMs,
+                       @Value("${outbox.relay.max-backoff-ms:300000}") long maxBackoffMs,
+                       @Value("${outbox.relay.kafka-enabled:true}") boolean kafkaEnabled,
+                       @Value("${outbox.relay.kafka-timeout-ms:10000}") long kafkaTimeoutMs,
+                       @Value("${outbox.relay.claim-lease-ms:60000}") long claimLeaseMs) {
+        if (!kafkaEnabled) {
+            throw new IllegalStateException("outbox.relay.kafka-enabled=false is not supported: notification "
+                    + "emails are only delivered through Kafka, so they would be dropped");
+        }
+        if (claimLeaseMs <= kafkaTimeoutMs) {
+            throw new IllegalStateException("outbox.relay.claim-lease-ms must exceed outbox.relay.kafka-timeout-ms, "
+                    + "or another relay could claim a batch that is still being published");
+        }
+        this.outboxEventRepository = outboxEventRepository;
+        this.notificationDispatcher = notificationDispatcher;
+        this.kafkaTemplate = kafkaTemplate;
+        this.requestEventKafkaTemplate = requestEventKafkaTemplate;
+        this.notificationEventKafkaTemplate = notificationEventKafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollIntervalMs;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.kafkaTimeoutMs = kafkaTimeoutMs;
+        this.claimLeaseMs = claimLeaseMs;
+
+        this.worker = new Thread(this::run, "outbox-relay");
+        this.worker.setDaemon(true);
+
+        this.delivered = counter(meterRegistry, "delivered");
+        this.retried = counter(meterRegistry, "retried");
+        this.parked = counter(meterRegistry, "parked");
+        this.lag = Timer.builder("outbox.events.lag")
+                .description("Time from an event being committed to its delivery")
+                .register(meterRegistry);
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("outbox.events").tag("result", result).register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        worker.start();
+    }
+
+    /** Asks the relay to look for new events now rather than at the next poll. */
+    public void wakeUp() {
+        if (wakeUps.availablePermits() == 0) {
+            wakeUps.release();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                while (running && relayBatch() == batchSize) {
+                    // keep draining while batches come back full
+                }
+            } catch (Exception e) {
+                log.error("Outbox relay batch failed: {}", e.getMessage(), e);
+            }
+            try {
+                wakeUps.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                wakeUps.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    int relayBatch() {
+        List<OutboxEvent> due = transactionTemplate.execute(status -> claim());
+        if (due == null || due.isEmpty()) {
+            return 0;
+        }
+
+        // Outside any transaction: waiting on Kafka holds no connection or row lock
+        Map<Long, String> kafkaErrors = publishToKafka(due);
+        List<OutboxEvent> done = new ArrayList<>();
+        for (OutboxEvent event : due) {
+            if (!kafkaErrors.containsKey(event.getId())) {
+                deliverLocally(event);
+                lag.record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+                done.add(event);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> settle(done, kafkaErrors));
+        delivered.increment(done.size());
+        return due.size();
+    }
+
+    /** Takes a batch of due events and leases it, so other relays skip it until the lease runs out. */
+    private List<OutboxEvent> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> due = outboxEventRepository.claimDue(now, batchSize);
+        LocalDateTime leasedUntil = now.plus(Duration.ofMillis(claimLeaseMs));
+        due.forEach(event -> event.setNextAttemptAt(leasedUntil));
+        return due;
+    }
+
+    /** Deletes the published events and reschedules or parks the ones Kafka did not take. */
+    private void settle(List<OutboxEvent> done, Map<Long, String> kafkaErrors) {
+        LocalDateTime now = LocalDateTime.now();
+        // Re-read so a row deleted meanwhile, e.g. by an operator, is not written back
+        for (OutboxEvent event : outboxEventRepository.findAllById(kafkaErrors.keySet())) {
+            String error = kafkaErrors.get(event.getId());
+            event.setAttempts(event.getAttempts() + 1);
+            event.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+            if (event.getAttempts() < maxAttempts) {
+                event.setNextAttemptAt(now.plus(Duration.ofMillis(backoff(event.getAttempts()))));
+                retried.increment();
+            } else {
+                // Kept for an operator to inspect and re-drive by clearing parked_at
+                event.setParkedAt(now);
+                parked.increment();
+                log.error("Parking outbox event {} ({}) after {} failed Kafka publishes: {}",
+                        event.getId(), event.getType(), event.getAttempts(), error);
+            }
+        }
+        outboxEventRepository.deleteAllInBatch(done);
+    }
+
+    /** Sends the batch's Kafka records together and waits for the acks; returns errors by event id. */
+    private Map<Long, String> publishToKafka(List<OutboxEvent> events) {
+        Map<Long, String> errors = new HashMap<>();
+        Map<Long, CompletableFuture<?>> sends = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            try {
+                switch (event.getType()) {
+                    case DRIVER_BROADCAST -> {
+                        Map<String, String> p = readPayload(event);
+                        sends.put(event.getId(), kafkaTemplate.send("driver-notifications",
+                                driverCells(p).stream().findFirst().orElse("all"), p.get("message")));
+                    }
+                    case REQUEST_EVENT -> {
+                        RequestEvent requestEvent = objectMapper.readValue(event.getPayload(), RequestEvent.class);
+                        sends.put(event.getId(), requestEventKafkaTemplate.send(
+                                RequestEvent.TOPIC, requestEvent.requestId().toString(), requestEvent));
+                    }
+                    default -> {
+                        if (event.getUserId() == null) {
+                            continue; // no recipient
+                        }
+                        NotificationEvent notification = toNotificationEvent(event);
+                        sends.put(event.getId(), notificationEventKafkaTemplate.send(
+                                NotificationEvent.TOPIC, notification.userId().toString(), notification));
+                    }
+                }
+            } catch (Exception e) {
+                errors.put(event.getId(), e.getMessage());
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(kafkaTimeoutMs);
+        sends.forEach((id, send) -> {
+            try {
+                send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                errors.put(id, "interrupted");
+            } catch (Exception e) {
+                errors.put(id, String.valueOf(e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+            }
+        });
+        return errors;
+    }
+
+    /** Maps a notification outbox row to the event notification-service consumes. */
+    private NotificationEvent toNotificationEvent(OutboxEvent event) throws Exception {
+        Map<String, String> p = readPayload(event);
+        UUID eventId = eventId(p);
+        long occurredAt = event.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return switch (event.getType()) {
+            case USER_NOTIFICATION -> new NotificationEvent.UserNotification(eventId, event.getUserId(), occurredAt,
+                    p.get("title"), p.get("message"));
+            case EMAIL -> new NotificationEvent.Email(eventId, event.getUserId(), occurredAt,
+                    p.get("subject"), p.get("body"));
+            case DRIVER_REQUEST_EMAIL -> new NotificationEvent.DriverRequestEmail(eventId, event.getUserId(), occurredAt,
+                    p.get("requestId"), p.get("from"), p.get("to"), p.get("goodsDescription"), p.get("fare"),
+                    p.get("acceptUrl"), p.get("rejectUrl"));
+            case USER_CONFIRMATION_EMAIL -> new NotificationEvent.UserConfirmationEmail(eventId, event.getUserId(),
+                    occurredAt, p.get("requestId"), p.get("from"), p.get("to"), p.get("goodsDescription"));
+            default -> throw new IllegalArgumentException(event.getType() + " is not a notification");
+        };
+    }
+
+    private void deliverLocally(OutboxEvent event) {
+        if (event.getType() != OutboxEventType.USER_NOTIFICATION && event.getType() != OutboxEventType.DRIVER_BROADCAST) {
+            return;
+        }
+        try {
+            Map<String, String> p = readPayload(event);
+            if (event.getType() == OutboxEventType.USER_NOTIFICATION) {
+                notificationDispatcher.push(event.getUserId(), p.get("path"), p.get("message"), eventId(p));
+            } else {
+                notificationDispatcher.broadcastToDrivers(driverCells(p), p.get("message"));
+            }
+        } catch (Exception e) {
+            log.error("Dropping undeliverable outbox event {} ({}): {}", event.getId(), event.getType(), e.getMessage());
+        }
+    }
+
+    /**
+     * The id written with the row, shared by its WebSocket push and Kafka event so
+     * re-publishes carry the same id. Rows written before ids were stored get a fresh one
+     * per use, so at worst their recipient is emailed a notification they already saw.
+     */
+    private static UUID eventId(Map<String, String> payload) {
+        String eventId = payload.get("eventId");
+        return eventId != null ? UUID.fromString(eventId) : UUID.randomUUID();
+    }
+
+    /** Geohash cells a driver broadcast is limited to; empty for a broadcast to every driver. */
+    private static List<String> driverCells(Map<String, String> payload) {
+        String cells = payload.get("cells");
+        return cells == null || cells.isEmpty() ? List.of() : List.of(cells.split(","));
+    }
+
+    private Map<String, String> readPayload(OutboxEvent event) throws Exception {
+        return objectMapper.readValue(event.getPayload(), PAYLOAD_TYPE);
+    }
+
+    /** Exponential backoff with +/-20% jitter. */
+    private long backoff(int attempt) {
+        long base = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        return (long) (base * ThreadLocalRandom.current().nextDouble(0.8, 1.2));
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        wakeUp();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+}
@@ -1,11 +1,15 @@
 package com.gdc.requests_management.service;
 
+import com.gdc.requests_management.dto.request.LocationBatchDTO;
 import com.gdc.requests_management.dto.request.LocationDTO;
 import com.gdc.requests_management.dto.request.RequestDTO;
 import com.gdc.requests_management.dto.request.RequestFilterDTO;
 import com.gdc.requests_management.dto.request.RequestUpdateDTO;
+import com.gdc.requests_management.dto.response.LocationBatchResponse;
+import com.gdc.requests_management.dto.response.NearbyDriversSummary;
 import com.gdc.requests_management.dto.response.RequestStatusResponse;
 import com.gdc.requests_management.dto.response.RequestSummaryResponse;
+import com.gdc.requests_management.dto.response.TrailResponse;
 import com.gdc.requests_management.dto.response.TransactionReport;
 import com.gdc.requests_management.feign.dto.RideRequestResponseDto;
 import com.gdc.requests_management.feign.dto.RideResponseDto;
@@ -59,7 +63,10 @@ public interface RequestService {
     // RIDE USER TRACKING & LOCATION
     void updateRideUserLocation(UUID rideUserId, LocationDTO location);
     void updateRequestTracking(UUID requestId, LocationDTO location, UUID rideUserId);
+    LocationBatchResponse ingestLocationBatch(UUID rideUserId, LocationBatchDTO batch);
     LocationDTO getRequestTracking(UUID requestId, UUID userId);
+    TrailResponse getRequestTrail(UUID requestId, UUID userId, Long from, Long to, double toleranceMeters);
+    NearbyDriversSummary findDriversNear(double latitude, double longitude, double radiusKm, UUID userId);
 
     // ADMIN
     TransactionReport generateTransactionReport(String fromDate, String toDate);
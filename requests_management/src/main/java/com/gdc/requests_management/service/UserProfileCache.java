@@ -0,0 +1,208 @@
+package com.gdc.requests_management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gdc.requests_management.client.UserServiceClient;
+import com.gdc.requests_management.dto.response.StandardResponse;
+import com.gdc.requests_management.feign.dto.UserResponseDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two-tier cache for user profiles fetched from user-service.
+ * <p>
+ * Lookups go through a bounded in-process near-cache first, then the shared
+ * Redis entry ({@code user:details:{id}}), and only then user-service itself.
+ * user-service publishes the user ID on {@link #INVALIDATION_CHANNEL} whenever a
+ * profile changes, so every node drops its stale copy.
+ */
+@Service
+@Slf4j
+public class UserProfileCache {
+
+    public static final String INVALIDATION_CHANNEL = "user:profile:invalidate";
+    private static final String USER_CACHE_PREFIX = "user:details:";
+    private static final long USER_CACHE_TTL_MINUTES = 60;
+    private static final int MAX_BATCH_SIZE = 200;
+
+    private final UserServiceClient userServiceClient;
+    private final RedisTemplate<String, String> redisStringTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<UUID, UserResponseDTO> localCache;
+
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter redisHits;
+    private final Counter redisMisses;
+
+    public UserProfileCache(UserServiceClient userServiceClient,
+                            RedisTemplate<String, String> redisStringTemplate,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${user-cache.local.max-size:10000}") long maxSize,
+                            @Value("${user-cache.local.ttl-seconds:120}") long ttlSeconds) {
+        this.userServiceClient = userServiceClient;
+        this.redisStringTemplate = redisStringTemplate;
+        this.objectMapper = objectMapper;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+
+        this.localHits = counter(meterRegistry, "local", "hit");
+        this.localMisses = counter(meterRegistry, "local", "miss");
+        this.redisHits = counter(meterRegistry, "redis", "hit");
+        this.redisMisses = counter(meterRegistry, "redis", "miss");
+        meterRegistry.gauge("user.profile.cache.size", localCache, Cache::estimatedSize);
+    }
+
+    private static Counter counter(MeterRegistry registry, String tier, String result) {
+        return Counter.builder("user.profile.cache.requests")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Returns the profile for the given user, or {@code null} if user-service
+     * doesn't know it. Errors from user-service are propagated to the caller.
+     */
+    public UserResponseDTO get(UUID userId) {
+        UserResponseDTO local = localCache.getIfPresent(userId);
+        if (local != null) {
+            localHits.increment();
+            return local;
+        }
+        localMisses.increment();
+
+        UserResponseDTO cached = readRedis(userId);
+        if (cached != null) {
+            redisHits.increment();
+            localCache.put(userId, cached);
+            return cached;
+        }
+        redisMisses.increment();
+
+        StandardResponse<UserResponseDTO> response = userServiceClient.getUserDetails(userId);
+        UserResponseDTO user = response != null ? response.getData() : null;
+        if (user != null) {
+            store(userId, user);
+        }
+        return user;
+    }
+
+    /**
+     * Resolves several users at once. Misses in both tiers are fetched from
+     * user-service in batch calls of at most {@value #MAX_BATCH_SIZE}, the most
+     * it accepts; unknown users are left out.
+     */
+    public Map<UUID, UserResponseDTO> getAll(Collection<UUID> userIds) {
+        Map<UUID, UserResponseDTO> result = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+
+        for (UUID userId : new LinkedHashSet<>(userIds)) {
+            UserResponseDTO local = localCache.getIfPresent(userId);
+            if (local != null) {
+                localHits.increment();
+                result.put(userId, local);
+            } else {
+                localMisses.increment();
+                missing.add(userId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        Set<UUID> toFetch = new LinkedHashSet<>();
+        List<String> cachedValues = readRedis(missing);
+        for (int i = 0; i < missing.size(); i++) {
+            UUID userId = missing.get(i);
+            UserResponseDTO cached = cachedValues != null ? deserialize(cachedValues.get(i)) : null;
+            if (cached != null) {
+                redisHits.increment();
+                localCache.put(userId, cached);
+                result.put(userId, cached);
+            } else {
+                redisMisses.increment();
+                toFetch.add(userId);
+            }
+        }
+        if (toFetch.isEmpty()) {
+            return result;
+        }
+
+        List<UUID> ids = new ArrayList<>(toFetch);
+        for (int from = 0; from < ids.size(); from += MAX_BATCH_SIZE) {
+            List<UUID> chunk = ids.subList(from, Math.min(ids.size(), from + MAX_BATCH_SIZE));
+            StandardResponse<List<UserResponseDTO>> response = userServiceClient.getUsersByIds(new LinkedHashSet<>(chunk));
+            List<UserResponseDTO> fetched = response != null ? response.getData() : null;
+            if (fetched != null) {
+                for (UserResponseDTO user : fetched) {
+                    store(user.getId(), user);
+                    result.put(user.getId(), user);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drops the locally cached copy of a profile. Called for every message on
+     * {@link #INVALIDATION_CHANNEL}; the Redis entry itself is removed by user-service.
+     */
+    public void evictLocal(UUID userId) {
+        localCache.invalidate(userId);
+        log.debug("Evicted cached profile for user {}", userId);
+    }
+
+    private void store(UUID userId, UserResponseDTO user) {
+        localCache.put(userId, user);
+        try {
+            redisStringTemplate.opsForValue().set(USER_CACHE_PREFIX + userId,
+                    objectMapper.writeValueAsString(user), USER_CACHE_TTL_MINUTES, TimeUnit.MINUTES);
+        } catch (Exception e) {
+            log.warn("Failed to cache profile for user {} in Redis: {}", userId, e.getMessage());
+        }
+    }
+
+    private UserResponseDTO readRedis(UUID userId) {
+        try {
+            return deserialize(redisStringTemplate.opsForValue().get(USER_CACHE_PREFIX + userId));
+        } catch (Exception e) {
+            log.warn("Failed to read cached profile for user {} from Redis: {}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    private List<String> readRedis(List<UUID> userIds) {
+        try {
+            return redisStringTemplate.opsForValue().multiGet(
+                    userIds.stream().map(id -> USER_CACHE_PREFIX + id).toList());
+        } catch (Exception e) {
+            log.warn("Failed to read {} cached profiles from Redis: {}", userIds.size(), e.getMessage());
+            return null;
+        }
+    }
+
+    private UserResponseDTO deserialize(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, UserResponseDTO.class);
+        } catch (Exception e) {
+            log.warn("Discarding unreadable cached profile: {}", e.getMessage());
+            return null;
+        }
+    }
+}
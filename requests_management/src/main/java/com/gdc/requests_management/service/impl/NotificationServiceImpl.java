@@ -2,9 +2,8 @@ package com.gdc.requests_management.service.impl;
 
 import com.gdc.requests_management.dto.request.RequestDTO;
 import com.gdc.requests_management.model.entity.Request;
-import com.gdc.requests_management.service.EmailService;
+import com.gdc.requests_management.service.NotificationOutbox;
 import com.gdc.requests_management.service.NotificationService;
-import com.gdc.requests_management.service.UserDriverService;
 import com.gdc.requests_management.websocket.WebSocketNotificationHandler;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -21,9 +20,8 @@ import java.util.UUID;
 @Slf4j
 public class NotificationServiceImpl implements NotificationService {
 
-    private final EmailService emailService;
     private final WebSocketNotificationHandler webSocketHandler;
-    private final UserDriverService userDriverService;
+    private final NotificationOutbox notificationOutbox;
 
     @Value("${jwt.secret}")
     private String jwtSecret;
@@ -52,52 +50,28 @@ public class NotificationServiceImpl implements NotificationService {
             String acceptUrl = "http://localhost:8087/api/v1/requests/" + request.getId() + "/accept?token=" + token;
             String rejectUrl = "http://localhost:8087/api/v1/requests/" + request.getId() + "/reject?token=" + token;
 
-            String driverEmail = userDriverService.getEmailByUserId((driverId)); // ✅ corrected
-            if (driverEmail != null) {
-                emailService.sendDriverRequestNotification(
-                        driverEmail,
-                        request.getId().toString(),
-                        request.getFrom(),
-                        request.getTo(),
-                        request.getGoodsDescription(),
-                        fare,
-                        acceptUrl,
-                        rejectUrl
-                );
-            }
+            notificationOutbox.driverRequestEmail(driverId, request, fare, acceptUrl, rejectUrl);
 
             log.info("✅ Driver notified: {}", driverId);
         }
         else {
             String broadcastMsg = request.getId() + ": New request available from " + dto.getFrom() + " to " + dto.getTo();
-            webSocketHandler.broadcastToAllDrivers(broadcastMsg);
+            webSocketHandler.broadcastToDriversNear(request.getFromLatitude(), request.getFromLongitude(), broadcastMsg);
         }
 
         String userMessage = request.getId() + ": Request created successfully";
         webSocketHandler.sendUserNotification(request.getSenderUserId(), userMessage);
 
-        String userEmail = userDriverService.getEmailByUserId(request.getSenderUserId());
-        if (userEmail != null) {
-            emailService.sendUserConfirmation(
-                    userEmail,
-                    request.getId().toString(),
-                    request.getFrom(),
-                    request.getTo(),
-                    request.getGoodsDescription()
-            );
-        }
+        notificationOutbox.userConfirmationEmail(request.getSenderUserId(), request);
     }
 
     @Override
     public void notifyUserAutoRejected(Request request) {
-        String email = userDriverService.getEmailByUserId(request.getSenderUserId());
-        if (email != null) {
-            emailService.sendEmail(
-                    email,
-                    "❌ Driver Did Not Respond",
-                    String.format("Dear User,<br>Your request <b>%s</b> was automatically rejected as the assigned driver did not respond in time.", request.getId())
-            );
-        }
+        notificationOutbox.email(
+                request.getSenderUserId(),
+                "❌ Driver Did Not Respond",
+                String.format("Dear User,<br>Your request <b>%s</b> was automatically rejected as the assigned driver did not respond in time.", request.getId())
+        );
 
         webSocketHandler.sendUserNotification(request.getSenderUserId(), request.getId() + ": Auto rejected due to no response.");
     }
@@ -3,22 +3,33 @@ package com.gdc.requests_management.service.impl;
 import com.gdc.requests_management.client.PaymentServiceClient;
 import com.gdc.requests_management.client.RideServiceClient;
 import com.gdc.requests_management.client.UserServiceClient;
+import com.gdc.requests_management.dto.request.LocationBatchDTO;
 import com.gdc.requests_management.dto.request.LocationDTO;
+import com.gdc.requests_management.dto.request.LocationFixDTO;
 import com.gdc.requests_management.dto.request.RequestDTO;
 import com.gdc.requests_management.dto.request.RequestFilterDTO;
 import com.gdc.requests_management.dto.request.RequestUpdateDTO;
+import com.gdc.requests_management.dto.response.LocationBatchResponse;
+import com.gdc.requests_management.dto.response.NearbyDriverResponse;
+import com.gdc.requests_management.dto.response.NearbyDriversSummary;
 import com.gdc.requests_management.dto.response.RequestStatusResponse;
 import com.gdc.requests_management.dto.response.RequestSummaryResponse;
+import com.gdc.requests_management.dto.response.TrailResponse;
 import com.gdc.requests_management.dto.response.TransactionReport;
 import com.gdc.requests_management.feign.dto.*;
+import com.gdc.requests_management.kafka.RequestEventPublisher;
 import com.gdc.requests_management.service.*;
 import com.gdc.requests_management.exception.*;
 import com.gdc.requests_management.model.entity.Request;
 import com.gdc.requests_management.model.entity.RequestHistory;
+import com.gdc.requests_management.model.enums.GeocodingStatus;
 import com.gdc.requests_management.model.enums.RequestStatus;
 import com.gdc.requests_management.repository.RequestHistoryRepository;
 import com.gdc.requests_management.repository.RequestRepository;
+import com.gdc.requests_management.utils.DouglasPeucker;
 import com.gdc.requests_management.utils.OSMGeocodingService;
+import com.gdc.requests_management.utils.Timestamps;
+import com.gdc.requests_management.utils.TrailCodec;
 import com.gdc.requests_management.websocket.WebSocketNotificationHandler;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -53,24 +64,29 @@ public class RequestServiceImpl implements RequestService {
     private final PaymentServiceClient paymentServiceClient;
     private final UserServiceClient userServiceClient;
     private final LocationService locationService;
+    private final DriverGeoIndex driverGeoIndex;
+    private final BreadcrumbStore breadcrumbStore;
     private final RedisTemplate<String, String> redisStringTemplate;
-    private final RedisTemplate<String, Object> redisObjectTemplate;
-    private final UserDriverService userDriverService;
-    private final EmailService emailService;
     private final NotificationService notificationService;
     private final OSMGeocodingService geocodingService;
+    private final GeocodeEnrichmentService geocodeEnrichmentService;
+    private final RequestEventPublisher requestEventPublisher;
 
 
 
 
     private static final String BAN_CACHE_PREFIX = "banned:user:";
-    private static final String USER_CACHE_PREFIX = "user:details:";
     private static final long BAN_CACHE_TTL_DAYS = 30;
-    private static final long USER_CACHE_TTL_MINUTES = 60;
+    private static final double MAX_NEARBY_RADIUS_KM = 50;
+    private static final int MAX_NEARBY_DRIVERS = 100;
 
     @Value("${jwt.secret}")
     private String jwtSecret;
 
+    // Save first and geocode in the background instead of calling the geocoder inside the transaction
+    @Value("${geocoding.enrichment.async:false}")
+    private boolean asyncGeocoding;
+
 
     @Override
     @Transactional
@@ -106,9 +122,15 @@ public class RequestServiceImpl implements RequestService {
             }
         }
 
-        // ✅ 2. Fetch coordinates from 'from' and 'to' locations
-        double[] fromCoords = geocodingService.getCoordinatesFromLocation(dto.getFrom());
-        double[] toCoords = geocodingService.getCoordinatesFromLocation(dto.getTo());
+        // ✅ 2. Fetch coordinates from 'from' and 'to' locations (left pending in async mode)
+        Double[] fromCoords = {null, null};
+        Double[] toCoords = {null, null};
+        if (!asyncGeocoding) {
+            double[] from = geocodingService.getCoordinatesFromLocation(dto.getFrom());
+            double[] to = geocodingService.getCoordinatesFromLocation(dto.getTo());
+            fromCoords = new Double[]{from[0], from[1]};
+            toCoords = new Double[]{to[0], to[1]};
+        }
 
         // ✅ 3. Build and save request
         Request request = Request.builder()
@@ -127,6 +149,7 @@ public class RequestServiceImpl implements RequestService {
                 .fromLongitude(fromCoords[1])
                 .toLatitude(toCoords[0])
                 .toLongitude(toCoords[1])
+                .geocodingStatus(asyncGeocoding ? GeocodingStatus.PENDING : GeocodingStatus.RESOLVED)
                 .specialInstructions(dto.getSpecialInstructions())
                 .status(RequestStatus.PENDING)
                 .createdAt(LocalDateTime.now())
@@ -136,9 +159,13 @@ public class RequestServiceImpl implements RequestService {
 
         Request saved = requestRepository.save(request);
         saveHistory(saved, RequestStatus.PENDING, "Request created");
+        if (asyncGeocoding) {
+            geocodeEnrichmentService.enqueueAfterCommit(saved);
+        }
 
         // ✅ 4. Trigger notifications
         notificationService.handleDriverAndUserNotifications(saved, dto);
+        requestEventPublisher.requestCreated(saved);
 
         return saved;
     }
@@ -283,6 +310,7 @@ public class RequestServiceImpl implements RequestService {
 
         Request saved = requestRepository.save(request);
         saveHistory(saved, RequestStatus.ACCEPTED, "Accepted by driver");
+        requestEventPublisher.requestAccepted(saved);
 
         webSocketNotificationHandler.sendUserNotification(saved.getSenderUserId(), id + ":Request accepted by driver");
         webSocketNotificationHandler.sendDriverNotification(driverId, id + ":Request accepted successfully");
@@ -290,9 +318,9 @@ public class RequestServiceImpl implements RequestService {
         webSocketNotificationHandler.sendTrackingUpdate(
                 saved.getSenderUserId(),
                 driverId,
-                id.toString(),
+                id,
                 "ACCEPTED",
-                saved.getFrom()
+                locationService.getDriverLocation(driverId)
         );
 
         return saved;
@@ -316,11 +344,13 @@ public class RequestServiceImpl implements RequestService {
         Request saved = requestRepository.save(request);
         String rejectionNote = "Rejected by driver" + (reason != null ? ": " + reason : "");
         saveHistory(saved, RequestStatus.PENDING, rejectionNote);
+        requestEventPublisher.rejected(saved, driverId, reason);
 
         String rejectionMessage = id + ":Request rejected" + (reason != null ? ": " + reason : "");
         webSocketNotificationHandler.sendUserNotification(request.getSenderUserId(), rejectionMessage);
         webSocketNotificationHandler.sendDriverNotification(driverId, id + ":Request rejection confirmed");
-        webSocketNotificationHandler.broadcastToAllDrivers(id + ":Request available again after rejection");
+        webSocketNotificationHandler.broadcastToDriversNear(saved.getFromLatitude(), saved.getFromLongitude(),
+                id + ":Request available again after rejection");
 
         return saved;
     }
@@ -343,10 +373,10 @@ public class RequestServiceImpl implements RequestService {
 
         Request saved = requestRepository.save(request);
         saveHistory(saved, RequestStatus.IN_TRANSIT, "Goods picked up by driver");
+        requestEventPublisher.pickedUp(saved);
 
         LocationDTO location = locationService.getDriverLocation(driverId);
-        String locationStr = location != null ? location.toString() : request.getFrom();
-        webSocketNotificationHandler.sendTrackingUpdate(request.getSenderUserId(), driverId, id.toString(), "IN_TRANSIT", locationStr);
+        webSocketNotificationHandler.sendTrackingUpdate(request.getSenderUserId(), driverId, id, "IN_TRANSIT", location);
         webSocketNotificationHandler.sendUserNotification(request.getSenderUserId(), id + ":Your goods have been picked up");
         webSocketNotificationHandler.sendDriverNotification(driverId, id + ":Pickup confirmed - goods in transit");
 
@@ -372,6 +402,7 @@ public class RequestServiceImpl implements RequestService {
         Request saved = requestRepository.save(request);
         String deliveryNote = "Goods delivered successfully" + (notes != null ? ". Notes: " + notes : "");
         saveHistory(saved, RequestStatus.DELIVERED, deliveryNote);
+        requestEventPublisher.delivered(saved, notes);
 
         try {
             processPayment(saved);
@@ -379,9 +410,14 @@ public class RequestServiceImpl implements RequestService {
             log.error("Payment processing failed for request {}: {}", id, e.getMessage());
         }
 
+        try {
+            breadcrumbStore.archive(id);
+        } catch (Exception e) {
+            log.error("Archiving the trail of request {} failed, it stays in Redis until it expires: {}", id, e.getMessage());
+        }
+
         LocationDTO location = locationService.getDriverLocation(driverId);
-        String locationStr = location != null ? location.toString() : request.getTo();
-        webSocketNotificationHandler.sendTrackingUpdate(request.getSenderUserId(), driverId, id.toString(), "DELIVERED", locationStr);
+        webSocketNotificationHandler.sendTrackingUpdate(request.getSenderUserId(), driverId, id, "DELIVERED", location);
         webSocketNotificationHandler.sendUserNotification(request.getSenderUserId(), id + ":Goods delivered successfully");
         webSocketNotificationHandler.sendDriverNotification(driverId, id + ":Delivery confirmed - payment processed");
 
@@ -491,11 +527,61 @@ public class RequestServiceImpl implements RequestService {
             throw new UnauthorizedUserException("Only assigned driver can update tracking");
         }
         locationService.updateRequestTracking(requestId, location);
-        webSocketNotificationHandler.sendTrackingUpdate(request.getSenderUserId(), driverId, requestId.toString(),
-                request.getStatus().toString(), location.toString());
+        requestEventPublisher.trackingUpdated(request, location);
+        webSocketNotificationHandler.sendTrackingUpdate(request.getSenderUserId(), driverId, requestId,
+                request.getStatus().toString(), location);
         log.info("Tracking updated for requestId: {}", requestId);
     }
 
+    @Override
+    @Transactional
+    public LocationBatchResponse ingestLocationBatch(UUID rideUserId, LocationBatchDTO batch) {
+        checkUserBanned(rideUserId);
+        long now = System.currentTimeMillis();
+        List<LocationFixDTO> fixes = batch.getFixes().stream()
+                .filter(fix -> fix.getLatitude() != null && fix.getLongitude() != null
+                        && Math.abs(fix.getLatitude()) <= 90 && Math.abs(fix.getLongitude()) <= 180)
+                .sorted(Comparator.comparingLong(fix -> Timestamps.parseEpochMillis(fix.getTimestamp(), now)))
+                .toList();
+        int skipped = batch.getFixes().size() - fixes.size();
+        if (fixes.isEmpty()) {
+            return LocationBatchResponse.builder().accepted(0).skipped(skipped).build();
+        }
+
+        // One query and one check per request, however many fixes it has
+        Map<UUID, List<LocationDTO>> trackByRequest = new LinkedHashMap<>();
+        for (LocationFixDTO fix : fixes) {
+            if (fix.getRequestId() != null) {
+                trackByRequest.computeIfAbsent(fix.getRequestId(), id -> new ArrayList<>()).add(fix.toLocation());
+            }
+        }
+        Map<UUID, Request> requests = new HashMap<>();
+        requestRepository.findAllById(trackByRequest.keySet()).forEach(request -> requests.put(request.getId(), request));
+        for (UUID requestId : trackByRequest.keySet()) {
+            Request request = requests.get(requestId);
+            if (request == null) {
+                throw new RequestNotFoundException("Request not found with id: " + requestId);
+            }
+            if (!rideUserId.equals(request.getRideUserId())) {
+                throw new UnauthorizedUserException("Only assigned driver can update tracking");
+            }
+            if (request.getStatus() != RequestStatus.ACCEPTED && request.getStatus() != RequestStatus.IN_TRANSIT) {
+                throw new InvalidRequestStatusException("Tracking can only be updated for active requests: " + requestId);
+            }
+        }
+
+        locationService.updateBatch(rideUserId, fixes.get(fixes.size() - 1).toLocation(), trackByRequest);
+        trackByRequest.forEach((requestId, track) -> {
+            Request request = requests.get(requestId);
+            LocationDTO latest = track.get(track.size() - 1);
+            requestEventPublisher.trackingUpdated(request, latest);
+            webSocketNotificationHandler.sendTrackingUpdate(request.getSenderUserId(), rideUserId, requestId,
+                    request.getStatus().toString(), latest);
+        });
+        log.debug("Ingested {} location fixes from driver {} for {} requests", fixes.size(), rideUserId, trackByRequest.size());
+        return LocationBatchResponse.builder().accepted(fixes.size()).skipped(skipped).build();
+    }
+
     @Override
     public LocationDTO getRequestTracking(UUID requestId, UUID userId) {
         checkUserBanned(userId);
@@ -507,6 +593,42 @@ public class RequestServiceImpl implements RequestService {
         return locationService.getRequestTracking(requestId);
     }
 
+    @Override
+    public TrailResponse getRequestTrail(UUID requestId, UUID userId, Long from, Long to, double toleranceMeters) {
+        checkUserBanned(userId);
+        Request request = findRequest(requestId);
+        if (!Objects.equals(request.getSenderUserId(), userId) &&
+                !Objects.equals(request.getRideUserId(), userId)) {
+            throw new RequestAccessDeniedException("You are not authorized to view tracking");
+        }
+        List<TrailCodec.Sample> samples = breadcrumbStore.read(requestId).stream()
+                .filter(sample -> (from == null || sample.timeMs() >= from) && (to == null || sample.timeMs() <= to))
+                .toList();
+        List<TrailResponse.TrailPoint> points = DouglasPeucker.simplify(samples, toleranceMeters).stream()
+                .map(sample -> new TrailResponse.TrailPoint(sample.latitude(), sample.longitude(), sample.timeMs()))
+                .toList();
+        return TrailResponse.builder()
+                .requestId(requestId)
+                .totalSamples(samples.size())
+                .points(points)
+                .build();
+    }
+
+    @Override
+    public NearbyDriversSummary findDriversNear(double latitude, double longitude, double radiusKm, UUID userId) {
+        checkUserBanned(userId);
+        if (Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+            throw new InvalidLocationException("Invalid coordinates: " + latitude + ", " + longitude);
+        }
+        List<NearbyDriverResponse> drivers = driverGeoIndex.findDriversNear(latitude, longitude,
+                Math.min(radiusKm, MAX_NEARBY_RADIUS_KM), MAX_NEARBY_DRIVERS);
+        // Driver ids and live positions stay internal; a coarse distance can't be used to follow one driver
+        return NearbyDriversSummary.builder()
+                .driversCount(drivers.size())
+                .nearestDistanceKm(drivers.isEmpty() ? null : Math.max(1, Math.ceil(drivers.get(0).getDistanceKm())))
+                .build();
+    }
+
     @Override
     @Transactional
     public void banUser(UUID userId, String reason) {
@@ -607,19 +729,4 @@ public class RequestServiceImpl implements RequestService {
         }
     }
 
-    private UserResponseDTO getCachedUserDetails(UUID userId) {
-        String cacheKey = USER_CACHE_PREFIX + userId;
-
-        // 🔁 Try to fetch from Redis cache
-        UserResponseDTO cached = (UserResponseDTO) redisObjectTemplate.opsForValue().get(cacheKey);
-        if (cached != null) {
-            return cached;
-        }
-
-        // 🔁 Fetch from user service and cache it
-        UserResponseDTO user = userServiceClient.getUserDetails(userId).getData(); // ✅ FIXED HERE
-        redisObjectTemplate.opsForValue().set(cacheKey, user, USER_CACHE_TTL_MINUTES, TimeUnit.MINUTES);
-        return user;
-    }
-
-}
\ No newline at end of file
+}
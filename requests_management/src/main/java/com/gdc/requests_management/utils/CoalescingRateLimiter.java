@@ -0,0 +1,121 @@
+package com.gdc.requests_management.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Guards calls to a rate-limited upstream such as Nominatim.
+ * <p>
+ * Concurrent calls for the same key share one in-flight result (single-flight),
+ * so a burst of identical searches costs one upstream request. Calls that do go
+ * upstream take a token from a {@link TokenBucket}; at most {@code max-queue}
+ * callers may wait for a token, and none longer than {@code max-wait-ms}.
+ * Anything beyond that fails fast instead of piling up behind the limit.
+ */
+@Component
+@Slf4j
+public class CoalescingRateLimiter {
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final TokenBucket tokenBucket;
+    private final Semaphore queueSlots;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+
+    private final Counter upstreamCalls;
+    private final Counter coalescedCalls;
+    private final Counter throttledCalls;
+
+    public CoalescingRateLimiter(MeterRegistry meterRegistry,
+                                 @Value("${geocoding.nominatim.rate-per-second:1}") double ratePerSecond,
+                                 @Value("${geocoding.nominatim.burst:1}") int burst,
+                                 @Value("${geocoding.nominatim.max-queue:50}") int maxQueue,
+                                 @Value("${geocoding.nominatim.max-wait-ms:5000}") long maxWaitMs) {
+        this.tokenBucket = new TokenBucket(ratePerSecond, burst);
+        this.maxQueue = maxQueue;
+        this.queueSlots = new Semaphore(maxQueue);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+
+        this.upstreamCalls = Counter.builder("geocode.nominatim.calls").register(meterRegistry);
+        this.coalescedCalls = Counter.builder("geocode.nominatim.coalesced").register(meterRegistry);
+        this.throttledCalls = Counter.builder("geocode.nominatim.throttled").register(meterRegistry);
+        meterRegistry.gauge("geocode.nominatim.queue.depth", this, CoalescingRateLimiter::queueDepth);
+        meterRegistry.gauge("geocode.nominatim.in.flight", inFlight, ConcurrentHashMap::size);
+    }
+
+    /**
+     * Runs {@code call} for {@code key}, or joins the call already running for it.
+     * Failures, including being throttled, are rethrown to every caller sharing the call.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> call) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalescedCalls.increment();
+            return (T) await(existing);
+        }
+
+        try {
+            acquirePermit(key);
+            upstreamCalls.increment();
+            mine.complete(call.get());
+        } catch (Throwable t) {
+            // Any failure, Errors included, must complete the future or joiners would wait forever
+            mine.completeExceptionally(t);
+        } finally {
+            inFlight.remove(key, mine);
+        }
+        return (T) await(mine);
+    }
+
+    public int queueDepth() {
+        return maxQueue - queueSlots.availablePermits();
+    }
+
+    private void acquirePermit(String key) {
+        if (!queueSlots.tryAcquire()) {
+            throttledCalls.increment();
+            throw new IllegalStateException("Too many pending upstream lookups, rejected: " + key);
+        }
+        try {
+            long waitNanos = tokenBucket.reserve(maxWaitNanos);
+            if (waitNanos < 0) {
+                throttledCalls.increment();
+                throw new IllegalStateException("Upstream rate limit exceeded, rejected: " + key);
+            }
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for upstream rate limit", e);
+        } finally {
+            queueSlots.release();
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.gdc.requests_management.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Douglas–Peucker line simplification for breadcrumb trails: keeps the points needed
+ * to stay within {@code toleranceMeters} of the original path. Long straight stretches
+ * collapse to their end points while turns keep their shape.
+ * <p>
+ * Distances use an equirectangular projection around the trail's mean latitude, which
+ * is accurate to well under a percent over the length of a delivery. Iterative, so a
+ * trail of hundreds of thousands of fixes can't overflow the stack.
+ */
+public final class DouglasPeucker {
+
+    private static final double METERS_PER_DEGREE = 111_320d;
+
+    private DouglasPeucker() {
+    }
+
+    public static List<TrailCodec.Sample> simplify(List<TrailCodec.Sample> samples, double toleranceMeters) {
+        int n = samples.size();
+        if (n < 3 || toleranceMeters <= 0) {
+            return samples;
+        }
+
+        double meanLat = 0;
+        for (TrailCodec.Sample sample : samples) {
+            meanLat += sample.latitude();
+        }
+        double lonScale = Math.cos(Math.toRadians(meanLat / n));
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = samples.get(i).longitude() * lonScale * METERS_PER_DEGREE;
+            y[i] = samples.get(i).latitude() * METERS_PER_DEGREE;
+        }
+
+        BitSet keep = new BitSet(n);
+        keep.set(0);
+        keep.set(n - 1);
+        double toleranceSquared = toleranceMeters * toleranceMeters;
+        Deque<int[]> ranges = new ArrayDeque<>();
+        ranges.push(new int[]{0, n - 1});
+        while (!ranges.isEmpty()) {
+            int[] range = ranges.pop();
+            int first = range[0], last = range[1];
+            int farthest = -1;
+            double maxDistance = toleranceSquared;
+            for (int i = first + 1; i < last; i++) {
+                double distance = segmentDistanceSquared(x[i], y[i], x[first], y[first], x[last], y[last]);
+                if (distance > maxDistance) {
+                    maxDistance = distance;
+                    farthest = i;
+                }
+            }
+            if (farthest >= 0) {
+                keep.set(farthest);
+                ranges.push(new int[]{first, farthest});
+                ranges.push(new int[]{farthest, last});
+            }
+        }
+
+        List<TrailCodec.Sample> simplified = new ArrayList<>(keep.cardinality());
+        for (int i = keep.nextSetBit(0); i >= 0; i = keep.nextSetBit(i + 1)) {
+            simplified.add(samples.get(i));
+        }
+        return simplified;
+    }
+
+    private static double segmentDistanceSquared(double px, double py, double ax, double ay, double bx, double by) {
+        double dx = bx - ax, dy = by - ay;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, ((px - ax) * dx + (py - ay) * dy) / lengthSquared));
+        double cx = ax + t * dx - px, cy = ay + t * dy - py;
+        return cx * cx + cy * cy;
+    }
+}
@@ -0,0 +1,126 @@
+package com.gdc.requests_management.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds a {@link GazetteerIndex} file from a tab-separated gazetteer.
+ * <p>
+ * Accepts GeoNames dumps (e.g. {@code cities500.txt}: name, ascii name and
+ * optionally the alternate names are indexed) or plain {@code name<TAB>lat<TAB>lon}
+ * files. When several places share a normalized name the most populous one wins.
+ * <pre>
+ *   gradle buildGazetteerIndex -Pinput=cities500.txt -Poutput=gazetteer.idx [-Palternates]
+ * </pre>
+ */
+public class GazetteerIndexBuilder {
+
+    private static final int MAX_KEY_BYTES = 0xffff;
+
+    private final boolean includeAlternateNames;
+    private final Map<String, Candidate> places = new HashMap<>();
+
+    public GazetteerIndexBuilder(boolean includeAlternateNames) {
+        this.includeAlternateNames = includeAlternateNames;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: GazetteerIndexBuilder <input.tsv> <output.idx> [--alternates]");
+            System.exit(1);
+        }
+        boolean alternates = args.length > 2 && "--alternates".equals(args[2]);
+        GazetteerIndexBuilder builder = new GazetteerIndexBuilder(alternates);
+        builder.read(Path.of(args[0]));
+        int written = builder.write(Path.of(args[1]));
+        System.out.printf("Wrote %d places to %s%n", written, args[1]);
+    }
+
+    public void read(Path tsv) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(tsv, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    addLine(line.split("\t", -1));
+                }
+            }
+        }
+    }
+
+    public void add(String name, double latitude, double longitude, long population) {
+        String key = GeocodingCache.normalize(name);
+        if (key.isEmpty() || key.getBytes(StandardCharsets.UTF_8).length > MAX_KEY_BYTES) {
+            return;
+        }
+        places.merge(key, new Candidate(latitude, longitude, population),
+                (existing, candidate) -> candidate.population > existing.population ? candidate : existing);
+    }
+
+    /**
+     * Writes the index, ordered by the UTF-8 bytes of the key as {@link GazetteerIndex} expects.
+     *
+     * @return number of records written
+     */
+    public int write(Path output) throws IOException {
+        List<Map.Entry<byte[], Candidate>> records = new ArrayList<>(places.size());
+        places.forEach((name, candidate) -> records.add(Map.entry(name.getBytes(StandardCharsets.UTF_8), candidate)));
+        records.sort((a, b) -> Arrays.compareUnsigned(a.getKey(), b.getKey()));
+
+        try (OutputStream file = Files.newOutputStream(output);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(GazetteerIndex.MAGIC);
+            out.writeInt(records.size());
+
+            int offset = 8 + records.size() * 4;
+            for (Map.Entry<byte[], Candidate> record : records) {
+                out.writeInt(offset);
+                offset += 2 + record.getKey().length + 8;
+            }
+            for (Map.Entry<byte[], Candidate> record : records) {
+                byte[] key = record.getKey();
+                Candidate candidate = record.getValue();
+                out.writeShort(key.length);
+                out.write(key);
+                out.writeInt((int) Math.round(candidate.latitude * GazetteerIndex.SCALE));
+                out.writeInt((int) Math.round(candidate.longitude * GazetteerIndex.SCALE));
+            }
+        }
+        return records.size();
+    }
+
+    private void addLine(String[] columns) {
+        try {
+            if (columns.length >= 15) {
+                // GeoNames: 1 name, 2 asciiname, 3 alternatenames, 4 latitude, 5 longitude, 14 population
+                double lat = Double.parseDouble(columns[4]);
+                double lon = Double.parseDouble(columns[5]);
+                long population = columns[14].isEmpty() ? 0 : Long.parseLong(columns[14]);
+                add(columns[1], lat, lon, population);
+                add(columns[2], lat, lon, population);
+                if (includeAlternateNames && !columns[3].isEmpty()) {
+                    for (String alternate : columns[3].split(",")) {
+                        add(alternate, lat, lon, population);
+                    }
+                }
+            } else if (columns.length >= 3) {
+                add(columns[0], Double.parseDouble(columns[1]), Double.parseDouble(columns[2]), 0);
+            }
+        } catch (NumberFormatException e) {
+            // Header or malformed row
+        }
+    }
+
+    private record Candidate(double latitude, double longitude, long population) {
+    }
+}
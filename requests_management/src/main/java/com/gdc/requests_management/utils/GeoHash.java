@@ -0,0 +1,157 @@
+package com.gdc.requests_management.utils;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Geohash encoding plus cell covers for radius searches and area partitioning.
+ * Geohashes share a prefix when they're close, so "within a cell" becomes a
+ * string range that a plain B-tree index can answer.
+ */
+public class GeoHash {
+
+    public static final int STORED_PRECISION = 9;
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private GeoHash() {
+    }
+
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLat = -90, maxLat = 90;
+        double minLon = -180, maxLon = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0;
+        int ch = 0;
+
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (minLon + maxLon) / 2;
+                if (longitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLon = mid;
+                } else {
+                    ch <<= 1;
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch <<= 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+            if (++bit == 5) {
+                hash.append(BASE32.charAt(ch));
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    /** Geohash at {@link #STORED_PRECISION}, or {@code null} when the coordinates are unknown. */
+    public static String encode(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            return null;
+        }
+        return encode(latitude, longitude, STORED_PRECISION);
+    }
+
+    /**
+     * Cells that together cover the circle of {@code radiusKm} around a point: the
+     * finest cell at least as large as the radius, plus its eight neighbours.
+     */
+    public static Set<String> coveringCells(double latitude, double longitude, double radiusKm) {
+        int precision = STORED_PRECISION;
+        while (precision > 1 && (cellHeightKm(precision) < radiusKm || cellWidthKm(precision, latitude) < radiusKm)) {
+            precision--;
+        }
+        return cellsAround(latitude, longitude, precision, 1);
+    }
+
+    /**
+     * The cell containing the point plus {@code rings} rings of neighbours around it,
+     * centre first; {@code rings = 1} gives the usual 3 x 3 block. Longitude wraps at
+     * the antimeridian and latitude stops at the poles, so fewer cells may come back.
+     */
+    public static Set<String> cellsAround(double latitude, double longitude, int precision, int rings) {
+        double cellWidth = 360 / Math.pow(2, lonBits(precision));
+        double cellHeight = 180 / Math.pow(2, latBits(precision));
+        // Step from the centre of the point's own cell, so every step lands well inside a neighbour
+        double centerLon = -180 + (Math.floor((longitude + 180) / cellWidth) + 0.5) * cellWidth;
+        double centerLat = -90 + (Math.floor((latitude + 90) / cellHeight) + 0.5) * cellHeight;
+
+        Set<String> cells = new LinkedHashSet<>();
+        cells.add(encode(latitude, longitude, precision));
+        for (int dLat = -rings; dLat <= rings; dLat++) {
+            double lat = centerLat + dLat * cellHeight;
+            if (lat < -90 || lat > 90) {
+                continue;
+            }
+            for (int dLon = -rings; dLon <= rings; dLon++) {
+                cells.add(encode(lat, wrapLongitude(centerLon + dLon * cellWidth), precision));
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Smallest cell (at most {@link #STORED_PRECISION} long) that contains the whole box,
+     * or {@code ""}, the whole world, when the box straddles a first-level cell edge.
+     */
+    public static String enclosingCell(double minLat, double maxLat, double minLon, double maxLon) {
+        String southWest = encode(minLat, minLon, STORED_PRECISION);
+        String northEast = encode(maxLat, maxLon, STORED_PRECISION);
+        int length = 0;
+        while (length < STORED_PRECISION && southWest.charAt(length) == northEast.charAt(length)) {
+            length++;
+        }
+        return southWest.substring(0, length);
+    }
+
+    /** Every proper prefix of {@code cell}, i.e. the cells containing it, from {@code ""} down. */
+    public static Set<String> ancestors(String cell) {
+        Set<String> ancestors = new LinkedHashSet<>();
+        for (int length = 0; length < cell.length(); length++) {
+            ancestors.add(cell.substring(0, length));
+        }
+        return ancestors;
+    }
+
+    /** Last stored geohash inside {@code cell}, for an inclusive {@code BETWEEN cell AND upperBound(cell)}. */
+    public static String upperBound(String cell) {
+        return cell + "z".repeat(Math.max(0, STORED_PRECISION - cell.length()));
+    }
+
+    private static double cellHeightKm(int precision) {
+        return 180 / Math.pow(2, latBits(precision)) * KM_PER_DEGREE;
+    }
+
+    private static double cellWidthKm(int precision, double latitude) {
+        return 360 / Math.pow(2, lonBits(precision)) * KM_PER_DEGREE * Math.cos(Math.toRadians(latitude));
+    }
+
+    private static int latBits(int precision) {
+        return precision * 5 / 2;
+    }
+
+    private static int lonBits(int precision) {
+        return (precision * 5 + 1) / 2;
+    }
+
+    private static double wrapLongitude(double longitude) {
+        if (longitude >= 180) {
+            return longitude - 360;
+        }
+        if (longitude < -180) {
+            return longitude + 360;
+        }
+        return longitude;
+    }
+}
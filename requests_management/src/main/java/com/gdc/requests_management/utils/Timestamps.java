@@ -0,0 +1,31 @@
+package com.gdc.requests_management.utils;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+
+public final class Timestamps {
+
+    private Timestamps() {
+    }
+
+    /**
+     * Epoch millis of an ISO 8601 timestamp, with an offset or in the server's zone
+     * without one; {@code fallback} when it is missing or doesn't parse.
+     */
+    public static long parseEpochMillis(String timestamp, long fallback) {
+        if (timestamp == null || timestamp.isBlank()) {
+            return fallback;
+        }
+        try {
+            return OffsetDateTime.parse(timestamp).toInstant().toEpochMilli();
+        } catch (DateTimeParseException notOffset) {
+            try {
+                return LocalDateTime.parse(timestamp).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                return fallback;
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.gdc.requests_management.utils;
+
+/**
+ * Token bucket that hands out reservations: a caller that finds the bucket
+ * empty is told how long to wait for its token instead of being refused, as
+ * long as that wait stays under the given limit.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate must be positive and burst at least 1");
+        }
+        this.capacity = burst;
+        this.tokensPerNano = ratePerSecond / 1_000_000_000d;
+        this.tokens = burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Reserves one token.
+     *
+     * @return nanoseconds the caller has to wait before using the token,
+     *         or {@code -1} if that would exceed {@code maxWaitNanos} (nothing is reserved then)
+     */
+    public synchronized long reserve(long maxWaitNanos) {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        long waitNanos = (long) Math.ceil((1 - tokens) / tokensPerNano);
+        if (waitNanos > maxWaitNanos) {
+            return -1;
+        }
+        tokens -= 1;
+        return waitNanos;
+    }
+}
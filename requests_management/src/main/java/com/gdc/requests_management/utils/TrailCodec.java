@@ -0,0 +1,122 @@
+package com.gdc.requests_management.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Compact binary encoding for breadcrumb trails.
+ * <p>
+ * Coordinates are stored as fixed-point degrees x 1e5 (about 1.1 m), time as epoch
+ * millis. A chunk is self-contained:
+ * <pre>
+ *   byte    version
+ *   varint  sample count
+ *   sample: zigzag varint deltas of lat, lon and time from the previous sample
+ *           (the first sample's deltas are from zero)
+ * </pre>
+ * Consecutive GPS fixes move a few metres over a few seconds, so a sample usually
+ * takes 5-7 bytes instead of the ~80 of a JSON {@code LocationDTO}.
+ */
+public final class TrailCodec {
+
+    public static final double SCALE = 100_000d;
+    private static final byte VERSION = 1;
+
+    private TrailCodec() {
+    }
+
+    /** One fix; {@code latE5}/{@code lonE5} are degrees x {@link #SCALE}. */
+    public record Sample(int latE5, int lonE5, long timeMs) {
+
+        public static Sample of(double latitude, double longitude, long timeMs) {
+            return new Sample((int) Math.round(latitude * SCALE), (int) Math.round(longitude * SCALE), timeMs);
+        }
+
+        public double latitude() {
+            return latE5 / SCALE;
+        }
+
+        public double longitude() {
+            return lonE5 / SCALE;
+        }
+    }
+
+    public static byte[] encode(List<Sample> samples) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 + samples.size() * 7);
+        out.write(VERSION);
+        writeVarint(out, samples.size());
+        long lat = 0, lon = 0, time = 0;
+        for (Sample sample : samples) {
+            writeVarint(out, zigzag(sample.latE5() - lat));
+            writeVarint(out, zigzag(sample.lonE5() - lon));
+            writeVarint(out, zigzag(sample.timeMs() - time));
+            lat = sample.latE5();
+            lon = sample.lonE5();
+            time = sample.timeMs();
+        }
+        return out.toByteArray();
+    }
+
+    public static List<Sample> decode(byte[] chunk) {
+        List<Sample> samples = new ArrayList<>();
+        decodeInto(chunk, samples);
+        return samples;
+    }
+
+    /** Decodes chunks written at different times (or by different nodes) into one time-ordered trail. */
+    public static List<Sample> decodeAll(List<byte[]> chunks) {
+        List<Sample> samples = new ArrayList<>();
+        for (byte[] chunk : chunks) {
+            decodeInto(chunk, samples);
+        }
+        samples.sort(Comparator.comparingLong(Sample::timeMs));
+        return samples;
+    }
+
+    private static void decodeInto(byte[] chunk, List<Sample> samples) {
+        ByteBuffer in = ByteBuffer.wrap(chunk);
+        byte version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unknown trail chunk version " + version);
+        }
+        long count = readVarint(in);
+        long lat = 0, lon = 0, time = 0;
+        for (long i = 0; i < count; i++) {
+            lat += unzigzag(readVarint(in));
+            lon += unzigzag(readVarint(in));
+            time += unzigzag(readVarint(in));
+            samples.add(new Sample((int) lat, (int) lon, time));
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in trail chunk");
+    }
+}
@@ -0,0 +1,129 @@
+package com.gdc.requests_management.websocket;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which users have a live STOMP session on any node, so notifications can
+ * skip the email fallback for users who are looking at the dashboard.
+ * <p>
+ * Each user has a sorted set in Redis of session ids scored by expiry time. Nodes
+ * re-score their own sessions every heartbeat, so sessions of a node that died
+ * without sending disconnects lapse after {@code session-ttl-ms}.
+ * <p>
+ * Also stores client acknowledgements of delivered notifications, which can
+ * arrive on a different node than the one that sent the message. They are keyed
+ * by recipient ({@code notification:ack:{userId}:{id}}), so a user can only
+ * acknowledge their own notifications.
+ */
+@Component
+@Slf4j
+public class PresenceRegistry {
+
+    private static final String PRESENCE_PREFIX = "presence:user:";
+    private static final String ACK_PREFIX = "notification:ack:";
+
+    private final RedisTemplate<String, String> redisStringTemplate;
+    private final Map<String, String> localSessions = new ConcurrentHashMap<>();
+    private final long sessionTtlMs;
+    private final Duration ackTtl;
+
+    public PresenceRegistry(RedisTemplate<String, String> redisStringTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${notification.presence.session-ttl-ms:90000}") long sessionTtlMs,
+                            @Value("${notification.presence.ack-ttl-ms:600000}") long ackTtlMs) {
+        this.redisStringTemplate = redisStringTemplate;
+        this.sessionTtlMs = sessionTtlMs;
+        this.ackTtl = Duration.ofMillis(ackTtlMs);
+        meterRegistry.gauge("websocket.sessions.authenticated", localSessions, Map::size);
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        Principal user = event.getUser();
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (user == null || sessionId == null) {
+            return;
+        }
+        localSessions.put(sessionId, user.getName());
+        touch(user.getName(), sessionId);
+    }
+
+    @EventListener
+    public void onDisconnected(SessionDisconnectEvent event) {
+        String userId = localSessions.remove(event.getSessionId());
+        if (userId == null) {
+            return;
+        }
+        try {
+            redisStringTemplate.opsForZSet().remove(PRESENCE_PREFIX + userId, event.getSessionId());
+        } catch (Exception e) {
+            log.warn("Failed to clear presence for session {}: {}", event.getSessionId(), e.getMessage());
+        }
+    }
+
+    /** Re-scores this node's sessions well before they would lapse. */
+    @Scheduled(fixedDelayString = "${notification.presence.heartbeat-ms:30000}")
+    public void heartbeat() {
+        localSessions.forEach((sessionId, userId) -> touch(userId, sessionId));
+    }
+
+    /** Whether the user has an unexpired session on any node; {@code false} if Redis can't tell. */
+    public boolean isOnline(UUID userId) {
+        try {
+            Long live = redisStringTemplate.opsForZSet()
+                    .count(PRESENCE_PREFIX + userId, System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+            return live != null && live > 0;
+        } catch (Exception e) {
+            log.warn("Presence lookup failed for user {}, assuming offline: {}", userId, e.getMessage());
+            return false;
+        }
+    }
+
+    public void acknowledge(UUID userId, UUID notificationId) {
+        try {
+            redisStringTemplate.opsForValue().set(ackKey(userId, notificationId), "1", ackTtl);
+        } catch (Exception e) {
+            log.warn("Failed to record acknowledgement of {}: {}", notificationId, e.getMessage());
+        }
+    }
+
+    public boolean isAcknowledged(UUID userId, UUID notificationId) {
+        try {
+            return Boolean.TRUE.equals(redisStringTemplate.hasKey(ackKey(userId, notificationId)));
+        } catch (Exception e) {
+            log.warn("Acknowledgement lookup failed for {}: {}", notificationId, e.getMessage());
+            return false;
+        }
+    }
+
+    private static String ackKey(UUID userId, UUID notificationId) {
+        return ACK_PREFIX + userId + ":" + notificationId;
+    }
+
+    private void touch(String userId, String sessionId) {
+        String key = PRESENCE_PREFIX + userId;
+        long now = System.currentTimeMillis();
+        try {
+            redisStringTemplate.opsForZSet().add(key, sessionId, now + sessionTtlMs);
+            redisStringTemplate.opsForZSet().removeRangeByScore(key, Double.NEGATIVE_INFINITY, now);
+            redisStringTemplate.expire(key, Duration.ofMillis(sessionTtlMs));
+        } catch (Exception e) {
+            log.warn("Failed to record presence for user {}: {}", userId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.gdc.requests_management.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.NativeMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Lets the in-memory STOMP broker work across request-service nodes. Every message the
+ * application sends to a {@code /user/...} or {@code /topic/...} destination on this node
+ * is also published on the {@value #CHANNEL} Redis channel, and every other node replays
+ * it into its own broker. A user's sessions live on whichever nodes they connected to,
+ * so {@code convertAndSendToUser} from any node reaches them, and topic broadcasts reach
+ * subscribers everywhere.
+ * <p>
+ * Only server-side sends pass through the broker channel; the per-session destinations
+ * they resolve to ({@code /queue/x-user{session}}) are node-local and never published.
+ * Redis pub/sub is fire-and-forget, so a node that is disconnected from Redis misses
+ * messages while it is, exactly as its clients would.
+ */
+@Component
+@Slf4j
+public class RedisBrokerBridge implements ChannelInterceptor, MessageListener {
+
+    public static final String CHANNEL = "websocket:broker";
+    private static final String ORIGIN_HEADER = "cluster-origin";
+
+    private final RedisTemplate<String, String> redisStringTemplate;
+    private final MessageChannel brokerChannel;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Counter published;
+    private final Counter replayed;
+    private final Counter failed;
+
+    public RedisBrokerBridge(RedisTemplate<String, String> redisStringTemplate,
+                             RedisMessageListenerContainer listenerContainer,
+                             @Lazy @Qualifier("brokerChannel") MessageChannel brokerChannel,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${websocket.cluster.enabled:true}") boolean enabled) {
+        this.redisStringTemplate = redisStringTemplate;
+        this.brokerChannel = brokerChannel;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.published = counter(meterRegistry, "published");
+        this.replayed = counter(meterRegistry, "replayed");
+        this.failed = counter(meterRegistry, "failed");
+        if (enabled) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("websocket.cluster.messages").tag("result", result).register(registry);
+    }
+
+    /** Publishes messages sent on this node; registered on the broker channel. */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        if (!enabled || headers.containsKey(ORIGIN_HEADER)
+                || SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        if (destination == null || !(destination.startsWith("/user/") || destination.startsWith("/topic/"))) {
+            return message;
+        }
+
+        byte[] payload = message.getPayload() instanceof byte[] bytes ? bytes
+                : message.getPayload() instanceof String text ? text.getBytes(StandardCharsets.UTF_8) : null;
+        if (payload == null) {
+            log.warn("Not publishing {} to other nodes: unconverted {} payload", destination,
+                    message.getPayload().getClass().getSimpleName());
+            return message;
+        }
+        Object contentType = headers.get(MessageHeaders.CONTENT_TYPE);
+        @SuppressWarnings("unchecked")
+        Map<String, List<String>> nativeHeaders =
+                (Map<String, List<String>>) headers.get(NativeMessageHeaderAccessor.NATIVE_HEADERS);
+        try {
+            redisStringTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(new Envelope(nodeId, destination,
+                    contentType != null ? contentType.toString() : null, nativeHeaders, payload)));
+            published.increment();
+        } catch (Exception e) {
+            failed.increment();
+            log.warn("Failed to publish {} to other nodes: {}", destination, e.getMessage());
+        }
+        return message;
+    }
+
+    /** Replays a message published by another node into this node's broker. */
+    @Override
+    public void onMessage(org.springframework.data.redis.connection.Message message, byte[] pattern) {
+        try {
+            Envelope envelope = objectMapper.readValue(message.getBody(), Envelope.class);
+            if (nodeId.equals(envelope.origin())) {
+                return;
+            }
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setDestination(envelope.destination());
+            if (envelope.contentType() != null) {
+                accessor.setContentType(MimeType.valueOf(envelope.contentType()));
+            }
+            if (envelope.headers() != null) {
+                envelope.headers().forEach((name, values) -> values.forEach(value -> accessor.addNativeHeader(name, value)));
+            }
+            accessor.setHeader(ORIGIN_HEADER, envelope.origin());
+            brokerChannel.send(MessageBuilder.createMessage(envelope.payload(), accessor.getMessageHeaders()));
+            replayed.increment();
+        } catch (Exception e) {
+            failed.increment();
+            log.warn("Failed to replay message from another node: {}", e.getMessage());
+        }
+    }
+
+    private record Envelope(String origin, String destination, String contentType,
+                            Map<String, List<String>> headers, byte[] payload) {
+    }
+}
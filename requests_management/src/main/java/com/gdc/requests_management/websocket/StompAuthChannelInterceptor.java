@@ -0,0 +1,73 @@
+package com.gdc.requests_management.websocket;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.security.Key;
+import java.util.Base64;
+import java.util.Collections;
+
+/**
+ * Authenticates STOMP sessions from the {@code Authorization} header of the CONNECT
+ * frame, the same bearer token the REST API takes. The session's principal is the
+ * user id, which is what {@code convertAndSendToUser} and presence tracking key on.
+ * Connections without a token stay anonymous and only receive broadcasts.
+ */
+@Component
+@Slf4j
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private static final String PREFIX = "Bearer ";
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    private Key signingKey;
+
+    @PostConstruct
+    public void init() {
+        this.signingKey = Keys.hmacShaKeyFor(Base64.getDecoder().decode(secret));
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.CONNECT) {
+            return message;
+        }
+
+        String header = accessor.getFirstNativeHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(PREFIX)) {
+            return message;
+        }
+
+        try {
+            Claims claims = Jwts.parserBuilder()
+                    .setSigningKey(signingKey)
+                    .build()
+                    .parseClaimsJws(header.substring(PREFIX.length()))
+                    .getBody();
+            if (claims.getSubject() != null) {
+                accessor.setUser(new UsernamePasswordAuthenticationToken(claims.getSubject(), null, Collections.emptyList()));
+            }
+        } catch (Exception e) {
+            log.warn("Rejecting STOMP connect with invalid token: {}", e.getMessage());
+            throw new MessagingException("Invalid or expired token");
+        }
+        return message;
+    }
+}
@@ -0,0 +1,224 @@
+package com.gdc.requests_management.websocket;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gdc.requests_management.dto.request.LocationDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conflating fan-out for live tracking. Updates are keyed by request and only the
+ * newest one is kept; every {@code interval-ms} the pending updates are pushed to
+ * the sender and driver on {@value #DESTINATION} as compact JSON. A driver pinging
+ * every second or faster costs each viewer at most one frame per interval, and a
+ * position nobody has seen yet is simply replaced by the next one.
+ * <p>
+ * Slow consumers: when the outbound WebSocket executor already has more than
+ * {@code max-outbound-backlog} frames queued, the flush is skipped and updates keep
+ * conflating until it drains. Individual sessions that stop reading are closed by the
+ * transport's send limits (see {@code WebSocketConfig}) and counted here.
+ * <p>
+ * Conflation is per node; with several nodes a request sees at most one frame per
+ * interval from each node that received its pings.
+ */
+@Component
+@Slf4j
+public class TrackingFanout {
+
+    public static final String DESTINATION = "/queue/tracking";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ThreadPoolTaskExecutor outboundExecutor;
+    private final ObjectMapper objectMapper;
+    private final int maxPending;
+    private final int maxOutboundBacklog;
+
+    private final Map<UUID, Pending> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    private final Counter received;
+    private final Counter conflated;
+    private final Counter overflowed;
+    private final Counter sent;
+    private final Counter deferred;
+    private final Counter slowConsumers;
+    private final Timer flushTime;
+
+    public TrackingFanout(SimpMessagingTemplate messagingTemplate,
+                          @Lazy @Qualifier("clientOutboundChannelExecutor") ThreadPoolTaskExecutor outboundExecutor,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${tracking.fanout.interval-ms:1000}") long intervalMs,
+                          @Value("${tracking.fanout.max-pending:50000}") int maxPending,
+                          @Value("${tracking.fanout.max-outbound-backlog:10000}") int maxOutboundBacklog) {
+        this.messagingTemplate = messagingTemplate;
+        this.outboundExecutor = outboundExecutor;
+        this.objectMapper = objectMapper;
+        this.maxPending = maxPending;
+        this.maxOutboundBacklog = maxOutboundBacklog;
+
+        this.received = counter(meterRegistry, "received");
+        this.conflated = counter(meterRegistry, "conflated");
+        this.overflowed = counter(meterRegistry, "overflowed");
+        this.sent = counter(meterRegistry, "sent");
+        this.deferred = Counter.builder("tracking.fanout.deferred")
+                .description("Flushes skipped because the outbound WebSocket queue was backed up")
+                .register(meterRegistry);
+        this.slowConsumers = Counter.builder("websocket.sessions.slow_consumer")
+                .description("Sessions closed for not reading their frames fast enough")
+                .register(meterRegistry);
+        this.flushTime = Timer.builder("tracking.fanout.flush").register(meterRegistry);
+        meterRegistry.gauge("tracking.fanout.pending", pending, Map::size);
+
+        // Its own thread, so a slow @Scheduled job elsewhere can't hold up live positions
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tracking-fanout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleAtFixedRate(this::flush, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("tracking.updates").tag("result", result).register(registry);
+    }
+
+    /**
+     * Queues the latest state of a request for its sender and driver. {@code location}
+     * may be {@code null} for a status change with no fresh position, in which case the
+     * last pending position is kept. Inside a transaction nothing is queued until it commits.
+     */
+    public void update(UUID requestId, UUID senderUserId, UUID driverId, String status, LocationDTO location) {
+        if (requestId == null || (senderUserId == null && driverId == null)) {
+            return;
+        }
+        TrackingUpdate update = new TrackingUpdate(requestId, status,
+                location != null ? location.getLatitude() : null,
+                location != null ? location.getLongitude() : null,
+                System.currentTimeMillis());
+        Pending next = new Pending(senderUserId, driverId, update);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(next);
+                }
+            });
+        } else {
+            enqueue(next);
+        }
+    }
+
+    private void enqueue(Pending next) {
+        received.increment();
+        pending.compute(next.update().requestId(), (requestId, previous) -> {
+            if (previous == null) {
+                if (pending.size() >= maxPending) {
+                    overflowed.increment();
+                    return null;
+                }
+                return next;
+            }
+            conflated.increment();
+            if (next.update().latitude() == null && previous.update().latitude() != null) {
+                return new Pending(next.senderUserId(), next.driverId(), next.update().withPosition(previous.update()));
+            }
+            return next;
+        });
+    }
+
+    void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        if (outboundExecutor.getQueueSize() > maxOutboundBacklog) {
+            deferred.increment();
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            for (Iterator<UUID> keys = pending.keySet().iterator(); keys.hasNext(); ) {
+                Pending next = pending.remove(keys.next());
+                if (next != null) {
+                    send(next);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Tracking flush failed: {}", e.getMessage(), e);
+        } finally {
+            flushTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void send(Pending next) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(next.update());
+        } catch (Exception e) {
+            log.warn("Failed to serialize tracking update for request {}: {}", next.update().requestId(), e.getMessage());
+            return;
+        }
+        for (UUID userId : new UUID[]{next.senderUserId(), next.driverId()}) {
+            if (userId == null) {
+                continue;
+            }
+            try {
+                messagingTemplate.convertAndSendToUser(userId.toString(), DESTINATION, json);
+                sent.increment();
+            } catch (Exception e) {
+                log.warn("Failed to push tracking update to user {}: {}", userId, e.getMessage());
+            }
+        }
+    }
+
+    @EventListener
+    public void onDisconnected(SessionDisconnectEvent event) {
+        if (CloseStatus.SESSION_NOT_RELIABLE.equals(event.getCloseStatus())) {
+            slowConsumers.increment();
+            log.warn("Closed slow WebSocket session {} for user {}", event.getSessionId(),
+                    event.getUser() != null ? event.getUser().getName() : null);
+        }
+    }
+
+    /** Sends what is still pending before shutdown. */
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        flush();
+    }
+
+    /** The frame clients receive; {@code at} is epoch millis, position fields are omitted when unknown. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record TrackingUpdate(UUID requestId, String status, Double latitude, Double longitude, long at) {
+
+        TrackingUpdate withPosition(TrackingUpdate from) {
+            return new TrackingUpdate(requestId, status, from.latitude(), from.longitude(), at);
+        }
+    }
+
+    private record Pending(UUID senderUserId, UUID driverId, TrackingUpdate update) {
+    }
+}
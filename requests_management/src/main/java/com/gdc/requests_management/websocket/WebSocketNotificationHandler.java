@@ -1,8 +1,10 @@
 package com.gdc.requests_management.websocket;
 
-import com.gdc.requests_management.service.EmailService;
-import com.gdc.requests_management.service.UserDriverService;
+import com.gdc.requests_management.dto.request.LocationDTO;
+import com.gdc.requests_management.service.NotificationOutbox;
+import com.gdc.requests_management.utils.GeoHash;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
@@ -13,31 +15,29 @@ import java.util.UUID;
 public class WebSocketNotificationHandler {
 
     private final SimpMessagingTemplate messagingTemplate;
-    private final EmailService emailService;
-    private final UserDriverService userDriverService;
+    private final NotificationOutbox notificationOutbox;
+    private final TrackingFanout trackingFanout;
+
+    // Precision 5 cells are ~4.9 km across, so one ring reaches drivers at least that far from the pickup
+    @Value("${drivers.broadcast.geohash-precision:5}")
+    private int broadcastPrecision;
+
+    @Value("${drivers.broadcast.rings:1}")
+    private int broadcastRings;
 
     /**
      * Sends a generic notification to a user via WebSocket and fallback email.
      */
     public void sendUserNotification(UUID userId, String message) {
-        messagingTemplate.convertAndSendToUser(userId.toString(), "/queue/notifications", message);
-
-        String userEmail = userDriverService.getEmailByUserId(userId);
-        if (userEmail != null) {
-            emailService.sendEmail(userEmail, "User Notification", message);
-        }
+        sendNotificationToUser(userId, "User Notification", message, "/queue/notifications");
     }
 
     /**
      * Sends a notification to a specific WebSocket path and emails the user.
+     * Goes through the outbox, so inside a transaction nothing is sent until it commits.
      */
     public void sendNotificationToUser(UUID userId, String title, String message, String path) {
-        messagingTemplate.convertAndSendToUser(userId.toString(), path, message);
-
-        String email = userDriverService.getEmailByUserId(userId);
-        if (email != null) {
-            emailService.sendEmail(email, title, message);
-        }
+        notificationOutbox.notifyUser(userId, path, title, message);
     }
 
     /**
@@ -47,14 +47,35 @@ public class WebSocketNotificationHandler {
         sendNotificationToUser(userId, "Real-Time Update", message, "/queue/updates");
     }
 
+    /**
+     * Pushes a real-time update over WebSocket only, for changes that don't warrant an email.
+     */
+    public void pushUpdate(UUID userId, String message) {
+        messagingTemplate.convertAndSendToUser(userId.toString(), "/queue/updates", message);
+    }
+
     /**
      * Broadcasts notifications to all subscribed drivers.
      */
     public void broadcastToAllDrivers(String message) {
-        messagingTemplate.convertAndSend("/topic/driver-notifications", message);
+        notificationOutbox.broadcastToDrivers(message);
         // Future enhancement: also send bulk email to all driver emails
     }
 
+    /**
+     * Broadcasts to drivers near a point only: the geohash cell it falls in and
+     * {@code drivers.broadcast.rings} rings of cells around it. Falls back to all
+     * drivers while the point is unknown (e.g. the pickup is still being geocoded).
+     */
+    public void broadcastToDriversNear(Double latitude, Double longitude, String message) {
+        if (latitude == null || longitude == null) {
+            broadcastToAllDrivers(message);
+            return;
+        }
+        notificationOutbox.broadcastToDrivers(message,
+                GeoHash.cellsAround(latitude, longitude, broadcastPrecision, broadcastRings));
+    }
+
 
     public void sendDriverNotification(UUID rideUserId, String message) {
         sendNotificationToUser(rideUserId, "Driver Notification", message, "/queue/driver");
@@ -62,18 +83,11 @@ public class WebSocketNotificationHandler {
 
 
     /**
-     * Sends location-based tracking updates to user and driver.
+     * Sends a tracking update to the user and driver over WebSocket only. Updates are
+     * conflated per request and pushed as JSON on /queue/tracking at a fixed rate.
      */
-    public void sendTrackingUpdate(UUID senderUserId, UUID rideUserId, String requestId, String status, String location) {
-        String trackingMessage = String.format("Request %s: Status updated to %s at %s", requestId, status, location);
-
-        if (senderUserId != null) {
-            sendNotificationToUser(senderUserId, "Tracking Update", trackingMessage, "/queue/tracking");
-        }
-
-        if (rideUserId != null) {
-            sendNotificationToUser(rideUserId, "Tracking Update", trackingMessage, "/queue/tracking");
-        }
+    public void sendTrackingUpdate(UUID senderUserId, UUID rideUserId, UUID requestId, String status, LocationDTO location) {
+        trackingFanout.update(requestId, senderUserId, rideUserId, status, location);
     }
 
     public void sendPaymentNotification(UUID senderUserId, UUID rideUserId, String requestId, String paymentStatus, String amount) {
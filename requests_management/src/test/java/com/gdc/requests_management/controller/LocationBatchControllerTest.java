@@ -0,0 +1,125 @@
+package com.gdc.requests_management.controller;
+
+import com.gdc.requests_management.dto.request.LocationBatchDTO;
+import com.gdc.requests_management.dto.response.LocationBatchResponse;
+import com.gdc.requests_management.exception.GlobalExceptionHandler;
+import com.gdc.requests_management.service.RequestService;
+import com.gdc.requests_management.service.UserProfileCache;
+import com.gdc.requests_management.utils.EmailTokenValidator;
+import com.gdc.requests_management.websocket.WebSocketNotificationHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Binding and validation of {@code POST /driver/location/batch}, on a standalone
+ * MockMvc so no application context is needed.
+ */
+@ExtendWith(MockitoExtension.class)
+class LocationBatchControllerTest {
+
+    private static final String URL = "/api/v1/requests/driver/location/batch";
+
+    @Mock
+    private RequestService requestService;
+
+    @Mock
+    private WebSocketNotificationHandler webSocketNotificationHandler;
+
+    @Mock
+    private UserProfileCache userProfileCache;
+
+    @Mock
+    private EmailTokenValidator emailTokenValidator;
+
+    @InjectMocks
+    private RequestController requestController;
+
+    private MockMvc mockMvc;
+    private UUID driverId;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(requestController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .build();
+        driverId = UUID.randomUUID();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(driverId.toString(), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validBatch_ShouldBeIngestedForTheAuthenticatedDriver() throws Exception {
+        UUID requestId = UUID.randomUUID();
+        when(requestService.ingestLocationBatch(eq(driverId), any()))
+                .thenReturn(LocationBatchResponse.builder().accepted(2).skipped(1).build());
+
+        mockMvc.perform(post(URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fixes\":["
+                                + "{\"requestId\":\"" + requestId + "\",\"latitude\":17.44,\"longitude\":78.34,\"timestamp\":\"2026-01-05T10:00:00Z\"},"
+                                + "{\"latitude\":17.45,\"longitude\":78.35},"
+                                + "{\"latitude\":95,\"longitude\":78.35}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.accepted").value(2))
+                .andExpect(jsonPath("$.data.skipped").value(1));
+
+        ArgumentCaptor<LocationBatchDTO> batch = ArgumentCaptor.forClass(LocationBatchDTO.class);
+        verify(requestService).ingestLocationBatch(eq(driverId), batch.capture());
+        assertEquals(3, batch.getValue().getFixes().size());
+        assertEquals(requestId, batch.getValue().getFixes().get(0).getRequestId());
+        assertEquals(78.34, batch.getValue().getFixes().get(0).getLongitude());
+    }
+
+    @Test
+    void fixWithoutCoordinates_ShouldFailTheBatchInsteadOfReadingAsZero() throws Exception {
+        mockMvc.perform(post(URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fixes\":[{\"latitude\":17.44,\"longitude\":78.34},{\"longitude\":78.35}]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0]").value("fixes[1].latitude: Latitude is required"));
+
+        verifyNoInteractions(requestService);
+    }
+
+    @Test
+    void emptyOrOversizedBatch_ShouldBeRejected() throws Exception {
+        mockMvc.perform(post(URL).contentType(MediaType.APPLICATION_JSON).content("{\"fixes\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        String fix = "{\"latitude\":17.44,\"longitude\":78.34}";
+        String tooMany = "{\"fixes\":[" + String.join(",", Collections.nCopies(1001, fix)) + "]}";
+        mockMvc.perform(post(URL).contentType(MediaType.APPLICATION_JSON).content(tooMany))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(requestService);
+    }
+}
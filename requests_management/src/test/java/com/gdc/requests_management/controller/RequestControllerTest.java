@@ -1,145 +1,182 @@
 package com.gdc.requests_management.controller;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.gdc.requests_management.client.UserServiceClient;
 import com.gdc.requests_management.dto.request.LocationDTO;
 import com.gdc.requests_management.dto.request.RequestDTO;
+import com.gdc.requests_management.exception.GlobalExceptionHandler;
+import com.gdc.requests_management.feign.dto.UserResponseDTO;
 import com.gdc.requests_management.model.entity.Request;
 import com.gdc.requests_management.model.enums.RequestStatus;
 import com.gdc.requests_management.service.RequestService;
+import com.gdc.requests_management.service.UserProfileCache;
+import com.gdc.requests_management.utils.EmailTokenValidator;
 import com.gdc.requests_management.websocket.WebSocketNotificationHandler;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
-import org.springframework.boot.test.mock.mockito.MockBean;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
-import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
-
-import static org.mockito.ArgumentMatchers.eq;
-import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@WebMvcTest(RequestController.class)
+@ExtendWith(MockitoExtension.class)
 class RequestControllerTest {
 
-    @Autowired
-    private MockMvc mockMvc;
-
-    @MockBean
+    @Mock
     private RequestService requestService;
 
-    @MockBean
+    @Mock
     private WebSocketNotificationHandler webSocketNotificationHandler;
 
-    @MockBean
-    private UserServiceClient userServiceClient;
+    @Mock
+    private UserProfileCache userProfileCache;
+
+    @Mock
+    private EmailTokenValidator emailTokenValidator;
 
-    @Autowired
-    private ObjectMapper objectMapper;
+    @InjectMocks
+    private RequestController requestController;
 
+    private MockMvc mockMvc;
     private UUID userId;
+    private UUID driverId;
     private UUID requestId;
     private Request request;
-    private RequestDTO requestDTO;
 
     @BeforeEach
     void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(requestController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .build();
         userId = UUID.randomUUID();
+        driverId = UUID.randomUUID();
         requestId = UUID.randomUUID();
 
-        requestDTO = new RequestDTO();
-        requestDTO.setSenderId(userId);
-        requestDTO.setGoodsDescription("Books");
-        requestDTO.setWeight(5.0);
-        requestDTO.setVolume(1.0);
-        requestDTO.setPickupLocation("Village A");
-        requestDTO.setDeliveryLocation("City B");
-        requestDTO.setEstimatedValue(new BigDecimal("100.00"));
-        requestDTO.setPriority(RequestPriority.MEDIUM);
-
         request = Request.builder()
                 .id(requestId)
-                .senderId(userId)
+                .senderUserId(userId)
+                .rideUserId(driverId)
                 .goodsDescription("Books")
                 .weight(5.0)
-                .volume(1.0)
-                .pickupLocation("Village A")
-                .deliveryLocation("City B")
-                .estimatedValue(new BigDecimal("100.00"))
+                .from("Village A")
+                .to("City B")
+                .fare(new BigDecimal("100.00"))
                 .status(RequestStatus.PENDING)
-                .priority(RequestPriority.MEDIUM)
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
     }
 
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
     @Test
-    @WithMockUser(username = "user-id", roles = {"USER"})
     void createRequest_Success() throws Exception {
-        when(requestService.createRequest(any(RequestDTO.class), eq(userId)))
-                .thenReturn(request);
+        authenticate(userId);
+        when(requestService.createRequest(any(RequestDTO.class), eq(userId))).thenReturn(request);
+        when(userProfileCache.getAll(any())).thenReturn(Map.of(userId, user(userId, "Asha")));
 
         mockMvc.perform(post("/api/v1/requests")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(requestDTO))
-                        .with(csrf()))
+                        .content("{\"senderUserId\":\"" + userId + "\",\"rideUserId\":\"" + driverId + "\","
+                                + "\"rideId\":\"" + UUID.randomUUID() + "\",\"goodsDescription\":\"Books\","
+                                + "\"goodsType\":\"DOCUMENTS\",\"weight\":5.0,\"goodsQuantity\":1,"
+                                + "\"requiredSpace\":\"SMALL\",\"from\":\"Village A\",\"to\":\"City B\",\"fare\":100.00}"))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.data.id").value(requestId.toString()))
+                .andExpect(jsonPath("$.data.senderName").value("Asha"))
+                .andExpect(jsonPath("$.data.driverName").value("Unknown"))
                 .andExpect(jsonPath("$.message").value("Transport request created successfully"));
+
+        ArgumentCaptor<RequestDTO> dto = ArgumentCaptor.forClass(RequestDTO.class);
+        verify(requestService).createRequest(dto.capture(), eq(userId));
+        assertEquals("Village A", dto.getValue().getFrom());
     }
 
     @Test
-    @WithMockUser(username = "user-id", roles = {"USER"})
-    void getRequestById_Success() throws Exception {
-        when(requestService.getRequestById(eq(requestId), eq(userId)))
-                .thenReturn(request);
+    void createRequest_MissingFields_ShouldBeRejected() throws Exception {
+        authenticate(userId);
 
-        mockMvc.perform(post("/api/v1/requests/" + requestId)
+        mockMvc.perform(post("/api/v1/requests")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .with(csrf()))
+                        .content("{\"goodsDescription\":\"Books\"}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(requestService);
+    }
+
+    @Test
+    void getRequestById_Success() throws Exception {
+        authenticate(userId);
+        when(requestService.getRequestById(requestId, userId)).thenReturn(request);
+
+        mockMvc.perform(get("/api/v1/requests/" + requestId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.data.id").value(requestId.toString()))
                 .andExpect(jsonPath("$.message").value("Request retrieved successfully"));
     }
 
     @Test
-    @WithMockUser(username = "driver-id", roles = {"DRIVER"})
     void acceptRequest_Success() throws Exception {
+        authenticate(driverId);
         request.setStatus(RequestStatus.ACCEPTED);
-        when(requestService.acceptRequest(eq(requestId), any(UUID.class)))
-                .thenReturn(request);
+        when(requestService.acceptRequest(requestId, driverId)).thenReturn(request);
 
-        mockMvc.perform(put("/api/v1/requests/" + requestId + "/accept")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .with(csrf()))
+        mockMvc.perform(post("/api/v1/requests/" + requestId + "/accept"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.data.status").value("ACCEPTED"))
                 .andExpect(jsonPath("$.message").value("Request accepted successfully"));
+
+        verify(webSocketNotificationHandler).sendRealTimeUpdate(eq(userId), anyString());
     }
 
     @Test
-    @WithMockUser(username = "driver-id", roles = {"DRIVER"})
     void updateRequestTracking_Success() throws Exception {
-        LocationDTO locationDTO = new LocationDTO();
-        locationDTO.setLatitude(12.34);
-        locationDTO.setLongitude(56.78);
+        authenticate(driverId);
 
         mockMvc.perform(put("/api/v1/requests/" + requestId + "/tracking")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(locationDTO))
-                        .with(csrf()))
+                        .content("{\"latitude\":12.34,\"longitude\":56.78}"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message").value("Tracking updated successfully"));
+
+        ArgumentCaptor<LocationDTO> location = ArgumentCaptor.forClass(LocationDTO.class);
+        verify(requestService).updateRequestTracking(eq(requestId), location.capture(), eq(driverId));
+        assertEquals(12.34, location.getValue().getLatitude());
+        assertEquals(56.78, location.getValue().getLongitude());
+    }
+
+    private static void authenticate(UUID principal) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal.toString(), null, List.of()));
+    }
+
+    private static UserResponseDTO user(UUID id, String displayName) {
+        UserResponseDTO user = new UserResponseDTO();
+        user.setId(id);
+        user.setDisplayName(displayName);
+        return user;
     }
-}
\ No newline at end of file
+}
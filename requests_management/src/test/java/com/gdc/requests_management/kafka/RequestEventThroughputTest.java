@@ -0,0 +1,176 @@
+package com.gdc.requests_management.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gdc.requests_management.config.KafkaProducerConfig;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Publishes the same stream of lifecycle events through the old producer setup (JSON
+ * strings, {@code linger.ms=1}, no compression) and the current one (Smile, larger
+ * batches, lz4) against an embedded broker, and compares throughput and bytes on the wire.
+ * The byte and ordering checks always run; the throughput figures are only printed with
+ * {@code BENCHMARK=true gradle test --tests '*RequestEventThroughputTest'}.
+ */
+class RequestEventThroughputTest {
+
+    private static final String BASELINE_TOPIC = "request-lifecycle-baseline";
+    private static final int PARTITIONS = 6;
+    private static final int REQUESTS = 500;
+    private static final int EVENTS_PER_REQUEST = 40;
+
+    private static EmbeddedKafkaKraftBroker broker;
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, PARTITIONS, RequestEvent.TOPIC, BASELINE_TOPIC);
+        broker.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    @Test
+    void tunedProducer_ShouldSendFewerBytesAndKeepPerRequestOrder() throws Exception {
+        List<RequestEvent> events = events();
+
+        Map<String, Object> baselineProps = new HashMap<>();
+        baselineProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        baselineProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        baselineProps.put(ProducerConfig.RETRIES_CONFIG, 3);
+        baselineProps.put(ProducerConfig.LINGER_MS_CONFIG, 1);
+        ObjectMapper json = new ObjectMapper();
+        Result baseline = publish(BASELINE_TOPIC, baselineProps,
+                (topic, event) -> {
+                    try {
+                        return json.writeValueAsBytes(event);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }, events);
+
+        Map<String, Object> tunedProps = KafkaProducerConfig.producerProps(broker.getBrokersAsString(), 20, 65536, "lz4", 5000);
+        Result tuned = publish(RequestEvent.TOPIC, tunedProps, new RequestEventSerde(), events);
+
+        if ("true".equals(System.getenv("BENCHMARK"))) {
+            System.out.printf("%d events: baseline %.0f events/s, %d bytes sent; tuned %.0f events/s, %d bytes sent%n",
+                    events.size(), baseline.eventsPerSecond, baseline.bytesSent, tuned.eventsPerSecond, tuned.bytesSent);
+        }
+        assertTrue(tuned.bytesSent < baseline.bytesSent / 2, "tuned sent " + tuned.bytesSent + " bytes");
+
+        assertConsumedInOrder(events.size());
+    }
+
+    /** Each request goes through its lifecycle with tracking updates in between, interleaved across requests. */
+    private static List<RequestEvent> events() {
+        UUID[] requests = new UUID[REQUESTS];
+        for (int r = 0; r < REQUESTS; r++) {
+            requests[r] = UUID.randomUUID();
+        }
+        UUID sender = UUID.randomUUID();
+        UUID driver = UUID.randomUUID();
+        List<RequestEvent> events = new ArrayList<>();
+        for (int seq = 0; seq < EVENTS_PER_REQUEST; seq++) {
+            for (UUID requestId : requests) {
+                UUID eventId = UUID.randomUUID();
+                // occurredAt doubles as the per-request sequence number checked on the consumer side
+                events.add(switch (seq) {
+                    case 0 -> new RequestEvent.RequestCreated(eventId, requestId, seq, sender, driver,
+                            "Gachibowli, Hyderabad", "Whitefield, Bengaluru", "4250.00");
+                    case 1 -> new RequestEvent.RequestAccepted(eventId, requestId, seq, sender, driver);
+                    case 2 -> new RequestEvent.PickedUp(eventId, requestId, seq, sender, driver);
+                    case EVENTS_PER_REQUEST - 1 -> new RequestEvent.Delivered(eventId, requestId, seq, sender, driver, null);
+                    default -> new RequestEvent.TrackingUpdated(eventId, requestId, seq, sender, driver,
+                            "IN_TRANSIT", 17.4 + seq * 0.01, 78.3 + seq * 0.01);
+                });
+            }
+        }
+        return events;
+    }
+
+    private static Result publish(String topic, Map<String, Object> props, Serializer<RequestEvent> serializer,
+                                  List<RequestEvent> events) throws Exception {
+        DefaultKafkaProducerFactory<String, RequestEvent> factory =
+                new DefaultKafkaProducerFactory<>(props, new StringSerializer(), serializer);
+        try {
+            KafkaTemplate<String, RequestEvent> template = new KafkaTemplate<>(factory);
+            // Warm up metadata and the connection so they aren't part of the timing
+            template.send(topic, "warmup", events.get(0)).get();
+
+            long start = System.nanoTime();
+            for (RequestEvent event : events) {
+                template.send(topic, event.requestId().toString(), event);
+            }
+            template.flush();
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            double bytes = 0;
+            for (Map.Entry<MetricName, ? extends Metric> metric : template.metrics().entrySet()) {
+                if (metric.getKey().name().equals("outgoing-byte-total") && metric.getKey().group().equals("producer-metrics")) {
+                    bytes = (double) metric.getValue().metricValue();
+                }
+            }
+            return new Result(events.size() / seconds, (long) bytes);
+        } finally {
+            factory.destroy();
+        }
+    }
+
+    private static void assertConsumedInOrder(int expected) {
+        Map<String, Object> props = KafkaTestUtils.consumerProps(broker.getBrokersAsString(), "throughput-test", "false");
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 5000);
+        try (Consumer<String, RequestEvent> consumer = new DefaultKafkaConsumerFactory<>(props,
+                new StringDeserializer(), new RequestEventSerde()).createConsumer()) {
+            consumer.subscribe(List.of(RequestEvent.TOPIC));
+
+            Map<UUID, Long> lastSeq = new HashMap<>();
+            int consumed = 0;
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (consumed < expected && System.currentTimeMillis() < deadline) {
+                for (ConsumerRecord<String, RequestEvent> record : consumer.poll(Duration.ofMillis(500))) {
+                    if (record.key().equals("warmup")) {
+                        continue;
+                    }
+                    RequestEvent event = record.value();
+                    assertEquals(event.requestId().toString(), record.key());
+                    Long previous = lastSeq.put(event.requestId(), event.occurredAt());
+                    assertEquals(previous == null ? 0 : previous + 1, event.occurredAt(),
+                            "out of order for request " + event.requestId());
+                    consumed++;
+                }
+            }
+            assertEquals(expected, consumed);
+            assertEquals(REQUESTS, lastSeq.size());
+        }
+    }
+
+    private record Result(double eventsPerSecond, long bytesSent) {
+    }
+}
@@ -0,0 +1,120 @@
+package com.gdc.requests_management.service;
+
+import com.gdc.requests_management.dto.request.LocationDTO;
+import com.gdc.requests_management.model.entity.RequestTrail;
+import com.gdc.requests_management.repository.RequestTrailRepository;
+import com.gdc.requests_management.utils.TrailCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import redis.embedded.RedisServer;
+
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BreadcrumbStoreTest {
+
+    private static RedisServer redis;
+    private static LettuceConnectionFactory connectionFactory;
+    private static RedisTemplate<String, String> redisStringTemplate;
+
+    private RequestTrailRepository repository;
+    private BreadcrumbStore store;
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redis = new RedisServer(port);
+        redis.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        redisStringTemplate = new RedisTemplate<>();
+        redisStringTemplate.setConnectionFactory(connectionFactory);
+        redisStringTemplate.setKeySerializer(new StringRedisSerializer());
+        redisStringTemplate.setValueSerializer(new StringRedisSerializer());
+        redisStringTemplate.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RequestTrailRepository.class);
+        when(repository.findById(any())).thenReturn(Optional.empty());
+        // Long interval so only the explicit flush() calls below write anything
+        store = new BreadcrumbStore(redisStringTemplate, repository, new SimpleMeterRegistry(), 60_000, 1000, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    @Test
+    void read_ShouldMergeFlushedChunksAndBufferedFixesInTimeOrder() {
+        UUID requestId = UUID.randomUUID();
+        store.append(requestId, fix(17.4401, 78.3489, "2026-01-05T10:00:02Z"));
+        store.append(requestId, fix(17.4400, 78.3480, "2026-01-05T10:00:00Z"));
+        store.flush();
+        store.append(requestId, fix(17.4410, 78.3500, "2026-01-05T10:00:04+00:00"));
+
+        List<TrailCodec.Sample> trail = store.read(requestId);
+
+        assertEquals(3, trail.size());
+        assertEquals(List.of(1767607200000L, 1767607202000L, 1767607204000L),
+                trail.stream().map(TrailCodec.Sample::timeMs).toList());
+        assertEquals(1, redisStringTemplate.opsForList().size("request:trail:" + requestId));
+        assertTrue(redisStringTemplate.getExpire("request:trail:" + requestId) > 0);
+    }
+
+    @Test
+    void archive_ShouldStoreOneMergedChunkAndDropTheLiveTrail() {
+        UUID requestId = UUID.randomUUID();
+        for (int i = 0; i < 10; i++) {
+            store.append(requestId, fix(17.44 + i * 0.001, 78.35, null));
+            if (i % 3 == 0) {
+                store.flush();
+            }
+        }
+
+        store.archive(requestId);
+
+        ArgumentCaptor<RequestTrail> saved = ArgumentCaptor.forClass(RequestTrail.class);
+        verify(repository).save(saved.capture());
+        assertEquals(10, saved.getValue().getSampleCount());
+        assertEquals(10, TrailCodec.decode(saved.getValue().getSamples()).size());
+        assertFalse(redisStringTemplate.hasKey("request:trail:" + requestId));
+
+        // Reads of a delivered request come from the archive, without duplicates
+        when(repository.findById(requestId)).thenReturn(Optional.of(saved.getValue()));
+        assertEquals(10, store.read(requestId).size());
+    }
+
+    private static LocationDTO fix(double latitude, double longitude, String timestamp) {
+        LocationDTO location = new LocationDTO();
+        location.setLatitude(latitude);
+        location.setLongitude(longitude);
+        location.setTimestamp(timestamp);
+        return location;
+    }
+}
@@ -0,0 +1,148 @@
+package com.gdc.requests_management.service;
+
+import com.gdc.requests_management.dto.request.LocationDTO;
+import com.gdc.requests_management.dto.response.NearbyDriverResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import redis.embedded.RedisServer;
+
+import java.net.ServerSocket;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DriverGeoIndexTest {
+
+    // Around Hyderabad: Hitech City, Gachibowli, Secunderabad, and Vijayawada (~250 km away)
+    private static final double[] HITECH_CITY = {17.4435, 78.3772};
+    private static final double[] GACHIBOWLI = {17.4401, 78.3489};
+    private static final double[] SECUNDERABAD = {17.4399, 78.4983};
+    private static final double[] VIJAYAWADA = {16.5062, 80.6480};
+
+    private static RedisServer redis;
+    private static LettuceConnectionFactory connectionFactory;
+    private static RedisTemplate<String, String> redisStringTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redis = new RedisServer(port);
+        redis.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        redisStringTemplate = new RedisTemplate<>();
+        redisStringTemplate.setConnectionFactory(connectionFactory);
+        redisStringTemplate.setKeySerializer(new StringRedisSerializer());
+        redisStringTemplate.setValueSerializer(new StringRedisSerializer());
+        redisStringTemplate.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @BeforeEach
+    void flush() {
+        redisStringTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void findDriversNear_ShouldMergeShardsNearestFirstWithinRadius() {
+        DriverGeoIndex index = new DriverGeoIndex(redisStringTemplate, meterRegistry, 8, 60_000, 1000);
+        UUID hitech = UUID.randomUUID();
+        UUID gachibowli = UUID.randomUUID();
+        UUID secunderabad = UUID.randomUUID();
+        UUID vijayawada = UUID.randomUUID();
+        Map<UUID, LocationDTO> positions = new HashMap<>();
+        positions.put(hitech, location(HITECH_CITY));
+        positions.put(gachibowli, location(GACHIBOWLI));
+        positions.put(secunderabad, location(SECUNDERABAD));
+        positions.put(vijayawada, location(VIJAYAWADA));
+        // Enough other drivers far away that the four above land on different shards
+        for (int i = 0; i < 200; i++) {
+            positions.put(UUID.randomUUID(), location(new double[]{28.6 + i * 0.001, 77.2}));
+        }
+        index.updateAll(positions);
+
+        List<NearbyDriverResponse> near = index.findDriversNear(HITECH_CITY[0], HITECH_CITY[1], 20, 10);
+
+        assertEquals(List.of(hitech, gachibowli, secunderabad), near.stream().map(NearbyDriverResponse::getDriverId).toList());
+        assertTrue(near.get(0).getDistanceKm() < 0.01);
+        assertEquals(GACHIBOWLI[0], near.get(1).getLatitude(), 1e-4);
+        assertEquals(2, index.findDriversNear(HITECH_CITY[0], HITECH_CITY[1], 20, 2).size());
+        assertEquals(List.of(vijayawada), index.findDriversNear(VIJAYAWADA[0], VIJAYAWADA[1], 5, 10).stream()
+                .map(NearbyDriverResponse::getDriverId).toList());
+    }
+
+    @Test
+    void update_ShouldMoveTheDriverRatherThanAddAnotherEntry() {
+        DriverGeoIndex index = new DriverGeoIndex(redisStringTemplate, meterRegistry, 4, 60_000, 1000);
+        UUID driver = UUID.randomUUID();
+        index.update(driver, location(VIJAYAWADA));
+        index.update(driver, location(GACHIBOWLI));
+
+        assertTrue(index.findDriversNear(VIJAYAWADA[0], VIJAYAWADA[1], 10, 10).isEmpty());
+        assertEquals(1, index.findDriversNear(HITECH_CITY[0], HITECH_CITY[1], 10, 10).size());
+    }
+
+    @Test
+    void staleDrivers_ShouldBeSkippedByQueriesAndEvictedBySweep() throws Exception {
+        DriverGeoIndex index = new DriverGeoIndex(redisStringTemplate, meterRegistry, 4, 2_000, 2);
+        for (int i = 0; i < 5; i++) {
+            index.update(UUID.randomUUID(), location(GACHIBOWLI));
+        }
+        Thread.sleep(2_500);
+        UUID fresh = UUID.randomUUID();
+        index.update(fresh, location(GACHIBOWLI));
+
+        List<NearbyDriverResponse> near = index.findDriversNear(HITECH_CITY[0], HITECH_CITY[1], 10, 3);
+        assertEquals(List.of(fresh), near.stream().map(NearbyDriverResponse::getDriverId).toList());
+
+        index.evictStale();
+        assertEquals(5, meterRegistry.counter("drivers.geo.evicted").count());
+        long remaining = 0;
+        for (int shard = 0; shard < 4; shard++) {
+            remaining += redisStringTemplate.opsForZSet().zCard("drivers:geo:{" + shard + "}");
+            remaining += redisStringTemplate.opsForZSet().zCard("drivers:geo:{" + shard + "}:expiry");
+        }
+        assertEquals(2, remaining);
+    }
+
+    @Test
+    void update_WithOutOfRangeCoordinates_ShouldBeSkipped() {
+        DriverGeoIndex index = new DriverGeoIndex(redisStringTemplate, meterRegistry, 4, 60_000, 1000);
+        index.update(UUID.randomUUID(), location(new double[]{89.9, 10}));
+        index.update(UUID.randomUUID(), new LocationDTO());
+
+        assertEquals(2, meterRegistry.counter("drivers.geo.invalid").count());
+        assertEquals(0, meterRegistry.counter("drivers.geo.updates").count());
+    }
+
+    private static LocationDTO location(double[] latLon) {
+        LocationDTO location = new LocationDTO();
+        location.setLatitude(latLon[0]);
+        location.setLongitude(latLon[1]);
+        return location;
+    }
+}
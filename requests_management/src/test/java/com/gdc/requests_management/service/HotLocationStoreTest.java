@@ -0,0 +1,200 @@
+package com.gdc.requests_management.service;
+
+import com.gdc.requests_management.dto.request.LocationDTO;
+import com.gdc.requests_management.dto.response.NearbyDriverResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import redis.embedded.RedisServer;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotLocationStoreTest {
+
+    private static RedisServer redis;
+    private static LettuceConnectionFactory connectionFactory;
+    private static RedisTemplate<String, Object> redisObjectTemplate;
+    private static RedisTemplate<String, String> redisStringTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DriverGeoIndex driverGeoIndex;
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redis = new RedisServer(port);
+        redis.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        redisObjectTemplate = new RedisTemplate<>();
+        redisObjectTemplate.setConnectionFactory(connectionFactory);
+        redisObjectTemplate.setKeySerializer(new StringRedisSerializer());
+        redisObjectTemplate.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        redisObjectTemplate.afterPropertiesSet();
+        redisStringTemplate = new RedisTemplate<>();
+        redisStringTemplate.setConnectionFactory(connectionFactory);
+        redisStringTemplate.setKeySerializer(new StringRedisSerializer());
+        redisStringTemplate.setValueSerializer(new StringRedisSerializer());
+        redisStringTemplate.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisStringTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+        meterRegistry = new SimpleMeterRegistry();
+        driverGeoIndex = new DriverGeoIndex(redisStringTemplate, meterRegistry, 4, 60_000, 1000);
+    }
+
+    // Long flush interval so only the explicit flush() calls below write anything
+    private HotLocationStore store(int capacity, long refreshAfterMs) {
+        return new HotLocationStore(redisObjectTemplate, driverGeoIndex, meterRegistry, capacity, 60_000, refreshAfterMs, 3_600_000);
+    }
+
+    @Test
+    void writes_ShouldBeServedFromMemoryAndReachRedisOnFlush() {
+        HotLocationStore store = store(16, 60_000);
+        UUID driverId = UUID.randomUUID();
+        store.put(HotLocationStore.Kind.DRIVER, driverId, location(17.4400, 78.3480, "2026-01-05T10:00:00Z"));
+
+        assertEquals(17.4400, store.get(HotLocationStore.Kind.DRIVER, driverId).getLatitude());
+        assertNull(redisObjectTemplate.opsForValue().get("driver:location:" + driverId));
+        assertEquals(1, meterRegistry.get("tracking.locations.dirty").tag("kind", "driver").gauge().value());
+
+        store.flush();
+
+        LocationDTO stored = (LocationDTO) redisObjectTemplate.opsForValue().get("driver:location:" + driverId);
+        assertEquals(78.3480, stored.getLongitude());
+        assertEquals("2026-01-05T10:00:00Z", stored.getTimestamp());
+        List<NearbyDriverResponse> nearby = driverGeoIndex.findDriversNear(17.4400, 78.3480, 1, 10);
+        assertEquals(driverId, nearby.get(0).getDriverId());
+        assertEquals(0, meterRegistry.get("tracking.locations.dirty").tag("kind", "driver").gauge().value());
+        assertEquals(1, meterRegistry.get("tracking.locations.flush.lag").timer().count());
+        store.shutdown();
+    }
+
+    @Test
+    void warmUp_ShouldLoadWhatRedisAlreadyHolds() {
+        UUID requestId = UUID.randomUUID();
+        redisObjectTemplate.opsForValue().set("request:tracking:" + requestId, location(17.4410, 78.3500, null));
+        redisObjectTemplate.opsForValue().set("request:tracking:not-a-uuid", location(1, 1, null));
+        HotLocationStore store = store(16, 60_000);
+
+        store.warmUp();
+        redisObjectTemplate.delete("request:tracking:" + requestId);
+
+        assertEquals(17.4410, store.get(HotLocationStore.Kind.REQUEST, requestId).getLatitude());
+        assertEquals(1, meterRegistry.get("tracking.locations.reads").tag("result", "hit").counter().count());
+        store.shutdown();
+    }
+
+    @Test
+    void staleCleanEntries_ShouldBeReReadButDirtyOnesKept() {
+        HotLocationStore store = store(16, 0);
+        UUID flushedId = UUID.randomUUID();
+        UUID dirtyId = UUID.randomUUID();
+        store.put(HotLocationStore.Kind.REQUEST, flushedId, location(10, 10, null));
+        store.flush();
+        store.put(HotLocationStore.Kind.REQUEST, dirtyId, location(20, 20, null));
+
+        // Another node takes newer updates for both
+        redisObjectTemplate.opsForValue().set("request:tracking:" + flushedId, location(11, 11, null));
+        redisObjectTemplate.opsForValue().set("request:tracking:" + dirtyId, location(21, 21, null));
+
+        assertEquals(11, store.get(HotLocationStore.Kind.REQUEST, flushedId).getLatitude());
+        assertEquals(20, store.get(HotLocationStore.Kind.REQUEST, dirtyId).getLatitude());
+        store.shutdown();
+    }
+
+    @Test
+    void fullStore_ShouldWriteStraightToRedis() {
+        HotLocationStore store = store(1, 60_000);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        store.put(HotLocationStore.Kind.DRIVER, first, location(17.44, 78.34, null));
+        store.put(HotLocationStore.Kind.DRIVER, second, location(17.45, 78.35, null));
+
+        assertNull(redisObjectTemplate.opsForValue().get("driver:location:" + first));
+        assertNotNull(redisObjectTemplate.opsForValue().get("driver:location:" + second));
+        assertEquals(17.45, store.get(HotLocationStore.Kind.DRIVER, second).getLatitude());
+        assertEquals(1, meterRegistry.get("tracking.locations.overflowed").counter().count());
+        store.shutdown();
+    }
+
+    @Test
+    void writesRacingEviction_ShouldNeitherDeadlockNorLoseSlots() throws Exception {
+        // Evicts every clean entry on each flush, so writers keep hitting freshly evicted slots
+        HotLocationStore store = new HotLocationStore(redisObjectTemplate, driverGeoIndex, meterRegistry, 64, 60_000, 60_000, 0);
+        List<UUID> ids = IntStream.range(0, 8).mapToObj(i -> UUID.randomUUID()).toList();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            ExecutorService writers = Executors.newFixedThreadPool(4);
+            AtomicBoolean running = new AtomicBoolean(true);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < 4; w++) {
+                futures.add(writers.submit(() -> {
+                    for (int i = 0; running.get(); i++) {
+                        store.put(HotLocationStore.Kind.REQUEST, ids.get(i % ids.size()), location(i % 90, 0, null));
+                    }
+                }));
+            }
+            for (int i = 0; i < 200; i++) {
+                store.flush();
+            }
+            running.set(false);
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            writers.shutdown();
+        });
+
+        // Every id still maps to exactly one slot, and free slots were all handed back
+        store.flush();
+        Thread.sleep(5);
+        store.flush();
+        assertEquals(0, meterRegistry.get("tracking.locations.entries").tag("kind", "request").gauge().value());
+        for (int i = 0; i < 64; i++) {
+            store.put(HotLocationStore.Kind.REQUEST, UUID.randomUUID(), location(1, 1, null));
+        }
+        assertEquals(0, meterRegistry.get("tracking.locations.overflowed").counter().count());
+        store.shutdown();
+    }
+
+    private static LocationDTO location(double latitude, double longitude, String timestamp) {
+        LocationDTO location = new LocationDTO();
+        location.setLatitude(latitude);
+        location.setLongitude(longitude);
+        location.setTimestamp(timestamp);
+        return location;
+    }
+}
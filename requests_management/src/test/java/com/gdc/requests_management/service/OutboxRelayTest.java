@@ -0,0 +1,151 @@
+package com.gdc.requests_management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gdc.requests_management.kafka.NotificationEvent;
+import com.gdc.requests_management.kafka.RequestEvent;
+import com.gdc.requests_management.model.entity.OutboxEvent;
+import com.gdc.requests_management.model.enums.OutboxEventType;
+import com.gdc.requests_management.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    private OutboxEventRepository repository;
+    private NotificationDispatcher dispatcher;
+    private KafkaTemplate<String, NotificationEvent> notificationTemplate;
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        repository = mock(OutboxEventRepository.class);
+        dispatcher = mock(NotificationDispatcher.class);
+        notificationTemplate = mock(KafkaTemplate.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @SuppressWarnings("unchecked")
+    private OutboxRelay relay(int maxAttempts, boolean kafkaEnabled) {
+        return new OutboxRelay(repository, dispatcher, mock(KafkaTemplate.class), mock(KafkaTemplate.class),
+                notificationTemplate, new ObjectMapper(), transactionManager, meterRegistry,
+                10, 1000, maxAttempts, 1000, 300_000, kafkaEnabled, 1000, 60_000);
+    }
+
+    @Test
+    void kafkaDisabled_ShouldRefuseToStart() {
+        assertThrows(IllegalStateException.class, () -> relay(3, false));
+    }
+
+    @Test
+    void leaseNotLongerThanKafkaTimeout_ShouldRefuseToStart() {
+        assertThrows(IllegalStateException.class, () -> new OutboxRelay(repository, dispatcher, mock(KafkaTemplate.class),
+                mock(KafkaTemplate.class), notificationTemplate, new ObjectMapper(), transactionManager, meterRegistry,
+                10, 1000, 3, 1000, 300_000, true, 10_000, 10_000));
+    }
+
+    @Test
+    void batch_ShouldBeLeasedAndCommittedBeforePublishingAndSettledAfter() {
+        OutboxEvent email = email();
+        when(repository.claimDue(any(), anyInt())).thenReturn(List.of(email));
+        when(notificationTemplate.send(eq(NotificationEvent.TOPIC), anyString(), any())).thenAnswer(invocation -> {
+            // Leased past the Kafka wait, so no other relay claims it meanwhile
+            assertTrue(email.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(50)));
+            return CompletableFuture.completedFuture(null);
+        });
+
+        relay(2, true).relayBatch();
+
+        InOrder order = inOrder(transactionManager, repository, notificationTemplate);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(repository).claimDue(any(), eq(10));
+        order.verify(transactionManager).commit(any());
+        order.verify(notificationTemplate).send(eq(NotificationEvent.TOPIC), anyString(), any());
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(repository).deleteAllInBatch(List.of(email));
+        order.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void failedPublish_ShouldBeRetriedThenParkedButNeverDeleted() {
+        OutboxEvent email = email();
+        when(repository.claimDue(any(), anyInt())).thenReturn(List.of(email));
+        when(repository.findAllById(Set.of(email.getId()))).thenReturn(List.of(email));
+        when(notificationTemplate.send(eq(NotificationEvent.TOPIC), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")));
+        OutboxRelay relay = relay(2, true);
+
+        relay.relayBatch();
+        assertEquals(1, email.getAttempts());
+        assertNull(email.getParkedAt());
+        assertTrue(email.getNextAttemptAt().isAfter(LocalDateTime.now()));
+
+        relay.relayBatch();
+        assertEquals(2, email.getAttempts());
+        assertNotNull(email.getParkedAt());
+        assertEquals("broker down", email.getLastError());
+        assertEquals(1, meterRegistry.get("outbox.events").tag("result", "parked").counter().count());
+
+        verify(repository, times(2)).deleteAllInBatch(argThat(events -> !events.iterator().hasNext()));
+        verifyNoInteractions(dispatcher);
+    }
+
+    @Test
+    void acknowledgedPublish_ShouldDeleteTheRow() {
+        OutboxEvent email = email();
+        when(repository.claimDue(any(), anyInt())).thenReturn(List.of(email));
+        when(notificationTemplate.send(eq(NotificationEvent.TOPIC), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        relay(2, true).relayBatch();
+
+        verify(repository).deleteAllInBatch(List.of(email));
+        assertNull(email.getParkedAt());
+    }
+
+    @Test
+    void userNotification_ShouldUseTheStoredIdForPushAndEvent() {
+        UUID eventId = UUID.randomUUID();
+        OutboxEvent notification = email();
+        notification.setType(OutboxEventType.USER_NOTIFICATION);
+        notification.setPayload("{\"eventId\":\"" + eventId + "\",\"path\":\"/queue/notifications\","
+                + "\"title\":\"Request accepted\",\"message\":\"Your driver is on the way\"}");
+        when(repository.claimDue(any(), anyInt())).thenReturn(List.of(notification));
+        when(notificationTemplate.send(eq(NotificationEvent.TOPIC), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        relay(2, true).relayBatch();
+
+        verify(notificationTemplate).send(eq(NotificationEvent.TOPIC), eq(notification.getUserId().toString()),
+                argThat(event -> event.eventId().equals(eventId)));
+        verify(dispatcher).push(notification.getUserId(), "/queue/notifications", "Your driver is on the way", eventId);
+    }
+
+    private static OutboxEvent email() {
+        LocalDateTime now = LocalDateTime.now();
+        return OutboxEvent.builder()
+                .id(1L)
+                .type(OutboxEventType.EMAIL)
+                .userId(UUID.randomUUID())
+                .payload("{\"subject\":\"Request accepted\",\"body\":\"Your driver is on the way\"}")
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package com.gdc.requests_management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gdc.requests_management.client.UserServiceClient;
+import com.gdc.requests_management.dto.response.StandardResponse;
+import com.gdc.requests_management.feign.dto.UserResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserProfileCacheTest {
+
+    @Mock
+    private UserServiceClient userServiceClient;
+
+    @Mock
+    private RedisTemplate<String, String> redisStringTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getAll_ShouldFetchMissesInBatchesUserServiceAccepts() {
+        when(redisStringTemplate.opsForValue()).thenReturn(valueOperations);
+        // Redis answers every key, with null for the ones it doesn't have
+        when(valueOperations.multiGet(anyCollection())).thenAnswer(invocation ->
+                Collections.nCopies(((Collection<String>) invocation.getArgument(0)).size(), null));
+        when(userServiceClient.getUsersByIds(anySet())).thenAnswer(invocation -> {
+            Set<UUID> ids = invocation.getArgument(0);
+            return StandardResponse.success(ids.stream().map(UserProfileCacheTest::user).toList(), "ok");
+        });
+        UserProfileCache cache = new UserProfileCache(userServiceClient, redisStringTemplate, new ObjectMapper(),
+                new SimpleMeterRegistry(), 10_000, 120);
+        List<UUID> userIds = IntStream.range(0, 450).mapToObj(i -> UUID.randomUUID()).toList();
+
+        Map<UUID, UserResponseDTO> users = cache.getAll(userIds);
+
+        assertEquals(Set.copyOf(userIds), users.keySet());
+        ArgumentCaptor<Set<UUID>> batches = ArgumentCaptor.forClass(Set.class);
+        verify(userServiceClient, times(3)).getUsersByIds(batches.capture());
+        assertEquals(List.of(200, 200, 50), batches.getAllValues().stream().map(Set::size).toList());
+        Set<UUID> requested = new HashSet<>();
+        batches.getAllValues().forEach(requested::addAll);
+        assertEquals(Set.copyOf(userIds), requested);
+
+        // Now all local hits, so no further calls
+        cache.getAll(userIds);
+        verifyNoMoreInteractions(userServiceClient);
+    }
+
+    private static UserResponseDTO user(UUID id) {
+        UserResponseDTO user = new UserResponseDTO();
+        user.setId(id);
+        user.setDisplayName("User " + id);
+        return user;
+    }
+}
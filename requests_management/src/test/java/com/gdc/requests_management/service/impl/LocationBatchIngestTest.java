@@ -0,0 +1,212 @@
+package com.gdc.requests_management.service.impl;
+
+import com.gdc.requests_management.client.PaymentServiceClient;
+import com.gdc.requests_management.client.RideServiceClient;
+import com.gdc.requests_management.client.UserServiceClient;
+import com.gdc.requests_management.dto.request.LocationBatchDTO;
+import com.gdc.requests_management.dto.request.LocationDTO;
+import com.gdc.requests_management.dto.request.LocationFixDTO;
+import com.gdc.requests_management.dto.response.LocationBatchResponse;
+import com.gdc.requests_management.exception.InvalidRequestStatusException;
+import com.gdc.requests_management.exception.RequestNotFoundException;
+import com.gdc.requests_management.exception.UnauthorizedUserException;
+import com.gdc.requests_management.kafka.RequestEventPublisher;
+import com.gdc.requests_management.model.entity.Request;
+import com.gdc.requests_management.model.enums.RequestStatus;
+import com.gdc.requests_management.repository.RequestHistoryRepository;
+import com.gdc.requests_management.repository.RequestRepository;
+import com.gdc.requests_management.service.BreadcrumbStore;
+import com.gdc.requests_management.service.DriverGeoIndex;
+import com.gdc.requests_management.service.GeocodeEnrichmentService;
+import com.gdc.requests_management.service.LocationService;
+import com.gdc.requests_management.service.NotificationService;
+import com.gdc.requests_management.utils.OSMGeocodingService;
+import com.gdc.requests_management.websocket.WebSocketNotificationHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LocationBatchIngestTest {
+
+    @Mock
+    private RequestRepository requestRepository;
+
+    @Mock
+    private RequestHistoryRepository requestHistoryRepository;
+
+    @Mock
+    private WebSocketNotificationHandler webSocketNotificationHandler;
+
+    @Mock
+    private RideServiceClient rideServiceClient;
+
+    @Mock
+    private PaymentServiceClient paymentServiceClient;
+
+    @Mock
+    private UserServiceClient userServiceClient;
+
+    @Mock
+    private LocationService locationService;
+
+    @Mock
+    private DriverGeoIndex driverGeoIndex;
+
+    @Mock
+    private BreadcrumbStore breadcrumbStore;
+
+    @Mock
+    private RedisTemplate<String, String> redisStringTemplate;
+
+    @Mock
+    private ValueOperations<String, String> banCache;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private OSMGeocodingService geocodingService;
+
+    @Mock
+    private GeocodeEnrichmentService geocodeEnrichmentService;
+
+    @Mock
+    private RequestEventPublisher requestEventPublisher;
+
+    @InjectMocks
+    private RequestServiceImpl requestService;
+
+    private UUID driverId;
+    private UUID senderId;
+    private UUID requestId;
+
+    @BeforeEach
+    void setUp() {
+        driverId = UUID.randomUUID();
+        senderId = UUID.randomUUID();
+        requestId = UUID.randomUUID();
+        when(redisStringTemplate.opsForValue()).thenReturn(banCache);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void batch_ShouldBeWrittenInTimestampOrderWithBadFixesSkipped() {
+        Request request = request(driverId, RequestStatus.IN_TRANSIT);
+        when(requestRepository.findAllById(Set.of(requestId))).thenReturn(List.of(request));
+
+        LocationBatchResponse response = requestService.ingestLocationBatch(driverId, batch(
+                fix(requestId, 17.443, 78.349, "2026-01-05T10:00:20Z"),
+                fix(requestId, 17.441, 78.347, "2026-01-05T10:00:00Z"),
+                fix(requestId, 91.0, 78.348, "2026-01-05T10:00:05Z"),
+                fix(requestId, null, 78.348, "2026-01-05T10:00:06Z"),
+                fix(null, 17.444, 78.350, "2026-01-05T10:00:30Z"),
+                fix(requestId, 17.442, 78.348, "2026-01-05T10:00:10Z")));
+
+        assertEquals(4, response.getAccepted());
+        assertEquals(2, response.getSkipped());
+
+        ArgumentCaptor<LocationDTO> latest = ArgumentCaptor.forClass(LocationDTO.class);
+        ArgumentCaptor<Map<UUID, List<LocationDTO>>> tracks = ArgumentCaptor.forClass(Map.class);
+        verify(locationService).updateBatch(eq(driverId), latest.capture(), tracks.capture());
+        // The driver's position is the newest fix overall, including the untagged one
+        assertEquals("2026-01-05T10:00:30Z", latest.getValue().getTimestamp());
+        assertEquals(List.of("2026-01-05T10:00:00Z", "2026-01-05T10:00:10Z", "2026-01-05T10:00:20Z"),
+                tracks.getValue().get(requestId).stream().map(LocationDTO::getTimestamp).toList());
+
+        verify(requestEventPublisher).trackingUpdated(eq(request), argThat(l -> l.getLatitude() == 17.443));
+        verify(webSocketNotificationHandler).sendTrackingUpdate(eq(senderId), eq(driverId), eq(requestId),
+                eq("IN_TRANSIT"), argThat(l -> "2026-01-05T10:00:20Z".equals(l.getTimestamp())));
+    }
+
+    @Test
+    void batchForAnotherDriversRequest_ShouldBeRejectedWithoutWritingAnything() {
+        when(requestRepository.findAllById(Set.of(requestId)))
+                .thenReturn(List.of(request(UUID.randomUUID(), RequestStatus.ACCEPTED)));
+
+        assertThrows(UnauthorizedUserException.class, () -> requestService.ingestLocationBatch(driverId,
+                batch(fix(requestId, 17.441, 78.347, "2026-01-05T10:00:00Z"))));
+
+        verifyNoInteractions(locationService, requestEventPublisher, webSocketNotificationHandler);
+    }
+
+    @Test
+    void batchForInactiveRequest_ShouldBeRejected() {
+        for (RequestStatus status : List.of(RequestStatus.PENDING, RequestStatus.DELIVERED)) {
+            when(requestRepository.findAllById(Set.of(requestId))).thenReturn(List.of(request(driverId, status)));
+
+            assertThrows(InvalidRequestStatusException.class, () -> requestService.ingestLocationBatch(driverId,
+                    batch(fix(requestId, 17.441, 78.347, "2026-01-05T10:00:00Z"))));
+        }
+        verifyNoInteractions(locationService);
+    }
+
+    @Test
+    void batchForUnknownRequest_ShouldBeRejected() {
+        when(requestRepository.findAllById(Set.of(requestId))).thenReturn(List.of());
+
+        assertThrows(RequestNotFoundException.class, () -> requestService.ingestLocationBatch(driverId,
+                batch(fix(requestId, 17.441, 78.347, "2026-01-05T10:00:00Z"))));
+        verifyNoInteractions(locationService);
+    }
+
+    @Test
+    void batchWithOnlyBadFixes_ShouldBeSkippedEntirely() {
+        LocationBatchResponse response = requestService.ingestLocationBatch(driverId, batch(
+                fix(requestId, 17.441, -181.0, null),
+                fix(requestId, null, null, null)));
+
+        assertEquals(0, response.getAccepted());
+        assertEquals(2, response.getSkipped());
+        verifyNoInteractions(requestRepository, locationService);
+    }
+
+    @Test
+    void bannedDriver_ShouldBeRejected() {
+        when(banCache.get("banned:user:" + driverId)).thenReturn("spoofing");
+
+        assertThrows(UnauthorizedUserException.class, () -> requestService.ingestLocationBatch(driverId,
+                batch(fix(null, 17.441, 78.347, null))));
+        verifyNoInteractions(locationService);
+    }
+
+    private Request request(UUID rideUserId, RequestStatus status) {
+        return Request.builder()
+                .id(requestId)
+                .senderUserId(senderId)
+                .rideUserId(rideUserId)
+                .status(status)
+                .build();
+    }
+
+    private static LocationBatchDTO batch(LocationFixDTO... fixes) {
+        LocationBatchDTO batch = new LocationBatchDTO();
+        batch.setFixes(new ArrayList<>(List.of(fixes)));
+        return batch;
+    }
+
+    private static LocationFixDTO fix(UUID requestId, Double latitude, Double longitude, String timestamp) {
+        LocationFixDTO fix = new LocationFixDTO();
+        fix.setRequestId(requestId);
+        fix.setLatitude(latitude);
+        fix.setLongitude(longitude);
+        fix.setTimestamp(timestamp);
+        return fix;
+    }
+}
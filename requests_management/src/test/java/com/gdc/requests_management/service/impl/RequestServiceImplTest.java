@@ -7,12 +7,18 @@ import com.gdc.requests_management.dto.request.LocationDTO;
 import com.gdc.requests_management.dto.request.RequestDTO;
 import com.gdc.requests_management.dto.response.RequestSummaryResponse;
 import com.gdc.requests_management.exception.*;
-import com.gdc.requests_management.feign.dto.RideRequestResponseDto;
+import com.gdc.requests_management.feign.dto.PaymentStatusResponseDto;
+import com.gdc.requests_management.kafka.RequestEventPublisher;
 import com.gdc.requests_management.model.entity.Request;
 import com.gdc.requests_management.model.enums.RequestStatus;
 import com.gdc.requests_management.repository.RequestHistoryRepository;
 import com.gdc.requests_management.repository.RequestRepository;
+import com.gdc.requests_management.service.BreadcrumbStore;
+import com.gdc.requests_management.service.DriverGeoIndex;
+import com.gdc.requests_management.service.GeocodeEnrichmentService;
 import com.gdc.requests_management.service.LocationService;
+import com.gdc.requests_management.service.NotificationService;
+import com.gdc.requests_management.utils.OSMGeocodingService;
 import com.gdc.requests_management.websocket.WebSocketNotificationHandler;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,6 +27,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -54,11 +61,29 @@ class RequestServiceImplTest {
     @Mock
     private LocationService locationService;
 
+    @Mock
+    private DriverGeoIndex driverGeoIndex;
+
+    @Mock
+    private BreadcrumbStore breadcrumbStore;
+
     @Mock
     private RedisTemplate<String, String> redisStringTemplate;
 
     @Mock
-    private RedisTemplate<String, Object> redisObjectTemplate;
+    private ValueOperations<String, String> banCache;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private OSMGeocodingService geocodingService;
+
+    @Mock
+    private GeocodeEnrichmentService geocodeEnrichmentService;
+
+    @Mock
+    private RequestEventPublisher requestEventPublisher;
 
     @InjectMocks
     private RequestServiceImpl requestService;
@@ -79,7 +104,6 @@ class RequestServiceImplTest {
         requestDTO.setSenderUserId((userId));
         requestDTO.setGoodsDescription("Books");
         requestDTO.setWeight(5.0);
-        requestDTO.setVolume(1.0);
         requestDTO.setFrom("Village A");
         requestDTO.setTo("City B");
         requestDTO.setFare(new BigDecimal("100.00"));
@@ -90,40 +114,42 @@ class RequestServiceImplTest {
                 .senderUserId(userId)
                 .goodsDescription("Books")
                 .weight(5.0)
-                .volume(1.0)
                 .from("Village A")
-                .to"City B")
+                .to("City B")
                 .fare(new BigDecimal("100.00"))
                 .status(RequestStatus.PENDING)
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
+
+        when(redisStringTemplate.opsForValue()).thenReturn(banCache);
     }
 
     @Test
     void createRequest_Success() {
-        when(redisStringTemplate.opsForValue().get(anyString())).thenReturn(null);
+        when(geocodingService.getCoordinatesFromLocation("Village A")).thenReturn(new double[]{17.44, 78.34});
+        when(geocodingService.getCoordinatesFromLocation("City B")).thenReturn(new double[]{17.38, 78.48});
         when(requestRepository.save(any(Request.class))).thenReturn(request);
-        when(rideServiceClient.getRideById(any(UUID.class))).thenReturn(new RideRequestResponseDto(ResponseDTO());
 
         Request result = requestService.createRequest(requestDTO, userId);
 
         assertNotNull(result);
         assertEquals(requestId, result.getId());
-        verify(requestRepository, times(1)).save(any(Request.class));
-        verify(webSocketNotificationHandler, times(1)).sendUserNotification(eq(userId), anyString());
+        verify(requestRepository, times(1)).save(argThat(saved -> userId.equals(saved.getSenderUserId())
+                && saved.getFromLatitude() == 17.44 && saved.getToLongitude() == 78.48));
+        verify(notificationService, times(1)).handleDriverAndUserNotifications(request, requestDTO);
+        verify(requestEventPublisher, times(1)).requestCreated(request);
     }
 
     @Test
     void createRequest_UserBanned_ThrowsException() {
-        when(redisStringTemplate.opsForValue().get(anyString())).thenReturn("Banned for violation");
+        when(banCache.get(anyString())).thenReturn("Banned for violation");
 
         assertThrows(UnauthorizedUserException.class, () -> requestService.createRequest(requestDTO, userId));
     }
 
     @Test
     void getRequestById_Success() {
-        when(redisStringTemplate.opsForValue().get(anyString())).thenReturn(null);
         when(requestRepository.findById(requestId)).thenReturn(Optional.of(request));
 
         Request result = requestService.getRequestById(requestId, userId);
@@ -137,10 +163,9 @@ class RequestServiceImplTest {
     void getRequestById_Unauthorized_ThrowsException() {
         Request unauthorizedRequest = Request.builder()
                 .id(requestId)
-                .senderId(UUID.randomUUID())
+                .senderUserId(UUID.randomUUID())
                 .status(RequestStatus.PENDING)
                 .build();
-        when(redisStringTemplate.opsForValue().get(anyString())).thenReturn(null);
         when(requestRepository.findById(requestId)).thenReturn(Optional.of(unauthorizedRequest));
 
         assertThrows(RequestAccessDeniedException.class, () -> requestService.getRequestById(requestId, userId));
@@ -148,8 +173,7 @@ class RequestServiceImplTest {
 
     @Test
     void acceptRequest_Success() {
-        request.setAssignedDriverId(driverId);
-        when(redisStringTemplate.opsForValue().get(anyString())).thenReturn(null);
+        request.setRideUserId(driverId);
         when(requestRepository.findById(requestId)).thenReturn(Optional.of(request));
         when(requestRepository.save(any(Request.class))).thenReturn(request);
 
@@ -163,41 +187,41 @@ class RequestServiceImplTest {
 
     @Test
     void markAsDelivered_Success() {
-        request.setAssignedDriverId(driverId);
+        request.setRideUserId(driverId);
         request.setStatus(RequestStatus.IN_TRANSIT);
-        when(redisStringTemplate.opsForValue().get(anyString())).thenReturn(null);
         when(requestRepository.findById(requestId)).thenReturn(Optional.of(request));
         when(requestRepository.save(any(Request.class))).thenReturn(request);
+        PaymentStatusResponseDto payment = new PaymentStatusResponseDto();
+        payment.setStatus("SUCCESS");
+        when(paymentServiceClient.getPaymentStatus(requestId)).thenReturn(payment);
 
         Request result = requestService.markAsDelivered(requestId, driverId, "Delivered on time");
 
         assertNotNull(result);
         assertEquals(RequestStatus.DELIVERED, result.getStatus());
-        verify(webSocketNotificationHandler, times(1)).sendTrackingUpdate(eq(userId), eq(driverId), eq(requestId.toString()), eq("DELIVERED"), anyString());
+        verify(webSocketNotificationHandler, times(1)).sendTrackingUpdate(eq(userId), eq(driverId), eq(requestId), eq("DELIVERED"), any());
     }
 
     @Test
     void updateRequestTracking_Success() {
-        request.setAssignedDriverId(driverId);
+        request.setRideUserId(driverId);
         LocationDTO location = new LocationDTO();
         location.setLatitude(12.34);
         location.setLongitude(56.78);
-        when(redisStringTemplate.opsForValue().get(anyString())).thenReturn(null);
         when(requestRepository.findById(requestId)).thenReturn(Optional.of(request));
 
         requestService.updateRequestTracking(requestId, location, driverId);
 
         verify(locationService, times(1)).updateRequestTracking(eq(requestId), eq(location));
-        verify(webSocketNotificationHandler, times(1)).sendTrackingUpdate(eq(userId), eq(driverId), eq(requestId.toString()), anyString(), anyString());
+        verify(webSocketNotificationHandler, times(1)).sendTrackingUpdate(eq(userId), eq(driverId), eq(requestId), anyString(), eq(location));
     }
 
     @Test
     void getRequestTracking_Success() {
-        request.setAssignedDriverId(driverId);
+        request.setRideUserId(driverId);
         LocationDTO location = new LocationDTO();
         location.setLatitude(12.34);
         location.setLongitude(56.78);
-        when(redisStringTemplate.opsForValue().get(anyString())).thenReturn(null);
         when(requestRepository.findById(requestId)).thenReturn(Optional.of(request));
         when(locationService.getRequestTracking(requestId)).thenReturn(location);
 
@@ -210,8 +234,7 @@ class RequestServiceImplTest {
 
     @Test
     void getRequestsSummary_Success() {
-        when(redisStringTemplate.opsForValue().get(anyString())).thenReturn(null);
-        when(requestRepository.findBySenderId(userId)).thenReturn(List.of(request));
+        when(requestRepository.findBySenderUserId(userId)).thenReturn(List.of(request));
 
         RequestSummaryResponse summary = requestService.getRequestsSummary(userId);
 
@@ -0,0 +1,164 @@
+package com.gdc.requests_management.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescingRateLimiterTest {
+
+    private static final int JOINERS = 8;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = Executors.newFixedThreadPool(JOINERS + 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallsForOneKey_ShouldShareOneUpstreamCall() throws Exception {
+        CoalescingRateLimiter limiter = new CoalescingRateLimiter(meterRegistry, 100, 10, 50, 5000);
+        AtomicInteger upstream = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = startCallers(limiter, "hyderabad", () -> {
+            upstream.incrementAndGet();
+            await(release);
+            return "17.38,78.48";
+        });
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("17.38,78.48", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, upstream.get());
+        assertEquals(1, meterRegistry.get("geocode.nominatim.calls").counter().count());
+        assertEquals(JOINERS, meterRegistry.get("geocode.nominatim.coalesced").counter().count());
+        assertEquals(0, meterRegistry.get("geocode.nominatim.in.flight").gauge().value());
+    }
+
+    @Test
+    void callsBeyondTheRate_ShouldFailFastInsteadOfQueueing() {
+        // One token, refilled once a second, and no willingness to wait for it
+        CoalescingRateLimiter limiter = new CoalescingRateLimiter(meterRegistry, 1, 1, 50, 0);
+
+        assertEquals("first", limiter.execute("first", () -> "first"));
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> limiter.execute("second", () -> "second"));
+
+        assertTrue(e.getMessage().contains("rate limit"));
+        assertEquals(1, meterRegistry.get("geocode.nominatim.calls").counter().count());
+        assertEquals(1, meterRegistry.get("geocode.nominatim.throttled").counter().count());
+        assertEquals(0, limiter.queueDepth());
+    }
+
+    @Test
+    void fullQueue_ShouldRejectWithoutCallingUpstream() {
+        CoalescingRateLimiter limiter = new CoalescingRateLimiter(meterRegistry, 100, 10, 0, 5000);
+        AtomicInteger upstream = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> limiter.execute("hyderabad", upstream::incrementAndGet));
+
+        assertEquals(0, upstream.get());
+        assertEquals(1, meterRegistry.get("geocode.nominatim.throttled").counter().count());
+    }
+
+    @Test
+    void failure_ShouldBeRethrownToEveryCallerSharingTheCall() throws Exception {
+        CoalescingRateLimiter limiter = new CoalescingRateLimiter(meterRegistry, 100, 10, 50, 5000);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalArgumentException failure = new IllegalArgumentException("Nominatim returned 503");
+
+        List<Future<String>> results = startCallers(limiter, "hyderabad", () -> {
+            await(release);
+            throw failure;
+        });
+        release.countDown();
+
+        for (Future<String> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(failure, e.getCause());
+        }
+        // Nothing is cached: the next call goes upstream again
+        assertEquals("ok", limiter.execute("hyderabad", () -> "ok"));
+    }
+
+    @Test
+    void error_ShouldReachJoinersInsteadOfLeavingThemBlocked() throws Exception {
+        CoalescingRateLimiter limiter = new CoalescingRateLimiter(meterRegistry, 100, 10, 50, 5000);
+        CountDownLatch release = new CountDownLatch(1);
+        AssertionError failure = new AssertionError("upstream client bug");
+
+        List<Future<String>> results = startCallers(limiter, "hyderabad", () -> {
+            await(release);
+            throw failure;
+        });
+        release.countDown();
+
+        for (Future<String> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(failure, e.getCause());
+        }
+        assertEquals(0, meterRegistry.get("geocode.nominatim.in.flight").gauge().value());
+    }
+
+    /**
+     * Starts one caller that runs {@code call} and {@link #JOINERS} more for the same key,
+     * returning once all of the latter have joined the first one's in-flight call.
+     */
+    private List<Future<String>> startCallers(CoalescingRateLimiter limiter, String key, Supplier<String> call)
+            throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        results.add(executor.submit(() -> limiter.execute(key, () -> {
+            started.countDown();
+            return call.get();
+        })));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < JOINERS; i++) {
+            results.add(executor.submit(() -> limiter.execute(key, () -> {
+                throw new AssertionError("joiner went upstream");
+            })));
+        }
+        awaitUntil(() -> meterRegistry.get("geocode.nominatim.coalesced").counter().count() == JOINERS);
+        return results;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.gdc.requests_management.utils;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GazetteerIndexTest {
+
+    private static final int SYNTHETIC_PLACES = 200_000;
+
+    @TempDir
+    static Path tempDir;
+
+    private static GazetteerIndex index;
+
+    @BeforeAll
+    static void buildIndex() throws IOException {
+        List<String> lines = new ArrayList<>();
+        // GeoNames layout: the two Hyderabads share a name, the more populous one must win
+        lines.add(geoNamesRow("Hyderābād", "Hyderabad", 17.38405, 78.45636, 3597816));
+        lines.add(geoNamesRow("Hyderabad", "Hyderabad", 25.39242, 68.37366, 1386330));
+        lines.add(geoNamesRow("Vijayawāda", "Vijayawada", 16.50745, 80.6466, 874587));
+        lines.add(geoNamesRow("Visakhapatnam", "Visakhapatnam", 17.68009, 83.20161, 1063178));
+        lines.add("Kakinada Port\t16.9437\t82.2559");
+        lines.add("Andhra Pradesh\t15.9129\t79.74");
+        // Only the Massachusetts Springfield is indexed
+        lines.add("Springfield\t42.1015\t-72.5898");
+        lines.add("Illinois\t40.0\t-89.0");
+        for (int i = 0; i < SYNTHETIC_PLACES; i++) {
+            lines.add("Place " + i + "\t" + (i % 90) + "\t" + (i % 180));
+        }
+        Path tsv = tempDir.resolve("gazetteer.tsv");
+        Files.write(tsv, lines, StandardCharsets.UTF_8);
+
+        GazetteerIndexBuilder builder = new GazetteerIndexBuilder(false);
+        builder.read(tsv);
+        Path file = tempDir.resolve("gazetteer.idx");
+        builder.write(file);
+        index = GazetteerIndex.open(file);
+    }
+
+    private static String geoNamesRow(String name, String ascii, double lat, double lon, long population) {
+        String[] columns = new String[19];
+        Arrays.fill(columns, "");
+        columns[0] = "1";
+        columns[1] = name;
+        columns[2] = ascii;
+        columns[4] = String.valueOf(lat);
+        columns[5] = String.valueOf(lon);
+        columns[14] = String.valueOf(population);
+        return String.join("\t", columns);
+    }
+
+    @Test
+    void lookup_ShouldResolveNormalizedNames() {
+        assertArrayEquals(new double[]{16.9437, 82.2559}, index.lookup("  KAKINADA   port "), 1e-6);
+        assertArrayEquals(new double[]{16.50745, 80.6466}, index.lookup("vijayawada"), 1e-6);
+        assertArrayEquals(new double[]{16.50745, 80.6466}, index.lookup("Vijayawāda"), 1e-6);
+    }
+
+    @Test
+    void lookup_ShouldPreferMostPopulousPlace() {
+        assertArrayEquals(new double[]{17.38405, 78.45636}, index.lookup("Hyderabad"), 1e-6);
+    }
+
+    @Test
+    void lookup_ShouldFallBackToFirstCommaSeparatedPart() {
+        assertArrayEquals(new double[]{17.68009, 83.20161}, index.lookup("Visakhapatnam, Andhra Pradesh"), 1e-6);
+        assertArrayEquals(new double[]{17.68009, 83.20161}, index.lookup("Visakhapatnam, , Andhra Pradesh,"), 1e-6);
+    }
+
+    @Test
+    void lookup_ShouldNotFallBackWhenTheQualifierDoesNotMatch() {
+        // Illinois is indexed, but nowhere near the Springfield that is
+        assertNull(index.lookup("Springfield, Illinois"));
+        // Unknown qualifiers can't be checked, so Nominatim gets to decide
+        assertNull(index.lookup("Springfield, Hampden County"));
+        assertNull(index.lookup("Hyderabad, Sindh"));
+        assertArrayEquals(new double[]{42.1015, -72.5898}, index.lookup("Springfield"), 1e-6);
+    }
+
+    @Test
+    void lookup_ShouldReturnNullForUnknownPlace() {
+        assertNull(index.lookup("Atlantis"));
+        assertNull(index.lookup("Atlantis, Andhra Pradesh"));
+        assertNull(index.lookup(""));
+        assertNull(index.lookup(null));
+    }
+
+    @Test
+    void findByPrefix_ShouldReturnMatchesInNameOrder() {
+        List<GazetteerIndex.Place> places = index.findByPrefix("Vi", 10);
+
+        // Diacritics are kept, so the native spelling is a key of its own
+        assertEquals(List.of("vijayawada", "vijayawāda", "visakhapatnam"),
+                places.stream().map(GazetteerIndex.Place::name).toList());
+        assertEquals(3, index.findByPrefix("place 1999", 3).size());
+    }
+
+    /**
+     * Compares index lookups with a round trip to a Nominatim-shaped HTTP stub on
+     * loopback, which is a lower bound for the real online path.
+     * Run with {@code BENCHMARK=true gradle test --tests '*GazetteerIndexTest'}.
+     */
+    @Test
+    @EnabledIfEnvironmentVariable(named = "BENCHMARK", matches = "true")
+    void benchmark_IndexVersusHttp() throws IOException {
+        // Otherwise Nagle plus delayed ACKs add ~40 ms to every keep-alive response
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        byte[] body = "[{\"lat\":\"17.38405\",\"lon\":\"78.45636\"}]".getBytes(StandardCharsets.UTF_8);
+        server.createContext("/search", exchange -> {
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        try {
+            RestTemplate restTemplate = new RestTemplate();
+            String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/search?q=hyderabad&format=json&limit=1";
+
+            int indexLookups = 1_000_000;
+            for (int i = 0; i < indexLookups; i++) {
+                index.lookup("Place " + (i % SYNTHETIC_PLACES));
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < indexLookups; i++) {
+                assertNotNull(index.lookup("Place " + (i % SYNTHETIC_PLACES)));
+            }
+            double indexMicros = (System.nanoTime() - start) / 1_000.0 / indexLookups;
+
+            int httpCalls = 2_000;
+            for (int i = 0; i < 200; i++) {
+                restTemplate.getForObject(url, String.class);
+            }
+            start = System.nanoTime();
+            for (int i = 0; i < httpCalls; i++) {
+                restTemplate.getForObject(url, String.class);
+            }
+            double httpMicros = (System.nanoTime() - start) / 1_000.0 / httpCalls;
+
+            System.out.printf("gazetteer index: %.2f us/lookup (%d places), loopback HTTP: %.2f us/call%n",
+                    indexMicros, index.size(), httpMicros);
+        } finally {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.gdc.requests_management.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrailCodecTest {
+
+    @Test
+    void encode_ShouldRoundTripAtFixedPointPrecision() {
+        List<TrailCodec.Sample> samples = List.of(
+                TrailCodec.Sample.of(17.443512, 78.377234, 1_700_000_000_000L),
+                TrailCodec.Sample.of(17.443401, 78.377901, 1_700_000_004_000L),
+                // going back west and south, and a fix that arrived out of order
+                TrailCodec.Sample.of(-33.868820, 151.209290, 1_699_999_999_000L));
+
+        List<TrailCodec.Sample> decoded = TrailCodec.decode(TrailCodec.encode(samples));
+
+        assertEquals(samples, decoded);
+        assertEquals(17.44351, decoded.get(0).latitude(), 1e-9);
+        assertEquals(151.20929, decoded.get(2).longitude(), 1e-9);
+    }
+
+    @Test
+    void encode_ShouldTakeAFewBytesPerSampleForADrive() {
+        List<TrailCodec.Sample> samples = drive(1000);
+
+        byte[] chunk = TrailCodec.encode(samples);
+
+        assertTrue(chunk.length < samples.size() * 8, chunk.length + " bytes for " + samples.size() + " samples");
+        assertEquals(samples, TrailCodec.decode(chunk));
+    }
+
+    @Test
+    void decodeAll_ShouldMergeChunksByTime() {
+        List<TrailCodec.Sample> samples = drive(30);
+        byte[] later = TrailCodec.encode(samples.subList(20, 30));
+        byte[] earlier = TrailCodec.encode(samples.subList(0, 10));
+        byte[] middle = TrailCodec.encode(samples.subList(10, 20));
+
+        assertEquals(samples, TrailCodec.decodeAll(List.of(later, earlier, middle)));
+    }
+
+    @Test
+    void decode_ShouldRejectUnknownVersions() {
+        assertThrows(IllegalArgumentException.class, () -> TrailCodec.decode(new byte[]{9, 0}));
+    }
+
+    @Test
+    void simplify_ShouldCollapseStraightStretchesAndKeepTurns() {
+        List<TrailCodec.Sample> samples = new ArrayList<>();
+        long time = 0;
+        // ~1.1 km north, then ~1.1 km east, a fix every ~11 m
+        for (int i = 0; i <= 100; i++) {
+            samples.add(TrailCodec.Sample.of(17.40 + i * 0.0001, 78.40, time += 1000));
+        }
+        for (int i = 1; i <= 100; i++) {
+            samples.add(TrailCodec.Sample.of(17.41, 78.40 + i * 0.0001, time += 1000));
+        }
+
+        List<TrailCodec.Sample> simplified = DouglasPeucker.simplify(samples, 5);
+
+        assertEquals(List.of(samples.get(0), samples.get(100), samples.get(200)), simplified);
+        assertSame(samples, DouglasPeucker.simplify(samples, 0));
+    }
+
+    @Test
+    void simplify_ShouldKeepDeviationsLargerThanTheTolerance() {
+        List<TrailCodec.Sample> samples = List.of(
+                TrailCodec.Sample.of(17.40, 78.40, 0),
+                TrailCodec.Sample.of(17.405, 78.4002, 1000), // ~21 m off the straight line
+                TrailCodec.Sample.of(17.41, 78.40, 2000));
+
+        assertEquals(3, DouglasPeucker.simplify(samples, 10).size());
+        assertEquals(2, DouglasPeucker.simplify(samples, 50).size());
+    }
+
+    /** A vehicle heading north-east at ~40 km/h with a fix every 2 s and some GPS jitter. */
+    private static List<TrailCodec.Sample> drive(int fixes) {
+        List<TrailCodec.Sample> samples = new ArrayList<>();
+        double lat = 17.4435, lon = 78.3772;
+        long time = 1_700_000_000_000L;
+        Random random = new Random(42);
+        for (int i = 0; i < fixes; i++) {
+            lat += 0.00012 + random.nextGaussian() * 0.00002;
+            lon += 0.00012 + random.nextGaussian() * 0.00002;
+            time += 2000 + random.nextInt(50);
+            samples.add(TrailCodec.Sample.of(lat, lon, time));
+        }
+        return samples;
+    }
+}
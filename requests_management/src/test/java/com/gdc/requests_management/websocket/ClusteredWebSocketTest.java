@@ -0,0 +1,213 @@
+package com.gdc.requests_management.websocket;
+
+import com.gdc.requests_management.config.WebSocketConfig;
+import com.github.fppt.jedismock.RedisServer;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.websocket.servlet.WebSocketServletAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two request-service WebSocket nodes sharing one Redis: messages sent on one node must
+ * reach clients connected to the other, once.
+ */
+class ClusteredWebSocketTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+    private static RedisServer redis;
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startCluster() throws Exception {
+        redis = RedisServer.newRedisServer().start();
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterAll
+    static void stopCluster() throws Exception {
+        nodeA.close();
+        nodeB.close();
+        redis.stop();
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        // As arguments so they win over application.yml
+        return new SpringApplicationBuilder(Node.class)
+                .run("--server.port=0", "--jwt.secret=" + SECRET, "--test.redis.port=" + redis.getBindPort());
+    }
+
+    @Test
+    void userMessageSentOnOtherNode_ShouldReachSessionOnce() throws Exception {
+        String userId = UUID.randomUUID().toString();
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        Map<String, String> notificationIds = new ConcurrentHashMap<>();
+        StompSession session = connect(nodeA, userId);
+        session.subscribe("/user/queue/notifications", frameHandler(received, notificationIds));
+
+        // The subscription and the Redis listener come up asynchronously, so repeat until the first one lands
+        SimpMessagingTemplate templateB = nodeB.getBean(SimpMessagingTemplate.class);
+        String first = null;
+        for (int i = 0; i < 50 && first == null; i++) {
+            templateB.convertAndSendToUser(userId, "/queue/notifications", "warmup");
+            first = received.poll(100, TimeUnit.MILLISECONDS);
+        }
+        assertEquals("warmup", first);
+        Thread.sleep(300);
+        received.clear();
+        notificationIds.clear();
+
+        templateB.convertAndSendToUser(userId, "/queue/notifications", "from B", Map.of("notification-id", "n-1"));
+        nodeA.getBean(SimpMessagingTemplate.class).convertAndSendToUser(userId, "/queue/notifications", "from A");
+
+        // "from A" is delivered locally and "from B" through Redis, so either may arrive first
+        List<String> messages = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            String message = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(message, "only received " + messages);
+            messages.add(message);
+        }
+        assertEquals(Set.of("from A", "from B"), Set.copyOf(messages), "a message was delivered twice");
+        assertEquals(Map.of("from B", "n-1"), notificationIds);
+        assertNull(received.poll(500, TimeUnit.MILLISECONDS), "a message was delivered twice");
+        session.disconnect();
+    }
+
+    @Test
+    void topicBroadcast_ShouldReachSubscribersOnEveryNode() throws Exception {
+        BlockingQueue<String> onA = new LinkedBlockingQueue<>();
+        BlockingQueue<String> onB = new LinkedBlockingQueue<>();
+        StompSession sessionA = connect(nodeA, UUID.randomUUID().toString());
+        StompSession sessionB = connect(nodeB, UUID.randomUUID().toString());
+        sessionA.subscribe("/topic/driver-notifications", frameHandler(onA, new ConcurrentHashMap<>()));
+        sessionB.subscribe("/topic/driver-notifications", frameHandler(onB, new ConcurrentHashMap<>()));
+
+        SimpMessagingTemplate templateA = nodeA.getBean(SimpMessagingTemplate.class);
+        boolean both = false;
+        for (int i = 0; i < 50 && !both; i++) {
+            templateA.convertAndSend("/topic/driver-notifications", "request available");
+            both = onA.poll(100, TimeUnit.MILLISECONDS) != null & onB.poll(100, TimeUnit.MILLISECONDS) != null;
+        }
+        assertTrue(both, "broadcast did not reach both nodes");
+        sessionA.disconnect();
+        sessionB.disconnect();
+    }
+
+    private static StompSession connect(ConfigurableApplicationContext node, String userId) throws Exception {
+        int port = ((ServletWebServerApplicationContext) node).getWebServer().getPort();
+        WebSocketStompClient client = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        client.setMessageConverter(new StringMessageConverter());
+
+        WebSocketHttpHeaders handshake = new WebSocketHttpHeaders();
+        handshake.setOrigin("http://localhost:4200");
+        StompHeaders connect = new StompHeaders();
+        connect.add("Authorization", "Bearer " + Jwts.builder()
+                .setSubject(userId)
+                .signWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET)))
+                .compact());
+        return client.connectAsync("http://localhost:" + port + "/ws", handshake, connect, new StompSessionHandlerAdapter() {
+        }).get(10, TimeUnit.SECONDS);
+    }
+
+    /** Collects payloads, and the {@code notification-id} header of each payload that has one. */
+    private static StompFrameHandler frameHandler(BlockingQueue<String> payloads, Map<String, String> notificationIds) {
+        return new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return String.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                if (headers.getFirst("notification-id") != null) {
+                    notificationIds.put((String) payload, headers.getFirst("notification-id"));
+                }
+                payloads.add((String) payload);
+            }
+        };
+    }
+
+    /** Just the WebSocket half of request-service, pointed at the in-process Redis. */
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({PropertyPlaceholderAutoConfiguration.class, JacksonAutoConfiguration.class,
+            ServletWebServerFactoryAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+            WebSocketServletAutoConfiguration.class})
+    @Import({WebSocketConfig.class, StompAuthChannelInterceptor.class, RedisBrokerBridge.class})
+    static class Node {
+
+        @Bean
+        LettuceConnectionFactory redisConnectionFactory(@Value("${test.redis.port}") int port) {
+            return new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        }
+
+        @Bean
+        RedisTemplate<String, String> redisStringTemplate(LettuceConnectionFactory connectionFactory) {
+            RedisTemplate<String, String> template = new RedisTemplate<>();
+            template.setConnectionFactory(connectionFactory);
+            template.setKeySerializer(new StringRedisSerializer());
+            template.setValueSerializer(new StringRedisSerializer());
+            return template;
+        }
+
+        @Bean
+        RedisMessageListenerContainer redisMessageListenerContainer(LettuceConnectionFactory connectionFactory) {
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(connectionFactory);
+            return container;
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.gdc.requests_management.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import redis.embedded.RedisServer;
+
+import java.net.ServerSocket;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PresenceRegistryTest {
+
+    private static RedisServer redis;
+    private static LettuceConnectionFactory connectionFactory;
+    private static RedisTemplate<String, String> redisStringTemplate;
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redis = new RedisServer(port);
+        redis.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        redisStringTemplate = new RedisTemplate<>();
+        redisStringTemplate.setConnectionFactory(connectionFactory);
+        redisStringTemplate.setKeySerializer(new StringRedisSerializer());
+        redisStringTemplate.setValueSerializer(new StringRedisSerializer());
+        redisStringTemplate.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopRedis() throws Exception {
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @Test
+    void acknowledgement_ShouldOnlyCountForTheUserWhoSentIt() {
+        PresenceRegistry registry = new PresenceRegistry(redisStringTemplate, new SimpleMeterRegistry(), 90_000, 60_000);
+        UUID recipient = UUID.randomUUID();
+        UUID someoneElse = UUID.randomUUID();
+        UUID notificationId = UUID.randomUUID();
+
+        registry.acknowledge(someoneElse, notificationId);
+        assertFalse(registry.isAcknowledged(recipient, notificationId));
+
+        registry.acknowledge(recipient, notificationId);
+        assertTrue(registry.isAcknowledged(recipient, notificationId));
+        assertTrue(redisStringTemplate.hasKey("notification:ack:" + recipient + ":" + notificationId));
+    }
+}
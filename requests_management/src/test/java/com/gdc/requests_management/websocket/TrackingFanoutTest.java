@@ -0,0 +1,125 @@
+package com.gdc.requests_management.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gdc.requests_management.dto.request.LocationDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TrackingFanoutTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final UUID sender = UUID.randomUUID();
+    private final UUID driver = UUID.randomUUID();
+
+    private SimpMessagingTemplate messagingTemplate;
+    private ThreadPoolTaskExecutor outboundExecutor;
+    private SimpleMeterRegistry meterRegistry;
+    private TrackingFanout fanout;
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        outboundExecutor = mock(ThreadPoolTaskExecutor.class);
+        meterRegistry = new SimpleMeterRegistry();
+        // Long interval so only the explicit flush() calls below send anything
+        fanout = new TrackingFanout(messagingTemplate, outboundExecutor, objectMapper, meterRegistry, 60_000, 2, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fanout.shutdown();
+    }
+
+    @Test
+    void update_ShouldSendOnlyTheNewestPositionPerRequest() throws Exception {
+        UUID requestId = UUID.randomUUID();
+        for (int i = 0; i < 10; i++) {
+            fanout.update(requestId, sender, driver, "IN_TRANSIT", location(17.40 + i * 0.01, 78.40));
+        }
+
+        fanout.flush();
+
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSendToUser(eq(sender.toString()), eq(TrackingFanout.DESTINATION), payload.capture());
+        verify(messagingTemplate).convertAndSendToUser(eq(driver.toString()), eq(TrackingFanout.DESTINATION), any(Object.class));
+        JsonNode json = objectMapper.readTree((String) payload.getValue());
+        assertEquals(requestId.toString(), json.get("requestId").asText());
+        assertEquals("IN_TRANSIT", json.get("status").asText());
+        assertEquals(17.49, json.get("latitude").asDouble(), 1e-9);
+        assertEquals(9, count("conflated"));
+
+        fanout.flush();
+        verifyNoMoreInteractions(messagingTemplate);
+    }
+
+    @Test
+    void update_StatusWithoutLocation_ShouldKeepThePendingPosition() throws Exception {
+        UUID requestId = UUID.randomUUID();
+        fanout.update(requestId, sender, driver, "IN_TRANSIT", location(17.45, 78.45));
+        fanout.update(requestId, sender, driver, "DELIVERED", null);
+
+        fanout.flush();
+
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSendToUser(eq(sender.toString()), anyString(), payload.capture());
+        JsonNode json = objectMapper.readTree((String) payload.getValue());
+        assertEquals("DELIVERED", json.get("status").asText());
+        assertEquals(17.45, json.get("latitude").asDouble(), 1e-9);
+    }
+
+    @Test
+    void update_WhenPendingIsFull_ShouldDropNewRequestsButStillConflateKnownOnes() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        fanout.update(first, sender, null, "IN_TRANSIT", location(17.4, 78.4));
+        fanout.update(second, sender, null, "IN_TRANSIT", location(17.4, 78.4));
+        fanout.update(UUID.randomUUID(), sender, null, "IN_TRANSIT", location(17.4, 78.4));
+        fanout.update(first, sender, null, "IN_TRANSIT", location(17.5, 78.5));
+
+        assertEquals(1, count("overflowed"));
+        assertEquals(1, count("conflated"));
+        fanout.flush();
+        verify(messagingTemplate, times(2)).convertAndSendToUser(anyString(), anyString(), any(Object.class));
+    }
+
+    @Test
+    void flush_WhenOutboundQueueIsBackedUp_ShouldHoldUpdatesUntilItDrains() {
+        UUID requestId = UUID.randomUUID();
+        when(outboundExecutor.getQueueSize()).thenReturn(500);
+        fanout.update(requestId, sender, null, "IN_TRANSIT", location(17.4, 78.4));
+        fanout.flush();
+        fanout.update(requestId, sender, null, "IN_TRANSIT", location(17.5, 78.5));
+
+        verifyNoInteractions(messagingTemplate);
+        assertEquals(1, meterRegistry.counter("tracking.fanout.deferred").count());
+
+        when(outboundExecutor.getQueueSize()).thenReturn(0);
+        fanout.flush();
+        verify(messagingTemplate, times(1)).convertAndSendToUser(anyString(), anyString(), any(Object.class));
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter("tracking.updates", "result", result).count();
+    }
+
+    private static LocationDTO location(double latitude, double longitude) {
+        LocationDTO location = new LocationDTO();
+        location.setLatitude(latitude);
+        location.setLongitude(longitude);
+        return location;
+    }
+}
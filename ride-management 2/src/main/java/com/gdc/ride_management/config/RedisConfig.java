@@ -0,0 +1,33 @@
+package com.gdc.ride_management.config;
+
+import com.gdc.ride_management.service.UserProfileCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+@Configuration
+@Slf4j
+public class RedisConfig {
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       UserProfileCache userProfileCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            String userId = new String(message.getBody(), StandardCharsets.UTF_8);
+            try {
+                userProfileCache.evictLocal(UUID.fromString(userId));
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring malformed profile invalidation: {}", userId);
+            }
+        }, new ChannelTopic(UserProfileCache.INVALIDATION_CHANNEL));
+        return container;
+    }
+}
@@ -4,6 +4,7 @@ import com.gdc.ride_management.dto.request.RideRequestDto;
 import com.gdc.ride_management.dto.response.RideResponseDto;
 import com.gdc.ride_management.dto.response.RideSearchResponseDto;
 import com.gdc.ride_management.enums.RequiredSpaceType;
+import com.gdc.ride_management.enums.RideSearchMode;
 import com.gdc.ride_management.service.RideService;
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.RequiredArgsConstructor;
@@ -63,12 +64,21 @@ public class RideController {
         return ResponseEntity.noContent().build();
     }
     @GetMapping("/search")
+    @Operation(summary = "Search Rides", description = "EXACT matches from/to names; RADIUS finds rides starting and ending within the given distances (km) of the pickup and drop; CORRIDOR finds rides whose route passes within corridorKm of the pickup and then the drop")
     public ResponseEntity<List<RideResponseDto>> searchRides(
             @RequestParam String from,
             @RequestParam String to,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "EXACT") RideSearchMode mode,
+            @RequestParam(defaultValue = "10") double pickupRadiusKm,
+            @RequestParam(defaultValue = "10") double dropRadiusKm,
+            @RequestParam(required = false) Double corridorKm
     ) {
-        List<RideResponseDto> results = rideService.searchAvailableRides(from, to, date);
+        List<RideResponseDto> results = switch (mode) {
+            case EXACT -> rideService.searchAvailableRides(from, to, date);
+            case RADIUS -> rideService.searchRidesNearby(from, to, date, pickupRadiusKm, dropRadiusKm);
+            case CORRIDOR -> rideService.searchRidesAlongRoute(from, to, date, corridorKm);
+        };
         return ResponseEntity.ok(results);
     }
     // ✅ Search Available Rides with Estimated Fare
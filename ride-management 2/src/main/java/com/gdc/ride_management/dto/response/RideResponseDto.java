@@ -33,4 +33,7 @@ public class RideResponseDto {
     private Double fromLongitude;
     private Double toLatitude;
     private Double toLongitude;
+
+    private Double bookedWeightKg;
+    private Double availableCapacityKg;
 }
@@ -0,0 +1,39 @@
+package com.gdc.ride_management.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persistent tier of the geocoding cache. A row with {@code found = false}
+ * records that the geocoder had no result for the location, until {@code expiresAt}.
+ */
+@Entity
+@Table(name = "geocode_cache")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GeocodeCacheEntry {
+
+ @Id
+ @Column(name = "location_key", nullable = false, length = 512)
+ private String locationKey;
+
+ @Column(name = "latitude")
+ private Double latitude;
+
+ @Column(name = "longitude")
+ private Double longitude;
+
+ @Column(name = "found", nullable = false)
+ private boolean found;
+
+ @Column(name = "updated_at", nullable = false)
+ private LocalDateTime updatedAt;
+
+ @Column(name = "expires_at")
+ private LocalDateTime expiresAt;
+}
@@ -2,6 +2,8 @@ package com.gdc.ride_management.entity;
 
 import com.gdc.ride_management.enums.RequiredSpaceType;
 import com.gdc.ride_management.enums.RideStatus;
+import com.gdc.ride_management.util.GeoHash;
+import com.gdc.ride_management.util.RouteGeometry;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -12,7 +14,11 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "rides")
+@Table(name = "rides", indexes = {
+  @Index(name = "idx_rides_date_from_geohash", columnList = "ride_date, from_geohash"),
+  @Index(name = "idx_rides_date_to_geohash", columnList = "ride_date, to_geohash"),
+  @Index(name = "idx_rides_date_route_geohash", columnList = "ride_date, route_geohash")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -59,6 +65,29 @@ public class Ride {
  @Column(name = "to_longitude")
  private Double toLongitude;
 
+ @Column(name = "from_geohash", length = GeoHash.STORED_PRECISION)
+ private String fromGeohash;
+
+ @Column(name = "to_geohash", length = GeoHash.STORED_PRECISION)
+ private String toGeohash;
+
+ // Bounding box of the great-circle route from -> to, for corridor search
+ @Column(name = "route_min_lat")
+ private Double routeMinLat;
+
+ @Column(name = "route_max_lat")
+ private Double routeMaxLat;
+
+ @Column(name = "route_min_lon")
+ private Double routeMinLon;
+
+ @Column(name = "route_max_lon")
+ private Double routeMaxLon;
+
+ // Smallest geohash cell holding that box ("" if it straddles a top-level cell), which the corridor search seeks on
+ @Column(name = "route_geohash", length = GeoHash.STORED_PRECISION)
+ private String routeGeohash;
+
  @Enumerated(EnumType.STRING)
  @Column(name = "luggage_space", nullable = false)
  private RequiredSpaceType luggageSpace;
@@ -66,6 +95,13 @@ public class Ride {
  @Column(name = "driving_license_number", nullable = false)
  private String drivingLicenseNumber;
 
+ // Weight held by PENDING/ACCEPTED/COMPLETED requests; kept in step by RideRequestServiceImpl
+ @Column(name = "booked_weight_kg")
+ private Double bookedWeightKg;
+
+ @Column(name = "available_capacity_kg")
+ private Double availableCapacityKg;
+
 
  @Column(name = "ride_user_id", nullable = false)
  private UUID rideUserId;
@@ -77,4 +113,19 @@ public class Ride {
 
  @Column(name = "updated_at")
  private Timestamp updatedAt;
+
+ @PrePersist
+ @PreUpdate
+ public void updateSpatialColumns() {
+  this.fromGeohash = GeoHash.encode(fromLatitude, fromLongitude);
+  this.toGeohash = GeoHash.encode(toLatitude, toLongitude);
+  if (fromLatitude != null && fromLongitude != null && toLatitude != null && toLongitude != null) {
+   double[] box = RouteGeometry.boundingBox(fromLatitude, fromLongitude, toLatitude, toLongitude);
+   this.routeMinLat = box[0];
+   this.routeMaxLat = box[1];
+   this.routeMinLon = box[2];
+   this.routeMaxLon = box[3];
+   this.routeGeohash = GeoHash.enclosingCell(box[0], box[1], box[2], box[3]);
+  }
+ }
 }
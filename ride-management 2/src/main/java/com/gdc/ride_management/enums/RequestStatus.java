@@ -5,6 +5,10 @@ public enum RequestStatus {
     ACCEPTED,    // Request has been approved by the driver
     REJECTED,    // Request was declined
     CANCELLED,   // Request was canceled by the sender
-    COMPLETED    // Ride request was successfully completed
+    COMPLETED;   // Ride request was successfully completed
 
+    /** Whether goods in this state occupy space on the ride. */
+    public boolean holdsCapacity() {
+        return this == PENDING || this == ACCEPTED || this == COMPLETED;
+    }
 }
@@ -1,8 +1,19 @@
 package com.gdc.ride_management.enums;
 
 public enum RequiredSpaceType {
-    SMALL,       // 0–249L
-    MEDIUM,      // 250–499L
-    LARGE,       // 500–749L
-    EXTRA_LARGE  // 750+ L
+    SMALL(50.0),        // 0–249L
+    MEDIUM(100.0),      // 250–499L
+    LARGE(150.0),       // 500–749L
+    EXTRA_LARGE(200.0); // 750+ L
+
+    private final double capacityKg;
+
+    RequiredSpaceType(double capacityKg) {
+        this.capacityKg = capacityKg;
+    }
+
+    /** Weight a ride offering this much luggage space can carry. */
+    public double getCapacityKg() {
+        return capacityKg;
+    }
 }
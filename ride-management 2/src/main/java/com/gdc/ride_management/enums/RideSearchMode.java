@@ -0,0 +1,7 @@
+package com.gdc.ride_management.enums;
+
+public enum RideSearchMode {
+    EXACT,   // from/to names must match the ride's
+    RADIUS,  // ride starts and ends within a radius of the pickup and drop
+    CORRIDOR // ride's route passes near the pickup and then the drop
+}
@@ -0,0 +1,8 @@
+package com.gdc.ride_management.exception;
+
+public class InsufficientCapacityException extends RuntimeException {
+
+    public InsufficientCapacityException(String message) {
+        super(message);
+    }
+}
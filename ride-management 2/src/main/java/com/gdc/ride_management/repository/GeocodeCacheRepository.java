@@ -0,0 +1,31 @@
+package com.gdc.ride_management.repository;
+
+import com.gdc.ride_management.entity.GeocodeCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface GeocodeCacheRepository extends JpaRepository<GeocodeCacheEntry, String> {
+
+    // Upsert so concurrent nodes resolving the same location don't trip over the primary key
+    @Modifying
+    @Query(value = """
+            INSERT INTO geocode_cache (location_key, latitude, longitude, found, updated_at, expires_at)
+            VALUES (:key, :latitude, :longitude, :found, :updatedAt, :expiresAt)
+            ON CONFLICT (location_key) DO UPDATE SET
+                latitude = EXCLUDED.latitude,
+                longitude = EXCLUDED.longitude,
+                found = EXCLUDED.found,
+                updated_at = EXCLUDED.updated_at,
+                expires_at = EXCLUDED.expires_at
+            """, nativeQuery = true)
+    void upsert(@Param("key") String key,
+                @Param("latitude") Double latitude,
+                @Param("longitude") Double longitude,
+                @Param("found") boolean found,
+                @Param("updatedAt") LocalDateTime updatedAt,
+                @Param("expiresAt") LocalDateTime expiresAt);
+}
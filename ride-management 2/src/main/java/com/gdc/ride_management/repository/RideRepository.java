@@ -2,25 +2,68 @@ package com.gdc.ride_management.repository;
 
 import com.gdc.ride_management.entity.Ride;
 import com.gdc.ride_management.enums.RideStatus;
-import org.springframework.data.jpa.repository.EntityGraph;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface RideRepository extends JpaRepository<Ride, UUID> {
+public interface RideRepository extends JpaRepository<Ride, UUID>, JpaSpecificationExecutor<Ride> {
 
-    @EntityGraph(attributePaths = "rideRequests")
     List<Ride> findByFromIgnoreCaseAndToIgnoreCaseAndDateAndRideStatus(
             String from, String to, LocalDate date, RideStatus rideStatus
     );
 
-    @EntityGraph(attributePaths = "rideRequests")
     List<Ride> findByFromIgnoreCaseAndToIgnoreCaseAndDate(String from, String to, LocalDate date);
 
-    @EntityGraph(attributePaths = "rideRequests")
     List<Ride> findByRideUserId(UUID rideUserId);
+
+
+    @Query("SELECT r FROM Ride r WHERE (r.fromGeohash IS NULL OR r.routeGeohash IS NULL) " +
+            "AND r.fromLatitude IS NOT NULL AND r.fromLongitude IS NOT NULL " +
+            "AND r.toLatitude IS NOT NULL AND r.toLongitude IS NOT NULL")
+    List<Ride> findMissingSpatialColumns(Pageable pageable);
+
+    /**
+     * Books {@code weightKg} on the ride only if that much capacity is left. The check
+     * and the write are one statement, so concurrent bookings serialise on the row
+     * and can't overbook; returns 0 when there isn't enough space.
+     */
+    @Modifying
+    @Query(value = "UPDATE rides SET booked_weight_kg = booked_weight_kg + :weightKg, " +
+            "available_capacity_kg = available_capacity_kg - :weightKg " +
+            "WHERE ride_id = :rideId AND available_capacity_kg >= :weightKg", nativeQuery = true)
+    int reserveCapacity(@Param("rideId") UUID rideId, @Param("weightKg") double weightKg);
+
+    @Query("SELECT r.availableCapacityKg FROM Ride r WHERE r.id = :rideId")
+    Double findAvailableCapacityKg(@Param("rideId") UUID rideId);
+
+    /** Adds {@code weightKg} (negative to release) to the ride's booked weight in one statement. */
+    @Modifying
+    @Query(value = "UPDATE rides SET booked_weight_kg = booked_weight_kg + :weightKg, " +
+            "available_capacity_kg = available_capacity_kg - :weightKg WHERE ride_id = :rideId", nativeQuery = true)
+    int adjustBookedWeight(@Param("rideId") UUID rideId, @Param("weightKg") double weightKg);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Ride r WHERE r.id = :rideId")
+    Optional<Ride> findByIdForUpdate(@Param("rideId") UUID rideId);
+
+    /** Rides from {@code since} on whose booked weight disagrees with their requests, or was never set. */
+    @Query(value = "SELECT r.ride_id FROM rides r LEFT JOIN (" +
+            "  SELECT ride_id, SUM(goods_weight_kg) AS weight FROM ride_requests " +
+            "  WHERE request_status IN ('PENDING', 'ACCEPTED', 'COMPLETED') GROUP BY ride_id" +
+            ") rr ON rr.ride_id = r.ride_id " +
+            "WHERE r.ride_date >= :since AND (r.booked_weight_kg IS NULL OR r.available_capacity_kg IS NULL " +
+            "  OR ABS(r.booked_weight_kg - COALESCE(rr.weight, 0)) > 0.001)", nativeQuery = true)
+    List<UUID> findRideIdsWithCapacityDrift(@Param("since") LocalDate since);
 }
\ No newline at end of file
@@ -3,6 +3,10 @@ package com.gdc.ride_management.repository;
 import com.gdc.ride_management.entity.RideRequest;
 import com.gdc.ride_management.enums.RequestStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -11,4 +15,8 @@ public interface RideRequestRepository extends JpaRepository<RideRequest, UUID>
     List<RideRequest> findByRideIdIn(List<UUID> rideIds);
     List<RideRequest> findByRideIdAndRequestStatus(UUID rideId, RequestStatus requeststatus);
 
+    @Query("SELECT COALESCE(SUM(rr.goodsWeightInKg), 0) FROM RideRequest rr " +
+            "WHERE rr.ride.id = :rideId AND rr.requestStatus IN :statuses")
+    double sumWeightByRideIdAndStatusIn(@Param("rideId") UUID rideId, @Param("statuses") Collection<RequestStatus> statuses);
+
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.gdc.ride_management.repository;
+
+import com.gdc.ride_management.entity.Ride;
+import com.gdc.ride_management.enums.RideStatus;
+import com.gdc.ride_management.util.GeoHash;
+import com.gdc.ride_management.util.RouteGeometry;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+public final class RideSpecifications {
+
+    private RideSpecifications() {
+    }
+
+    public static Specification<Ride> availableOn(LocalDate date) {
+        return (root, query, cb) -> cb.and(
+                cb.equal(root.get("date"), date),
+                cb.equal(root.get("rideStatus"), RideStatus.AVAILABLE));
+    }
+
+    /**
+     * Geohash column falls inside one of the given cells. Each cell becomes a
+     * {@code BETWEEN} range, so the (ride_date, geohash) index serves the lookup.
+     */
+    public static Specification<Ride> geohashIn(String attribute, Collection<String> cells) {
+        return (root, query, cb) -> cb.or(cells.stream()
+                .map(cell -> cb.between(root.<String>get(attribute), cell, GeoHash.upperBound(cell)))
+                .toArray(Predicate[]::new));
+    }
+
+    /**
+     * Route's enclosing cell overlaps the cells covering {@code marginKm} around the point:
+     * it contains one of them, is one, or lies inside one. Those are equalities on the
+     * covering cells' prefixes plus one {@code BETWEEN} per covering cell, so the
+     * (ride_date, route_geohash) index seeks to the candidates rather than stopping at a
+     * single range bound. Geohash cells nest, so any cell meeting the area is one of these.
+     */
+    public static Specification<Ride> routeCellNear(double latitude, double longitude, double marginKm) {
+        Set<String> cells = GeoHash.coveringCells(latitude, longitude, marginKm);
+        Set<String> containing = new LinkedHashSet<>();
+        cells.forEach(cell -> containing.addAll(GeoHash.ancestors(cell)));
+        return (root, query, cb) -> cb.or(
+                root.<String>get("routeGeohash").in(containing),
+                geohashIn("routeGeohash", cells).toPredicate(root, query, cb));
+    }
+
+    /**
+     * Route bounding box, widened by {@code marginKm}, contains the point. The widened
+     * longitude range wraps at the antimeridian; routes crossing it store the full range.
+     */
+    public static Specification<Ride> routeBoxContains(double latitude, double longitude, double marginKm) {
+        double dLat = RouteGeometry.latitudeDegrees(marginKm);
+        double dLon = RouteGeometry.longitudeDegrees(marginKm, latitude);
+        return (root, query, cb) -> {
+            Predicate latitudes = cb.and(
+                    cb.lessThanOrEqualTo(root.get("routeMinLat"), latitude + dLat),
+                    cb.greaterThanOrEqualTo(root.get("routeMaxLat"), latitude - dLat));
+            if (dLon >= 180) {
+                return cb.and(latitudes, cb.isNotNull(root.get("routeMinLon")));
+            }
+            List<Predicate> longitudes = new ArrayList<>();
+            longitudes.add(overlapsLongitudes(root, cb, longitude - dLon, longitude + dLon));
+            if (longitude - dLon < -180) {
+                longitudes.add(overlapsLongitudes(root, cb, longitude - dLon + 360, 180));
+            }
+            if (longitude + dLon > 180) {
+                longitudes.add(overlapsLongitudes(root, cb, -180, longitude + dLon - 360));
+            }
+            return cb.and(latitudes, cb.or(longitudes.toArray(Predicate[]::new)));
+        };
+    }
+
+    private static Predicate overlapsLongitudes(Root<Ride> root, CriteriaBuilder cb, double west, double east) {
+        return cb.and(
+                cb.lessThanOrEqualTo(root.get("routeMinLon"), east),
+                cb.greaterThanOrEqualTo(root.get("routeMaxLon"), west));
+    }
+}
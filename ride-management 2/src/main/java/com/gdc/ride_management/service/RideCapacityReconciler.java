@@ -0,0 +1,87 @@
+package com.gdc.ride_management.service;
+
+import com.gdc.ride_management.entity.Ride;
+import com.gdc.ride_management.enums.RequestStatus;
+import com.gdc.ride_management.repository.RideRepository;
+import com.gdc.ride_management.repository.RideRequestRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Recomputes each ride's booked weight from {@code ride_requests} and corrects
+ * the stored counters when they have drifted (or were never set, for rides
+ * created before the columns existed). Drift is logged and counted, since
+ * outside of that first backfill it points at a write path that skips the counter.
+ */
+@Component
+@Slf4j
+public class RideCapacityReconciler {
+
+    private static final List<RequestStatus> HOLDING_STATUSES = Arrays.stream(RequestStatus.values())
+            .filter(RequestStatus::holdsCapacity)
+            .toList();
+
+    private final RideRepository rideRepository;
+    private final RideRequestRepository rideRequestRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter driftedRides;
+    private final int lookbackDays;
+
+    public RideCapacityReconciler(RideRepository rideRepository,
+                                  RideRequestRepository rideRequestRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${ride.capacity.reconcile-lookback-days:7}") int lookbackDays) {
+        this.rideRepository = rideRepository;
+        this.rideRequestRepository = rideRequestRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.driftedRides = Counter.builder("ride.capacity.drift").register(meterRegistry);
+        this.lookbackDays = lookbackDays;
+    }
+
+    @Scheduled(initialDelay = 30000, fixedDelayString = "${ride.capacity.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        List<UUID> candidates = rideRepository.findRideIdsWithCapacityDrift(LocalDate.now().minusDays(lookbackDays));
+        for (UUID rideId : candidates) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> reconcileRide(rideId));
+            } catch (Exception e) {
+                log.error("Failed to reconcile capacity of ride {}: {}", rideId, e.getMessage());
+            }
+        }
+    }
+
+    /** Recomputes one ride's counters; must run inside a transaction. */
+    public void reconcileRide(UUID rideId) {
+        // Locking the ride serialises us with bookings, so the sum below can't miss one in flight
+        Ride ride = rideRepository.findByIdForUpdate(rideId).orElse(null);
+        if (ride == null) {
+            return;
+        }
+        double actual = rideRequestRepository.sumWeightByRideIdAndStatusIn(rideId, HOLDING_STATUSES);
+        Double stored = ride.getBookedWeightKg();
+        double capacity = ride.getLuggageSpace().getCapacityKg();
+        if (stored != null && Math.abs(stored - actual) <= 0.001 && ride.getAvailableCapacityKg() != null) {
+            return;
+        }
+
+        if (stored != null) {
+            driftedRides.increment();
+            log.warn("Ride {} booked weight drifted: stored {} kg, actual {} kg", rideId, stored, actual);
+        }
+        ride.setBookedWeightKg(actual);
+        ride.setAvailableCapacityKg(capacity - actual);
+        rideRepository.save(ride);
+    }
+}
@@ -1,13 +1,12 @@
 package com.gdc.ride_management.service;
 
-import com.gdc.ride_management.client.UserClient;
 import com.gdc.ride_management.dto.request.RideRequestRequestDto;
 import com.gdc.ride_management.dto.response.RideRequestResponseDto;
-import com.gdc.ride_management.dto.response.StandardResponse;
 import com.gdc.ride_management.dto.response.UserResponseDTO;
 import com.gdc.ride_management.entity.Ride;
 import com.gdc.ride_management.entity.RideRequest;
 import com.gdc.ride_management.enums.RequestStatus;
+import com.gdc.ride_management.exception.InsufficientCapacityException;
 import com.gdc.ride_management.repository.RideRepository;
 import com.gdc.ride_management.repository.RideRequestRepository;
 import com.gdc.ride_management.util.FareUtils;
@@ -28,7 +27,8 @@ public class RideRequestServiceImpl implements RideRequestService {
     private final RideRequestRepository rideRequestRepository;
     private final RideRepository rideRepository;
     private final OSMGeocodingService osmGeocodingService;
-    private final UserClient userClient;
+    private final UserProfileCache userProfileCache;
+    private final RideCapacityReconciler rideCapacityReconciler;
 
     @Override
     @Transactional
@@ -42,17 +42,7 @@ public class RideRequestServiceImpl implements RideRequestService {
         double distance = FareUtils.calculateDistance(sourceCoords[0], sourceCoords[1], destinationCoords[0], destinationCoords[1]);
         double fare = FareUtils.calculateFare(distance, requestDto.getGoodsWeightInKg(), requestDto.getGoodsQuantity());
 
-        double maxCapacity = getCapacityFromEnum(ride.getLuggageSpace());
-        double usedCapacity = rideRequestRepository
-                .findByRideIdAndRequestStatus(ride.getId(), RequestStatus.ACCEPTED)
-                .stream()
-                .mapToDouble(RideRequest::getGoodsWeightInKg)
-                .sum();
-        double availableCapacity = maxCapacity - usedCapacity;
-
-        if (requestDto.getGoodsWeightInKg() > availableCapacity) {
-            throw new RuntimeException("Only " + availableCapacity + "kg space left. Cannot book " + requestDto.getGoodsWeightInKg() + "kg.");
-        }
+        reserveCapacity(ride, requestDto.getGoodsWeightInKg());
 
         UserResponseDTO senderUserDto = extractUserData(senderUserId);
 
@@ -82,13 +72,19 @@ public class RideRequestServiceImpl implements RideRequestService {
         return mapToRideRequestResponseDto(rideRequest, senderUserDto, sourceCoords, destinationCoords);
     }
 
-    private double getCapacityFromEnum(Enum<?> luggageSpaceEnum) {
-        return switch (luggageSpaceEnum.name()) {
-            case "SMALL" -> 20.0;
-            case "MEDIUM" -> 50.0;
-            case "LARGE" -> 100.0;
-            default -> throw new IllegalArgumentException("Unknown luggage space: " + luggageSpaceEnum);
-        };
+    /**
+     * Takes {@code weightKg} out of the ride's available capacity, or fails if it
+     * doesn't fit. Capacity comes from {@link com.gdc.ride_management.enums.RequiredSpaceType#getCapacityKg()}.
+     */
+    private void reserveCapacity(Ride ride, double weightKg) {
+        if (ride.getAvailableCapacityKg() == null) {
+            // Ride predates the capacity columns and hasn't been reconciled yet
+            rideCapacityReconciler.reconcileRide(ride.getId());
+        }
+        if (rideRepository.reserveCapacity(ride.getId(), weightKg) == 0) {
+            Double left = rideRepository.findAvailableCapacityKg(ride.getId());
+            throw new InsufficientCapacityException("Only " + left + "kg space left. Cannot book " + weightKg + "kg.");
+        }
     }
 
     @Override
@@ -131,9 +127,7 @@ public class RideRequestServiceImpl implements RideRequestService {
             throw new RuntimeException("You are not authorized to update this request's status");
         }
 
-        rideRequest.setRequestStatus(RequestStatus.valueOf(status.toUpperCase()));
-        rideRequest.setUpdatedAt(new Timestamp(System.currentTimeMillis()));
-        rideRequest = rideRequestRepository.save(rideRequest);
+        rideRequest = changeStatus(rideRequest, RequestStatus.valueOf(status.toUpperCase()));
 
         UserResponseDTO senderUserDto = extractUserData(rideRequest.getSenderUserId());
 
@@ -151,9 +145,7 @@ public class RideRequestServiceImpl implements RideRequestService {
         RideRequest rideRequest = rideRequestRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Ride Request not found with ID: " + id));
 
-        rideRequest.setRequestStatus(RequestStatus.valueOf(status.toUpperCase()));
-        rideRequest.setUpdatedAt(new Timestamp(System.currentTimeMillis()));
-        rideRequest = rideRequestRepository.save(rideRequest);
+        rideRequest = changeStatus(rideRequest, RequestStatus.valueOf(status.toUpperCase()));
 
         UserResponseDTO senderUserDto = extractUserData(rideRequest.getSenderUserId());
 
@@ -168,10 +160,31 @@ public class RideRequestServiceImpl implements RideRequestService {
     @Override
     @Transactional
     public void deleteRideRequest(UUID id) {
-        if (!rideRequestRepository.existsById(id)) {
-            throw new RuntimeException("Ride Request not found with ID: " + id);
+        RideRequest rideRequest = rideRequestRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Ride Request not found with ID: " + id));
+        if (rideRequest.getRequestStatus().holdsCapacity()) {
+            rideRepository.adjustBookedWeight(rideRequest.getRide().getId(), -rideRequest.getGoodsWeightInKg());
         }
-        rideRequestRepository.deleteById(id);
+        rideRequestRepository.delete(rideRequest);
+    }
+
+    /**
+     * Moves a request to a new status and books or releases its weight on the
+     * ride when the move crosses between holding and non-holding states.
+     */
+    private RideRequest changeStatus(RideRequest rideRequest, RequestStatus newStatus) {
+        boolean held = rideRequest.getRequestStatus().holdsCapacity();
+        boolean holds = newStatus.holdsCapacity();
+
+        if (!held && holds) {
+            reserveCapacity(rideRequest.getRide(), rideRequest.getGoodsWeightInKg());
+        } else if (held && !holds) {
+            rideRepository.adjustBookedWeight(rideRequest.getRide().getId(), -rideRequest.getGoodsWeightInKg());
+        }
+
+        rideRequest.setRequestStatus(newStatus);
+        rideRequest.setUpdatedAt(new Timestamp(System.currentTimeMillis()));
+        return rideRequestRepository.save(rideRequest);
     }
 
     @Override
@@ -237,8 +250,7 @@ public class RideRequestServiceImpl implements RideRequestService {
 
     private UserResponseDTO extractUserData(UUID userId) {
         try {
-            StandardResponse<UserResponseDTO> response = userClient.getUserDetails(userId);
-            return response != null ? response.getData() : null;
+            return userProfileCache.get(userId);
         } catch (Exception e) {
             System.err.println("❌ Failed to fetch user info for userId " + userId + ": " + e.getMessage());
             return null;
@@ -17,6 +17,11 @@ public interface RideService {
     List<RideResponseDto> searchAvailableRides(String from, String to, LocalDate date);
     List<RideResponseDto> getRidesByDriverId(UUID userId);
 
+    List<RideResponseDto> searchRidesNearby(String from, String to, LocalDate date,
+                                            double pickupRadiusKm, double dropRadiusKm);
+
+    List<RideResponseDto> searchRidesAlongRoute(String from, String to, LocalDate date, Double corridorKm);
+
     List<RideSearchResponseDto> searchAvailableRidesWithFare(
             String from,
             String to,
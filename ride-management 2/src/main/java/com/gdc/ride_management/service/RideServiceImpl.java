@@ -1,25 +1,32 @@
 package com.gdc.ride_management.service;
 
-import com.gdc.ride_management.client.UserClient;
 import com.gdc.ride_management.dto.request.RideRequestDto;
 import com.gdc.ride_management.dto.response.RideResponseDto;
 import com.gdc.ride_management.dto.response.RideSearchResponseDto;
-import com.gdc.ride_management.dto.response.StandardResponse;
 import com.gdc.ride_management.dto.response.UserResponseDTO;
 import com.gdc.ride_management.entity.Ride;
 import com.gdc.ride_management.enums.RequiredSpaceType;
 import com.gdc.ride_management.enums.RideStatus;
 import com.gdc.ride_management.enums.VehicleType;
 import com.gdc.ride_management.repository.RideRepository;
+import com.gdc.ride_management.repository.RideSpecifications;
 import com.gdc.ride_management.util.FareUtils;
+import com.gdc.ride_management.util.GeoHash;
 import com.gdc.ride_management.util.OSMGeocodingService;
+import com.gdc.ride_management.util.RouteGeometry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -28,9 +35,12 @@ import java.util.stream.Collectors;
 public class RideServiceImpl implements RideService {
 
     private final RideRepository rideRepository;
-    private final UserClient userClient;
+    private final UserProfileCache userProfileCache;
     private final OSMGeocodingService osmGeocodingService;
 
+    @Value("${ride.search.corridor-km:15}")
+    private double defaultCorridorKm;
+
     @Override
     @Transactional
     public RideResponseDto createRide(UUID driverUserId, RideRequestDto requestDto) {
@@ -58,6 +68,8 @@ public class RideServiceImpl implements RideService {
                 .vehicleType(requestDto.getVehicleType())
                 .luggageSpace(requestDto.getLuggageSpace())
                 .drivingLicenseNumber(requestDto.getDrivingLicenseNumber())
+                .bookedWeightKg(0.0)
+                .availableCapacityKg(requestDto.getLuggageSpace().getCapacityKg())
                 .rideUserId(driverUserId)
                 .createdAt(new Timestamp(System.currentTimeMillis()))
                 .fromLatitude(fromCoords[0])
@@ -117,23 +129,12 @@ public class RideServiceImpl implements RideService {
                 .findByFromIgnoreCaseAndToIgnoreCaseAndDateAndRideStatus(from, to, date, RideStatus.AVAILABLE)
                 .stream()
                 .map(ride -> {
-                    double totalCapacityInKg = getCapacityFromEnum(ride.getLuggageSpace());
-
-                    double bookedWeight = ride.getRideRequests() != null
-                            ? ride.getRideRequests().stream()
-                            .mapToDouble(req -> req.getGoodsWeightInKg() != null ? req.getGoodsWeightInKg() : 0.0)
-                            .sum()
-                            : 0.0;
-
-                    double availableSpace = totalCapacityInKg - bookedWeight;
+                    double availableSpace = availableCapacity(ride);
                     double estimatedFare = FareUtils.calculateFare(distance, goodsWeightInKg, goodsQuantity);
 
                     UserResponseDTO userDto = null;
                     try {
-                        StandardResponse<UserResponseDTO> response = userClient.getUserDetails(ride.getRideUserId());
-                        if (response != null && response.getData() != null) {
-                            userDto = response.getData();
-                        }
+                        userDto = userProfileCache.get(ride.getRideUserId());
                     } catch (Exception e) {
                         System.err.println("❌ Failed to fetch user info for ride userId " + ride.getRideUserId() + ": " + e.getMessage());
                     }
@@ -157,6 +158,72 @@ public class RideServiceImpl implements RideService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<RideResponseDto> searchRidesNearby(String from, String to, LocalDate date,
+                                                   double pickupRadiusKm, double dropRadiusKm) {
+        double[] pickup = osmGeocodingService.getCoordinatesFromLocation(from);
+        double[] drop = osmGeocodingService.getCoordinatesFromLocation(to);
+
+        // Index narrows to rides in the cells around both points, the exact distance check does the rest
+        List<Ride> candidates = rideRepository.findAll(RideSpecifications.availableOn(date)
+                .and(RideSpecifications.geohashIn("fromGeohash", GeoHash.coveringCells(pickup[0], pickup[1], pickupRadiusKm)))
+                .and(RideSpecifications.geohashIn("toGeohash", GeoHash.coveringCells(drop[0], drop[1], dropRadiusKm))));
+
+        return candidates.stream()
+                .filter(ride -> FareUtils.calculateDistance(pickup[0], pickup[1], ride.getFromLatitude(), ride.getFromLongitude()) <= pickupRadiusKm)
+                .filter(ride -> FareUtils.calculateDistance(drop[0], drop[1], ride.getToLatitude(), ride.getToLongitude()) <= dropRadiusKm)
+                .sorted(Comparator.comparingDouble(ride ->
+                        FareUtils.calculateDistance(pickup[0], pickup[1], ride.getFromLatitude(), ride.getFromLongitude())
+                                + FareUtils.calculateDistance(drop[0], drop[1], ride.getToLatitude(), ride.getToLongitude())))
+                .map(this::mapToRideResponseDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<RideResponseDto> searchRidesAlongRoute(String from, String to, LocalDate date, Double corridorKm) {
+        double width = corridorKm != null ? corridorKm : defaultCorridorKm;
+        double[] pickup = osmGeocodingService.getCoordinatesFromLocation(from);
+        double[] drop = osmGeocodingService.getCoordinatesFromLocation(to);
+
+        // The route cell drives the index; the box is a cheap recheck before the exact geometry
+        List<Ride> candidates = rideRepository.findAll(RideSpecifications.availableOn(date)
+                .and(RideSpecifications.routeCellNear(pickup[0], pickup[1], width))
+                .and(RideSpecifications.routeCellNear(drop[0], drop[1], width))
+                .and(RideSpecifications.routeBoxContains(pickup[0], pickup[1], width))
+                .and(RideSpecifications.routeBoxContains(drop[0], drop[1], width)));
+
+        record Match(Ride ride, double detourKm) {
+        }
+        return candidates.stream()
+                .map(ride -> {
+                    RouteGeometry.Projection atPickup = RouteGeometry.project(ride.getFromLatitude(), ride.getFromLongitude(),
+                            ride.getToLatitude(), ride.getToLongitude(), pickup[0], pickup[1]);
+                    RouteGeometry.Projection atDrop = RouteGeometry.project(ride.getFromLatitude(), ride.getFromLongitude(),
+                            ride.getToLatitude(), ride.getToLongitude(), drop[0], drop[1]);
+                    boolean onRoute = atPickup.offsetKm() <= width && atDrop.offsetKm() <= width
+                            && atPickup.alongTrackKm() < atDrop.alongTrackKm();
+                    return onRoute ? new Match(ride, atPickup.offsetKm() + atDrop.offsetKm()) : null;
+                })
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparingDouble(Match::detourKm))
+                .map(match -> mapToRideResponseDto(match.ride()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Fills in geohashes and route boxes for rides saved before the columns
+     * existed; new and updated rides get them from the entity's lifecycle callback.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillSpatialColumns() {
+        List<Ride> rides;
+        while (!(rides = rideRepository.findMissingSpatialColumns(PageRequest.of(0, 500))).isEmpty()) {
+            rides.forEach(Ride::updateSpatialColumns);
+            rideRepository.saveAllAndFlush(rides);
+        }
+    }
+
     @Override
     public List<RideResponseDto> getRidesByDriverId(UUID driverUserId) {
         return rideRepository.findByRideUserId(driverUserId).stream()
@@ -166,24 +233,12 @@ public class RideServiceImpl implements RideService {
 
     private RideResponseDto mapToRideResponseDto(Ride ride) {
         UserResponseDTO userDto = null;
-        double totalCapacityInKg = getCapacityFromEnum(ride.getLuggageSpace());
         try {
-            StandardResponse<UserResponseDTO> response = userClient.getUserDetails(ride.getRideUserId());
-            if (response != null && response.getData() != null) {
-                userDto = response.getData();
-            }
+            userDto = userProfileCache.get(ride.getRideUserId());
         } catch (Exception e) {
             System.err.println("❌ Failed to fetch user info for ride userId " + ride.getRideUserId() + ": " + e.getMessage());
         }
 
-        double bookedWeight = ride.getRideRequests() != null
-                ? ride.getRideRequests().stream()
-                .mapToDouble(req -> req.getGoodsWeightInKg() != null ? req.getGoodsWeightInKg() : 0.0)
-                .sum()
-                : 0.0;
-
-        double availableSpace = totalCapacityInKg - bookedWeight;
-
         return RideResponseDto.builder()
                 .id(ride.getId())
                 .from(ride.getFrom())
@@ -201,17 +256,17 @@ public class RideServiceImpl implements RideService {
                 .fromLongitude(ride.getFromLongitude())
                 .toLatitude(ride.getToLatitude())
                 .toLongitude(ride.getToLongitude())
+                .bookedWeightKg(ride.getBookedWeightKg())
+                .availableCapacityKg(availableCapacity(ride))
                 .createdAt(ride.getCreatedAt())
                 .updatedAt(ride.getUpdatedAt())
                 .build();
     }
 
-    private double getCapacityFromEnum(RequiredSpaceType spaceType) {
-        return switch (spaceType) {
-            case SMALL -> 50.0;
-            case MEDIUM -> 100.0;
-            case LARGE -> 150.0;
-            case EXTRA_LARGE -> 200.0;
-        };
+    // Rides not yet picked up by the reconciliation job have no stored value; assume empty
+    private double availableCapacity(Ride ride) {
+        return ride.getAvailableCapacityKg() != null
+                ? ride.getAvailableCapacityKg()
+                : ride.getLuggageSpace().getCapacityKg();
     }
 }
@@ -0,0 +1,124 @@
+package com.gdc.ride_management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gdc.ride_management.client.UserClient;
+import com.gdc.ride_management.dto.response.StandardResponse;
+import com.gdc.ride_management.dto.response.UserResponseDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two-tier cache for user profiles fetched from user-service: a bounded
+ * in-process near-cache in front of the Redis entry shared with request-service
+ * ({@code user:details:{id}}). Local copies are dropped when user-service
+ * publishes the user ID on {@link #INVALIDATION_CHANNEL}.
+ */
+@Service
+@Slf4j
+public class UserProfileCache {
+
+    public static final String INVALIDATION_CHANNEL = "user:profile:invalidate";
+    private static final String USER_CACHE_PREFIX = "user:details:";
+    private static final long USER_CACHE_TTL_MINUTES = 60;
+
+    private final UserClient userClient;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<UUID, UserResponseDTO> localCache;
+
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter redisHits;
+    private final Counter redisMisses;
+
+    public UserProfileCache(UserClient userClient,
+                            StringRedisTemplate redisTemplate,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${user-cache.local.max-size:10000}") long maxSize,
+                            @Value("${user-cache.local.ttl-seconds:120}") long ttlSeconds) {
+        this.userClient = userClient;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+
+        this.localHits = counter(meterRegistry, "local", "hit");
+        this.localMisses = counter(meterRegistry, "local", "miss");
+        this.redisHits = counter(meterRegistry, "redis", "hit");
+        this.redisMisses = counter(meterRegistry, "redis", "miss");
+        meterRegistry.gauge("user.profile.cache.size", localCache, Cache::estimatedSize);
+    }
+
+    private static Counter counter(MeterRegistry registry, String tier, String result) {
+        return Counter.builder("user.profile.cache.requests")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Returns the profile for the given user, or {@code null} if user-service
+     * doesn't know it. Errors from user-service are propagated to the caller.
+     */
+    public UserResponseDTO get(UUID userId) {
+        UserResponseDTO local = localCache.getIfPresent(userId);
+        if (local != null) {
+            localHits.increment();
+            return local;
+        }
+        localMisses.increment();
+
+        UserResponseDTO cached = readRedis(userId);
+        if (cached != null) {
+            redisHits.increment();
+            localCache.put(userId, cached);
+            return cached;
+        }
+        redisMisses.increment();
+
+        StandardResponse<UserResponseDTO> response = userClient.getUserDetails(userId);
+        UserResponseDTO user = response != null ? response.getData() : null;
+        if (user != null) {
+            store(userId, user);
+        }
+        return user;
+    }
+
+    public void evictLocal(UUID userId) {
+        localCache.invalidate(userId);
+        log.debug("Evicted cached profile for user {}", userId);
+    }
+
+    private void store(UUID userId, UserResponseDTO user) {
+        localCache.put(userId, user);
+        try {
+            redisTemplate.opsForValue().set(USER_CACHE_PREFIX + userId,
+                    objectMapper.writeValueAsString(user), USER_CACHE_TTL_MINUTES, TimeUnit.MINUTES);
+        } catch (Exception e) {
+            log.warn("Failed to cache profile for user {} in Redis: {}", userId, e.getMessage());
+        }
+    }
+
+    private UserResponseDTO readRedis(UUID userId) {
+        try {
+            String json = redisTemplate.opsForValue().get(USER_CACHE_PREFIX + userId);
+            return json != null ? objectMapper.readValue(json, UserResponseDTO.class) : null;
+        } catch (Exception e) {
+            log.warn("Failed to read cached profile for user {} from Redis: {}", userId, e.getMessage());
+            return null;
+        }
+    }
+}
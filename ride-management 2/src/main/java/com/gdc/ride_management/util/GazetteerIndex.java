@@ -0,0 +1,188 @@
+package com.gdc.ride_management.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only, memory-mapped gazetteer: normalized place name to coordinates.
+ * <p>
+ * File layout (big-endian), as written by request-service's {@code GazetteerIndexBuilder}:
+ * <pre>
+ *   int   magic ("GAZ1")
+ *   int   record count
+ *   int[] record offsets, ordered by key bytes
+ *   record: u16 key length, UTF-8 key, int lat * 1e6, int lon * 1e6
+ * </pre>
+ * Lookups binary-search the offset table directly in the mapping, so nothing
+ * is copied onto the heap and a lookup costs a handful of page reads.
+ */
+public class GazetteerIndex {
+
+    public static final int MAGIC = 0x47415a31;
+    public static final double SCALE = 1_000_000d;
+
+    /** How far a qualifier such as the state in "Guntur, Andhra Pradesh" may lie from the place it qualifies. */
+    public static final double MAX_QUALIFIER_DISTANCE_KM = 500;
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private final ByteBuffer buffer;
+    private final int count;
+
+    private GazetteerIndex(ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a gazetteer index file");
+        }
+        this.buffer = buffer;
+        this.count = buffer.getInt(4);
+    }
+
+    public static GazetteerIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new GazetteerIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Resolves a free-form location. The whole string is tried first, then its
+     * first comma-separated part, but only if every qualifier after it is itself
+     * an indexed place within {@value #MAX_QUALIFIER_DISTANCE_KM} km of that part.
+     * "Guntur, Andhra Pradesh" resolves to Guntur when the state is indexed;
+     * "Springfield, Illinois" returns {@code null} if Illinois isn't, rather than
+     * whichever Springfield the index holds, so the caller asks Nominatim instead.
+     *
+     * @return {@code [lat, lon]}, or {@code null} if the gazetteer doesn't know the place
+     */
+    public double[] lookup(String location) {
+        if (location == null) {
+            return null;
+        }
+        double[] coords = find(GeocodingCache.normalize(location));
+        String[] parts = location.split(",");
+        if (coords != null || parts.length < 2) {
+            return coords;
+        }
+        double[] candidate = find(GeocodingCache.normalize(parts[0]));
+        if (candidate == null) {
+            return null;
+        }
+        for (int i = 1; i < parts.length; i++) {
+            String qualifier = GeocodingCache.normalize(parts[i]);
+            if (qualifier.isEmpty()) {
+                continue;
+            }
+            double[] place = find(qualifier);
+            if (place == null || distanceKm(candidate, place) > MAX_QUALIFIER_DISTANCE_KM) {
+                return null;
+            }
+        }
+        return candidate;
+    }
+
+    /** Exact lookup of an already normalized name. */
+    public double[] find(String normalizedName) {
+        if (normalizedName.isEmpty()) {
+            return null;
+        }
+        byte[] key = normalizedName.getBytes(StandardCharsets.UTF_8);
+        int index = lowerBound(key);
+        if (index < count && compare(offset(index), key) == 0) {
+            return coordinates(offset(index));
+        }
+        return null;
+    }
+
+    /** Places whose normalized name starts with the normalized {@code prefix}, in name order. */
+    public List<Place> findByPrefix(String prefix, int limit) {
+        byte[] key = GeocodingCache.normalize(prefix).getBytes(StandardCharsets.UTF_8);
+        List<Place> places = new ArrayList<>();
+        for (int i = lowerBound(key); i < count && places.size() < limit; i++) {
+            int offset = offset(i);
+            if (!startsWith(offset, key)) {
+                break;
+            }
+            double[] coords = coordinates(offset);
+            places.add(new Place(name(offset), coords[0], coords[1]));
+        }
+        return places;
+    }
+
+    public record Place(String name, double latitude, double longitude) {
+    }
+
+    private int offset(int index) {
+        return buffer.getInt(8 + index * 4);
+    }
+
+    /** Index of the first record whose key is not less than {@code key}. */
+    private int lowerBound(byte[] key) {
+        int lo = 0;
+        int hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(offset(mid), key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int compare(int offset, byte[] key) {
+        int length = buffer.getShort(offset) & 0xffff;
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int diff = (buffer.get(offset + 2 + i) & 0xff) - (key[i] & 0xff);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length - key.length;
+    }
+
+    private boolean startsWith(int offset, byte[] prefix) {
+        int length = buffer.getShort(offset) & 0xffff;
+        if (length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(offset + 2 + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String name(int offset) {
+        byte[] bytes = new byte[buffer.getShort(offset) & 0xffff];
+        buffer.get(offset + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Equirectangular approximation, plenty for a 500 km sanity check. */
+    private static double distanceKm(double[] a, double[] b) {
+        double dLon = Math.abs(a[1] - b[1]);
+        if (dLon > 180) {
+            dLon = 360 - dLon;
+        }
+        double x = dLon * Math.cos(Math.toRadians((a[0] + b[0]) / 2));
+        double y = a[0] - b[0];
+        return Math.sqrt(x * x + y * y) * KM_PER_DEGREE;
+    }
+
+    private double[] coordinates(int offset) {
+        int position = offset + 2 + (buffer.getShort(offset) & 0xffff);
+        return new double[]{buffer.getInt(position) / SCALE, buffer.getInt(position + 4) / SCALE};
+    }
+}
@@ -0,0 +1,178 @@
+package com.gdc.ride_management.util;
+
+import com.gdc.ride_management.entity.GeocodeCacheEntry;
+import com.gdc.ride_management.repository.GeocodeCacheRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Cache in front of the geocoder, keyed by a normalized form of the location
+ * string. Lookups hit a bounded in-memory LRU first and then the
+ * {@code geocode_cache} table, so resolved places survive restarts. Places the
+ * geocoder doesn't know are cached as misses for a shorter period.
+ */
+@Component
+@Slf4j
+public class GeocodingCache {
+
+    private final GeocodeCacheRepository repository;
+    private final TransactionTemplate writeTransaction;
+    private final Cache<String, CachedLocation> memoryCache;
+    private final Duration negativeTtl;
+
+    private final Counter memoryHits;
+    private final Counter memoryMisses;
+    private final Counter dbHits;
+    private final Counter dbMisses;
+
+    public GeocodingCache(GeocodeCacheRepository repository,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${geocoding.cache.max-size:5000}") long maxSize,
+                          @Value("${geocoding.cache.ttl-hours:24}") long ttlHours,
+                          @Value("${geocoding.cache.negative-ttl-minutes:30}") long negativeTtlMinutes) {
+        this.repository = repository;
+        this.negativeTtl = Duration.ofMinutes(negativeTtlMinutes);
+
+        // Cache writes must never roll back (or be rolled back with) the caller's transaction
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Duration positiveTtl = Duration.ofHours(ttlHours);
+        this.memoryCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, CachedLocation>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedLocation value, long currentTime) {
+                        return (value.found() ? positiveTtl : negativeTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedLocation value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedLocation value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        this.memoryHits = counter(meterRegistry, "memory", "hit");
+        this.memoryMisses = counter(meterRegistry, "memory", "miss");
+        this.dbHits = counter(meterRegistry, "db", "hit");
+        this.dbMisses = counter(meterRegistry, "db", "miss");
+        meterRegistry.gauge("geocode.cache.size", memoryCache, Cache::estimatedSize);
+    }
+
+    private static Counter counter(MeterRegistry registry, String tier, String result) {
+        return Counter.builder("geocode.cache.requests")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Returns {@code [latitude, longitude]} for the location, or {@code null} if it
+     * is known not to resolve. On a miss in both tiers {@code loader} is called;
+     * it must return {@code null} for unknown places and throw on transport errors,
+     * which are not cached.
+     */
+    public double[] resolve(String location, Function<String, double[]> loader) {
+        if (location == null || location.isBlank()) {
+            return loader.apply(location);
+        }
+        String key = normalize(location);
+
+        CachedLocation cached = memoryCache.getIfPresent(key);
+        if (cached != null) {
+            memoryHits.increment();
+            return cached.toCoordinates();
+        }
+        memoryMisses.increment();
+
+        cached = readPersistent(key);
+        if (cached != null) {
+            dbHits.increment();
+            memoryCache.put(key, cached);
+            return cached.toCoordinates();
+        }
+        dbMisses.increment();
+
+        double[] coords = loader.apply(location);
+        CachedLocation resolved = coords != null
+                ? new CachedLocation(coords[0], coords[1], true)
+                : new CachedLocation(0.0, 0.0, false);
+        memoryCache.put(key, resolved);
+        writePersistent(key, resolved);
+        return resolved.toCoordinates();
+    }
+
+    /**
+     * Lower-cases, folds Unicode compatibility forms and collapses punctuation and
+     * whitespace, so "Hyderabad, Telangana" and "hyderabad  telangana" share an entry.
+     */
+    static String normalize(String location) {
+        String folded = Normalizer.normalize(location, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        return folded.replaceAll("[\\p{Punct}&&[^-]]", " ")
+                .trim()
+                .replaceAll("\\s+", " ");
+    }
+
+    private CachedLocation readPersistent(String key) {
+        try {
+            Optional<GeocodeCacheEntry> entry = repository.findById(key);
+            if (entry.isEmpty()) {
+                return null;
+            }
+            GeocodeCacheEntry e = entry.get();
+            if (e.getExpiresAt() != null && e.getExpiresAt().isBefore(LocalDateTime.now())) {
+                return null;
+            }
+            return e.isFound()
+                    ? new CachedLocation(e.getLatitude(), e.getLongitude(), true)
+                    : new CachedLocation(0.0, 0.0, false);
+        } catch (Exception e) {
+            log.warn("Failed to read geocode cache entry for '{}': {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writePersistent(String key, CachedLocation location) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            writeTransaction.executeWithoutResult(status -> repository.upsert(
+                    key,
+                    location.found() ? location.latitude() : null,
+                    location.found() ? location.longitude() : null,
+                    location.found(),
+                    now,
+                    location.found() ? null : now.plus(negativeTtl)));
+        } catch (Exception e) {
+            log.warn("Failed to persist geocode cache entry for '{}': {}", key, e.getMessage());
+        }
+    }
+
+    private record CachedLocation(double latitude, double longitude, boolean found) {
+        double[] toCoordinates() {
+            return found ? new double[]{latitude, longitude} : null;
+        }
+    }
+}
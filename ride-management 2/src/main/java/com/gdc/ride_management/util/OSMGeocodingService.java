@@ -2,6 +2,7 @@ package com.gdc.ride_management.util;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -18,31 +19,62 @@ import java.nio.charset.StandardCharsets;
 public class OSMGeocodingService {
 
     private final RestTemplate restTemplate = new RestTemplate();
+    private final GeocodingCache geocodingCache;
+    private final CoalescingRateLimiter nominatimLimiter;
+    private final GazetteerIndex gazetteerIndex;
     private static final String NOMINATIM_URL = "https://nominatim.openstreetmap.org/search";
 
+    public OSMGeocodingService(GeocodingCache geocodingCache,
+                               CoalescingRateLimiter nominatimLimiter,
+                               ObjectProvider<GazetteerIndex> gazetteerIndex) {
+        this.geocodingCache = geocodingCache;
+        this.nominatimLimiter = nominatimLimiter;
+        this.gazetteerIndex = gazetteerIndex.getIfAvailable();
+    }
+
     public double[] getCoordinatesFromLocation(String location) {
+        if (gazetteerIndex != null) {
+            double[] local = gazetteerIndex.lookup(location);
+            if (local != null) {
+                return local;
+            }
+        }
         try {
-            URI uri = UriComponentsBuilder.fromHttpUrl(NOMINATIM_URL)
-                    .queryParam("q", URLEncoder.encode(location, StandardCharsets.UTF_8))
-                    .queryParam("format", "json")
-                    .queryParam("limit", "1")
-                    .build(true)
-                    .toUri();
-
-            String response = restTemplate.getForObject(uri, String.class);
-            JSONArray results = new JSONArray(response);
-
-            if (results.length() > 0) {
-                JSONObject place = results.getJSONObject(0);
-                double lat = Double.parseDouble(place.getString("lat"));
-                double lon = Double.parseDouble(place.getString("lon"));
-                return new double[]{lat, lon};
-            } else {
+            double[] coords = geocodingCache.resolve(location, this::fetchFromNominatim);
+            if (coords == null) {
                 throw new RuntimeException("No results found for location: " + location);
             }
-
+            return coords;
         } catch (Exception e) {
             throw new RuntimeException("Failed to fetch coordinates for location: " + location, e);
         }
     }
+
+    /**
+     * Cache-miss path: identical lookups in flight share one Nominatim call, and
+     * calls are throttled to the public instance's usage policy (1 req/s).
+     */
+    private double[] fetchFromNominatim(String location) {
+        return nominatimLimiter.execute(GeocodingCache.normalize(location), () -> queryNominatim(location));
+    }
+
+    private double[] queryNominatim(String location) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(NOMINATIM_URL)
+                .queryParam("q", URLEncoder.encode(location, StandardCharsets.UTF_8))
+                .queryParam("format", "json")
+                .queryParam("limit", "1")
+                .build(true)
+                .toUri();
+
+        String response = restTemplate.getForObject(uri, String.class);
+        JSONArray results = new JSONArray(response);
+
+        if (results.length() == 0) {
+            return null;
+        }
+        JSONObject place = results.getJSONObject(0);
+        double lat = Double.parseDouble(place.getString("lat"));
+        double lon = Double.parseDouble(place.getString("lon"));
+        return new double[]{lat, lon};
+    }
 }
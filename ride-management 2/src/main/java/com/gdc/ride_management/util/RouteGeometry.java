@@ -0,0 +1,107 @@
+package com.gdc.ride_management.util;
+
+/**
+ * Great-circle geometry for matching shipments against a ride's straight-line
+ * route. Distances are in km and consistent with {@link FareUtils#calculateDistance}.
+ */
+public class RouteGeometry {
+
+    private static final double EARTH_RADIUS_KM = 6371;
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private RouteGeometry() {
+    }
+
+    /** Initial bearing from point 1 to point 2, in radians. */
+    public static double bearing(double lat1, double lon1, double lat2, double lon2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double y = Math.sin(dLon) * Math.cos(phi2);
+        double x = Math.cos(phi1) * Math.sin(phi2) - Math.sin(phi1) * Math.cos(phi2) * Math.cos(dLon);
+        return Math.atan2(y, x);
+    }
+
+    /**
+     * Position of a point relative to the segment start to end: how far along the
+     * segment its projection lies, and how far it is from the segment itself.
+     */
+    public static Projection project(double startLat, double startLon, double endLat, double endLon,
+                                     double lat, double lon) {
+        double length = FareUtils.calculateDistance(startLat, startLon, endLat, endLon);
+        double fromStart = FareUtils.calculateDistance(startLat, startLon, lat, lon);
+        if (length < 1e-6) {
+            return new Projection(0, fromStart);
+        }
+
+        double angularFromStart = fromStart / EARTH_RADIUS_KM;
+        double theta = bearing(startLat, startLon, lat, lon) - bearing(startLat, startLon, endLat, endLon);
+        double crossTrack = Math.asin(Math.sin(angularFromStart) * Math.sin(theta)) * EARTH_RADIUS_KM;
+        double cosRatio = Math.cos(angularFromStart) / Math.cos(crossTrack / EARTH_RADIUS_KM);
+        double alongTrack = Math.signum(Math.cos(theta)) * Math.acos(Math.max(-1, Math.min(1, cosRatio))) * EARTH_RADIUS_KM;
+
+        double offset;
+        if (alongTrack < 0) {
+            offset = fromStart;
+        } else if (alongTrack > length) {
+            offset = FareUtils.calculateDistance(endLat, endLon, lat, lon);
+        } else {
+            offset = Math.abs(crossTrack);
+        }
+        return new Projection(alongTrack, offset);
+    }
+
+    /**
+     * @param alongTrackKm distance from the segment start to the point's projection (negative if behind the start)
+     * @param offsetKm     distance from the point to the nearest point of the segment
+     */
+    public record Projection(double alongTrackKm, double offsetKm) {
+    }
+
+    /**
+     * {@code [minLat, maxLat, minLon, maxLon]} of the great-circle segment. Unlike the
+     * endpoints' box this includes the arc's bulge towards the pole on long east-west routes.
+     * A route crossing the antimeridian gets the full longitude range, -180 to 180, so
+     * the box still contains it.
+     */
+    public static double[] boundingBox(double lat1, double lon1, double lat2, double lon2) {
+        double minLat = Math.min(lat1, lat2);
+        double maxLat = Math.max(lat1, lat2);
+
+        // The circle peaks a quarter turn after crossing the equator northwards (sigma = pi/2 from
+        // that node) and bottoms out a quarter turn before it; count a vertex if the segment reaches it.
+        double phi1 = Math.toRadians(lat1);
+        double course = bearing(lat1, lon1, lat2, lon2);
+        double vertexLat = Math.toDegrees(Math.acos(Math.abs(Math.sin(course) * Math.cos(phi1))));
+        double sigmaFromNode = Math.atan2(Math.tan(phi1), Math.cos(course));
+        double sigmaLength = FareUtils.calculateDistance(lat1, lon1, lat2, lon2) / EARTH_RADIUS_KM;
+
+        if (angleAhead(Math.PI / 2 - sigmaFromNode) <= sigmaLength) {
+            maxLat = Math.max(maxLat, vertexLat);
+        }
+        if (angleAhead(-Math.PI / 2 - sigmaFromNode) <= sigmaLength) {
+            minLat = Math.min(minLat, -vertexLat);
+        }
+        // The arc takes the shorter way round, which crosses the antimeridian when the longitudes are over 180 apart
+        if (Math.abs(lon1 - lon2) > 180) {
+            return new double[]{minLat, maxLat, -180, 180};
+        }
+        return new double[]{minLat, maxLat, Math.min(lon1, lon2), Math.max(lon1, lon2)};
+    }
+
+    /** Latitude degrees spanned by {@code km}. */
+    public static double latitudeDegrees(double km) {
+        return km / KM_PER_DEGREE;
+    }
+
+    /** Longitude degrees spanned by {@code km} at the given latitude. */
+    public static double longitudeDegrees(double km, double latitude) {
+        double cos = Math.cos(Math.toRadians(latitude));
+        return cos < 1e-6 ? 180 : Math.min(180, km / (KM_PER_DEGREE * cos));
+    }
+
+    private static double angleAhead(double radians) {
+        double twoPi = 2 * Math.PI;
+        return ((radians % twoPi) + twoPi) % twoPi;
+    }
+}
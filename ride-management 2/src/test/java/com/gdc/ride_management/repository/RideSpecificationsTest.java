@@ -0,0 +1,198 @@
+package com.gdc.ride_management.repository;
+
+import com.gdc.ride_management.entity.Ride;
+import com.gdc.ride_management.enums.RequiredSpaceType;
+import com.gdc.ride_management.enums.RideStatus;
+import com.gdc.ride_management.util.GeoHash;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the geohash range predicates against a real database, so the generated
+ * {@code BETWEEN} ranges are checked with the database's own string ordering.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+class RideSpecificationsTest {
+
+    private static final LocalDate DATE = LocalDate.now().plusDays(1);
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void geohashIn_ShouldMatchRidesStartingWithinTheCoveredCells() {
+        UUID near = save("near", 17.400, 78.500, DATE);
+        UUID east = save("east", 17.385, 78.515, DATE);
+        save("far", 17.835, 78.4867, DATE);
+        save("unknown", null, null, DATE);
+        save("other date", 17.400, 78.500, DATE.plusDays(1));
+
+        Set<String> cells = GeoHash.coveringCells(17.385, 78.4867, 5);
+        Set<UUID> found = search("fromGeohash", cells);
+
+        assertEquals(Set.of(near, east), found);
+    }
+
+    @Test
+    void geohashIn_ShouldMatchBothSidesOfTheAntimeridian() {
+        UUID east = save("east", 0.5, 179.995, DATE);
+        UUID west = save("west", 0.5, -179.995, DATE);
+        save("far east", 0.5, 178.5, DATE);
+        save("far west", 0.5, -178.5, DATE);
+
+        Set<UUID> found = search("fromGeohash", GeoHash.coveringCells(0.5, 179.999, 5));
+
+        assertEquals(Set.of(east, west), found);
+    }
+
+    @Test
+    void geohashIn_ShouldIncludeBothEndsOfEachCellRange() {
+        // Stored hashes at either end of a cell's range, and the first one past it
+        UUID first = saveWithGeohash("first", "tepf00000");
+        UUID last = saveWithGeohash("last", "tepfzzzzz");
+        saveWithGeohash("next", "tepg00000");
+        saveWithGeohash("previous", "tepczzzzz");
+
+        assertEquals(Set.of(first, last), search("fromGeohash", Set.of("tepf")));
+    }
+
+    @Test
+    void geohashIn_ShouldFilterOnTheGivenAttribute() {
+        UUID endsNearby = save("ends nearby", 16.0, 80.0, DATE);
+        Ride ride = rideRepository.findById(endsNearby).orElseThrow();
+        ride.setToLatitude(17.40);
+        ride.setToLongitude(78.50);
+        rideRepository.saveAndFlush(ride);
+
+        Set<String> cells = GeoHash.coveringCells(17.385, 78.4867, 5);
+
+        assertEquals(Set.of(endsNearby), search("toGeohash", cells));
+        assertTrue(search("fromGeohash", cells).isEmpty());
+    }
+
+    @Test
+    void routeBoxContains_ShouldPadTheRouteBoxByTheCorridor() {
+        Ride ride = ride("Hyderabad", 17.0, 78.0, DATE);
+        ride.setToLatitude(16.0);
+        ride.setToLongitude(79.05);
+        UUID id = rideRepository.saveAndFlush(ride).getId();
+
+        // 0.1 deg (~11 km) north of the route's box, and 0.1 deg west of it
+        assertEquals(Set.of(id), withinRouteBox(17.1, 78.5, 15));
+        assertEquals(Set.of(id), withinRouteBox(16.5, 77.9, 15));
+        assertTrue(withinRouteBox(17.1, 78.5, 5).isEmpty());
+        assertTrue(withinRouteBox(16.5, 77.9, 5).isEmpty());
+        // Inside the box no padding is needed
+        assertEquals(Set.of(id), withinRouteBox(16.5, 78.5, 0));
+    }
+
+    @Test
+    void routeBoxContains_ShouldWrapAtTheAntimeridian() {
+        UUID crossing = saveRoute(-17.0, 178.0, -16.0, -179.0);
+        UUID eastOfIt = saveRoute(0.5, 179.9, 0.6, 179.95);
+
+        assertEquals(Set.of(crossing), withinRouteBox(-16.5, 179.9, 5));
+        assertEquals(Set.of(crossing), withinRouteBox(-16.5, -179.5, 5));
+        // ~0.135 deg of margin reaches from -179.99 back past 180 to 179.95
+        assertEquals(Set.of(eastOfIt), withinRouteBox(0.55, -179.99, 15));
+        assertTrue(withinRouteBox(0.55, -179.99, 1).isEmpty());
+    }
+
+    @Test
+    void routeCellNear_ShouldMatchRoutesWhoseCellContainsOrLiesInTheCoveredArea() {
+        UUID acrossTown = saveRoute(17.38, 78.48, 17.40, 78.50);
+        UUID longHaul = saveRoute(17.0, 78.0, 16.0, 79.05);
+        UUID acrossTheEquator = saveRoute(-1.0, 10.0, 1.0, 11.0);
+        UUID acrossTheAntimeridian = saveRoute(-17.0, 178.0, -16.0, -179.0);
+        saveRoute(28.6, 77.2, 28.7, 77.3);
+        saveRoute(16.50, 80.64, 16.51, 80.65);
+
+        assertEquals(Set.of(acrossTown, longHaul, acrossTheEquator, acrossTheAntimeridian), nearRouteCell(17.39, 78.49, 5));
+        // The cell only narrows the search; the box and the exact geometry do the rest
+        assertEquals(Set.of(longHaul, acrossTheEquator, acrossTheAntimeridian), nearRouteCell(16.5, 78.5, 5));
+    }
+
+    private Set<UUID> nearRouteCell(double latitude, double longitude, double marginKm) {
+        return rideRepository.findAll(RideSpecifications.availableOn(DATE)
+                        .and(RideSpecifications.routeCellNear(latitude, longitude, marginKm)))
+                .stream()
+                .map(Ride::getId)
+                .collect(Collectors.toSet());
+    }
+
+    private Set<UUID> withinRouteBox(double latitude, double longitude, double marginKm) {
+        return rideRepository.findAll(RideSpecifications.availableOn(DATE)
+                        .and(RideSpecifications.routeBoxContains(latitude, longitude, marginKm)))
+                .stream()
+                .map(Ride::getId)
+                .collect(Collectors.toSet());
+    }
+
+    private Set<UUID> search(String attribute, Set<String> cells) {
+        return rideRepository.findAll(RideSpecifications.availableOn(DATE)
+                        .and(RideSpecifications.geohashIn(attribute, cells)))
+                .stream()
+                .map(Ride::getId)
+                .collect(Collectors.toSet());
+    }
+
+    private UUID save(String from, Double latitude, Double longitude, LocalDate date) {
+        return rideRepository.saveAndFlush(ride(from, latitude, longitude, date)).getId();
+    }
+
+    private UUID saveRoute(double fromLat, double fromLon, double toLat, double toLon) {
+        Ride ride = ride("From", fromLat, fromLon, DATE);
+        ride.setToLatitude(toLat);
+        ride.setToLongitude(toLon);
+        return rideRepository.saveAndFlush(ride).getId();
+    }
+
+    /** Stores {@code geohash} as is; the entity callback would derive it from coordinates instead. */
+    private UUID saveWithGeohash(String from, String geohash) {
+        UUID id = save(from, null, null, DATE);
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE rides SET from_geohash = :geohash WHERE ride_id = :id")
+                .setParameter("geohash", geohash)
+                .setParameter("id", id)
+                .executeUpdate();
+        entityManager.clear();
+        return id;
+    }
+
+    private static Ride ride(String from, Double latitude, Double longitude, LocalDate date) {
+        return Ride.builder()
+                .from(from)
+                .to("Vijayawada")
+                .fromLatitude(latitude)
+                .fromLongitude(longitude)
+                .date(date)
+                .time(LocalTime.NOON)
+                .rideStatus(RideStatus.AVAILABLE)
+                .vehicleType("VAN")
+                .luggageSpace(RequiredSpaceType.SMALL)
+                .drivingLicenseNumber("TS0920240001234")
+                .rideUserId(UUID.randomUUID())
+                .bookedWeightKg(0.0)
+                .availableCapacityKg(RequiredSpaceType.SMALL.getCapacityKg())
+                .createdAt(new Timestamp(System.currentTimeMillis()))
+                .build();
+    }
+}
@@ -0,0 +1,180 @@
+package com.gdc.ride_management.service;
+
+import com.gdc.ride_management.dto.request.RideRequestRequestDto;
+import com.gdc.ride_management.dto.response.UserResponseDTO;
+import com.gdc.ride_management.entity.Ride;
+import com.gdc.ride_management.enums.GoodsType;
+import com.gdc.ride_management.enums.RequestStatus;
+import com.gdc.ride_management.enums.RequiredSpaceType;
+import com.gdc.ride_management.enums.RideStatus;
+import com.gdc.ride_management.exception.InsufficientCapacityException;
+import com.gdc.ride_management.repository.RideRepository;
+import com.gdc.ride_management.repository.RideRequestRepository;
+import com.gdc.ride_management.util.OSMGeocodingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Fires a few hundred concurrent bookings at one ride and checks that the
+ * conditional capacity update never lets them overbook it.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@Import({RideRequestServiceImpl.class, RideCapacityReconciler.class, RideCapacityConcurrencyTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RideCapacityConcurrencyTest {
+
+    private static final int BOOKINGS = 300;
+    private static final double WEIGHT_PER_BOOKING = 3.0;
+
+    @Autowired
+    private RideRequestService rideRequestService;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private RideRequestRepository rideRequestRepository;
+
+    @MockBean
+    private OSMGeocodingService osmGeocodingService;
+
+    @MockBean
+    private UserProfileCache userProfileCache;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @BeforeEach
+    void stubCollaborators() {
+        when(osmGeocodingService.getCoordinatesFromLocation(any())).thenReturn(new double[]{17.385, 78.4867});
+        when(userProfileCache.get(any())).thenReturn(new UserResponseDTO(UUID.randomUUID(), "Sender", "s@example.com", "9999999999"));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        rideRequestRepository.deleteAll();
+        rideRepository.deleteAll();
+    }
+
+    @Test
+    void parallelBookings_ShouldNeverOverbookRide() throws Exception {
+        Ride ride = rideRepository.save(newRide(RequiredSpaceType.SMALL));
+        double capacity = RequiredSpaceType.SMALL.getCapacityKg();
+
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    rideRequestService.createRideRequest(booking(ride.getId()), UUID.randomUUID());
+                    booked.incrementAndGet();
+                } catch (InsufficientCapacityException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        Ride after = rideRepository.findById(ride.getId()).orElseThrow();
+        double persistedWeight = rideRequestRepository.findByRideIdAndRequestStatus(ride.getId(), RequestStatus.PENDING)
+                .stream().mapToDouble(r -> r.getGoodsWeightInKg()).sum();
+
+        assertEquals(BOOKINGS, booked.get() + rejected.get());
+        assertEquals((int) (capacity / WEIGHT_PER_BOOKING), booked.get());
+        assertTrue(persistedWeight <= capacity, "ride overbooked: " + persistedWeight + " kg");
+        assertEquals(persistedWeight, after.getBookedWeightKg(), 1e-9);
+        assertEquals(capacity - persistedWeight, after.getAvailableCapacityKg(), 1e-9);
+    }
+
+    @Test
+    void rejectingAndReacceptingRequest_ShouldReleaseAndRebookCapacity() {
+        Ride ride = rideRepository.save(newRide(RequiredSpaceType.SMALL));
+        UUID requestId = rideRequestService.createRideRequest(booking(ride.getId()), UUID.randomUUID()).getId();
+
+        rideRequestService.updateStatus(requestId, "REJECTED");
+        assertEquals(0.0, rideRepository.findById(ride.getId()).orElseThrow().getBookedWeightKg(), 1e-9);
+
+        rideRequestService.updateStatus(requestId, "ACCEPTED");
+        assertEquals(WEIGHT_PER_BOOKING, rideRepository.findById(ride.getId()).orElseThrow().getBookedWeightKg(), 1e-9);
+
+        rideRequestService.deleteRideRequest(requestId);
+        assertEquals(RequiredSpaceType.SMALL.getCapacityKg(),
+                rideRepository.findById(ride.getId()).orElseThrow().getAvailableCapacityKg(), 1e-9);
+    }
+
+    private static Ride newRide(RequiredSpaceType space) {
+        return Ride.builder()
+                .from("Hyderabad")
+                .to("Vijayawada")
+                .date(LocalDate.now().plusDays(1))
+                .time(LocalTime.NOON)
+                .rideStatus(RideStatus.AVAILABLE)
+                .vehicleType("VAN")
+                .luggageSpace(space)
+                .drivingLicenseNumber("TS0920240001234")
+                .rideUserId(UUID.randomUUID())
+                .bookedWeightKg(0.0)
+                .availableCapacityKg(space.getCapacityKg())
+                .createdAt(new Timestamp(System.currentTimeMillis()))
+                .build();
+    }
+
+    private static RideRequestRequestDto booking(UUID rideId) {
+        return RideRequestRequestDto.builder()
+                .rideId(rideId)
+                .from("Hyderabad")
+                .to("Vijayawada")
+                .date(LocalDate.now().plusDays(1))
+                .goodsType(GoodsType.values()[0])
+                .goodsWeightInKg(WEIGHT_PER_BOOKING)
+                .goodsQuantity(1)
+                .requiredSpace(RequiredSpaceType.SMALL)
+                .build();
+    }
+}
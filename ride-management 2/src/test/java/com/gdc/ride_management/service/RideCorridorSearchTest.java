@@ -0,0 +1,135 @@
+package com.gdc.ride_management.service;
+
+import com.gdc.ride_management.dto.response.RideResponseDto;
+import com.gdc.ride_management.entity.Ride;
+import com.gdc.ride_management.enums.RequiredSpaceType;
+import com.gdc.ride_management.enums.RideStatus;
+import com.gdc.ride_management.repository.RideRepository;
+import com.gdc.ride_management.util.OSMGeocodingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Corridor search against rides stored in H2. The main ride runs roughly
+ * south-east at 45 degrees from (17, 78) to (16, 79.05), about 158 km.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@Import(RideServiceImpl.class)
+class RideCorridorSearchTest {
+
+    private static final LocalDate DATE = LocalDate.now().plusDays(1);
+
+    @Autowired
+    private RideService rideService;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @MockBean
+    private OSMGeocodingService osmGeocodingService;
+
+    @MockBean
+    private UserProfileCache userProfileCache;
+
+    @Test
+    void shipmentAlongTheRoute_ShouldMatchWithTheSmallestDetourFirst() {
+        UUID onRoute = saveRide(17.0, 78.0, 16.0, 79.05, DATE);
+        // Same route shifted ~5.5 km north
+        UUID parallel = saveRide(17.05, 78.0, 16.05, 79.05, DATE);
+        saveRide(17.0, 78.0, 16.0, 79.05, DATE.plusDays(1));
+        geocode("Pickup", 16.9, 78.105);
+        geocode("Drop", 16.2, 78.84);
+
+        List<UUID> found = ids(rideService.searchRidesAlongRoute("Pickup", "Drop", DATE, null));
+
+        assertEquals(List.of(onRoute, parallel), found);
+    }
+
+    @Test
+    void shipmentGoingTheOtherWay_ShouldNotMatch() {
+        saveRide(17.0, 78.0, 16.0, 79.05, DATE);
+        geocode("Pickup", 16.2, 78.84);
+        geocode("Drop", 16.9, 78.105);
+
+        assertTrue(rideService.searchRidesAlongRoute("Pickup", "Drop", DATE, null).isEmpty());
+    }
+
+    @Test
+    void pickupBehindTheStart_ShouldBeMeasuredFromTheStart() {
+        UUID ride = saveRide(17.0, 78.0, 16.0, 79.05, DATE);
+        // On the route's extension ~18 km before its start: inside the padded box, no cross-track distance
+        geocode("Pickup", 17.114, 77.881);
+        geocode("Drop", 16.5, 78.525);
+
+        assertTrue(rideService.searchRidesAlongRoute("Pickup", "Drop", DATE, 15.0).isEmpty());
+        assertEquals(List.of(ride), ids(rideService.searchRidesAlongRoute("Pickup", "Drop", DATE, 20.0)));
+    }
+
+    @Test
+    void corridorWidth_ShouldBoundTheDistanceFromTheRoute() {
+        saveRide(17.0, 78.0, 16.0, 79.05, DATE);
+        UUID parallel = saveRide(17.05, 78.0, 16.05, 79.05, DATE);
+        // ~20 km north-east of the main route, ~16 km from the parallel one
+        geocode("Pickup", 16.63, 78.66);
+        geocode("Drop", 16.2, 78.84);
+
+        assertTrue(rideService.searchRidesAlongRoute("Pickup", "Drop", DATE, null).isEmpty());
+        assertEquals(List.of(parallel), ids(rideService.searchRidesAlongRoute("Pickup", "Drop", DATE, 18.0)));
+    }
+
+    @Test
+    void routeAcrossTheAntimeridian_ShouldMatchOnBothSides() {
+        // Vanua Levu to Taveuni's east, the short way round through 180
+        UUID crossing = saveRide(-17.0, 178.0, -16.0, -179.0, DATE);
+        saveRide(-17.0, 178.0, -17.0, 177.0, DATE);
+        geocode("Pickup", -16.667, 179.0);
+        geocode("Drop", -16.333, -179.99);
+
+        assertEquals(List.of(crossing), ids(rideService.searchRidesAlongRoute("Pickup", "Drop", DATE, null)));
+    }
+
+    private void geocode(String location, double latitude, double longitude) {
+        when(osmGeocodingService.getCoordinatesFromLocation(location)).thenReturn(new double[]{latitude, longitude});
+    }
+
+    private UUID saveRide(double fromLat, double fromLon, double toLat, double toLon, LocalDate date) {
+        return rideRepository.saveAndFlush(Ride.builder()
+                .from("From")
+                .to("To")
+                .fromLatitude(fromLat)
+                .fromLongitude(fromLon)
+                .toLatitude(toLat)
+                .toLongitude(toLon)
+                .date(date)
+                .time(LocalTime.NOON)
+                .rideStatus(RideStatus.AVAILABLE)
+                .vehicleType("VAN")
+                .luggageSpace(RequiredSpaceType.SMALL)
+                .drivingLicenseNumber("TS0920240001234")
+                .rideUserId(UUID.randomUUID())
+                .bookedWeightKg(0.0)
+                .availableCapacityKg(RequiredSpaceType.SMALL.getCapacityKg())
+                .createdAt(new Timestamp(System.currentTimeMillis()))
+                .build()).getId();
+    }
+
+    private static List<UUID> ids(List<RideResponseDto> rides) {
+        return rides.stream().map(RideResponseDto::getId).toList();
+    }
+}
@@ -0,0 +1,141 @@
+package com.gdc.ride_management.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoHashTest {
+
+    private static final double KM_PER_DEGREE = 111.32;
+
+    @Test
+    void encode_ShouldMatchReferenceHashes() {
+        assertEquals("ezs42", GeoHash.encode(42.605, -5.603, 5));
+        assertEquals("u4pruydqqvj", GeoHash.encode(57.64911, 10.40744, 11));
+        assertEquals("tepffhb6b", GeoHash.encode(17.385, 78.4867));
+        assertNull(GeoHash.encode(null, 78.4867));
+        assertNull(GeoHash.encode(17.385, null));
+    }
+
+    @Test
+    void encode_ShouldPutBoundaryPointsInTheNorthEasternCell() {
+        assertEquals("s", GeoHash.encode(0, 0, 1));
+        assertEquals("e", GeoHash.encode(0, -1e-9, 1));
+        assertEquals("k", GeoHash.encode(-1e-9, 0, 1));
+        assertEquals("7", GeoHash.encode(-1e-9, -1e-9, 1));
+        // 22.5 N is the edge between two rows of "s" cells
+        assertEquals("sh", GeoHash.encode(22.5, 10, 2));
+        assertEquals("s5", GeoHash.encode(22.5 - 1e-9, 10, 2));
+    }
+
+    @Test
+    void cellsAround_ShouldReturnTheCellAndItsEightNeighbours() {
+        Set<String> cells = GeoHash.cellsAround(42.605, -5.603, 5, 1);
+
+        assertEquals(9, cells.size());
+        assertEquals("ezs42", cells.iterator().next());
+        // The documented neighbours of ezs42
+        assertTrue(cells.containsAll(List.of("ezs48", "ezs43", "ezs41", "ezs40", "ezefr", "ezefp", "ezs49", "ezefx")));
+    }
+
+    @Test
+    void cellsAround_ShouldCoverPointsJustAcrossTheCellEdge() {
+        // ~1 km in every direction from a point, whichever cell of the block each lands in
+        double lat = 17.4435, lon = 78.3772;
+        Set<String> cells = GeoHash.cellsAround(lat, lon, 5, 1);
+        for (double dLat = -0.01; dLat <= 0.01; dLat += 0.01) {
+            for (double dLon = -0.01; dLon <= 0.01; dLon += 0.01) {
+                assertTrue(cells.contains(GeoHash.encode(lat + dLat, lon + dLon, 5)));
+            }
+        }
+    }
+
+    @Test
+    void cellsAround_ShouldWrapAtTheAntimeridianAndStopAtThePoles() {
+        Set<String> cells = GeoHash.cellsAround(0.5, 179.99, 5, 1);
+
+        assertEquals(9, cells.size());
+        assertTrue(cells.contains(GeoHash.encode(0.5, -179.99, 5)));
+        assertEquals(6, GeoHash.cellsAround(89.99, 10, 5, 1).size());
+    }
+
+    @Test
+    void upperBound_ShouldCloseTheRangeOfEveryStoredHashInTheCell() {
+        assertEquals("tepfzzzzz", GeoHash.upperBound("tepf"));
+        assertEquals("tepffhb6b", GeoHash.upperBound("tepffhb6b"));
+
+        String cell = "tepf";
+        String inside = GeoHash.encode(17.385, 78.4867);
+        String nextCell = "tepg";
+        String previousCell = "tepc" + "zzzzz";
+        assertTrue(inside.compareTo(cell) >= 0 && inside.compareTo(GeoHash.upperBound(cell)) <= 0);
+        assertTrue(nextCell.compareTo(GeoHash.upperBound(cell)) > 0);
+        assertTrue(previousCell.compareTo(cell) < 0);
+    }
+
+    @Test
+    void enclosingCell_ShouldBeTheSmallestCellHoldingTheWholeBox() {
+        // Both corners of a ~2 km box in Hyderabad are in "tepf", but in different cells below it
+        assertEquals("tepf", GeoHash.enclosingCell(17.38, 17.40, 78.48, 78.50));
+        assertEquals("t", GeoHash.enclosingCell(16.0, 17.0, 78.0, 79.05));
+        assertEquals(GeoHash.encode(17.385, 78.4867), GeoHash.enclosingCell(17.385, 17.385, 78.4867, 78.4867));
+        // Across the equator or all the way round there is no common cell
+        assertEquals("", GeoHash.enclosingCell(-1, 1, 10, 11));
+        assertEquals("", GeoHash.enclosingCell(-17, -16, -180, 180));
+    }
+
+    @Test
+    void ancestors_ShouldListEveryContainingCellFromTheWholeWorldDown() {
+        assertEquals(List.of("", "t", "te", "tep"), List.copyOf(GeoHash.ancestors("tepf")));
+        assertTrue(GeoHash.ancestors("").isEmpty());
+    }
+
+    @Test
+    void coveringCells_ShouldUseCellsAtLeastAsLargeAsTheRadius() {
+        Set<String> cells = GeoHash.coveringCells(17.385, 78.4867, 5);
+
+        assertEquals(9, cells.size());
+        // Precision 5 cells (~4.7 x 4.9 km here) are too small for 5 km, so precision 4 (~37 x 20 km) is used
+        cells.forEach(cell -> assertEquals(4, cell.length(), cell));
+        assertTrue(cells.contains("tepf"));
+        assertEquals(GeoHash.STORED_PRECISION, GeoHash.coveringCells(17.385, 78.4867, 0.001).iterator().next().length());
+    }
+
+    @Test
+    void coveringCells_ShouldContainEveryPointWithinTheRadius() {
+        assertCovers(17.385, 78.4867, 5);
+        assertCovers(17.385, 78.4867, 0.2);
+        assertCovers(-33.8688, 151.2093, 25);
+        assertCovers(60.1699, 24.9384, 50);
+    }
+
+    @Test
+    void coveringCells_ShouldWrapAcrossTheAntimeridian() {
+        Set<String> cells = GeoHash.coveringCells(0.5, 179.99, 5);
+
+        assertTrue(cells.stream().anyMatch(cell -> cell.startsWith("8")), "no western-hemisphere cell in " + cells);
+        assertTrue(cells.stream().anyMatch(cell -> cell.startsWith("x")), "no eastern-hemisphere cell in " + cells);
+        assertCovers(0.5, 179.99, 5);
+        assertCovers(0.5, -179.99, 5);
+    }
+
+    /** Every point on rings at 25%, 50% and 99% of the radius falls in one of the covering cells. */
+    private static void assertCovers(double latitude, double longitude, double radiusKm) {
+        Set<String> cells = GeoHash.coveringCells(latitude, longitude, radiusKm);
+        for (double fraction : new double[]{0.25, 0.5, 0.99}) {
+            for (int bearing = 0; bearing < 360; bearing += 5) {
+                double distance = radiusKm * fraction;
+                double lat = latitude + distance / KM_PER_DEGREE * Math.cos(Math.toRadians(bearing));
+                double lon = longitude + distance / (KM_PER_DEGREE * Math.cos(Math.toRadians(latitude)))
+                        * Math.sin(Math.toRadians(bearing));
+                lon = lon >= 180 ? lon - 360 : lon < -180 ? lon + 360 : lon;
+                String hash = GeoHash.encode(lat, lon, GeoHash.STORED_PRECISION);
+                assertTrue(cells.stream().anyMatch(hash::startsWith),
+                        "point " + lat + "," + lon + " (" + hash + ") is outside " + cells);
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.gdc.ride_management.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteGeometryTest {
+
+    /** One degree of great-circle arc on the 6371 km sphere. */
+    private static final double KM_PER_ARC_DEGREE = 6371 * Math.PI / 180;
+
+    @Test
+    void project_ShouldMeasureAlongAndAcrossAnEquatorialRoute() {
+        RouteGeometry.Projection projection = RouteGeometry.project(0, 0, 0, 10, 1, 5);
+
+        assertEquals(5 * KM_PER_ARC_DEGREE, projection.alongTrackKm(), 0.5);
+        assertEquals(KM_PER_ARC_DEGREE, projection.offsetKm(), 0.01);
+    }
+
+    @Test
+    void project_ShouldMeasureDistanceFromAMeridianRoute() {
+        // A point one degree of longitude off a meridian at 5 N is cos(5 deg) degrees of arc away
+        RouteGeometry.Projection projection = RouteGeometry.project(0, 0, 10, 0, 5, 1);
+
+        assertEquals(Math.toDegrees(Math.asin(Math.cos(Math.toRadians(5)) * Math.sin(Math.toRadians(1))))
+                * KM_PER_ARC_DEGREE, projection.offsetKm(), 0.01);
+        assertTrue(projection.offsetKm() < KM_PER_ARC_DEGREE);
+    }
+
+    @Test
+    void project_ShouldMeasureFromTheStartForPointsBehindIt() {
+        // In line with the route but one degree before its start: no cross-track distance at all
+        RouteGeometry.Projection behind = RouteGeometry.project(0, 0, 0, 10, 0, -1);
+
+        assertEquals(-KM_PER_ARC_DEGREE, behind.alongTrackKm(), 0.01);
+        assertEquals(KM_PER_ARC_DEGREE, behind.offsetKm(), 0.01);
+
+        // Behind and off to the side: the nearest point of the segment is still its start
+        RouteGeometry.Projection behindAndAside = RouteGeometry.project(0, 0, 0, 10, 0.1, -1);
+        assertTrue(behindAndAside.alongTrackKm() < 0);
+        assertEquals(FareUtils.calculateDistance(0, 0, 0.1, -1), behindAndAside.offsetKm(), 1e-9);
+    }
+
+    @Test
+    void project_ShouldMeasureFromTheEndForPointsPastIt() {
+        RouteGeometry.Projection past = RouteGeometry.project(0, 0, 0, 10, 0, 12);
+
+        assertEquals(12 * KM_PER_ARC_DEGREE, past.alongTrackKm(), 0.01);
+        assertEquals(2 * KM_PER_ARC_DEGREE, past.offsetKm(), 0.01);
+    }
+
+    @Test
+    void project_ShouldTreatAZeroLengthRouteAsAPoint() {
+        RouteGeometry.Projection projection = RouteGeometry.project(17.385, 78.4867, 17.385, 78.4867, 17.385, 78.5867);
+
+        assertEquals(0, projection.alongTrackKm());
+        assertEquals(FareUtils.calculateDistance(17.385, 78.4867, 17.385, 78.5867), projection.offsetKm(), 1e-9);
+    }
+
+    @Test
+    void boundingBox_ShouldBeTheEndpointsBoxForShortRoutes() {
+        double[] box = RouteGeometry.boundingBox(17.385, 78.4867, 16.5062, 80.648);
+
+        assertArrayEquals(new double[]{16.5062, 17.385, 78.4867, 80.648}, box, 1e-9);
+    }
+
+    @Test
+    void boundingBox_ShouldIncludeTheArcsBulgeTowardsThePole() {
+        // The great circle through (45, -60) and (45, 60) peaks at lon 0, where tan(lat) = tan(45) / cos(60)
+        double vertex = Math.toDegrees(Math.atan(2));
+
+        double[] north = RouteGeometry.boundingBox(45, -60, 45, 60);
+        assertArrayEquals(new double[]{45, vertex, -60, 60}, north, 1e-6);
+
+        double[] south = RouteGeometry.boundingBox(-45, 60, -45, -60);
+        assertArrayEquals(new double[]{-vertex, -45, -60, 60}, south, 1e-6);
+    }
+
+    @Test
+    void boundingBox_ShouldSpanEveryLongitudeForRoutesAcrossTheAntimeridian() {
+        assertArrayEquals(new double[]{-17, -16, -180, 180}, RouteGeometry.boundingBox(-17, 178, -16, -179), 1e-9);
+        assertArrayEquals(new double[]{-17, -16, -180, 180}, RouteGeometry.boundingBox(-16, -179, -17, 178), 1e-9);
+        // 179 degrees apart the short way is still east-west across the middle
+        assertArrayEquals(new double[]{0, 0, -89.5, 89.5}, RouteGeometry.boundingBox(0, -89.5, 0, 89.5), 1e-9);
+    }
+
+    @Test
+    void corridorDegrees_ShouldWidenWithLatitude() {
+        assertEquals(1, RouteGeometry.latitudeDegrees(111.32), 1e-9);
+        assertEquals(1, RouteGeometry.longitudeDegrees(111.32, 0), 1e-9);
+        assertEquals(2, RouteGeometry.longitudeDegrees(111.32, 60), 1e-9);
+        // Near the poles every longitude is within reach
+        assertEquals(180, RouteGeometry.longitudeDegrees(15, 90));
+        assertEquals(180, RouteGeometry.longitudeDegrees(25_000, 10));
+    }
+}
@@ -7,18 +7,25 @@ import com.gdc.user_registration_and_authentication.dto.response.UserRegistratio
 import com.gdc.user_registration_and_authentication.entity.User;
 import com.gdc.user_registration_and_authentication.service.UserService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
+@Validated
 @CrossOrigin(origins = "http://localhost:4200", allowCredentials = "true")
 public class UserController {
 
+    public static final int MAX_BATCH_SIZE = 200;
+
     private final UserService userService;
 
     @PostMapping("/request-otp")
@@ -77,4 +84,19 @@ public class UserController {
         UserResponseDTO dto = new UserResponseDTO(user.getId(), user.getName(), user.getEmail(), user.getPhone());
         return ResponseEntity.ok(StandardResponse.ok(dto));
     }
+
+    /**
+     * Resolves several users in one round-trip so callers rendering a page of
+     * requests don't have to call {@code GET /api/users/{userId}} once per row.
+     * Unknown IDs are simply left out of the result. At most
+     * {@value #MAX_BATCH_SIZE} IDs per call; larger bodies get a 400.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<StandardResponse<List<UserResponseDTO>>> getUsersBatch(
+            @RequestBody @Size(max = MAX_BATCH_SIZE, message = "At most " + MAX_BATCH_SIZE + " user IDs per batch") Set<UUID> userIds) {
+        List<UserResponseDTO> users = userService.getUsersByIds(userIds).stream()
+                .map(user -> new UserResponseDTO(user.getId(), user.getName(), user.getEmail(), user.getPhone()))
+                .toList();
+        return ResponseEntity.ok(StandardResponse.ok(users));
+    }
 }
@@ -6,6 +6,8 @@ import com.gdc.user_registration_and_authentication.dto.response.UserProfileResp
 import com.gdc.user_registration_and_authentication.dto.response.UserRegistrationResponseDTO;
 import com.gdc.user_registration_and_authentication.entity.User;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface UserService {
@@ -13,6 +15,7 @@ public interface UserService {
     User updateProfile(UUID userId, UpdateProfileRequestDTO requestDTO);
     UserProfileResponseDTO getUserProfile(UUID userId);
     User getUserById(UUID userId);
+    List<User> getUsersByIds(Collection<UUID> userIds);
     String requestOtp(String email);
     UserRegistrationResponseDTO completeRegistration(UserRegistrationRequestDTO requestDTO);
     void verifyOtp(String email, String otp);
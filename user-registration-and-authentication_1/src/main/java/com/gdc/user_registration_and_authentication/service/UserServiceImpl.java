@@ -10,20 +10,30 @@ import com.gdc.user_registration_and_authentication.repository.UserRepository;
 import com.gdc.user_registration_and_authentication.temp.TempUser;
 import com.gdc.user_registration_and_authentication.util.OtpGenerator;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final EmailService emailService;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final StringRedisTemplate redisTemplate;
+
+    // Shared with request-service and ride-management, which cache profiles under this key
+    private static final String USER_CACHE_PREFIX = "user:details:";
+    private static final String PROFILE_INVALIDATION_CHANNEL = "user:profile:invalidate";
 
     private final Map<String, TempUser> otpStorage = new HashMap<>();
 
@@ -113,7 +123,23 @@ public class UserServiceImpl implements UserService {
         if (requestDTO.getZipCode() != null) user.setZipCode(requestDTO.getZipCode());
         if (requestDTO.getCountry() != null) user.setCountry(requestDTO.getCountry());
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        invalidateCachedProfile(userId);
+        return saved;
+    }
+
+    /**
+     * Removes the shared Redis copy of the profile and tells every service node
+     * to drop its in-process copy. A failure here only delays the refresh until
+     * the cache TTL expires, so it must not fail the update itself.
+     */
+    private void invalidateCachedProfile(UUID userId) {
+        try {
+            redisTemplate.delete(USER_CACHE_PREFIX + userId);
+            redisTemplate.convertAndSend(PROFILE_INVALIDATION_CHANNEL, userId.toString());
+        } catch (Exception e) {
+            log.warn("Failed to publish profile invalidation for user {}: {}", userId, e.getMessage());
+        }
     }
 
     @Override
@@ -141,4 +167,12 @@ public class UserServiceImpl implements UserService {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
+
+    @Override
+    public List<User> getUsersByIds(Collection<UUID> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.findAllById(userIds);
+    }
 }
@@ -0,0 +1,258 @@
+package com.gdc.user_registration_and_authentication.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Renders the HTML emails under {@code templates/email}. Templates are read and compiled
+ * once at startup into UTF-8 byte segments with slots between them, so a send only copies
+ * the static bytes and HTML-escapes the values into a per-thread buffer. The result stays
+ * UTF-8 bytes all the way to the MIME body instead of being decoded into a String only to
+ * be encoded again when the message is written out.
+ * <p>
+ * A template starts with a {@code {{params a b c}}} line naming its slots in the order
+ * {@link #render} takes them; {@code {{a}}} marks where a value goes. Support contact
+ * details are the same in every email and are bound while compiling, so they end up in
+ * the static segments. Unknown or unused slots fail startup rather than a send.
+ */
+@Component
+@Slf4j
+public class EmailTemplateEngine {
+
+    private static final Pattern SLOT_NAME = Pattern.compile("[A-Za-z][A-Za-z0-9]*");
+    private static final String PARAMS_DIRECTIVE = "params ";
+    // Buffers that grew past this for an unusually large email aren't kept per thread
+    private static final int MAX_RETAINED_BUFFER = 256 * 1024;
+
+    private final Map<String, Template> templates = new HashMap<>();
+    private final Cache<CacheKey, byte[]> rendered;
+    private final ThreadLocal<Buffer> buffers = ThreadLocal.withInitial(Buffer::new);
+
+    public EmailTemplateEngine(@Value("${app.support.email:support@goodstransportsystem.com}") String supportEmail,
+                               @Value("${app.company.phone:+1-800-TRANSPORT}") String supportPhone,
+                               @Value("${mail.templates.location:classpath*:templates/email/*.html}") String location,
+                               @Value("${mail.templates.cache.max-size:1000}") long cacheSize,
+                               @Value("${mail.templates.cache.ttl-seconds:600}") long cacheTtlSeconds) {
+        Map<String, String> constants = Map.of("supportEmail", supportEmail, "supportPhone", supportPhone);
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(location)) {
+                String file = resource.getFilename();
+                if (file == null) {
+                    continue;
+                }
+                String name = file.substring(0, file.lastIndexOf('.'));
+                try (InputStream in = resource.getInputStream()) {
+                    templates.put(name, compile(name, new String(in.readAllBytes(), StandardCharsets.UTF_8), constants));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load email templates from " + location, e);
+        }
+        this.rendered = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build();
+        log.info("Compiled {} email templates: {}", templates.size(), templates.keySet());
+    }
+
+    /**
+     * Renders the named template to UTF-8 HTML, escaping each value. Values are given in the
+     * order of the template's {@code params} line; {@code null} renders as nothing.
+     */
+    public byte[] render(String template, String... values) {
+        Template compiled = template(template);
+        if (values.length != compiled.parameters.size()) {
+            throw new IllegalArgumentException("Template " + template + " takes " + compiled.parameters
+                    + " but got " + values.length + " values");
+        }
+        Buffer buffer = buffers.get();
+        buffer.size = 0;
+        compiled.writeTo(buffer, values);
+        byte[] html = Arrays.copyOf(buffer.bytes, buffer.size);
+        if (buffer.bytes.length > MAX_RETAINED_BUFFER) {
+            buffers.remove();
+        }
+        return html;
+    }
+
+    /**
+     * Like {@link #render}, but for emails that may go out more than once with the same
+     * content, such as an OTP that is resent: identical values for the same template return
+     * the body rendered the first time. The returned array is shared and must not be modified.
+     */
+    public byte[] renderCached(String template, String... values) {
+        return rendered.get(new CacheKey(template, Arrays.asList(values.clone())), key -> render(template, values));
+    }
+
+    /** Names of the slots the template takes, in {@link #render} order. */
+    public List<String> parameters(String template) {
+        return template(template).parameters;
+    }
+
+    private Template template(String name) {
+        Template template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown email template: " + name);
+        }
+        return template;
+    }
+
+    static Template compile(String name, String source, Map<String, String> constants) {
+        List<String> parameters = new ArrayList<>();
+        int pos = 0;
+        if (source.startsWith("{{" + PARAMS_DIRECTIVE)) {
+            int end = source.indexOf("}}");
+            parameters.addAll(List.of(source.substring(2 + PARAMS_DIRECTIVE.length(), end).trim().split("\\s+")));
+            pos = source.indexOf('\n', end) + 1;
+        }
+
+        // Constants are escaped and folded into the surrounding text, so only parameters split segments
+        List<byte[]> segments = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        Map<String, Boolean> used = new LinkedHashMap<>();
+        parameters.forEach(parameter -> used.put(parameter, false));
+        Buffer text = new Buffer();
+        int open;
+        while ((open = source.indexOf("{{", pos)) >= 0) {
+            int close = source.indexOf("}}", open);
+            if (close < 0) {
+                throw new IllegalStateException("Unclosed slot in email template " + name);
+            }
+            text.writeRaw(source, pos, open);
+            String slot = source.substring(open + 2, close).trim();
+            int index = parameters.indexOf(slot);
+            if (index >= 0) {
+                segments.add(Arrays.copyOf(text.bytes, text.size));
+                slots.add(index);
+                used.put(slot, true);
+                text.size = 0;
+            } else if (constants.containsKey(slot)) {
+                text.writeEscaped(constants.get(slot));
+            } else {
+                throw new IllegalStateException("Email template " + name + " uses undeclared slot {{" + slot + "}}");
+            }
+            pos = close + 2;
+        }
+        text.writeRaw(source, pos, source.length());
+        segments.add(Arrays.copyOf(text.bytes, text.size));
+
+        used.forEach((parameter, isUsed) -> {
+            if (!SLOT_NAME.matcher(parameter).matches() || !isUsed) {
+                throw new IllegalStateException("Email template " + name + " declares unused or invalid parameter " + parameter);
+            }
+        });
+        return new Template(parameters, segments.toArray(byte[][]::new), slots.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    static final class Template {
+        private final List<String> parameters;
+        private final byte[][] segments;
+        private final int[] slots;
+        private final int staticLength;
+
+        private Template(List<String> parameters, byte[][] segments, int[] slots) {
+            this.parameters = List.copyOf(parameters);
+            this.segments = segments;
+            this.slots = slots;
+            this.staticLength = Arrays.stream(segments).mapToInt(segment -> segment.length).sum();
+        }
+
+        void writeTo(Buffer buffer, String[] values) {
+            // Room for the static text plus typical values up front, so most renders never grow
+            buffer.ensure(staticLength + 64 * slots.length);
+            for (int i = 0; i < slots.length; i++) {
+                buffer.write(segments[i]);
+                buffer.writeEscaped(values[slots[i]]);
+            }
+            buffer.write(segments[slots.length]);
+        }
+    }
+
+    /** Growable byte buffer that encodes straight to UTF-8, escaping as it goes. */
+    static final class Buffer {
+        private byte[] bytes = new byte[8 * 1024];
+        private int size;
+
+        void ensure(int capacity) {
+            if (capacity > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+            }
+        }
+
+        void write(byte[] segment) {
+            ensure(size + segment.length);
+            System.arraycopy(segment, 0, bytes, size, segment.length);
+            size += segment.length;
+        }
+
+        void writeRaw(String text, int from, int to) {
+            write(text.substring(from, to).getBytes(StandardCharsets.UTF_8));
+        }
+
+        void writeEscaped(String value) {
+            if (value == null) {
+                return;
+            }
+            // Worst case is "&quot;" (6 bytes) per char
+            ensure(size + value.length() * 6);
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '&' -> ascii("&amp;");
+                    case '<' -> ascii("&lt;");
+                    case '>' -> ascii("&gt;");
+                    case '"' -> ascii("&quot;");
+                    case '\'' -> ascii("&#39;");
+                    default -> {
+                        if (c < 0x80) {
+                            bytes[size++] = (byte) c;
+                        } else if (c < 0x800) {
+                            bytes[size++] = (byte) (0xC0 | c >> 6);
+                            bytes[size++] = (byte) (0x80 | c & 0x3F);
+                        } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                                && Character.isLowSurrogate(value.charAt(i + 1))) {
+                            int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                            bytes[size++] = (byte) (0xF0 | codePoint >> 18);
+                            bytes[size++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                            bytes[size++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                            bytes[size++] = (byte) (0x80 | codePoint & 0x3F);
+                        } else if (Character.isSurrogate(c)) {
+                            bytes[size++] = '?';
+                        } else {
+                            bytes[size++] = (byte) (0xE0 | c >> 12);
+                            bytes[size++] = (byte) (0x80 | c >> 6 & 0x3F);
+                            bytes[size++] = (byte) (0x80 | c & 0x3F);
+                        }
+                    }
+                }
+            }
+        }
+
+        private void ascii(String entity) {
+            for (int i = 0; i < entity.length(); i++) {
+                bytes[size++] = (byte) entity.charAt(i);
+            }
+        }
+    }
+
+    private record CacheKey(String template, List<String> values) {
+    }
+}